@@ -4,20 +4,27 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.inject.Inject;
 
 import org.infinispan.Cache;
 import org.infinispan.manager.CacheContainer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 
 /**
  * Abstract base cache for all entity caches
@@ -29,6 +36,8 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 public abstract class AbstractCache <K, V> implements Serializable {
   
   private static final long serialVersionUID = 4458370063943309700L;
+  
+  private static final int DEFAULT_NEAR_CACHE_SIZE = 500;
 
   @Inject
   private Logger logger;
@@ -36,36 +45,223 @@ public abstract class AbstractCache <K, V> implements Serializable {
   @Resource (lookup = "java:jboss/infinispan/container/kunta-api")
   private CacheContainer cacheContainer;
   
+  @Inject
+  private CacheCompressionController cacheCompressionController;
+  
+  private final transient Map<CacheCodecType, CacheCodec<V>> codecs = new ConcurrentHashMap<>();
+  
+  private transient NearCache<K, V> nearCache;
+  
+  private transient CacheEntryChangeListener<K> entryChangeListener;
+  
   public abstract String getCacheName();
+  
+  @PostConstruct
+  public void initCache() {
+    int nearCacheSize = getNearCacheSize();
+    if (nearCacheSize > 0) {
+      nearCache = new NearCache<>(getCacheName(), nearCacheSize);
+    }
+    
+    entryChangeListener = new CacheEntryChangeListener<>(this);
+    if (isEntryValueListened()) {
+      getCache().addListener(entryChangeListener);
+    } else {
+      getCache().addListener(entryChangeListener, null, new KeyOnlyEventConverter<K>());
+    }
+  }
+  
+  @PreDestroy
+  public void destroyCache() {
+    if (entryChangeListener != null) {
+      getCache().removeListener(entryChangeListener);
+    }
+  }
 
-  public Cache<K, String> getCache() {
+  public Cache<K, Object> getCache() {
     return cacheContainer.getCache(getCacheName());
   }
   
   /**
-   * Returns cached entity by id
+   * Returns whether cache contains an entry for given id without decoding it
+   * 
+   * @param id id
+   * @return whether cache contains an entry for given id
+   */
+  public boolean contains(K id) {
+    K cacheKey = getCacheKey(id);
+    if (cacheKey == null) {
+      return false;
+    }
+    
+    return getCache().containsKey(cacheKey);
+  }
+  
+  /**
+   * Returns cached entity by id. 
+   * 
+   * Returned entity may be shared with other callers through the near cache, so it must not 
+   * be modified. Use getCopy when the entity is going to be modified.
    * 
    * @param id entity id
    * @return cached api reposponse or null if non found
    */
   public V get(K id) {
-    Cache<K, String> cache = getCache();
-    if (cache.containsKey(id)) {
-      String rawData = cache.get(id);
-      if (rawData == null) {
-        logger.log(Level.SEVERE, String.format("Could not find data for id %s", id));
+    K cacheKey = getCacheKey(id);
+    if (cacheKey == null) {
+      return null;
+    }
+    
+    if (nearCache == null) {
+      return load(cacheKey);
+    }
+    
+    V value = nearCache.get(cacheKey);
+    if (value == null) {
+      long generation = nearCache.getGeneration(cacheKey);
+      value = load(cacheKey);
+      if (value == null) {
         return null;
       }
       
-      try {
-        return getObjectMapper().readValue(rawData, getTypeReference());
-      } catch (IOException e) {
-        cache.remove(id);
-        logger.log(Level.SEVERE, "Invalid serizalized object found from the cache. Dropped object", e);
+      nearCache.put(cacheKey, value, generation);
+    }
+    
+    return value;
+  }
+  
+  /**
+   * Returns a private copy of cached entity, which callers may modify freely
+   * 
+   * @param id entity id
+   * @return copy of cached entity or null if non found
+   */
+  public V getCopy(K id) {
+    V value = get(id);
+    if (value == null || nearCache == null) {
+      return value;
+    }
+    
+    return copy(value);
+  }
+  
+  /**
+   * Returns cached entities by ids in a single round trip to the cache. 
+   * 
+   * Ids that are not found from the cache are left out from the result.
+   * 
+   * @param ids entity ids
+   * @return cached entities in the order of ids
+   */
+  public List<V> getAll(Collection<K> ids) {
+    return new ArrayList<>(getAllAsMap(ids).values());
+  }
+  
+  /**
+   * Returns cached entities by ids in a single round trip to the cache. 
+   * 
+   * Ids that are not found from the cache are left out from the result. Returned entities 
+   * may be shared with other callers through the near cache, so they must not be modified.
+   * 
+   * @param ids entity ids
+   * @return map of cached entities by cache keys in the order of ids
+   */
+  public Map<K, V> getAllAsMap(Collection<K> ids) {
+    Map<K, V> result = new LinkedHashMap<>(ids.size());
+    Map<K, Long> missingGenerations = new LinkedHashMap<>();
+    
+    for (K cacheKey : getCacheKeys(ids)) {
+      V value = nearCache != null ? nearCache.get(cacheKey) : null;
+      result.put(cacheKey, value);
+      if (value == null) {
+        missingGenerations.put(cacheKey, nearCache != null ? nearCache.getGeneration(cacheKey) : 0l);
       }
     }
     
-    return null;
+    if (!missingGenerations.isEmpty()) {
+      Cache<K, Object> cache = getCache();
+      Map<K, Object> rawValues = cache.getAdvancedCache().getAll(missingGenerations.keySet());
+      for (Map.Entry<K, Long> missingGeneration : missingGenerations.entrySet()) {
+        K cacheKey = missingGeneration.getKey();
+        Object rawData = rawValues.get(cacheKey);
+        V value = rawData != null ? decodeEntry(cache, cacheKey, rawData) : null;
+        if (value == null) {
+          result.remove(cacheKey);
+        } else {
+          result.put(cacheKey, value);
+          if (nearCache != null) {
+            nearCache.put(cacheKey, value, missingGeneration.getValue());
+          }
+        }
+      }
+    }
+    
+    return result;
+  }
+  
+  /**
+   * Returns cached entity as JSON without building the entity object
+   * 
+   * @param id entity id
+   * @return JSON value or null if not found
+   */
+  public RawJsonValue getJson(K id) {
+    K cacheKey = getCacheKey(id);
+    if (cacheKey == null) {
+      return null;
+    }
+    
+    V value = nearCache != null ? nearCache.get(cacheKey) : null;
+    if (value != null) {
+      return toJson(value);
+    }
+    
+    Cache<K, Object> cache = getCache();
+    Object rawData = cache.get(cacheKey);
+    if (rawData == null) {
+      return null;
+    }
+    
+    return toJson(cache, cacheKey, rawData);
+  }
+  
+  /**
+   * Returns cached entities as JSON in a single round trip to the cache.
+   * 
+   * Ids that are not found from the cache are left out from the result.
+   * 
+   * @param ids entity ids
+   * @return map of JSON values by cache keys in the order of ids
+   */
+  public Map<K, RawJsonValue> getAllJsonAsMap(Collection<K> ids) {
+    Map<K, RawJsonValue> result = new LinkedHashMap<>(ids.size());
+    Set<K> missingKeys = new LinkedHashSet<>();
+    
+    for (K cacheKey : getCacheKeys(ids)) {
+      V value = nearCache != null ? nearCache.get(cacheKey) : null;
+      if (value != null) {
+        result.put(cacheKey, toJson(value));
+      } else {
+        result.put(cacheKey, null);
+        missingKeys.add(cacheKey);
+      }
+    }
+    
+    if (!missingKeys.isEmpty()) {
+      Cache<K, Object> cache = getCache();
+      Map<K, Object> rawValues = cache.getAdvancedCache().getAll(missingKeys);
+      for (K cacheKey : missingKeys) {
+        Object rawData = rawValues.get(cacheKey);
+        RawJsonValue json = rawData != null ? toJson(cache, cacheKey, rawData) : null;
+        if (json == null) {
+          result.remove(cacheKey);
+        } else {
+          result.put(cacheKey, json);
+        }
+      }
+    }
+    
+    return result;
   }
   
   /**
@@ -75,10 +271,18 @@ public abstract class AbstractCache <K, V> implements Serializable {
    * @param response
    */
   public void put(K id, V response) {
-    Cache<K, String> cache = getCache();
+    K cacheKey = getCacheKey(id);
+    if (cacheKey == null) {
+      logger.log(Level.SEVERE, String.format("Could not resolve cache key for %s", id));
+      return;
+    }
+    
+    Cache<K, Object> cache = getCache();
     try {
-      cache.put(id, getObjectMapper().writeValueAsString(response));
-    } catch (JsonProcessingException e) {
+      cache.put(cacheKey, encode(response));
+      invalidateNearCache(cacheKey);
+      onLocalWrite(cacheKey);
+    } catch (IOException e) {
       logger.log(Level.SEVERE, "Failed to serialize response into cache", e);
     }
   }
@@ -89,7 +293,7 @@ public abstract class AbstractCache <K, V> implements Serializable {
    * @return  all cached ids
    */
   public Set<K> getIds() {
-    Cache<K, String> cache = getCache();
+    Cache<K, Object> cache = getCache();
     return cache.keySet();
   }
   
@@ -99,8 +303,23 @@ public abstract class AbstractCache <K, V> implements Serializable {
    * @param id entity id
    */
   public void clear(K id) {
-    Cache<K, String> cache = getCache();
+    Cache<K, Object> cache = getCache();
     cache.remove(id);
+    invalidateNearCache(id);
+    onLocalWrite(id);
+  }
+  
+  /**
+   * Returns near cache statistics
+   * 
+   * @return near cache statistics or null if near cache is disabled
+   */
+  public NearCacheStatistics getNearCacheStatistics() {
+    if (nearCache == null) {
+      return null;
+    }
+    
+    return nearCache.getStatistics();
   }
   
   protected Type[] getParameterizedTypes() {
@@ -112,21 +331,248 @@ public abstract class AbstractCache <K, V> implements Serializable {
     return new Type[0];
   }
   
-  private ObjectMapper getObjectMapper() {
-    ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.registerModule(new JavaTimeModule());
-    return objectMapper;
+  /**
+   * Returns key that is used to store the entity in the cache
+   * 
+   * @param id entity id
+   * @return cache key or null if key could not be resolved
+   */
+  protected K getCacheKey(K id) {
+    return id;
+  }
+  
+  /**
+   * Invoked on the writing node after an entry has been put into or cleared from the cache
+   * 
+   * @param id cache key
+   */
+  protected void onLocalWrite(K id) {
+    // Caches may override this to track writes
+  }
+  
+  /**
+   * Returns whether cache is included in disk snapshots
+   * 
+   * @return whether cache is included in disk snapshots
+   */
+  public boolean isSnapshotted() {
+    return true;
+  }
+  
+  /**
+   * Returns whether entry change events need the stored value. 
+   * 
+   * When false, values are dropped from the events on the owning node so that only keys are 
+   * sent to listening nodes, and onEntryWritten receives null as the stored value.
+   * 
+   * @return whether entry change events need the stored value
+   */
+  protected boolean isEntryValueListened() {
+    return false;
+  }
+  
+  /**
+   * Invoked when an entry has been created or modified on any node of the cluster
+   * 
+   * @param id entity id
+   * @param rawData stored value or null if values are not listened
+   */
+  protected void onEntryWritten(K id, Object rawData) {
+    invalidateNearCache(id);
+  }
+  
+  /**
+   * Invoked when an entry has been removed or expired on any node of the cluster
+   * 
+   * @param id entity id
+   */
+  protected void onEntryRemoved(K id) {
+    invalidateNearCache(id);
   }
   
-  private TypeReference<V> getTypeReference() {    
-    final Type[] parameterizedTypes = getParameterizedTypes();
+  /**
+   * Decodes a stored value without touching the cache
+   * 
+   * @param rawData stored value
+   * @return decoded value or null if value could not be decoded
+   */
+  protected V decodeValue(Object rawData) {
+    if (rawData == null) {
+      return null;
+    }
+    
+    try {
+      return decodeRaw(rawData);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to decode cached value", e);
+    }
     
-    return new TypeReference<V>() {
-      @Override
-      public Type getType() {
-        return parameterizedTypes[parameterizedTypes.length - 1];
+    return null;
+  }
+  
+  /**
+   * Returns default size in bytes from which encoded values are stored deflated. 
+   * 
+   * Caches holding large text content should override this; compression is disabled by default. 
+   * The default can be overridden with system setting cache-compression.[cache name].threshold.
+   * 
+   * @return compression threshold or negative number to disable compression
+   */
+  protected int getCompressionThreshold() {
+    return -1;
+  }
+  
+  /**
+   * Returns maximum number of deserialized entities kept in the per-node near cache. 
+   * 
+   * Returning zero disables the near cache.
+   * 
+   * @return maximum near cache size
+   */
+  protected int getNearCacheSize() {
+    return DEFAULT_NEAR_CACHE_SIZE;
+  }
+  
+  /**
+   * Returns codec used for writing values into the cache. 
+   * 
+   * Values written with other codecs remain readable and are rewritten with this codec when read.
+   * 
+   * @return codec type
+   */
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.JSON;
+  }
+  
+  private V load(K id) {
+    Cache<K, Object> cache = getCache();
+    Object rawData = cache.get(id);
+    if (rawData == null) {
+      return null;
+    }
+    
+    return decodeEntry(cache, id, rawData);
+  }
+  
+  private List<K> getCacheKeys(Collection<K> ids) {
+    List<K> result = new ArrayList<>(ids.size());
+    for (K id : ids) {
+      K cacheKey = getCacheKey(id);
+      if (cacheKey != null) {
+        result.add(cacheKey);
       }
-    };
+    }
+    
+    return result;
+  }
+  
+  private RawJsonValue toJson(V value) {
+    CacheCodec<V> codec = getCodec(getCodecType());
+    return generator -> codec.writeJson(value, generator);
+  }
+  
+  private RawJsonValue toJson(Cache<K, Object> cache, K id, Object rawData) {
+    if (rawData instanceof byte[]) {
+      CacheEnvelope envelope = CacheEnvelope.unwrap((byte[]) rawData);
+      if (envelope != null) {
+        CacheCodec<V> codec = getCodec(envelope.getCodecType());
+        return generator -> envelope.transcodeJson(codec, generator);
+      }
+    }
+    
+    // Legacy entries are decoded normally, which also migrates them into the current format
+    V value = decodeEntry(cache, id, rawData);
+    if (value == null) {
+      return null;
+    }
+    
+    return toJson(value);
+  }
+  
+  private V decodeEntry(Cache<K, Object> cache, K id, Object rawData) {
+    try {
+      return decode(cache, id, rawData);
+    } catch (IOException e) {
+      cache.remove(id);
+      logger.log(Level.SEVERE, "Invalid serizalized object found from the cache. Dropped object", e);
+    }
+    
+    return null;
+  }
+  
+  private V copy(V value) {
+    try {
+      return getCodec(getCodecType()).copy(value);
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Failed to copy cached object", e);
+    }
+    
+    return null;
+  }
+  
+  private void invalidateNearCache(K id) {
+    if (nearCache != null) {
+      nearCache.invalidate(id);
+    }
+  }
+  
+  private byte[] encode(V value) throws IOException {
+    CacheCodec<V> codec = getCodec(getCodecType());
+    byte[] payload = codec.encode(value);
+    byte[] compressed = cacheCompressionController.compress(getCacheName(), payload, getCompressionThreshold());
+    if (compressed != null) {
+      return CacheEnvelope.wrap(codec.getType(), compressed, true);
+    }
+    
+    return CacheEnvelope.wrap(codec.getType(), payload);
+  }
+  
+  private V decode(Cache<K, Object> cache, K id, Object rawData) throws IOException {
+    V value = decodeRaw(rawData);
+    if (needsMigration(rawData)) {
+      migrate(cache, id, rawData, value);
+    }
+    
+    return value;
+  }
+  
+  private V decodeRaw(Object rawData) throws IOException {
+    if (rawData instanceof String) {
+      // Entries written before codecs were introduced are stored as plain JSON strings
+      byte[] legacyData = ((String) rawData).getBytes(StandardCharsets.UTF_8);
+      return getCodec(CacheCodecType.JSON).decode(legacyData, 0, legacyData.length);
+    }
+    
+    if (rawData instanceof byte[]) {
+      CacheEnvelope envelope = CacheEnvelope.unwrap((byte[]) rawData);
+      if (envelope != null) {
+        return envelope.decode(getCodec(envelope.getCodecType()));
+      }
+    }
+    
+    throw new IOException(String.format("Unsupported cache entry type %s", rawData.getClass().getName()));
+  }
+  
+  private boolean needsMigration(Object rawData) {
+    if (rawData instanceof byte[]) {
+      CacheCodecType codecType = CacheEnvelope.peekCodecType((byte[]) rawData);
+      return codecType != null && codecType != getCodecType();
+    }
+    
+    return true;
+  }
+  
+  private void migrate(Cache<K, Object> cache, K id, Object oldData, V value) throws IOException {
+    cache.replace(id, oldData, encode(value));
+  }
+  
+  private CacheCodec<V> getCodec(CacheCodecType codecType) {
+    return codecs.computeIfAbsent(codecType, type -> type.createCodec(TypeFactory.defaultInstance().constructType(getValueType())));
+  }
+  
+  private Type getValueType() {
+    Type[] parameterizedTypes = getParameterizedTypes();
+    return parameterizedTypes[parameterizedTypes.length - 1];
   }
   
 }
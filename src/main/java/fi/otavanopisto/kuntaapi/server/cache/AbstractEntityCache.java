@@ -4,8 +4,11 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import fi.otavanopisto.kuntaapi.server.id.BaseId;
@@ -21,14 +24,24 @@ public abstract class AbstractEntityCache<K extends BaseId, V> extends AbstractC
   @Inject
   private IdController idController;
   
-  @Override
-  public void put(K id, V response) {
-    super.put(getCacheId(id), response);
-  }
+  @Inject
+  private CollectionVersionCache collectionVersionCache;
   
-  @Override
-  public V get(K id) {
-    return super.get(getCacheId(id));
+  private final transient Map<OrganizationId, Set<K>> organizationIndex = new ConcurrentHashMap<>();
+  
+  /**
+   * Builds organization index from ids already in the store. 
+   * 
+   * Changes made after this are tracked through cache entry listener, so the index follows 
+   * entries written on other nodes and is not affected by rebalancing.
+   */
+  @PostConstruct
+  public void initOrganizationIndex() {
+    if (isOrganizationBaseType()) {
+      for (K id : getIds()) {
+        addToOrganizationIndex(id);
+      }
+    }
   }
   
   public List<K> getOragnizationIds(OrganizationId organizationId) {
@@ -36,26 +49,76 @@ public abstract class AbstractEntityCache<K extends BaseId, V> extends AbstractC
       return Collections.emptyList();  
     }
     
-    Set<K> ids = getIds();
-    
-    OrganizationId kuntaApiOrganizationId = idController.translateOrganizationId(organizationId, KuntaApiConsts.IDENTIFIER_NAME);
+    OrganizationId kuntaApiOrganizationId = getKuntaApiOrganizationId(organizationId);
+    if (kuntaApiOrganizationId == null) {
+      return Collections.emptyList();
+    }
     
-    List<K> result = new ArrayList<>(ids.size());
-    for (K id : ids) {
-      OrganizationBaseId organizationBaseId = (OrganizationBaseId) id;
-      if (organizationBaseId.getOrganizationId().equals(kuntaApiOrganizationId)) {
-        result.add(id);
-      }
+    Set<K> ids = organizationIndex.get(kuntaApiOrganizationId);
+    if (ids == null) {
+      return Collections.emptyList();
     }
     
-    return result;
+    return new ArrayList<>(ids);
+  }
+  
+  /**
+   * Translates organization id into the form used in cache keys
+   * 
+   * @param organizationId organization id
+   * @return Kunta API organization id or null if translation fails
+   */
+  protected OrganizationId getKuntaApiOrganizationId(OrganizationId organizationId) {
+    return idController.translateOrganizationId(organizationId, KuntaApiConsts.IDENTIFIER_NAME);
   }
   
+  @Override
+  protected void onEntryWritten(K id, Object rawData) {
+    super.onEntryWritten(id, rawData);
+    if (isOrganizationBaseType()) {
+      addToOrganizationIndex(id);
+    }
+  }
+  
+  @Override
+  protected void onLocalWrite(K id) {
+    super.onLocalWrite(id);
+    if (isOrganizationBaseType()) {
+      collectionVersionCache.bump(getCacheName(), ((OrganizationBaseId) id).getOrganizationId());
+    }
+  }
+  
+  @Override
+  protected void onEntryRemoved(K id) {
+    super.onEntryRemoved(id);
+    if (isOrganizationBaseType()) {
+      removeFromOrganizationIndex(id);
+    }
+  }
+  
+  private void addToOrganizationIndex(K id) {
+    OrganizationId organizationId = ((OrganizationBaseId) id).getOrganizationId();
+    organizationIndex.compute(organizationId, (key, ids) -> {
+      Set<K> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+      result.add(id);
+      return result;
+    });
+  }
+  
+  private void removeFromOrganizationIndex(K id) {
+    OrganizationId organizationId = ((OrganizationBaseId) id).getOrganizationId();
+    organizationIndex.computeIfPresent(organizationId, (key, ids) -> {
+      ids.remove(id);
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+  
+  @Override
   @SuppressWarnings("unchecked")
-  private K getCacheId(K id) {
+  protected K getCacheKey(K id) {
     K cacheId = (K) idController.translateId(id, KuntaApiConsts.IDENTIFIER_NAME);
     
-    if (id instanceof OrganizationBaseId) {
+    if (cacheId instanceof OrganizationBaseId) {
       OrganizationBaseId organizationBaseId = (OrganizationBaseId) cacheId;
       organizationBaseId.setOrganizationId(idController.translateOrganizationId(organizationBaseId.getOrganizationId(), KuntaApiConsts.IDENTIFIER_NAME));
     } 
@@ -63,7 +126,7 @@ public abstract class AbstractEntityCache<K extends BaseId, V> extends AbstractC
     return cacheId;
   }
   
-  private boolean isOrganizationBaseType() {
+  protected boolean isOrganizationBaseType() {
     Type[] parameterizedTypes = getParameterizedTypes();
     return OrganizationBaseId.class.isAssignableFrom((Class<?>) parameterizedTypes[0]);
   }
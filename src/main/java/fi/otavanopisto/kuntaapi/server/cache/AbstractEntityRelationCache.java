@@ -1,9 +1,13 @@
 package fi.otavanopisto.kuntaapi.server.cache;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 import fi.otavanopisto.kuntaapi.server.id.BaseId;
@@ -19,32 +23,85 @@ public abstract class AbstractEntityRelationCache <P extends BaseId, C extends B
   @Inject
   private IdController idController;
   
-  @Override
-  public void put(IdPair<P, C> id, V response) {
-    super.put(createCacheKey(id), response);
-  }
+  private final transient Map<P, Set<IdPair<P, C>>> childIndex = new ConcurrentHashMap<>();
   
-  @Override
-  public V get(IdPair<P, C> id) {
-    return super.get(createCacheKey(id));
+  /**
+   * Builds parent to children index from ids already in the store
+   */
+  @PostConstruct
+  public void initChildIndex() {
+    for (IdPair<P, C> id : getIds()) {
+      addToChildIndex(id);
+    }
   }
-
+  
+  @SuppressWarnings("unchecked")
   public List<IdPair<P, C>> getChildIds(P parentId) {
-    Set<IdPair<P, C>> ids = getIds();
-    List<IdPair<P, C>> result = new ArrayList<>();
+    P kuntaApiParentId = (P) translateId(parentId);
+    if (kuntaApiParentId == null) {
+      return Collections.emptyList();
+    }
     
-    for (IdPair<P, C> id : ids) {
-      if (id.parentEquals(parentId)) {
-        result.add(id);
-      }
+    Set<IdPair<P, C>> ids = childIndex.get(kuntaApiParentId);
+    if (ids == null) {
+      return Collections.emptyList();
     }
     
-    return result;
+    return new ArrayList<>(ids);
+  }
+  
+  /**
+   * Returns all cached children of a parent
+   * 
+   * @param parentId parent id
+   * @return cached children
+   */
+  public List<V> listChildren(P parentId) {
+    List<IdPair<P, C>> childIds = getChildIds(parentId);
+    if (childIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    
+    return getAll(childIds);
   }
   
+  @Override
+  protected void onEntryWritten(IdPair<P, C> id, Object rawData) {
+    super.onEntryWritten(id, rawData);
+    addToChildIndex(id);
+  }
+  
+  @Override
+  protected void onEntryRemoved(IdPair<P, C> id) {
+    super.onEntryRemoved(id);
+    removeFromChildIndex(id);
+  }
+  
+  private void addToChildIndex(IdPair<P, C> id) {
+    childIndex.compute(id.getParent(), (key, ids) -> {
+      Set<IdPair<P, C>> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+      result.add(id);
+      return result;
+    });
+  }
+  
+  private void removeFromChildIndex(IdPair<P, C> id) {
+    childIndex.computeIfPresent(id.getParent(), (key, ids) -> {
+      ids.remove(id);
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+  
+  @Override
   @SuppressWarnings("unchecked")
-  private IdPair<P, C> createCacheKey(IdPair<P, C> pair) {
-    return new IdPair<>((P) translateId((BaseId) pair.getParent()), (C) translateId((BaseId) pair.getChild()));
+  protected IdPair<P, C> getCacheKey(IdPair<P, C> pair) {
+    P parentId = (P) translateId(pair.getParent());
+    C childId = (C) translateId(pair.getChild());
+    if (parentId == null || childId == null) {
+      return null;
+    }
+    
+    return new IdPair<>(parentId, childId);
   }
   
   private BaseId translateId(BaseId id) {
@@ -0,0 +1,74 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Base class for Jackson based cache codecs. 
+ * 
+ * Readers and writers are immutable so they are created once per codec and shared between threads. 
+ * Dates are written in the same ISO format that the REST API uses so stored values can be passed 
+ * through to clients as they are.
+ * 
+ * @author Antti Leppä
+ *
+ * @param <V> value type
+ */
+public abstract class AbstractJacksonCacheCodec <V> implements CacheCodec<V> {
+  
+  private final ObjectMapper objectMapper;
+  private final ObjectReader reader;
+  private final ObjectWriter writer;
+  
+  protected AbstractJacksonCacheCodec(ObjectMapper objectMapper, JavaType valueType) {
+    objectMapper.registerModule(new JavaTimeModule());
+    objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    this.objectMapper = objectMapper;
+    this.reader = objectMapper.readerFor(valueType);
+    this.writer = objectMapper.writerFor(valueType);
+  }
+
+  @Override
+  public byte[] encode(V value) throws IOException {
+    return writer.writeValueAsBytes(value);
+  }
+  
+  @Override
+  public V decode(byte[] data, int offset, int length) throws IOException {
+    return reader.readValue(data, offset, length);
+  }
+  
+  @Override
+  public V copy(V value) throws IOException {
+    if (value == null || value instanceof String) {
+      return value;
+    }
+    
+    TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+    writer.writeValue(buffer, value);
+    return reader.readValue(buffer.asParser());
+  }
+  
+  @Override
+  public void writeJson(V value, JsonGenerator generator) throws IOException {
+    writer.writeValue(generator, value);
+  }
+  
+  @Override
+  public void transcodeJson(byte[] data, int offset, int length, JsonGenerator generator) throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(data, offset, length)) {
+      parser.nextToken();
+      generator.copyCurrentStructure(parser);
+    }
+  }
+  
+}
@@ -0,0 +1,120 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationBaseId;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+
+/**
+ * Entity cache that keeps organization entities ordered by a timestamp, so that
+ * listings can be served from a ready-made order instead of sorting on every request.
+ * 
+ * @param <K> id type
+ * @param <V> value type
+ */
+public abstract class AbstractSortedEntityCache<K extends BaseId, V> extends AbstractEntityCache<K, V> {
+  
+  private static final long serialVersionUID = -3092616733402874468L;
+  
+  private final transient Map<OrganizationId, SortedIdIndex<K>> sortedIndex = new ConcurrentHashMap<>();
+  
+  /**
+   * Returns sort key for a value
+   * 
+   * @param value value
+   * @return sort key or null if value does not have one
+   */
+  protected abstract OffsetDateTime getSortKey(V value);
+  
+  @PostConstruct
+  public void initSortedIndex() {
+    if (isOrganizationBaseType()) {
+      for (Map.Entry<K, Object> entry : getCache().entrySet()) {
+        addToSortedIndex(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+  
+  /**
+   * Lists organization entity ids ordered by sort key
+   * 
+   * @param organizationId organization id
+   * @param from inclusive lower bound or null for unbounded
+   * @param to inclusive upper bound or null for unbounded
+   * @param descending whether to list newest first
+   * @param firstResult index of first listed id or null for the first
+   * @param maxResults max number of listed ids or null for all
+   * @return ids
+   */
+  public List<K> getSortedOrganizationIds(OrganizationId organizationId, OffsetDateTime from, OffsetDateTime to, boolean descending, Integer firstResult, Integer maxResults) {
+    if (!isOrganizationBaseType()) {
+      return Collections.emptyList();  
+    }
+    
+    OrganizationId kuntaApiOrganizationId = getKuntaApiOrganizationId(organizationId);
+    if (kuntaApiOrganizationId == null) {
+      return Collections.emptyList();
+    }
+    
+    SortedIdIndex<K> index = sortedIndex.get(kuntaApiOrganizationId);
+    if (index == null) {
+      return Collections.emptyList();
+    }
+    
+    return index.list(toInstant(from), toInstant(to), descending, firstResult, maxResults);
+  }
+  
+  @Override
+  protected boolean isEntryValueListened() {
+    // Sort keys are read from the stored values
+    return true;
+  }
+  
+  @Override
+  protected void onEntryWritten(K id, Object rawData) {
+    super.onEntryWritten(id, rawData);
+    if (isOrganizationBaseType()) {
+      addToSortedIndex(id, rawData);
+    }
+  }
+  
+  @Override
+  protected void onEntryRemoved(K id) {
+    super.onEntryRemoved(id);
+    if (isOrganizationBaseType()) {
+      removeFromSortedIndex(id);
+    }
+  }
+  
+  private void addToSortedIndex(K id, Object rawData) {
+    V value = decodeValue(rawData);
+    if (value == null) {
+      return;
+    }
+    
+    Instant sortKey = toInstant(getSortKey(value));
+    OrganizationId organizationId = ((OrganizationBaseId) id).getOrganizationId();
+    sortedIndex.computeIfAbsent(organizationId, key -> new SortedIdIndex<>()).put(id, sortKey);
+  }
+  
+  private void removeFromSortedIndex(K id) {
+    OrganizationId organizationId = ((OrganizationBaseId) id).getOrganizationId();
+    sortedIndex.computeIfPresent(organizationId, (key, index) -> {
+      index.remove(id);
+      return index.isEmpty() ? null : index;
+    });
+  }
+  
+  private Instant toInstant(OffsetDateTime dateTime) {
+    return dateTime != null ? dateTime.toInstant() : null;
+  }
+  
+}
@@ -9,10 +9,17 @@ import fi.otavanopisto.kuntaapi.server.rest.model.Banner;
 public class BannerCache extends AbstractEntityCache<BannerId, Banner> {
 
   private static final long serialVersionUID = 6513524099128842893L;
+  
+  public static final String CACHE_NAME = "banners";
 
   @Override
   public String getCacheName() {
-    return "banners";
+    return CACHE_NAME;
+  }
+  
+  @Override
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.SMILE;
   }
   
 }
@@ -0,0 +1,72 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Codec for converting cached values into binary form and back
+ * 
+ * @author Antti Leppä
+ *
+ * @param <V> value type
+ */
+public interface CacheCodec <V> {
+  
+  /**
+   * Returns codec type
+   * 
+   * @return codec type
+   */
+  public CacheCodecType getType();
+
+  /**
+   * Encodes a value into bytes
+   * 
+   * @param value value
+   * @return encoded value
+   * @throws IOException when encoding fails
+   */
+  public byte[] encode(V value) throws IOException;
+
+  /**
+   * Decodes a value from bytes
+   * 
+   * @param data buffer containing the encoded value
+   * @param offset offset of the encoded value in the buffer
+   * @param length length of the encoded value
+   * @return decoded value
+   * @throws IOException when decoding fails
+   */
+  public V decode(byte[] data, int offset, int length) throws IOException;
+  
+  /**
+   * Creates a deep copy of a value
+   * 
+   * @param value value
+   * @return copy of the value
+   * @throws IOException when copying fails
+   */
+  public V copy(V value) throws IOException;
+  
+  /**
+   * Writes a value as JSON
+   * 
+   * @param value value
+   * @param generator JSON generator
+   * @throws IOException when writing fails
+   */
+  public void writeJson(V value, JsonGenerator generator) throws IOException;
+  
+  /**
+   * Copies an encoded value as JSON token by token without decoding it into an object
+   * 
+   * @param data buffer containing the encoded value
+   * @param offset offset of the encoded value in the buffer
+   * @param length length of the encoded value
+   * @param generator JSON generator
+   * @throws IOException when transcoding fails
+   */
+  public void transcodeJson(byte[] data, int offset, int length, JsonGenerator generator) throws IOException;
+  
+}
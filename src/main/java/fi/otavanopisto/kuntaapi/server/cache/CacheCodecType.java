@@ -0,0 +1,60 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * Enumeration of supported cache codecs. 
+ * 
+ * Codec ids are written into stored values so existing ids must never be changed.
+ * 
+ * @author Antti Leppä
+ */
+public enum CacheCodecType {
+  
+  JSON ((byte) 1),
+  
+  SMILE ((byte) 2);
+  
+  private final byte id;
+  
+  private CacheCodecType(byte id) {
+    this.id = id;
+  }
+  
+  public byte getId() {
+    return id;
+  }
+  
+  /**
+   * Creates new codec instance for given value type
+   * 
+   * @param valueType value type
+   * @return codec
+   */
+  public <V> CacheCodec<V> createCodec(JavaType valueType) {
+    switch (this) {
+      case SMILE:
+        return new SmileCacheCodec<>(valueType);
+      case JSON:
+      default:
+        return new JsonCacheCodec<>(valueType);
+    }
+  }
+  
+  /**
+   * Returns codec type by id 
+   * 
+   * @param id codec id
+   * @return codec type or null if not found
+   */
+  public static CacheCodecType fromId(byte id) {
+    for (CacheCodecType type : values()) {
+      if (type.getId() == id) {
+        return type;
+      }
+    }
+    
+    return null;
+  }
+  
+}
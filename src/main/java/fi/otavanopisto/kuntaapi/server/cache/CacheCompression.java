@@ -0,0 +1,79 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate helpers for compressing cached values
+ * 
+ * @author Antti Leppä
+ */
+public class CacheCompression {
+  
+  private static final int BUFFER_SIZE = 8192;
+  
+  private CacheCompression() {
+  }
+  
+  /**
+   * Deflates given data
+   * 
+   * @param data data
+   * @return deflated data
+   */
+  public static byte[] deflate(byte[] data) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      
+      ByteArrayOutputStream result = new ByteArrayOutputStream(Math.max(data.length / 4, 64));
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!deflater.finished()) {
+        int count = deflater.deflate(buffer);
+        result.write(buffer, 0, count);
+      }
+      
+      return result.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+  
+  /**
+   * Inflates given data
+   * 
+   * @param data deflated data
+   * @param offset offset of deflated data
+   * @param length length of deflated data
+   * @return inflated data
+   * @throws IOException when data is not valid deflate stream
+   */
+  public static byte[] inflate(byte[] data, int offset, int length) throws IOException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(data, offset, length);
+      
+      ByteArrayOutputStream result = new ByteArrayOutputStream(length * 4);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!inflater.finished()) {
+        int count = inflater.inflate(buffer);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated deflate stream");
+        }
+        
+        result.write(buffer, 0, count);
+      }
+      
+      return result.toByteArray();
+    } catch (DataFormatException e) {
+      throw new IOException("Invalid deflate stream", e);
+    } finally {
+      inflater.end();
+    }
+  }
+  
+}
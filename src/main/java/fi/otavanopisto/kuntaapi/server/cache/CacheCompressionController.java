@@ -0,0 +1,103 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
+/**
+ * Compresses cache values above configured threshold and keeps track of achieved compression. 
+ * 
+ * Thresholds can be configured per cache with system setting cache-compression.[cache name].threshold. 
+ * The setting is read when a cache is written into for the first time.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class CacheCompressionController {
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+  private final Map<String, Integer> thresholds = new ConcurrentHashMap<>();
+  
+  /**
+   * Compresses data if it is at least threshold bytes long and compression makes it smaller
+   * 
+   * @param cacheName name of the cache
+   * @param data data
+   * @param defaultThreshold compression threshold used when the cache has no configured threshold. Negative number disables compression
+   * @return compressed data or null if data was not compressed
+   */
+  public byte[] compress(String cacheName, byte[] data, int defaultThreshold) {
+    int threshold = getThreshold(cacheName, defaultThreshold);
+    byte[] compressed = null;
+    if (threshold >= 0 && data.length >= threshold) {
+      compressed = CacheCompression.deflate(data);
+      if (compressed.length >= data.length) {
+        compressed = null;
+      }
+    }
+    
+    counters.computeIfAbsent(cacheName, name -> new Counter())
+      .record(data.length, compressed != null ? compressed.length : data.length, compressed != null);
+    
+    return compressed;
+  }
+  
+  /**
+   * Returns compression statistics of all caches that have been written into
+   * 
+   * @return compression statistics
+   */
+  public List<CompressionStatistics> getStatistics() {
+    List<CompressionStatistics> result = new ArrayList<>(counters.size());
+    for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+      result.add(entry.getValue().toStatistics(entry.getKey()));
+    }
+    
+    return result;
+  }
+  
+  private int getThreshold(String cacheName, int defaultThreshold) {
+    return thresholds.computeIfAbsent(cacheName, name -> {
+      String key = String.format(KuntaApiConsts.SYSTEM_SETTING_CACHE_COMPRESSION_THRESHOLD, name);
+      return NumberUtils.toInt(systemSettingController.getSettingValue(key), defaultThreshold);
+    });
+  }
+  
+  private static class Counter {
+    
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong compressedWrites = new AtomicLong();
+    private final AtomicLong originalBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    
+    public void record(int original, int stored, boolean compressed) {
+      writes.incrementAndGet();
+      if (compressed) {
+        compressedWrites.incrementAndGet();
+      }
+      
+      originalBytes.addAndGet(original);
+      storedBytes.addAndGet(stored);
+    }
+    
+    public CompressionStatistics toStatistics(String name) {
+      return new CompressionStatistics(name, writes.get(), compressedWrites.get(), originalBytes.get(), storedBytes.get());
+    }
+    
+  }
+  
+}
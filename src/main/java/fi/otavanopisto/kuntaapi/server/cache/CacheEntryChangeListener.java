@@ -0,0 +1,42 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+
+/**
+ * Clustered Infinispan listener that notifies a cache when its entries are changed on any node
+ * 
+ * @author Antti Leppä
+ *
+ * @param <K> key type
+ */
+@Listener (clustered = true)
+public class CacheEntryChangeListener <K> {
+  
+  private final AbstractCache<K, ?> cache;
+  
+  public CacheEntryChangeListener(AbstractCache<K, ?> cache) {
+    this.cache = cache;
+  }
+  
+  @CacheEntryCreated
+  @CacheEntryModified
+  public void onCacheEntryWritten(CacheEntryEvent<K, ?> event) {
+    if (!event.isPre()) {
+      cache.onEntryWritten(event.getKey(), event.getValue());
+    }
+  }
+  
+  @CacheEntryRemoved
+  @CacheEntryExpired
+  public void onCacheEntryRemoved(CacheEntryEvent<K, ?> event) {
+    if (!event.isPre()) {
+      cache.onEntryRemoved(event.getKey());
+    }
+  }
+
+}
@@ -0,0 +1,126 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Versioned envelope for encoded cache values. 
+ * 
+ * Envelope consists of two magic bytes, format version, codec id and the encoded payload. 
+ * Highest bit of the codec id byte marks a deflated payload.
+ * 
+ * @author Antti Leppä
+ */
+public class CacheEnvelope {
+  
+  public static final byte VERSION = 1;
+  
+  private static final byte MAGIC_1 = 'K';
+  private static final byte MAGIC_2 = 'A';
+  private static final int HEADER_LENGTH = 4;
+  private static final int COMPRESSED_FLAG = 0x80;
+  
+  private final CacheCodecType codecType;
+  private final byte[] data;
+  private final int offset;
+  
+  private CacheEnvelope(CacheCodecType codecType, byte[] data, int offset) {
+    this.codecType = codecType;
+    this.data = data;
+    this.offset = offset;
+  }
+  
+  public CacheCodecType getCodecType() {
+    return codecType;
+  }
+  
+  /**
+   * Decodes enveloped payload with given codec
+   * 
+   * @param codec codec
+   * @return decoded value
+   * @throws IOException when decoding fails
+   */
+  public <V> V decode(CacheCodec<V> codec) throws IOException {
+    return codec.decode(data, offset, data.length - offset);
+  }
+  
+  /**
+   * Writes enveloped payload as JSON with given codec
+   * 
+   * @param codec codec
+   * @param generator JSON generator
+   * @throws IOException when transcoding fails
+   */
+  public void transcodeJson(CacheCodec<?> codec, JsonGenerator generator) throws IOException {
+    codec.transcodeJson(data, offset, data.length - offset, generator);
+  }
+  
+  /**
+   * Wraps encoded payload into an envelope
+   * 
+   * @param codecType codec used to encode the payload
+   * @param payload payload
+   * @return enveloped data
+   */
+  public static byte[] wrap(CacheCodecType codecType, byte[] payload) {
+    return wrap(codecType, payload, false);
+  }
+  
+  /**
+   * Wraps encoded payload into an envelope
+   * 
+   * @param codecType codec used to encode the payload
+   * @param payload payload
+   * @param compressed whether payload is deflated
+   * @return enveloped data
+   */
+  public static byte[] wrap(CacheCodecType codecType, byte[] payload, boolean compressed) {
+    byte[] result = new byte[HEADER_LENGTH + payload.length];
+    result[0] = MAGIC_1;
+    result[1] = MAGIC_2;
+    result[2] = VERSION;
+    result[3] = (byte) (compressed ? codecType.getId() | COMPRESSED_FLAG : codecType.getId());
+    System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+    return result;
+  }
+  
+  /**
+   * Unwraps enveloped data
+   * 
+   * @param data enveloped data
+   * @return envelope or null if data is not a valid envelope
+   */
+  public static CacheEnvelope unwrap(byte[] data) {
+    CacheCodecType codecType = peekCodecType(data);
+    if (codecType == null) {
+      return null;
+    }
+    
+    if ((data[3] & COMPRESSED_FLAG) != 0) {
+      try {
+        return new CacheEnvelope(codecType, CacheCompression.inflate(data, HEADER_LENGTH, data.length - HEADER_LENGTH), 0);
+      } catch (IOException e) {
+        return null;
+      }
+    }
+    
+    return new CacheEnvelope(codecType, data, HEADER_LENGTH);
+  }
+  
+  /**
+   * Returns codec type of enveloped data without unwrapping the payload
+   * 
+   * @param data enveloped data
+   * @return codec type or null if data is not a valid envelope
+   */
+  public static CacheCodecType peekCodecType(byte[] data) {
+    if (data == null || data.length < HEADER_LENGTH || data[0] != MAGIC_1 || data[1] != MAGIC_2 || data[2] != VERSION) {
+      return null;
+    }
+    
+    return CacheCodecType.fromId((byte) (data[3] & ~COMPRESSED_FLAG));
+  }
+  
+}
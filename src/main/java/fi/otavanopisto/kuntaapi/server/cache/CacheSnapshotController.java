@@ -0,0 +1,206 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+
+import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.IdMap;
+import fi.otavanopisto.kuntaapi.server.id.IdPair;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
+
+/**
+ * Controller for writing node local cache snapshots into disk and restoring them on startup. 
+ * 
+ * Snapshots are restored only into caches that are empty in the whole cluster, i.e. when the 
+ * cluster starts cold. A node joining a running cluster never writes its possibly stale snapshot 
+ * into the clustered caches. Entries keyed by Kunta API ids whose identifiers no longer exist 
+ * are not restored, so entities removed while the node was down stay removed.
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class CacheSnapshotController {
+  
+  private static final String SNAPSHOT_EXTENSION = ".snapshot";
+  private static final String DATA_DIR_PROPERTY = "jboss.server.data.dir";
+  
+  @Inject
+  private Logger logger;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  @Inject
+  private IdMap idMap;
+  
+  @Inject
+  @Any
+  private Instance<AbstractCache<?, ?>> caches;
+  
+  private boolean restored;
+  
+  /**
+   * Returns whether snapshots are enabled
+   * 
+   * @return whether snapshots are enabled
+   */
+  public boolean isEnabled() {
+    return !SystemUtils.inTestMode() && getSnapshotDirectory() != null;
+  }
+  
+  /**
+   * Restores cache snapshots. Snapshots are restored only once, subsequent calls do nothing.
+   */
+  public synchronized void restoreSnapshots() {
+    if (restored || !isEnabled()) {
+      return;
+    }
+    
+    restored = true;
+    
+    File directory = getSnapshotDirectory();
+    long startTime = System.currentTimeMillis();
+    int restoredCount = 0;
+    
+    Iterator<AbstractCache<?, ?>> iterator = caches.iterator();
+    while (iterator.hasNext()) {
+      AbstractCache<?, ?> cache = iterator.next();
+      if (cache.isSnapshotted()) {
+        restoredCount += restoreSnapshot(directory, cache);
+      }
+    }
+    
+    logger.info(String.format("Restored %d cache entries from snapshots in %d ms", restoredCount, System.currentTimeMillis() - startTime));
+  }
+  
+  /**
+   * Writes snapshots of entries stored in this node
+   */
+  public void writeSnapshots() {
+    if (!isEnabled()) {
+      return;
+    }
+    
+    File directory = getSnapshotDirectory();
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      logger.severe(String.format("Failed to create cache snapshot directory %s", directory));
+      return;
+    }
+    
+    // Modification hashes are written before the entities they describe. A hash snapshot 
+    // older than the entity snapshot only causes an extra cache write on the next update, 
+    // while a newer one would make updaters skip entities restored in stale state.
+    
+    List<AbstractCache<?, ?>> entityCaches = new ArrayList<>();
+    Iterator<AbstractCache<?, ?>> iterator = caches.iterator();
+    while (iterator.hasNext()) {
+      AbstractCache<?, ?> cache = iterator.next();
+      if (cache.isSnapshotted()) {
+        if (cache instanceof ModificationHashCache) {
+          writeSnapshot(directory, cache);
+        } else {
+          entityCaches.add(cache);
+        }
+      }
+    }
+    
+    for (AbstractCache<?, ?> cache : entityCaches) {
+      writeSnapshot(directory, cache);
+    }
+  }
+  
+  @SuppressWarnings("unchecked")
+  private int restoreSnapshot(File directory, AbstractCache<?, ?> abstractCache) {
+    String cacheName = abstractCache.getCacheName();
+    CacheSnapshotFile snapshotFile = new CacheSnapshotFile(new File(directory, cacheName + SNAPSHOT_EXTENSION));
+    if (!snapshotFile.exists()) {
+      return 0;
+    }
+    
+    Cache<Object, Object> cache = (Cache<Object, Object>) (Cache<?, ?>) abstractCache.getCache();
+    if (!cache.isEmpty()) {
+      logger.info(String.format("Cache %s is already populated in the cluster, skipping snapshot restore", cacheName));
+      return 0;
+    }
+    
+    Map<Object, Object> entries;
+    try {
+      entries = snapshotFile.read(cacheName);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, String.format("Discarding unreadable snapshot of cache %s", cacheName), e);
+      return 0;
+    }
+    
+    boolean hashKeys = abstractCache instanceof ModificationHashCache;
+    int count = 0;
+    for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+      if (isIdentified(entry.getKey(), hashKeys) && cache.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+        count++;
+      }
+    }
+    
+    return count;
+  }
+
+  private boolean isIdentified(Object key, boolean hashKey) {
+    if (hashKey) {
+      return idMap.containsKuntaApiId((String) key);
+    }
+    
+    if (key instanceof IdPair) {
+      IdPair<?, ?> idPair = (IdPair<?, ?>) key;
+      return isIdentified(idPair.getParent(), false) && isIdentified(idPair.getChild(), false);
+    }
+    
+    if (key instanceof BaseId) {
+      BaseId id = (BaseId) key;
+      return !KuntaApiConsts.IDENTIFIER_NAME.equals(id.getSource()) || idMap.containsKuntaApiId(id.getId());
+    }
+    
+    return true;
+  }
+
+  private void writeSnapshot(File directory, AbstractCache<?, ?> abstractCache) {
+    String cacheName = abstractCache.getCacheName();
+    CacheSnapshotFile snapshotFile = new CacheSnapshotFile(new File(directory, cacheName + SNAPSHOT_EXTENSION));
+    
+    try {
+      Cache<?, Object> localCache = abstractCache.getCache().getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD);
+      int count = snapshotFile.write(cacheName, localCache.entrySet());
+      logger.fine(String.format("Wrote %d entries into snapshot of cache %s", count, cacheName));
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, String.format("Failed to write snapshot of cache %s", cacheName), e);
+    }
+  }
+  
+  private File getSnapshotDirectory() {
+    String directory = systemSettingController.getSettingValue(KuntaApiConsts.SYSTEM_SETTING_CACHE_SNAPSHOT_DIRECTORY);
+    if (StringUtils.isNotBlank(directory)) {
+      return new File(directory);
+    }
+    
+    String dataDirectory = System.getProperty(DATA_DIR_PROPERTY);
+    if (StringUtils.isNotBlank(dataDirectory)) {
+      return new File(new File(dataDirectory, "kunta-api"), "cache-snapshots");
+    }
+    
+    return null;
+  }
+  
+}
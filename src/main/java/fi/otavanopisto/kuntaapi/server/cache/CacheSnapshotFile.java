@@ -0,0 +1,227 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.infinispan.persistence.keymappers.TwoWayKey2StringMapper;
+
+import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.IdPair;
+import fi.otavanopisto.kuntaapi.server.infinispan.IdKey2StringMapper;
+import fi.otavanopisto.kuntaapi.server.infinispan.IdPairKey2StringMapper;
+
+/**
+ * Reads and writes deflated, checksummed snapshot images of a single cache. 
+ * 
+ * Values are stored in their raw cached form, so snapshot does not depend on codecs.
+ */
+public class CacheSnapshotFile {
+  
+  private static final int MAGIC = 0x4B41534E;
+  private static final byte VERSION = 1;
+  
+  private static final byte ENTRY = 1;
+  private static final byte END = 0;
+  
+  private static final byte STRING_KEY = 'S';
+  private static final byte ID_KEY = 'I';
+  private static final byte ID_PAIR_KEY = 'P';
+  
+  private static final byte STRING_VALUE = 'S';
+  private static final byte BINARY_VALUE = 'B';
+  
+  private static final int MAX_VALUE_LENGTH = 64 * 1024 * 1024;
+  private static final long MAX_DEFLATE_RATIO = 1032;
+  
+  private static final TwoWayKey2StringMapper ID_KEY_MAPPER = new IdKey2StringMapper(true);
+  private static final TwoWayKey2StringMapper ID_PAIR_KEY_MAPPER = new IdPairKey2StringMapper(true);
+  
+  private final File file;
+  
+  public CacheSnapshotFile(File file) {
+    this.file = file;
+  }
+  
+  public boolean exists() {
+    return file.isFile();
+  }
+  
+  /**
+   * Writes snapshot into a temporary file and atomically replaces the previous snapshot with it.
+   * 
+   * Entries with unsupported key or value types are skipped.
+   * 
+   * @param cacheName cache name
+   * @param entries entries
+   * @return number of entries written
+   * @throws IOException when writing fails
+   */
+  public int write(String cacheName, Iterable<? extends Map.Entry<?, ?>> entries) throws IOException {
+    File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+    int count = 0;
+    
+    try (FileOutputStream fileStream = new FileOutputStream(tempFile)) {
+      DeflaterOutputStream deflaterStream = new DeflaterOutputStream(new BufferedOutputStream(fileStream));
+      CheckedOutputStream checkedStream = new CheckedOutputStream(deflaterStream, new CRC32());
+      DataOutputStream output = new DataOutputStream(checkedStream);
+      
+      output.writeInt(MAGIC);
+      output.writeByte(VERSION);
+      output.writeUTF(cacheName);
+      
+      for (Map.Entry<?, ?> entry : entries) {
+        if (isSupported(entry.getKey(), entry.getValue())) {
+          output.writeByte(ENTRY);
+          writeKey(output, entry.getKey());
+          writeValue(output, entry.getValue());
+          count++;
+        }
+      }
+      
+      output.writeByte(END);
+      output.flush();
+      
+      DataOutputStream trailer = new DataOutputStream(deflaterStream);
+      trailer.writeLong(checkedStream.getChecksum().getValue());
+      trailer.flush();
+      deflaterStream.finish();
+      deflaterStream.flush();
+    }
+    
+    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    
+    return count;
+  }
+  
+  /**
+   * Reads snapshot entries. Entries are returned only if whole snapshot passes the checksum.
+   * 
+   * @param cacheName expected cache name
+   * @return entries
+   * @throws IOException when snapshot is corrupted or could not be read
+   */
+  public Map<Object, Object> read(String cacheName) throws IOException {
+    Map<Object, Object> result = new LinkedHashMap<>();
+    
+    try (FileInputStream fileStream = new FileInputStream(file)) {
+      InflaterInputStream inflaterStream = new InflaterInputStream(new BufferedInputStream(fileStream));
+      CheckedInputStream checkedStream = new CheckedInputStream(inflaterStream, new CRC32());
+      DataInputStream input = new DataInputStream(checkedStream);
+      
+      if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+        throw new IOException(String.format("%s is not a supported cache snapshot", file));
+      }
+      
+      String snapshotCacheName = input.readUTF();
+      if (!cacheName.equals(snapshotCacheName)) {
+        throw new IOException(String.format("%s contains snapshot of cache %s", file, snapshotCacheName));
+      }
+      
+      // Value lengths are read before the checksum can be verified, so they are bounded by what 
+      // the compressed file could possibly contain before anything is allocated
+      
+      int maxValueLength = (int) Math.min(MAX_VALUE_LENGTH, file.length() * MAX_DEFLATE_RATIO);
+      while (input.readByte() == ENTRY) {
+        Object key = readKey(input);
+        Object value = readValue(input, maxValueLength);
+        if (key != null) {
+          result.put(key, value);
+        }
+      }
+      
+      long checksum = checkedStream.getChecksum().getValue();
+      if (new DataInputStream(inflaterStream).readLong() != checksum) {
+        throw new IOException(String.format("Checksum mismatch in cache snapshot %s", file));
+      }
+    }
+    
+    return result;
+  }
+  
+  private boolean isSupported(Object key, Object value) {
+    boolean supportedKey = key instanceof String || key instanceof BaseId || key instanceof IdPair;
+    boolean supportedValue = value instanceof String || value instanceof byte[];
+    return supportedKey && supportedValue;
+  }
+  
+  private void writeKey(DataOutputStream output, Object key) throws IOException {
+    if (key instanceof BaseId) {
+      output.writeByte(ID_KEY);
+      output.writeUTF(ID_KEY_MAPPER.getStringMapping(key));
+    } else if (key instanceof IdPair) {
+      output.writeByte(ID_PAIR_KEY);
+      output.writeUTF(ID_PAIR_KEY_MAPPER.getStringMapping(key));
+    } else {
+      output.writeByte(STRING_KEY);
+      output.writeUTF((String) key);
+    }
+  }
+  
+  private Object readKey(DataInputStream input) throws IOException {
+    byte type = input.readByte();
+    String key = input.readUTF();
+    
+    switch (type) {
+      case ID_KEY:
+        return ID_KEY_MAPPER.getKeyMapping(key);
+      case ID_PAIR_KEY:
+        return ID_PAIR_KEY_MAPPER.getKeyMapping(key);
+      case STRING_KEY:
+        return key;
+      default:
+        throw new IOException(String.format("Unknown key type %d", type));
+    }
+  }
+  
+  private void writeValue(DataOutputStream output, Object value) throws IOException {
+    byte[] data;
+    
+    if (value instanceof byte[]) {
+      output.writeByte(BINARY_VALUE);
+      data = (byte[]) value;
+    } else {
+      output.writeByte(STRING_VALUE);
+      data = ((String) value).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    output.writeInt(data.length);
+    output.write(data);
+  }
+  
+  private Object readValue(DataInputStream input, int maxLength) throws IOException {
+    byte type = input.readByte();
+    int length = input.readInt();
+    if (length < 0 || length > maxLength) {
+      throw new IOException(String.format("Invalid value length %d", length));
+    }
+    
+    byte[] data = new byte[length];
+    input.readFully(data);
+    
+    switch (type) {
+      case BINARY_VALUE:
+        return data;
+      case STRING_VALUE:
+        return new String(data, StandardCharsets.UTF_8);
+      default:
+        throw new IOException(String.format("Unknown value type %d", type));
+    }
+  }
+  
+}
@@ -0,0 +1,60 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
+/**
+ * Restores cache snapshots when application starts and periodically writes new ones
+ */
+@Singleton
+@Startup
+public class CacheSnapshotScheduler {
+  
+  private static final long DEFAULT_INTERVAL = 1000l * 60 * 10;
+  
+  @Inject
+  private CacheSnapshotController cacheSnapshotController;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  @Resource
+  private TimerService timerService;
+  
+  @PostConstruct
+  public void init() {
+    if (!cacheSnapshotController.isEnabled()) {
+      return;
+    }
+    
+    cacheSnapshotController.restoreSnapshots();
+    
+    long interval = NumberUtils.toLong(systemSettingController.getSettingValue(KuntaApiConsts.SYSTEM_SETTING_CACHE_SNAPSHOT_INTERVAL), DEFAULT_INTERVAL);
+    TimerConfig timerConfig = new TimerConfig();
+    timerConfig.setPersistent(false);
+    timerService.createIntervalTimer(interval, interval, timerConfig);
+  }
+  
+  @PreDestroy
+  public void shutdown() {
+    cacheSnapshotController.writeSnapshots();
+  }
+  
+  @Timeout
+  public void timeout() {
+    cacheSnapshotController.writeSnapshots();
+  }
+  
+}
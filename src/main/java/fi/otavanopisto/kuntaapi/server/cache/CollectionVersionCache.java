@@ -0,0 +1,73 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.util.UUID;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+
+/**
+ * Cache for per-organization collection version stamps. 
+ * 
+ * Stamp of a collection is replaced whenever an entity of the collection is put or cleared, so 
+ * list responses can be validated without loading the listed entities.
+ */
+@ApplicationScoped
+public class CollectionVersionCache extends AbstractCache<String, String> {
+  
+  private static final long serialVersionUID = -1788364851926734013L;
+
+  @Override
+  public String getCacheName() {
+    return "collection-versions";
+  }
+  
+  /**
+   * Stamps from a snapshot could be older than entities restored from another snapshot, 
+   * so stamps are always started fresh
+   */
+  @Override
+  public boolean isSnapshotted() {
+    return false;
+  }
+  
+  /**
+   * Returns current version stamp of organization collection. Stamp is created if collection 
+   * does not have one yet.
+   * 
+   * @param collection collection name
+   * @param organizationId Kunta API organization id
+   * @return version stamp
+   */
+  public String getVersion(String collection, OrganizationId organizationId) {
+    String key = getKey(collection, organizationId);
+    String version = get(key);
+    if (version == null) {
+      version = createVersion();
+      put(key, version);
+    }
+    
+    return version;
+  }
+  
+  /**
+   * Replaces version stamp of organization collection
+   * 
+   * @param collection collection name
+   * @param organizationId Kunta API organization id
+   */
+  public void bump(String collection, OrganizationId organizationId) {
+    if (organizationId != null) {
+      put(getKey(collection, organizationId), createVersion());
+    }
+  }
+  
+  private String getKey(String collection, OrganizationId organizationId) {
+    return String.format("%s@%s", collection, organizationId.getId());
+  }
+  
+  private String createVersion() {
+    return UUID.randomUUID().toString();
+  }
+  
+}
@@ -0,0 +1,53 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+/**
+ * Snapshot of cache value compression statistics
+ * 
+ * @author Antti Leppä
+ */
+public class CompressionStatistics {
+
+  private final String name;
+  private final long writes;
+  private final long compressedWrites;
+  private final long originalBytes;
+  private final long storedBytes;
+  
+  public CompressionStatistics(String name, long writes, long compressedWrites, long originalBytes, long storedBytes) {
+    this.name = name;
+    this.writes = writes;
+    this.compressedWrites = compressedWrites;
+    this.originalBytes = originalBytes;
+    this.storedBytes = storedBytes;
+  }
+  
+  public String getName() {
+    return name;
+  }
+  
+  public long getWrites() {
+    return writes;
+  }
+  
+  public long getCompressedWrites() {
+    return compressedWrites;
+  }
+  
+  public long getOriginalBytes() {
+    return originalBytes;
+  }
+  
+  public long getStoredBytes() {
+    return storedBytes;
+  }
+  
+  /**
+   * Returns ratio of stored bytes to original bytes
+   * 
+   * @return compression ratio
+   */
+  public double getRatio() {
+    return originalBytes == 0 ? 1d : (double) storedBytes / originalBytes;
+  }
+  
+}
@@ -0,0 +1,67 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental discovery state of a single source collection
+ * 
+ * @author Antti Leppä
+ */
+public class DiscoveryWatermark {
+
+  private String modified;
+  private long lastFullSync;
+  private List<String> missingIds = new ArrayList<>();
+  
+  public DiscoveryWatermark() {
+    // Zero-argument constructor
+  }
+  
+  public DiscoveryWatermark(String modified, long lastFullSync, List<String> missingIds) {
+    this.modified = modified;
+    this.lastFullSync = lastFullSync;
+    this.missingIds = missingIds;
+  }
+  
+  /**
+   * Returns latest modification time seen in the collection as ISO-8601 local date time
+   * 
+   * @return latest modification time seen in the collection
+   */
+  public String getModified() {
+    return modified;
+  }
+  
+  public void setModified(String modified) {
+    this.modified = modified;
+  }
+  
+  /**
+   * Returns time of last full listing of the collection in milliseconds
+   * 
+   * @return time of last full listing of the collection in milliseconds
+   */
+  public long getLastFullSync() {
+    return lastFullSync;
+  }
+  
+  public void setLastFullSync(long lastFullSync) {
+    this.lastFullSync = lastFullSync;
+  }
+  
+  /**
+   * Returns source ids that were missing from the last full listing. Ids are removed only 
+   * when they are missing from two consecutive full listings.
+   * 
+   * @return source ids missing from the last full listing
+   */
+  public List<String> getMissingIds() {
+    return missingIds;
+  }
+  
+  public void setMissingIds(List<String> missingIds) {
+    this.missingIds = missingIds;
+  }
+  
+}
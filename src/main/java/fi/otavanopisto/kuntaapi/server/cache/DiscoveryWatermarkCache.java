@@ -0,0 +1,20 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Cache for incremental discovery watermarks by collection and organization
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+public class DiscoveryWatermarkCache extends AbstractCache<String, DiscoveryWatermark> {
+  
+  private static final long serialVersionUID = -2836377467417006284L;
+
+  @Override
+  public String getCacheName() {
+    return "discovery-watermarks";
+  }
+  
+}
@@ -1,18 +1,32 @@
 package fi.otavanopisto.kuntaapi.server.cache;
 
+import java.time.OffsetDateTime;
+
 import javax.enterprise.context.ApplicationScoped;
 
 import fi.otavanopisto.kuntaapi.server.id.EventId;
 import fi.otavanopisto.kuntaapi.server.rest.model.Event;
 
 @ApplicationScoped
-public class EventCache extends AbstractEntityCache<EventId, Event> {
+public class EventCache extends AbstractSortedEntityCache<EventId, Event> {
   
   private static final long serialVersionUID = -4814807444228342335L;
+  
+  public static final String CACHE_NAME = "events";
 
   @Override
   public String getCacheName() {
-    return "events";
+    return CACHE_NAME;
+  }
+  
+  @Override
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.SMILE;
+  }
+  
+  @Override
+  protected OffsetDateTime getSortKey(Event value) {
+    return value.getStart();
   }
   
 }
@@ -0,0 +1,27 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Cache for ETag and Last-Modified validators of upstream resources by URL
+ */
+@ApplicationScoped
+public class HttpValidatorCache extends AbstractCache<String, HttpValidators> {
+  
+  private static final long serialVersionUID = 6329618807216408416L;
+
+  @Override
+  public String getCacheName() {
+    return "http-validators";
+  }
+  
+  /**
+   * Validators from a snapshot could describe newer resources than entities restored from 
+   * other snapshots, so validators are always started fresh
+   */
+  @Override
+  public boolean isSnapshotted() {
+    return false;
+  }
+  
+}
@@ -0,0 +1,47 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+/**
+ * HTTP cache validators of an upstream resource
+ * 
+ * @author Antti Leppä
+ */
+public class HttpValidators {
+  
+  private String etag;
+  private String lastModified;
+  private String hashVersion;
+  
+  public HttpValidators() {
+    // Zero-argument constructor
+  }
+  
+  public HttpValidators(String etag, String lastModified) {
+    this.etag = etag;
+    this.lastModified = lastModified;
+  }
+  
+  public String getEtag() {
+    return etag;
+  }
+  
+  public void setEtag(String etag) {
+    this.etag = etag;
+  }
+  
+  public String getLastModified() {
+    return lastModified;
+  }
+  
+  public void setLastModified(String lastModified) {
+    this.lastModified = lastModified;
+  }
+  
+  public String getHashVersion() {
+    return hashVersion;
+  }
+  
+  public void setHashVersion(String hashVersion) {
+    this.hashVersion = hashVersion;
+  }
+  
+}
@@ -0,0 +1,24 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cache codec that stores values as UTF-8 JSON
+ * 
+ * @author Antti Leppä
+ *
+ * @param <V> value type
+ */
+public class JsonCacheCodec <V> extends AbstractJacksonCacheCodec<V> {
+
+  public JsonCacheCodec(JavaType valueType) {
+    super(new ObjectMapper(), valueType);
+  }
+  
+  @Override
+  public CacheCodecType getType() {
+    return CacheCodecType.JSON;
+  }
+  
+}
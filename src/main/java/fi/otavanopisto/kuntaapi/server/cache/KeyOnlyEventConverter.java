@@ -0,0 +1,27 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.io.Serializable;
+
+import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.cachelistener.filter.CacheEventConverter;
+import org.infinispan.notifications.cachelistener.filter.EventType;
+
+/**
+ * Clustered listener converter that drops entry values from cache events. 
+ * 
+ * Conversion happens on the node owning the entry, so only keys are sent to listening nodes.
+ * 
+ * @author Antti Leppä
+ *
+ * @param <K> key type
+ */
+public class KeyOnlyEventConverter <K> implements CacheEventConverter<K, Object, Object>, Serializable {
+
+  private static final long serialVersionUID = 2954175528313095478L;
+
+  @Override
+  public Object convert(K key, Object oldValue, Metadata oldMetadata, Object newValue, Metadata newMetadata, EventType eventType) {
+    return null;
+  }
+
+}
@@ -9,10 +9,17 @@ import fi.otavanopisto.kuntaapi.server.rest.model.Menu;
 public class MenuCache extends AbstractEntityCache<MenuId, Menu> {
   
   private static final long serialVersionUID = 7116646256910860395L;
+  
+  public static final String CACHE_NAME = "menus";
 
   @Override
   public String getCacheName() {
-    return "menus";
+    return CACHE_NAME;
+  }
+  
+  @Override
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.SMILE;
   }
   
 }
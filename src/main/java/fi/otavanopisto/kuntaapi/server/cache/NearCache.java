@@ -0,0 +1,114 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded per-node LRU cache for deserialized cache values. 
+ * 
+ * Every invalidation increments the generation counter of the key's segment. Values loaded 
+ * before an invalidation of their segment are not stored so that a concurrent update can not 
+ * be shadowed by a stale value, while invalidations of unrelated keys do not prevent caching.
+ * 
+ * @author Antti Leppä
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class NearCache <K, V> {
+  
+  private static final int GENERATION_SEGMENTS = 64;
+  
+  private final String name;
+  private final int maxSize;
+  private final Map<K, V> entries;
+  private final long[] generations = new long[GENERATION_SEGMENTS];
+  private long hits;
+  private long misses;
+  private long evictions;
+  
+  public NearCache(String name, int maxSize) {
+    this.name = name;
+    this.maxSize = maxSize;
+    this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+      
+      private static final long serialVersionUID = -4162315095183767826L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        if (size() > NearCache.this.maxSize) {
+          evictions++;
+          return true;
+        }
+        
+        return false;
+      }
+      
+    };
+  }
+  
+  /**
+   * Returns value from the near cache
+   * 
+   * @param key key
+   * @return value or null if not cached
+   */
+  public synchronized V get(K key) {
+    V value = entries.get(key);
+    if (value == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    
+    return value;
+  }
+  
+  /**
+   * Returns current generation of the key's segment. Generation should be read before loading 
+   * value from the backing store.
+   * 
+   * @param key key
+   * @return current generation
+   */
+  public synchronized long getGeneration(K key) {
+    return generations[getSegment(key)];
+  }
+  
+  /**
+   * Stores value into the near cache unless key's segment has been invalidated after given generation 
+   * 
+   * @param key key
+   * @param value value
+   * @param loadGeneration generation read before value was loaded
+   */
+  public synchronized void put(K key, V value, long loadGeneration) {
+    if (generations[getSegment(key)] == loadGeneration) {
+      entries.put(key, value);
+    }
+  }
+  
+  /**
+   * Invalidates single entry
+   * 
+   * @param key key
+   */
+  public synchronized void invalidate(K key) {
+    generations[getSegment(key)]++;
+    entries.remove(key);
+  }
+  
+  /**
+   * Returns statistics of the near cache
+   * 
+   * @return statistics
+   */
+  public synchronized NearCacheStatistics getStatistics() {
+    return new NearCacheStatistics(name, entries.size(), maxSize, hits, misses, evictions);
+  }
+
+  private int getSegment(K key) {
+    return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_SEGMENTS;
+  }
+
+}
@@ -0,0 +1,50 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+/**
+ * Snapshot of near cache statistics
+ * 
+ * @author Antti Leppä
+ */
+public class NearCacheStatistics {
+
+  private final String name;
+  private final int size;
+  private final int maxSize;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  
+  public NearCacheStatistics(String name, int size, int maxSize, long hits, long misses, long evictions) {
+    this.name = name;
+    this.size = size;
+    this.maxSize = maxSize;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  public String getName() {
+    return name;
+  }
+  
+  public int getSize() {
+    return size;
+  }
+  
+  public int getMaxSize() {
+    return maxSize;
+  }
+  
+  public long getHits() {
+    return hits;
+  }
+  
+  public long getMisses() {
+    return misses;
+  }
+  
+  public long getEvictions() {
+    return evictions;
+  }
+  
+}
@@ -1,18 +1,32 @@
 package fi.otavanopisto.kuntaapi.server.cache;
 
+import java.time.OffsetDateTime;
+
 import javax.enterprise.context.ApplicationScoped;
 
 import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
 import fi.otavanopisto.kuntaapi.server.rest.model.NewsArticle;
 
 @ApplicationScoped
-public class NewsArticleCache extends AbstractEntityCache<NewsArticleId, NewsArticle> {
+public class NewsArticleCache extends AbstractSortedEntityCache<NewsArticleId, NewsArticle> {
 
   private static final long serialVersionUID = 1251806281893865654L;
+  
+  public static final String CACHE_NAME = "news-articles";
 
   @Override
   public String getCacheName() {
-    return "news-articles";
+    return CACHE_NAME;
+  }
+  
+  @Override
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.SMILE;
+  }
+  
+  @Override
+  protected OffsetDateTime getSortKey(NewsArticle value) {
+    return value.getPublished();
   }
   
 }
@@ -9,10 +9,17 @@ import fi.otavanopisto.kuntaapi.server.rest.model.Page;
 public class PageCache extends AbstractEntityCache<PageId, Page> {
 
   private static final long serialVersionUID = 6513524099128842893L;
+  
+  public static final String CACHE_NAME = "pages";
 
   @Override
   public String getCacheName() {
-    return "pages";
+    return CACHE_NAME;
+  }
+  
+  @Override
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.SMILE;
   }
   
 }
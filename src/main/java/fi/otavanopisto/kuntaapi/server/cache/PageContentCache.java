@@ -17,4 +17,22 @@ public class PageContentCache extends AbstractEntityCache<PageId, List<Localized
     return "page-contents";
   }
   
+  /**
+   * Page contents are large, so they are not kept deserialized in the near cache
+   */
+  @Override
+  protected int getNearCacheSize() {
+    return 0;
+  }
+  
+  @Override
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.SMILE;
+  }
+  
+  @Override
+  protected int getCompressionThreshold() {
+    return 2048;
+  }
+  
 }
\ No newline at end of file
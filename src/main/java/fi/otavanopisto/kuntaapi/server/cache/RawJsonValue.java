@@ -0,0 +1,23 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Cached value that can be written out as JSON without building the entity object
+ * 
+ * @author Antti Leppä
+ */
+@FunctionalInterface
+public interface RawJsonValue {
+
+  /**
+   * Writes value into JSON generator
+   * 
+   * @param generator generator
+   * @throws IOException when writing fails
+   */
+  public void write(JsonGenerator generator) throws IOException;
+  
+}
@@ -0,0 +1,25 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Cache codec that stores values in binary Smile format
+ * 
+ * @author Antti Leppä
+ *
+ * @param <V> value type
+ */
+public class SmileCacheCodec <V> extends AbstractJacksonCacheCodec<V> {
+
+  public SmileCacheCodec(JavaType valueType) {
+    super(new ObjectMapper(new SmileFactory()), valueType);
+  }
+  
+  @Override
+  public CacheCodecType getType() {
+    return CacheCodecType.SMILE;
+  }
+  
+}
@@ -0,0 +1,156 @@
+package fi.otavanopisto.kuntaapi.server.cache;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index that keeps ids ordered by a timestamp sort key.
+ * 
+ * Ids without sort key are ordered after all other ids. Ids with equal sort keys are kept 
+ * in insertion order.
+ * 
+ * @param <K> id type
+ */
+public class SortedIdIndex <K> {
+  
+  private final AtomicLong sequence = new AtomicLong();
+  private final NavigableSet<Entry<K>> entries = new ConcurrentSkipListSet<>();
+  private final Map<K, Entry<K>> entryMap = new HashMap<>();
+  
+  /**
+   * Adds or moves an id in the index
+   * 
+   * @param id id
+   * @param sortKey sort key, may be null
+   */
+  public synchronized void put(K id, Instant sortKey) {
+    Entry<K> existing = entryMap.get(id);
+    if (existing != null) {
+      if (existing.sortKey == null ? sortKey == null : existing.sortKey.equals(sortKey)) {
+        return;
+      }
+      
+      entries.remove(existing);
+    }
+    
+    Entry<K> entry = new Entry<>(id, sortKey, sequence.incrementAndGet());
+    entryMap.put(id, entry);
+    entries.add(entry);
+  }
+  
+  /**
+   * Removes an id from the index
+   * 
+   * @param id id
+   */
+  public synchronized void remove(K id) {
+    Entry<K> existing = entryMap.remove(id);
+    if (existing != null) {
+      entries.remove(existing);
+    }
+  }
+  
+  public synchronized boolean isEmpty() {
+    return entryMap.isEmpty();
+  }
+  
+  /**
+   * Lists ids in sort key order. 
+   * 
+   * When either of the bounds is specified, ids without sort key are omitted.
+   * 
+   * @param from inclusive lower bound or null for unbounded
+   * @param to inclusive upper bound or null for unbounded
+   * @param descending whether to list ids in descending order
+   * @param firstResult index of first listed id or null for the first
+   * @param maxResults max number of listed ids or null for all
+   * @return ids
+   */
+  public List<K> list(Instant from, Instant to, boolean descending, Integer firstResult, Integer maxResults) {
+    NavigableSet<Entry<K>> view = entries;
+    
+    if (from != null || to != null) {
+      Entry<K> low = new Entry<>(null, from != null ? from : Instant.MIN, Long.MIN_VALUE);
+      Entry<K> high = new Entry<>(null, to != null ? to : Instant.MAX, Long.MAX_VALUE);
+      view = entries.subSet(low, true, high, true);
+    }
+    
+    if (descending) {
+      view = view.descendingSet();
+    }
+    
+    int skip = firstResult == null ? 0 : Math.max(firstResult.intValue(), 0);
+    int limit = maxResults == null ? Integer.MAX_VALUE : Math.max(maxResults.intValue(), 0);
+    
+    List<K> result = new ArrayList<>();
+    for (Entry<K> entry : view) {
+      if (result.size() >= limit) {
+        break;
+      }
+      
+      if (skip > 0) {
+        skip--;
+      } else {
+        result.add(entry.id);
+      }
+    }
+    
+    return result;
+  }
+  
+  private static class Entry <K> implements Comparable<Entry<K>> {
+    
+    private final K id;
+    private final Instant sortKey;
+    private final long sequence;
+    
+    public Entry(K id, Instant sortKey, long sequence) {
+      this.id = id;
+      this.sortKey = sortKey;
+      this.sequence = sequence;
+    }
+    
+    @Override
+    public int compareTo(Entry<K> other) {
+      if (sortKey == null && other.sortKey != null) {
+        return 1;
+      }
+      
+      if (sortKey != null && other.sortKey == null) {
+        return -1;
+      }
+      
+      if (sortKey != null) {
+        int result = sortKey.compareTo(other.sortKey);
+        if (result != 0) {
+          return result;
+        }
+      }
+      
+      return Long.compare(sequence, other.sequence);
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object obj) {
+      if (obj instanceof Entry) {
+        return compareTo((Entry<K>) obj) == 0;
+      }
+      
+      return false;
+    }
+    
+    @Override
+    public int hashCode() {
+      return Long.hashCode(sequence);
+    }
+    
+  }
+  
+}
@@ -3,12 +3,15 @@ package fi.otavanopisto.kuntaapi.server.controllers;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.BannerId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -32,6 +35,15 @@ public class BannerController {
     return result;
   }
 
+  public Map<BannerId, RawJsonValue> listBannersJson(OrganizationId organizationId) {
+    Map<BannerId, RawJsonValue> result = new LinkedHashMap<>();
+   
+    for (BannerProvider bannerProvider : getBannerProviders()) {
+      result.putAll(bannerProvider.listOrganizationBannersJson(organizationId));
+    }
+    return result;
+  }
+
   public Banner findBanner(OrganizationId organizationId, BannerId bannerId) {
     for (BannerProvider bannerProvider : getBannerProviders()) {
       Banner banner = bannerProvider.findOrganizationBanner(organizationId, bannerId);
@@ -43,6 +55,17 @@ public class BannerController {
     return null;
   }
 
+  public RawJsonValue findBannerJson(OrganizationId organizationId, BannerId bannerId) {
+    for (BannerProvider bannerProvider : getBannerProviders()) {
+      RawJsonValue banner = bannerProvider.findOrganizationBannerJson(organizationId, bannerId);
+      if (banner != null) {
+        return banner;
+      }
+    }
+    
+    return null;
+  }
+
   public List<Attachment> listBannerImages(OrganizationId organizationId, BannerId bannerId) {
     List<Attachment> result = new ArrayList<>();
    
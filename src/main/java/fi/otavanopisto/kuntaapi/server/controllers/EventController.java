@@ -11,6 +11,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.EventId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -38,6 +39,17 @@ public class EventController {
     return null;
   }
 
+  public RawJsonValue findEventJson(OrganizationId organizationId, EventId eventId) {
+    for (EventProvider eventProvider : getEventProviders()) {
+      RawJsonValue event = eventProvider.findOrganizationEventJson(organizationId, eventId);
+      if (event != null) {
+        return event;
+      }
+    }
+    
+    return null;
+  }
+
   public Attachment findEventImage(OrganizationId organizationId, EventId eventId, AttachmentId attachmentId) {
     for (EventProvider eventProvider : getEventProviders()) {
       Attachment attachment = eventProvider.findEventImage(organizationId, eventId, attachmentId);
@@ -72,17 +84,24 @@ public class EventController {
   public List<Event> listEvents(OffsetDateTime startBefore, OffsetDateTime startAfter, OffsetDateTime endBefore, OffsetDateTime endAfter,
       Integer firstResult, Integer maxResults, EventProvider.EventOrder order,
       EventProvider.EventOrderDirection orderDirection, OrganizationId organizationId) {
+    List<EventProvider> providers = getEventProviders();
+    if (order == EventOrder.START_DATE && providers.size() == 1) {
+      return providers.get(0).listOrganizationEvents(organizationId, startBefore, startAfter, endBefore, endAfter, orderDirection, firstResult, maxResults);
+    }
+    
     List<Event> result = new ArrayList<>();
     
-    for (EventProvider eventProvider : getEventProviders()) {
-      result.addAll(eventProvider.listOrganizationEvents(organizationId, startBefore, startAfter, endBefore, endAfter));
+    for (EventProvider eventProvider : providers) {
+      result.addAll(eventProvider.listOrganizationEvents(organizationId, startBefore, startAfter, endBefore, endAfter, orderDirection, null, null));
     }
     
+    sortEvents(result, order, orderDirection);
+    
     int resultCount = result.size();
     int firstIndex = firstResult == null ? 0 : Math.min(firstResult.intValue(), resultCount);
     int toIndex = maxResults == null ? resultCount : Math.min(firstIndex + maxResults.intValue(), resultCount);
     
-    return sortEvents(result.subList(firstIndex, toIndex), order, orderDirection);
+    return result.subList(firstIndex, toIndex);
   }
   
   private List<Event> sortEvents(List<Event> result, EventProvider.EventOrder order, EventProvider.EventOrderDirection orderDirection) {
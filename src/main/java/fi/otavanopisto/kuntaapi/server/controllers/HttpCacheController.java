@@ -8,6 +8,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,8 +25,10 @@ import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import fi.otavanopisto.kuntaapi.server.cache.CollectionVersionCache;
 import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
 import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
 
 @ApplicationScoped
@@ -40,6 +43,9 @@ public class HttpCacheController {
   @Inject
   private ModificationHashCache modificationHashCache;
   
+  @Inject
+  private CollectionVersionCache collectionVersionCache;
+  
   public Response getNotModified(Request request, BaseId baseId) {
     if (baseId == null) {
       return null;
@@ -81,6 +87,53 @@ public class HttpCacheController {
     return null;
   }
 
+  /**
+   * Returns entity tag for an organization collection listing. 
+   * 
+   * Tag is derived from the collection version stamp and request parameters, so it can be 
+   * evaluated without loading the listed entities.
+   * 
+   * @param collection collection name
+   * @param organizationId Kunta API organization id
+   * @param parameters request parameters affecting the listing
+   * @return entity tag or null if organization is not specified
+   */
+  public EntityTag getCollectionTag(String collection, OrganizationId organizationId, Object... parameters) {
+    if (organizationId == null) {
+      return null;
+    }
+    
+    String version = collectionVersionCache.getVersion(collection, organizationId);
+    return new EntityTag(DigestUtils.md5Hex(String.format("%s|%s", version, StringUtils.join(parameters, '|'))), true);
+  }
+  
+  public Response getNotModified(Request request, EntityTag tag) {
+    if (tag == null) {
+      return null;
+    }
+    
+    ResponseBuilder builder = request.evaluatePreconditions(tag);
+    if (builder != null) {
+      return builder.build();
+    }
+   
+    return null;
+  }
+  
+  public Response sendModified(Object entity, EntityTag tag) {
+    if (tag == null) {
+      return Response.ok(entity).build();
+    }
+    
+    CacheControl cacheControl = new CacheControl();
+    cacheControl.setMustRevalidate(true);
+    
+    return Response.ok(entity)
+      .cacheControl(cacheControl)
+      .tag(tag)
+      .build();
+  }
+
   public Response sendModified(Object entity, String id) {
     EntityTag tag = getEntityTag(id);
     if (tag == null) {
@@ -169,8 +222,9 @@ public class HttpCacheController {
   }
   
   private EntityTag getEntityTag(List<String> ids) {
+    Map<String, String> hashes = modificationHashCache.getAllAsMap(ids);
     for (String id : ids) {
-      if (modificationHashCache.get(id) == null) {
+      if (!hashes.containsKey(id)) {
         return null;
       }
     }
@@ -1,11 +1,31 @@
 package fi.otavanopisto.kuntaapi.server.controllers;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.persistence.PersistenceException;
+import javax.transaction.Transactional;
+import javax.transaction.TransactionalException;
 
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import fi.otavanopisto.kuntaapi.server.discover.UpdateTransaction;
 import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.IdMap;
+import fi.otavanopisto.kuntaapi.server.id.IdMapping;
+import fi.otavanopisto.kuntaapi.server.id.IdMappings;
 import fi.otavanopisto.kuntaapi.server.id.IdType;
 import fi.otavanopisto.kuntaapi.server.id.MissingOrganizationIdException;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationBaseId;
@@ -22,9 +42,20 @@ import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
 @ApplicationScoped
 public class IdentifierController {
   
+  private static final int MAX_BATCH_SIZE = 500;
+  
+  @Inject
+  private Logger logger;
+  
   @Inject
   private IdentifierDAO identifierDAO;
   
+  @Inject
+  private IdMap idMap;
+  
+  @Inject
+  private UpdateTransaction updateTransaction;
+  
   /**
    * Creates new identifier.
    * 
@@ -46,7 +77,147 @@ public class IdentifierController {
     }
     
     String kuntaApiId = UUID.randomUUID().toString();
-    return createIdentifier(id.getType().toString(), kuntaApiId, id.getSource(), id.getId(), organizationKuntaApiId);
+    Identifier identifier = createIdentifier(id.getType().toString(), kuntaApiId, id.getSource(), id.getId(), organizationKuntaApiId);
+    idMap.addOnCommit(new IdMapping(identifier));
+    
+    return identifier;
+  }
+  
+  /**
+   * Finds identifiers for a page of source ids and creates the missing ones. 
+   * 
+   * Existing identifiers are resolved with batched queries and missing identifiers are inserted 
+   * with multi-row insert statements in a transaction of their own. If the batch fails, e.g. because another node created 
+   * some of the identifiers concurrently, it is rolled back without affecting the calling 
+   * transaction and the identifiers are created one by one. Ids belonging to unknown 
+   * organizations are left out of the result.
+   * 
+   * @param ids source ids
+   * @return mappings of source ids into Kunta API identifiers
+   */
+  @Transactional
+  public <T extends BaseId> IdMappings<T> findOrCreateIdentifiers(List<T> ids) {
+    IdMappings<T> result = new IdMappings<>();
+    loadMappings(ids, KuntaApiConsts.IDENTIFIER_NAME);
+    
+    Map<T, Identifier> missing = new HashMap<>();
+    for (T id : ids) {
+      if (missing.containsKey(id) || result.get(id) != null) {
+        continue;
+      }
+      
+      String organizationKuntaApiId = null;
+      if (id instanceof OrganizationBaseId) {
+        organizationKuntaApiId = getOrganizationKuntaApiId((OrganizationBaseId) id);
+        if (organizationKuntaApiId == null) {
+          logger.warning(String.format("Could not find organization for id %s", id.toString()));
+          continue;
+        }
+      }
+      
+      String type = id.getType().toString();
+      IdMapping mapping = idMap.findBySourceId(type, id.getSource(), id.getId(), organizationKuntaApiId);
+      if (mapping != null) {
+        result.add(id, mapping, false);
+      } else {
+        Identifier identifier = new Identifier();
+        identifier.setType(type);
+        identifier.setKuntaApiId(UUID.randomUUID().toString());
+        identifier.setSource(id.getSource());
+        identifier.setSourceId(id.getId());
+        identifier.setOrganizationKuntaApiId(organizationKuntaApiId);
+        missing.put(id, identifier);
+      }
+    }
+    
+    if (missing.isEmpty()) {
+      return result;
+    }
+    
+    try {
+      List<Identifier> identifiers = new ArrayList<>(missing.values());
+      updateTransaction.run(() -> identifierDAO.createBatch(identifiers));
+    } catch (PersistenceException | TransactionalException e) {
+      logger.log(Level.WARNING, "Batch identifier insert failed, creating identifiers one by one", e);
+      for (T id : missing.keySet()) {
+        IdMapping mapping = findMappingById(id);
+        if (mapping != null) {
+          result.add(id, mapping, false);
+        } else {
+          result.add(id, new IdMapping(createIdentifier(id)), true);
+        }
+      }
+      
+      return result;
+    }
+    
+    // Batch has been committed in its own transaction, so mappings can be added right away
+    
+    for (Map.Entry<T, Identifier> entry : missing.entrySet()) {
+      IdMapping mapping = new IdMapping(entry.getValue());
+      idMap.add(mapping);
+      result.add(entry.getKey(), mapping, true);
+    }
+    
+    return result;
+  }
+  
+  /**
+   * Returns Kunta API id for given source id. Identifier is created if it does not exist yet.
+   * 
+   * @param id source id
+   * @return Kunta API id
+   */
+  public String findOrCreateKuntaApiId(BaseId id) {
+    IdMapping mapping = findMappingById(id);
+    if (mapping != null) {
+      return mapping.getKuntaApiId();
+    }
+    
+    return createIdentifier(id).getKuntaApiId();
+  }
+  
+  /**
+   * Finds identifier mapping by id. Mapping is looked up from in-memory identifier map and 
+   * database is queried only if map does not contain the id.
+   * 
+   * @param id id
+   * @return mapping or null if not found
+   */
+  public IdMapping findMappingById(BaseId id) {
+    String organizationKuntaApiId = null;
+    if (id instanceof OrganizationBaseId) {
+      organizationKuntaApiId = getOrganizationKuntaApiId((OrganizationBaseId) id);
+      if (organizationKuntaApiId == null) {
+        return null;
+      }
+    }
+    
+    String type = id.getType().toString();
+    IdMapping mapping = idMap.findBySourceId(type, id.getSource(), id.getId(), organizationKuntaApiId);
+    if (mapping == null) {
+      mapping = addMapping(findIdentifierByTypeSourceIdAndOrganizationId(type, id.getSource(), id.getId(), organizationKuntaApiId));
+    }
+    
+    return mapping;
+  }
+  
+  /**
+   * Finds identifier mapping by type, source and Kunta API id. Mapping is looked up from 
+   * in-memory identifier map and database is queried only if map does not contain the id.
+   * 
+   * @param type id type
+   * @param source source
+   * @param kuntaApiId Kunta API id
+   * @return mapping or null if not found
+   */
+  public IdMapping findMappingByTypeSourceAndKuntaApiId(IdType type, String source, String kuntaApiId) {
+    IdMapping mapping = idMap.findByKuntaApiId(type.toString(), source, kuntaApiId);
+    if (mapping == null) {
+      mapping = addMapping(findIdentifierByTypeSourceAndKuntaApiId(type, source, kuntaApiId));
+    }
+    
+    return mapping;
   }
   
   public Identifier findIdentifierById(BaseId id) {
@@ -66,8 +237,117 @@ public class IdentifierController {
     return findIdentifierByTypeSourceAndKuntaApiId(type.toString(), source, kuntaApiId);
   }
 
+  /**
+   * Lists source ids of identifiers of given type and source within an organization
+   * 
+   * @param type id type
+   * @param source source
+   * @param organizationId organization id
+   * @return source ids or empty list if organization is not known
+   */
+  public List<String> listSourceIdsByTypeSourceAndOrganizationId(IdType type, String source, OrganizationId organizationId) {
+    String organizationKuntaApiId = getOrganizationKuntaApiId(organizationId);
+    if (organizationKuntaApiId == null) {
+      return Collections.emptyList();
+    }
+    
+    List<Identifier> identifiers = identifierDAO.listByTypeSourceAndOrganizationKuntaApiId(type.toString(), source, organizationKuntaApiId);
+    List<String> result = new ArrayList<>(identifiers.size());
+    for (Identifier identifier : identifiers) {
+      result.add(identifier.getSourceId());
+    }
+    
+    return result;
+  }
+
+  /**
+   * Loads mappings needed for translating given ids into target source into the identifier map. 
+   * 
+   * Ids missing from the map are resolved with a single query per id type and source.
+   * 
+   * @param ids ids to be translated
+   * @param target target source
+   */
+  public void loadMappings(Collection<? extends BaseId> ids, String target) {
+    Map<Pair<String, String>, Set<String>> sourceIdQueries = new HashMap<>();
+    Map<Pair<String, String>, Set<String>> kuntaApiIdQueries = new HashMap<>();
+    
+    for (BaseId id : ids) {
+      if (id == null || id.getId() == null || id.getSource().equals(target)) {
+        continue;
+      }
+      
+      String type = id.getType().toString();
+      if (KuntaApiConsts.IDENTIFIER_NAME.equals(id.getSource())) {
+        if (idMap.findByKuntaApiId(type, target, id.getId()) == null) {
+          kuntaApiIdQueries.computeIfAbsent(new ImmutablePair<>(type, target), key -> new LinkedHashSet<>()).add(id.getId());
+        }
+      } else if (KuntaApiConsts.IDENTIFIER_NAME.equals(target) && !isMapped(id)) {
+        sourceIdQueries.computeIfAbsent(new ImmutablePair<>(type, id.getSource()), key -> new LinkedHashSet<>()).add(id.getId());
+      }
+    }
+    
+    for (Map.Entry<Pair<String, String>, Set<String>> query : sourceIdQueries.entrySet()) {
+      for (List<String> batch : partition(query.getValue())) {
+        addMappings(identifierDAO.listByTypeSourceAndSourceIds(query.getKey().getLeft(), query.getKey().getRight(), batch));
+      }
+    }
+    
+    for (Map.Entry<Pair<String, String>, Set<String>> query : kuntaApiIdQueries.entrySet()) {
+      for (List<String> batch : partition(query.getValue())) {
+        addMappings(identifierDAO.listByTypeSourceAndKuntaApiIds(query.getKey().getLeft(), query.getKey().getRight(), batch));
+      }
+    }
+  }
+  
   public void deleteIdentifier(Identifier identifier) {
+    String kuntaApiId = identifier.getKuntaApiId();
     identifierDAO.delete(identifier);
+    idMap.remove(kuntaApiId);
+  }
+  
+  private boolean isMapped(BaseId id) {
+    String organizationKuntaApiId = null;
+    if (id instanceof OrganizationBaseId) {
+      organizationKuntaApiId = getOrganizationKuntaApiId((OrganizationBaseId) id);
+    }
+    
+    return idMap.findBySourceId(id.getType().toString(), id.getSource(), id.getId(), organizationKuntaApiId) != null;
+  }
+  
+  private List<List<String>> partition(Collection<String> values) {
+    List<List<String>> result = new ArrayList<>();
+    List<String> batch = new ArrayList<>(Math.min(values.size(), MAX_BATCH_SIZE));
+    
+    for (String value : values) {
+      batch.add(value);
+      if (batch.size() == MAX_BATCH_SIZE) {
+        result.add(batch);
+        batch = new ArrayList<>(MAX_BATCH_SIZE);
+      }
+    }
+    
+    if (!batch.isEmpty()) {
+      result.add(batch);
+    }
+    
+    return result;
+  }
+  
+  private void addMappings(List<Identifier> identifiers) {
+    for (Identifier identifier : identifiers) {
+      idMap.add(new IdMapping(identifier));
+    }
+  }
+  
+  private IdMapping addMapping(Identifier identifier) {
+    if (identifier == null) {
+      return null;
+    }
+    
+    IdMapping mapping = new IdMapping(identifier);
+    idMap.add(mapping);
+    return mapping;
   }
 
   private Identifier createIdentifier(String type, String kuntaApiId, String source, String sourceId, String organizationKuntaApiId) {
@@ -83,14 +363,17 @@ public class IdentifierController {
   }
   
   private String getOrganizationKuntaApiId(OrganizationBaseId organizationBaseId) {
-    OrganizationId organizationId = organizationBaseId.getOrganizationId();
+    return getOrganizationKuntaApiId(organizationBaseId.getOrganizationId());
+  }
+  
+  private String getOrganizationKuntaApiId(OrganizationId organizationId) {
     if (KuntaApiConsts.IDENTIFIER_NAME.equals(organizationId.getSource())) {
       return organizationId.getId();
     }
     
-    Identifier organizationIdentifier = findIdentifierByTypeSourceAndIdOrganizationId(organizationId.getType(), organizationId.getSource(), organizationId.getId(), null);
-    if (organizationIdentifier != null) {
-      return organizationIdentifier.getKuntaApiId();
+    IdMapping organizationMapping = findMappingById(organizationId);
+    if (organizationMapping != null) {
+      return organizationMapping.getKuntaApiId();
     }
     
     return null;
@@ -3,12 +3,15 @@ package fi.otavanopisto.kuntaapi.server.controllers;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.MenuId;
 import fi.otavanopisto.kuntaapi.server.id.MenuItemId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -31,6 +34,15 @@ public class MenuController {
     return result;
   }
 
+  public Map<MenuId, RawJsonValue> listMenusJson(OrganizationId organizationId) {
+    Map<MenuId, RawJsonValue> result = new LinkedHashMap<>();
+    
+    for (MenuProvider menuProvider : getMenuProviders()) {
+      result.putAll(menuProvider.listOrganizationMenusJson(organizationId));
+    }
+    return result;
+  }
+
   public Menu findMenu(OrganizationId organizationId, MenuId menuId) {
     for (MenuProvider menuProvider : getMenuProviders()) {
       Menu menu = menuProvider.findOrganizationMenu(organizationId, menuId);
@@ -42,6 +54,17 @@ public class MenuController {
     return null;
   }
 
+  public RawJsonValue findMenuJson(OrganizationId organizationId, MenuId menuId) {
+    for (MenuProvider menuProvider : getMenuProviders()) {
+      RawJsonValue menu = menuProvider.findOrganizationMenuJson(organizationId, menuId);
+      if (menu != null) {
+        return menu;
+      }
+    }
+    
+    return null;
+  }
+
   public List<MenuItem> listMenuItems(OrganizationId organizationId, MenuId menuId) {
     List<MenuItem> result = new ArrayList<>();
     
@@ -12,6 +12,7 @@ import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -27,10 +28,15 @@ public class NewsController {
   private Instance<NewsProvider> newsProviders;
 
   public List<NewsArticle> listNewsArticles(String slug, OffsetDateTime publishedBefore, OffsetDateTime publishedAfter, Integer firstResult, Integer maxResults, OrganizationId organizationId) {
+    List<NewsProvider> providers = getNewsProviders();
+    if (slug == null && providers.size() == 1) {
+      return providers.get(0).listOrganizationNews(organizationId, publishedBefore, publishedAfter, firstResult, maxResults);
+    }
+    
     List<NewsArticle> result = new ArrayList<>();
    
-    for (NewsProvider newsProvider : getNewsProviders()) {
-      List<NewsArticle> newArticles = newsProvider.listOrganizationNews(organizationId, publishedBefore, publishedAfter);
+    for (NewsProvider newsProvider : providers) {
+      List<NewsArticle> newArticles = newsProvider.listOrganizationNews(organizationId, publishedBefore, publishedAfter, null, null);
       if (newArticles != null && !newArticles.isEmpty()) {
         if (slug != null) {
           result.addAll(filterBySlug(newArticles, slug));
@@ -58,6 +64,17 @@ public class NewsController {
     return null;
   }
 
+  public RawJsonValue findNewsArticleJson(OrganizationId organizationId, NewsArticleId newsArticleId) {
+    for (NewsProvider newsProvider : getNewsProviders()) {
+      RawJsonValue newsArticle = newsProvider.findOrganizationNewsArticleJson(organizationId, newsArticleId);
+      if (newsArticle != null) {
+        return newsArticle;
+      }
+    }
+    
+    return null;
+  }
+
   public Attachment findNewsArticleImage(OrganizationId organizationId, NewsArticleId newsArticleId, AttachmentId attachmentId) {
     for (NewsProvider newsProvider : getNewsProviders()) {
       Attachment attachment = newsProvider.findNewsArticleImage(organizationId, newsArticleId, attachmentId);
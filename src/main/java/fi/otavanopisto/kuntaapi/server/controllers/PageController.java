@@ -12,6 +12,7 @@ import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -133,6 +134,17 @@ public class PageController {
     return null;
   }
 
+  public RawJsonValue findPageJson(OrganizationId organizationId, PageId pageId) {
+    for (PageProvider pageProvider : getPageProviders()) {
+      RawJsonValue page = pageProvider.findOrganizationPageJson(organizationId, pageId);
+      if (page != null) {
+        return page;
+      }
+    }
+    
+    return null;
+  }
+
   /**
    * Returns page contents as list of LocalizedValues. If the page is not provided by 
    * this provider, null is returned instead
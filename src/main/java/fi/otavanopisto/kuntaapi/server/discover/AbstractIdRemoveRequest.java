@@ -1,6 +1,11 @@
 package fi.otavanopisto.kuntaapi.server.discover;
 
-public abstract class AbstractIdRemoveRequest <T> {
+import java.io.Serializable;
+
+@SuppressWarnings ("squid:S1948")
+public abstract class AbstractIdRemoveRequest <T> implements Serializable {
+
+  private static final long serialVersionUID = -4403625791290432571L;
 
   private T id;  
   
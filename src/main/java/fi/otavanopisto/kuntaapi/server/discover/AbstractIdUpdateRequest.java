@@ -1,6 +1,11 @@
 package fi.otavanopisto.kuntaapi.server.discover;
 
-public abstract class AbstractIdUpdateRequest <T> {
+import java.io.Serializable;
+
+@SuppressWarnings ("squid:S1948")
+public abstract class AbstractIdUpdateRequest <T> implements Serializable {
+
+  private static final long serialVersionUID = 8358708663123833670L;
 
   private T id;  
   private boolean priority;
@@ -7,6 +7,8 @@ import fi.otavanopisto.kuntaapi.server.id.BannerId;
 
 public class BannerIdRemoveRequest extends AbstractIdRemoveRequest<BannerId> {
 
+  private static final long serialVersionUID = 5184427310672934217L;
+
   private OrganizationId organizationId;
   
   public BannerIdRemoveRequest(OrganizationId organizationId, BannerId id) {
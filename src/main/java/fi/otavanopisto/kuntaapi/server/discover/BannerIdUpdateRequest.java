@@ -7,6 +7,8 @@ import fi.otavanopisto.kuntaapi.server.id.BannerId;
 
 public class BannerIdUpdateRequest extends AbstractIdUpdateRequest<BannerId> {
 
+  private static final long serialVersionUID = 1940038019859553984L;
+
   private OrganizationId organizationId;
   
   public BannerIdUpdateRequest(OrganizationId organizationId, BannerId id, boolean priority) {
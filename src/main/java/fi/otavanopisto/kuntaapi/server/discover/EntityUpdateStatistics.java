@@ -0,0 +1,32 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+/**
+ * Snapshot of entity updater write statistics
+ * 
+ * @author Antti Leppä
+ */
+public class EntityUpdateStatistics {
+  
+  private final String name;
+  private final long written;
+  private final long skipped;
+  
+  public EntityUpdateStatistics(String name, long written, long skipped) {
+    this.name = name;
+    this.written = written;
+    this.skipped = skipped;
+  }
+  
+  public String getName() {
+    return name;
+  }
+  
+  public long getWritten() {
+    return written;
+  }
+  
+  public long getSkipped() {
+    return skipped;
+  }
+  
+}
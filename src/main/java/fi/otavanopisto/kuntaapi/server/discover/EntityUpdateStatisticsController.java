@@ -0,0 +1,55 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Counts entities written and skipped as unmodified by entity updaters
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+public class EntityUpdateStatisticsController {
+  
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+  
+  public void recordWritten(String updaterName) {
+    getCounter(updaterName).written.incrementAndGet();
+  }
+  
+  public void recordSkipped(String updaterName) {
+    getCounter(updaterName).skipped.incrementAndGet();
+  }
+  
+  /**
+   * Returns statistics of all updaters that have processed entities
+   * 
+   * @return statistics
+   */
+  public List<EntityUpdateStatistics> getStatistics() {
+    List<EntityUpdateStatistics> result = new ArrayList<>(counters.size());
+    for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+      Counter counter = entry.getValue();
+      result.add(new EntityUpdateStatistics(entry.getKey(), counter.written.get(), counter.skipped.get()));
+    }
+    
+    return result;
+  }
+  
+  private Counter getCounter(String updaterName) {
+    return counters.computeIfAbsent(updaterName, name -> new Counter());
+  }
+  
+  private static class Counter {
+    
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    
+  }
+  
+}
@@ -1,20 +1,54 @@
 package fi.otavanopisto.kuntaapi.server.discover;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.inject.Inject;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import fi.otavanopisto.kuntaapi.server.cache.AbstractCache;
+import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
 public abstract class EntityUpdater {
   
+  /**
+   * Version mixed into entity hashes. Bump this when translation of source entities changes 
+   * so that entities with unchanged sources are translated again instead of being skipped. 
+   * Stored HTTP validators are tagged with this version too, so that conditional requests do 
+   * not report unchanged sources as not modified after the version changes.
+   */
+  public static final String HASH_VERSION = "1";
+  
   @Inject
   private Logger logger;
   
+  @Inject
+  private ModificationHashCache modificationHashCache;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  @Inject
+  private EntityUpdateStatisticsController entityUpdateStatisticsController;
+  
+  @Inject
+  private UpdateWorkerController updateWorkerController;
+  
+  @Inject
+  private UpdateQueueController updateQueueController;
+  
   public abstract void startTimer();
   
   public abstract void stopTimer();
@@ -23,7 +57,10 @@ public abstract class EntityUpdater {
   
   protected String createPojoHash(Object entity) {
     try {
-      return DigestUtils.md5Hex(new ObjectMapper().writeValueAsBytes(entity));
+      MessageDigest digest = DigestUtils.getMd5Digest();
+      digest.update(HASH_VERSION.getBytes(StandardCharsets.UTF_8));
+      digest.update(new ObjectMapper().writeValueAsBytes(entity));
+      return Hex.encodeHexString(digest.digest());
     } catch (JsonProcessingException e) {
       logger.log(Level.SEVERE, "Failed to create hash", e);
     }
@@ -31,4 +68,95 @@ public abstract class EntityUpdater {
     return null;
   }
   
+  /**
+   * Returns whether entity can be skipped because its hash equals the stored modification hash.
+   * 
+   * @param kuntaApiId Kunta API id of the entity
+   * @param hash hash of the entity
+   * @return whether entity is unmodified
+   */
+  protected boolean isUnmodified(String kuntaApiId, String hash) {
+    return isUnmodified(kuntaApiId, hash, null, null);
+  }
+  
+  /**
+   * Returns whether entity can be skipped because its hash equals the stored modification hash 
+   * and the entity is still present in the entity cache. 
+   * 
+   * @param kuntaApiId Kunta API id of the entity
+   * @param hash hash of the entity
+   * @param entityCache cache holding the entity
+   * @param entityId id of the entity in the cache
+   * @return whether entity is unmodified
+   */
+  protected <K> boolean isUnmodified(String kuntaApiId, String hash, AbstractCache<K, ?> entityCache, K entityId) {
+    return isUnmodified(kuntaApiId, hash, () -> entityCache == null || entityCache.contains(entityId));
+  }
+  
+  /**
+   * Returns whether entity can be skipped because its hash equals the stored modification hash 
+   * and the given check reports that all cached data of the entity is still present. 
+   * 
+   * @param kuntaApiId Kunta API id of the entity
+   * @param hash hash of the entity
+   * @param cached check for cached entity data. Called only when hashes match
+   * @return whether entity is unmodified
+   */
+  protected boolean isUnmodified(String kuntaApiId, String hash, BooleanSupplier cached) {
+    boolean unmodified = hash != null 
+        && isSkipUnmodifiedEnabled()
+        && StringUtils.equals(hash, modificationHashCache.get(kuntaApiId))
+        && cached.getAsBoolean();
+    
+    if (unmodified) {
+      entityUpdateStatisticsController.recordSkipped(getName());
+    } else {
+      entityUpdateStatisticsController.recordWritten(getName());
+    }
+    
+    return unmodified;
+  }
+  
+  /**
+   * Records an entity skipped because upstream reported it as not modified
+   */
+  protected void recordNotModified() {
+    entityUpdateStatisticsController.recordSkipped(getName());
+  }
+  
+  /**
+   * Processes items from the head of the queue. Batch size and concurrency are configured per updater
+   * 
+   * @param queue queue
+   * @param processor item processor
+   */
+  protected <T> void processQueue(UpdateQueue<T> queue, Consumer<T> processor) {
+    updateWorkerController.processQueue(getName(), queue, processor);
+  }
+  
+  /**
+   * Processes items from the head of the queue within the adaptive request rate shared by updaters of the source
+   * 
+   * @param source source the items are fetched from
+   * @param queue queue
+   * @param processor item processor
+   */
+  protected <T> void processQueue(String source, UpdateQueue<T> queue, Consumer<T> processor) {
+    updateWorkerController.processQueue(getName(), source, queue, processor);
+  }
+  
+  /**
+   * Creates new update queue that is listed in queue diagnostics
+   * 
+   * @param name queue name
+   * @return created queue
+   */
+  protected <T> UpdateQueue<T> createQueue(String name) {
+    return updateQueueController.createQueue(name);
+  }
+  
+  private boolean isSkipUnmodifiedEnabled() {
+    return !"false".equals(systemSettingController.getSettingValue(KuntaApiConsts.SYSTEM_SETTING_SKIP_UNMODIFIED_ENTITIES));
+  }
+  
 }
@@ -11,6 +11,8 @@ import javax.inject.Inject;
 import com.bertoncelj.wildflysingletonservice.Start;
 import com.bertoncelj.wildflysingletonservice.Stop;
 
+import fi.otavanopisto.kuntaapi.server.cache.CacheSnapshotController;
+
 @ApplicationScoped
 @SuppressWarnings ("squid:S3306")
 public class EntityUpdaterInitializer {
@@ -18,12 +20,21 @@ public class EntityUpdaterInitializer {
   @Inject
   private Logger logger;
   
+  @Inject
+  private CacheSnapshotController cacheSnapshotController;
+  
+  @Inject
+  private UpdateQueueController updateQueueController;
+  
   @Inject
   @Any
   private Instance<EntityUpdater> entityUpdaters;
   
   @Start
   public void start() {
+    cacheSnapshotController.restoreSnapshots();
+    updateQueueController.attachStore();
+    
     Iterator<EntityUpdater> updaters = entityUpdaters.iterator();
     while (updaters.hasNext()) {
       EntityUpdater updater = updaters.next();
@@ -34,6 +45,8 @@ public class EntityUpdaterInitializer {
   
   @Stop
   public void stop() {
+    updateQueueController.detachStore();
+    
     Iterator<EntityUpdater> updaters = entityUpdaters.iterator();
     while (updaters.hasNext()) {
       EntityUpdater updater = updaters.next();
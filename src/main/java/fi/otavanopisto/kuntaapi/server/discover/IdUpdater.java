@@ -1,12 +1,52 @@
 package fi.otavanopisto.kuntaapi.server.discover;
 
-@SuppressWarnings ("squid:S1610")
+import java.util.function.Consumer;
+
+import javax.inject.Inject;
+
 public abstract class IdUpdater {
   
+  @Inject
+  private UpdateWorkerController updateWorkerController;
+  
+  @Inject
+  private UpdateQueueController updateQueueController;
+  
   public abstract void startTimer();
   
   public abstract void stopTimer();
   
   public abstract String getName();
   
+  /**
+   * Processes items from the head of the queue. Batch size and concurrency are configured per updater
+   * 
+   * @param queue queue
+   * @param processor item processor
+   */
+  protected <T> void processQueue(UpdateQueue<T> queue, Consumer<T> processor) {
+    updateWorkerController.processQueue(getName(), queue, processor);
+  }
+  
+  /**
+   * Processes items from the head of the queue within the adaptive request rate shared by updaters of the source
+   * 
+   * @param source source the items are fetched from
+   * @param queue queue
+   * @param processor item processor
+   */
+  protected <T> void processQueue(String source, UpdateQueue<T> queue, Consumer<T> processor) {
+    updateWorkerController.processQueue(getName(), source, queue, processor);
+  }
+  
+  /**
+   * Creates new update queue that is listed in queue diagnostics
+   * 
+   * @param name queue name
+   * @return created queue
+   */
+  protected <T> UpdateQueue<T> createQueue(String name) {
+    return updateQueueController.createQueue(name);
+  }
+  
 }
@@ -11,6 +11,8 @@ import javax.inject.Inject;
 import com.bertoncelj.wildflysingletonservice.Start;
 import com.bertoncelj.wildflysingletonservice.Stop;
 
+import fi.otavanopisto.kuntaapi.server.cache.CacheSnapshotController;
+
 @ApplicationScoped
 @SuppressWarnings ("squid:S3306")
 public class IdUpdaterInitializer {
@@ -18,12 +20,21 @@ public class IdUpdaterInitializer {
   @Inject
   private Logger logger;
   
+  @Inject
+  private CacheSnapshotController cacheSnapshotController;
+  
+  @Inject
+  private UpdateQueueController updateQueueController;
+  
   @Inject
   @Any
   private Instance<IdUpdater> idUpdaters;
 
   @Start
   public void start() {
+    cacheSnapshotController.restoreSnapshots();
+    updateQueueController.attachStore();
+    
     Iterator<IdUpdater> updaters = idUpdaters.iterator();
     while (updaters.hasNext()) {
       IdUpdater updater = updaters.next();
@@ -34,6 +45,8 @@ public class IdUpdaterInitializer {
   
   @Stop
   public void stop() {
+    updateQueueController.detachStore();
+    
     Iterator<IdUpdater> updaters = idUpdaters.iterator();
     while (updaters.hasNext()) {
       IdUpdater updater = updaters.next();
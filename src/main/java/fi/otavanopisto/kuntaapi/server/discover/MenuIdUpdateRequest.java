@@ -7,6 +7,8 @@ import fi.otavanopisto.kuntaapi.server.id.MenuId;
 
 public class MenuIdUpdateRequest extends AbstractIdUpdateRequest<MenuId> {
 
+  private static final long serialVersionUID = -2768920541460141231L;
+
   private OrganizationId organizationId;
   
   public MenuIdUpdateRequest(OrganizationId organizationId, MenuId id, boolean priority) {
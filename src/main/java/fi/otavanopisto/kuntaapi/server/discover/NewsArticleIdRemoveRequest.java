@@ -7,6 +7,8 @@ import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
 
 public class NewsArticleIdRemoveRequest extends AbstractIdRemoveRequest<NewsArticleId> {
 
+  private static final long serialVersionUID = 7731259046183519960L;
+
   private OrganizationId organizationId;
   
   public NewsArticleIdRemoveRequest(OrganizationId organizationId, NewsArticleId id) {
@@ -7,6 +7,8 @@ import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
 
 public class NewsArticleIdUpdateRequest extends AbstractIdUpdateRequest<NewsArticleId> {
 
+  private static final long serialVersionUID = 2508024840701338837L;
+
   private OrganizationId organizationId;
   
   public NewsArticleIdUpdateRequest(OrganizationId organizationId, NewsArticleId id, boolean priority) {
@@ -4,6 +4,8 @@ import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 
 public class OrganizationIdUpdateRequest extends AbstractIdUpdateRequest<OrganizationId> {
 
+  private static final long serialVersionUID = 3102205164250005416L;
+
   public OrganizationIdUpdateRequest(OrganizationId id, boolean priority) {
     super(id, priority);
   }
@@ -7,6 +7,8 @@ import fi.otavanopisto.kuntaapi.server.id.PageId;
 
 public class PageIdRemoveRequest extends AbstractIdRemoveRequest<PageId> {
 
+  private static final long serialVersionUID = -2879035148870365502L;
+
   private OrganizationId organizationId;
   
   public PageIdRemoveRequest(OrganizationId organizationId, PageId id) {
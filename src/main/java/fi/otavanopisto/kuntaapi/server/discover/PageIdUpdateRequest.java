@@ -7,6 +7,8 @@ import fi.otavanopisto.kuntaapi.server.id.PageId;
 
 public class PageIdUpdateRequest extends AbstractIdUpdateRequest<PageId> {
 
+  private static final long serialVersionUID = 3898798140915319564L;
+
   private OrganizationId organizationId;
   
   public PageIdUpdateRequest(OrganizationId organizationId, PageId id, boolean priority) {
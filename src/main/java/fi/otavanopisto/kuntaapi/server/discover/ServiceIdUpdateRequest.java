@@ -4,6 +4,8 @@ import fi.otavanopisto.kuntaapi.server.id.ServiceId;
 
 public class ServiceIdUpdateRequest extends AbstractIdUpdateRequest<ServiceId> {
 
+  private static final long serialVersionUID = -2571041371269454444L;
+
   public ServiceIdUpdateRequest(ServiceId id, boolean priority) {
     super(id, priority);
   }
@@ -0,0 +1,299 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Deduplicating update queue shared by updaters.
+ * 
+ * Items are kept in two FIFO lanes; priority items are always polled before normal ones. Adding 
+ * an item that is already queued is a no-op, except that a priority add promotes a queued normal 
+ * item into the priority lane. Items can also be re-enqueued after a delay, in which case they 
+ * move into the normal lane once due. All operations except promotion of due delayed items are O(1).
+ * 
+ * While a store is attached, every change to a serializable item is mirrored into the store so 
+ * that the queue can be restored on another node. Items that are not serializable stay in memory only.
+ * 
+ * @author Antti Leppä
+ *
+ * @param <T> item type
+ */
+public class UpdateQueue<T> {
+  
+  private final String name;
+  private final LinkedHashMap<T, Long> priorityLane = new LinkedHashMap<>();
+  private final LinkedHashMap<T, Long> normalLane = new LinkedHashMap<>();
+  private final Map<T, Long> delayed = new HashMap<>();
+  private final PriorityQueue<DelayedItem<T>> delayedOrder = new PriorityQueue<>();
+  private long enqueued;
+  private long deduplicated;
+  private long polled;
+  private UpdateQueueStore store;
+  private final Map<T, String> storeKeys = new HashMap<>();
+  
+  public UpdateQueue(String name) {
+    this.name = name;
+  }
+  
+  public String getName() {
+    return name;
+  }
+  
+  /**
+   * Adds item into the queue
+   * 
+   * @param item item
+   * @param priority whether item should be added into the priority lane
+   */
+  public synchronized void add(T item, boolean priority) {
+    if (priorityLane.containsKey(item)) {
+      deduplicated++;
+      return;
+    }
+    
+    Long queuedAt = normalLane.get(item);
+    if (queuedAt != null) {
+      deduplicated++;
+      if (priority) {
+        normalLane.remove(item);
+        priorityLane.put(item, queuedAt);
+        persist(item, true, queuedAt, 0);
+      }
+      
+      return;
+    }
+    
+    delayed.remove(item);
+    enqueued++;
+    
+    long now = System.currentTimeMillis();
+    if (priority) {
+      priorityLane.put(item, now);
+    } else {
+      normalLane.put(item, now);
+    }
+    
+    persist(item, priority, now, 0);
+  }
+  
+  /**
+   * Adds item into the normal lane after given delay unless it is queued already 
+   * 
+   * @param item item
+   * @param delayMillis delay in milliseconds
+   */
+  public synchronized void addDelayed(T item, long delayMillis) {
+    if (priorityLane.containsKey(item) || normalLane.containsKey(item)) {
+      deduplicated++;
+      return;
+    }
+    
+    long dueAt = System.currentTimeMillis() + delayMillis;
+    Long previous = delayed.put(item, dueAt);
+    if (previous == null || previous != dueAt) {
+      delayedOrder.add(new DelayedItem<>(item, dueAt));
+      persist(item, false, System.currentTimeMillis(), dueAt);
+    }
+  }
+  
+  /**
+   * Removes and returns the next item
+   * 
+   * @return next item or null if queue is empty
+   */
+  public synchronized T poll() {
+    promoteDueItems();
+    
+    T result = pollFirst(priorityLane);
+    if (result == null) {
+      result = pollFirst(normalLane);
+    }
+    
+    if (result != null) {
+      polled++;
+      unpersist(result);
+    }
+    
+    return result;
+  }
+  
+  /**
+   * Removes item from the queue
+   * 
+   * @param item item
+   */
+  public synchronized void remove(T item) {
+    priorityLane.remove(item);
+    normalLane.remove(item);
+    delayed.remove(item);
+    unpersist(item);
+  }
+  
+  /**
+   * Returns whether the queue has no items ready to be polled
+   * 
+   * @return whether the queue has no items ready to be polled
+   */
+  public synchronized boolean isEmpty() {
+    promoteDueItems();
+    return priorityLane.isEmpty() && normalLane.isEmpty();
+  }
+  
+  /**
+   * Returns number of items ready to be polled
+   * 
+   * @return number of items ready to be polled
+   */
+  public synchronized int size() {
+    promoteDueItems();
+    return priorityLane.size() + normalLane.size();
+  }
+  
+  /**
+   * Returns depth and age statistics of the queue
+   * 
+   * @return statistics
+   */
+  public synchronized UpdateQueueStatistics getStatistics() {
+    promoteDueItems();
+    
+    long now = System.currentTimeMillis();
+    long oldest = Math.min(getFirstQueuedAt(priorityLane, now), getFirstQueuedAt(normalLane, now));
+    
+    return new UpdateQueueStatistics(name, priorityLane.size(), normalLane.size(), delayed.size(), 
+        now - oldest, enqueued, deduplicated, polled);
+  }
+  
+  /**
+   * Attaches a store into the queue. Entries already in the store are merged into the queue and
+   * items only present in memory are written into the store.
+   * 
+   * @param store store
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized void attachStore(UpdateQueueStore store) {
+    this.store = store;
+    
+    List<Map.Entry<String, UpdateQueueEntry>> storedEntries = new ArrayList<>(store.list(name).entrySet());
+    storedEntries.sort((entry1, entry2) -> Long.compare(entry1.getValue().getQueuedAt(), entry2.getValue().getQueuedAt()));
+    
+    for (Map.Entry<String, UpdateQueueEntry> stored : storedEntries) {
+      String key = stored.getKey();
+      UpdateQueueEntry entry = stored.getValue();
+      T item = (T) entry.getItem();
+      
+      if (storeKeys.containsKey(item) || priorityLane.containsKey(item) || normalLane.containsKey(item) || delayed.containsKey(item)) {
+        store.remove(key);
+      } else {
+        storeKeys.put(item, key);
+        restore(item, entry);
+      }
+    }
+    
+    for (Map.Entry<T, Long> queued : priorityLane.entrySet()) {
+      persist(queued.getKey(), true, queued.getValue(), 0);
+    }
+    
+    for (Map.Entry<T, Long> queued : normalLane.entrySet()) {
+      persist(queued.getKey(), false, queued.getValue(), 0);
+    }
+    
+    for (Map.Entry<T, Long> queued : delayed.entrySet()) {
+      persist(queued.getKey(), false, System.currentTimeMillis(), queued.getValue());
+    }
+  }
+  
+  /**
+   * Detaches the store from the queue. Stored entries are left in place for the next owner of the queue
+   */
+  public synchronized void detachStore() {
+    store = null;
+    storeKeys.clear();
+  }
+  
+  private void restore(T item, UpdateQueueEntry entry) {
+    if (entry.isDelayed()) {
+      delayed.put(item, entry.getDueAt());
+      delayedOrder.add(new DelayedItem<>(item, entry.getDueAt()));
+    } else if (entry.isPriority()) {
+      priorityLane.put(item, entry.getQueuedAt());
+    } else {
+      normalLane.put(item, entry.getQueuedAt());
+    }
+  }
+  
+  private void persist(T item, boolean priority, long queuedAt, long dueAt) {
+    if (store == null || !(item instanceof Serializable)) {
+      return;
+    }
+    
+    String key = storeKeys.get(item);
+    if (key == null) {
+      key = String.format("%s/%s", name, UUID.randomUUID().toString());
+      storeKeys.put(item, key);
+    }
+    
+    store.store(key, new UpdateQueueEntry(name, (Serializable) item, priority, queuedAt, dueAt));
+  }
+  
+  private void unpersist(T item) {
+    String key = storeKeys.remove(item);
+    if (key != null && store != null) {
+      store.remove(key);
+    }
+  }
+  
+  private long getFirstQueuedAt(LinkedHashMap<T, Long> lane, long defaultValue) {
+    Iterator<Long> iterator = lane.values().iterator();
+    return iterator.hasNext() ? iterator.next() : defaultValue;
+  }
+  
+  private void promoteDueItems() {
+    long now = System.currentTimeMillis();
+    
+    while (!delayedOrder.isEmpty() && delayedOrder.peek().dueAt <= now) {
+      DelayedItem<T> delayedItem = delayedOrder.poll();
+      Long dueAt = delayed.get(delayedItem.item);
+      if (dueAt != null && dueAt == delayedItem.dueAt) {
+        delayed.remove(delayedItem.item);
+        add(delayedItem.item, false);
+      }
+    }
+  }
+  
+  private T pollFirst(LinkedHashMap<T, Long> lane) {
+    Iterator<T> iterator = lane.keySet().iterator();
+    if (iterator.hasNext()) {
+      T result = iterator.next();
+      iterator.remove();
+      return result;
+    }
+    
+    return null;
+  }
+  
+  private static class DelayedItem<T> implements Comparable<DelayedItem<T>> {
+    
+    private final T item;
+    private final long dueAt;
+    
+    public DelayedItem(T item, long dueAt) {
+      this.item = item;
+      this.dueAt = dueAt;
+    }
+    
+    @Override
+    public int compareTo(DelayedItem<T> other) {
+      return Long.compare(dueAt, other.dueAt);
+    }
+    
+  }
+  
+}
@@ -0,0 +1,94 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.CacheContainer;
+
+/**
+ * Update queue store backed by the "updatequeues" cache. 
+ * 
+ * The cache should be configured as replicated, so that pending items are available 
+ * on whichever node takes over the singleton updaters. Entries are stored as serialized bytes 
+ * so the cache never needs to load deployment classes. 
+ * 
+ * Entries are written synchronously, so a removal can never be applied before the write it 
+ * removes. Entries expire after ENTRY_LIFESPAN_HOURS in case a removal is lost anyway.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class UpdateQueueCacheStore implements UpdateQueueStore {
+  
+  public static final String CACHE_NAME = "updatequeues";
+  
+  private static final long ENTRY_LIFESPAN_HOURS = 24;
+  
+  @Inject
+  private Logger logger;
+
+  @Resource (lookup = "java:jboss/infinispan/container/kunta-api")
+  private CacheContainer cacheContainer;
+  
+  public Cache<String, byte[]> getCache() {
+    return cacheContainer.getCache(CACHE_NAME);
+  }
+  
+  @Override
+  public Map<String, UpdateQueueEntry> list(String queueName) {
+    Map<String, UpdateQueueEntry> result = new HashMap<>();
+    String prefix = queueName + "/";
+    
+    Cache<String, byte[]> cache = getCache();
+    for (Map.Entry<String, byte[]> cacheEntry : cache.entrySet()) {
+      String key = cacheEntry.getKey();
+      if (key.startsWith(prefix)) {
+        UpdateQueueEntry entry = deserialize(key, cacheEntry.getValue());
+        if (entry != null) {
+          result.put(key, entry);
+        } else {
+          cache.remove(key);
+        }
+      }
+    }
+    
+    return result;
+  }
+
+  @Override
+  public void store(String key, UpdateQueueEntry entry) {
+    getCache().getAdvancedCache()
+      .withFlags(Flag.IGNORE_RETURN_VALUES)
+      .put(key, SerializationUtils.serialize(entry), ENTRY_LIFESPAN_HOURS, TimeUnit.HOURS);
+  }
+
+  @Override
+  public void remove(String key) {
+    getCache().getAdvancedCache()
+      .withFlags(Flag.IGNORE_RETURN_VALUES)
+      .remove(key);
+  }
+  
+  private UpdateQueueEntry deserialize(String key, byte[] data) {
+    try {
+      return SerializationUtils.deserialize(data);
+    } catch (SerializationException | ClassCastException e) {
+      logger.log(Level.WARNING, String.format("Discarding unreadable update queue entry %s", key), e);
+    }
+    
+    return null;
+  }
+  
+}
@@ -0,0 +1,106 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
+/**
+ * Keeps track of updater queues for diagnostics and attaches them into the durable 
+ * queue store while this node owns the updaters
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class UpdateQueueController {
+  
+  @Inject
+  private Logger logger;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  @Inject
+  private UpdateQueueCacheStore updateQueueCacheStore;
+  
+  private final Map<String, UpdateQueue<?>> queues = new ConcurrentHashMap<>();
+  
+  private UpdateQueueStore store;
+  
+  /**
+   * Creates new update queue. If the store is attached, the queue is restored from it immediately
+   * 
+   * @param name queue name
+   * @return created queue
+   */
+  public synchronized <T> UpdateQueue<T> createQueue(String name) {
+    UpdateQueue<T> queue = new UpdateQueue<>(name);
+    queues.put(name, queue);
+    
+    if (store != null) {
+      queue.attachStore(store);
+    }
+    
+    return queue;
+  }
+  
+  /**
+   * Attaches all queues into the durable queue store when durable queues are enabled. 
+   * Called when this node starts running the updaters, subsequent calls do nothing.
+   */
+  public synchronized void attachStore() {
+    if (store != null || !isDurableQueuesEnabled()) {
+      return;
+    }
+    
+    store = updateQueueCacheStore;
+    
+    for (UpdateQueue<?> queue : queues.values()) {
+      queue.attachStore(store);
+    }
+    
+    logger.info(String.format("Attached %d update queues into durable store", queues.size()));
+  }
+  
+  /**
+   * Detaches all queues from the durable queue store. Stored items are kept for the next node running the updaters
+   */
+  public synchronized void detachStore() {
+    if (store == null) {
+      return;
+    }
+    
+    store = null;
+    
+    for (UpdateQueue<?> queue : queues.values()) {
+      queue.detachStore();
+    }
+  }
+  
+  /**
+   * Returns statistics of all update queues
+   * 
+   * @return statistics
+   */
+  public List<UpdateQueueStatistics> getStatistics() {
+    List<UpdateQueueStatistics> result = new ArrayList<>(queues.size());
+    for (UpdateQueue<?> queue : queues.values()) {
+      result.add(queue.getStatistics());
+    }
+    
+    return result;
+  }
+  
+  private boolean isDurableQueuesEnabled() {
+    return "true".equals(systemSettingController.getSettingValue(KuntaApiConsts.SYSTEM_SETTING_DURABLE_UPDATE_QUEUES));
+  }
+  
+}
@@ -0,0 +1,61 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.io.Serializable;
+
+/**
+ * Stored state of a single update queue item
+ * 
+ * @author Antti Leppä
+ */
+public class UpdateQueueEntry implements Serializable {
+  
+  private static final long serialVersionUID = 2391740913725061552L;
+  
+  private final String queueName;
+  private final Serializable item;
+  private final boolean priority;
+  private final long queuedAt;
+  private final long dueAt;
+  
+  /**
+   * Constructor
+   * 
+   * @param queueName queue name
+   * @param item queued item
+   * @param priority whether item is in the priority lane
+   * @param queuedAt time when item was queued
+   * @param dueAt time when a delayed item becomes due or 0 when item is not delayed
+   */
+  public UpdateQueueEntry(String queueName, Serializable item, boolean priority, long queuedAt, long dueAt) {
+    this.queueName = queueName;
+    this.item = item;
+    this.priority = priority;
+    this.queuedAt = queuedAt;
+    this.dueAt = dueAt;
+  }
+  
+  public String getQueueName() {
+    return queueName;
+  }
+  
+  public Serializable getItem() {
+    return item;
+  }
+  
+  public boolean isPriority() {
+    return priority;
+  }
+  
+  public long getQueuedAt() {
+    return queuedAt;
+  }
+  
+  public long getDueAt() {
+    return dueAt;
+  }
+  
+  public boolean isDelayed() {
+    return dueAt > 0;
+  }
+  
+}
@@ -0,0 +1,63 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+/**
+ * Snapshot of update queue depth and age statistics
+ * 
+ * @author Antti Leppä
+ */
+public class UpdateQueueStatistics {
+  
+  private final String name;
+  private final int priorityDepth;
+  private final int normalDepth;
+  private final int delayedDepth;
+  private final long oldestAgeMillis;
+  private final long enqueued;
+  private final long deduplicated;
+  private final long polled;
+  
+  @SuppressWarnings ("squid:S00107")
+  public UpdateQueueStatistics(String name, int priorityDepth, int normalDepth, int delayedDepth, long oldestAgeMillis, long enqueued, long deduplicated, long polled) {
+    this.name = name;
+    this.priorityDepth = priorityDepth;
+    this.normalDepth = normalDepth;
+    this.delayedDepth = delayedDepth;
+    this.oldestAgeMillis = oldestAgeMillis;
+    this.enqueued = enqueued;
+    this.deduplicated = deduplicated;
+    this.polled = polled;
+  }
+  
+  public String getName() {
+    return name;
+  }
+  
+  public int getPriorityDepth() {
+    return priorityDepth;
+  }
+  
+  public int getNormalDepth() {
+    return normalDepth;
+  }
+  
+  public int getDelayedDepth() {
+    return delayedDepth;
+  }
+  
+  public long getOldestAgeMillis() {
+    return oldestAgeMillis;
+  }
+  
+  public long getEnqueued() {
+    return enqueued;
+  }
+  
+  public long getDeduplicated() {
+    return deduplicated;
+  }
+  
+  public long getPolled() {
+    return polled;
+  }
+  
+}
@@ -0,0 +1,35 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.util.Map;
+
+/**
+ * Storage for pending update queue items that outlives the node owning the queues
+ * 
+ * @author Antti Leppä
+ */
+public interface UpdateQueueStore {
+  
+  /**
+   * Lists stored entries of a queue
+   * 
+   * @param queueName queue name
+   * @return stored entries by store key
+   */
+  public Map<String, UpdateQueueEntry> list(String queueName);
+  
+  /**
+   * Stores an entry, replacing existing entry with same key
+   * 
+   * @param key store key
+   * @param entry entry
+   */
+  public void store(String key, UpdateQueueEntry entry);
+  
+  /**
+   * Removes an entry
+   * 
+   * @param key store key
+   */
+  public void remove(String key);
+  
+}
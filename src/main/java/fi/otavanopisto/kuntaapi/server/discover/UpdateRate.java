@@ -0,0 +1,170 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+/**
+ * Adaptive update rate of a single upstream source.
+ * 
+ * The rate is measured in update queue items per second; an item may cause more than one 
+ * upstream request. Permits are handed out from a token bucket refilled at the current rate. 
+ * When the bucket has throttled an acquire, the next healthy response grows the rate by one 
+ * item per second, at most once per second. Failures and responses slower than the latency 
+ * target cut the rate in half, at most once per cooldown period so that a single burst of 
+ * errors counts as one congestion signal. The rate always stays between configured minimum 
+ * and maximum.
+ * 
+ * All methods take current time as a parameter, so the rate can be driven by a simulated clock.
+ * 
+ * @author Antti Leppä
+ */
+public class UpdateRate {
+  
+  private static final double INCREASE_STEP = 1d;
+  private static final double DECREASE_FACTOR = 0.5d;
+  private static final long DECREASE_COOLDOWN = 1000L;
+  private static final long INCREASE_INTERVAL = 1000L;
+  private static final double LATENCY_SMOOTHING = 0.2d;
+  
+  private final String source;
+  private final double minRate;
+  private final double maxRate;
+  private final long latencyTarget;
+  private double rate;
+  private double tokens;
+  private long refilledAt;
+  private long decreasedAt;
+  private long increasedAt;
+  private boolean saturated;
+  private double averageLatency;
+  private long granted;
+  private long throttled;
+  private long successes;
+  private long failures;
+  private long decreases;
+  
+  /**
+   * Constructor
+   * 
+   * @param source source name
+   * @param initialRate initial rate in items per second
+   * @param minRate minimum rate in items per second
+   * @param maxRate maximum rate in items per second
+   * @param latencyTarget latency in milliseconds above which responses are treated as a congestion signal
+   * @param now current time in milliseconds
+   */
+  public UpdateRate(String source, double initialRate, double minRate, double maxRate, long latencyTarget, long now) {
+    this.source = source;
+    this.minRate = minRate;
+    this.maxRate = Math.max(minRate, maxRate);
+    this.latencyTarget = latencyTarget;
+    this.rate = Math.min(this.maxRate, Math.max(minRate, initialRate));
+    this.tokens = 1d;
+    this.refilledAt = now;
+    this.decreasedAt = now - DECREASE_COOLDOWN;
+    this.increasedAt = now - INCREASE_INTERVAL;
+  }
+  
+  /**
+   * Takes at most requested amount of permits
+   * 
+   * @param requested requested amount of permits
+   * @param now current time in milliseconds
+   * @return granted amount of permits, possibly zero
+   */
+  public synchronized int acquire(int requested, long now) {
+    refill(now);
+    
+    int result = (int) Math.min(requested, Math.floor(tokens));
+    if (result < requested) {
+      saturated = true;
+    }
+    
+    if (result <= 0) {
+      throttled++;
+      return 0;
+    }
+    
+    tokens -= result;
+    granted += result;
+    
+    return result;
+  }
+  
+  /**
+   * Returns unused permits into the bucket
+   * 
+   * @param permits amount of unused permits
+   */
+  public synchronized void release(int permits) {
+    tokens = Math.min(getCapacity(), tokens + permits);
+    granted -= permits;
+  }
+  
+  /**
+   * Records a successful response
+   * 
+   * @param latency response latency in milliseconds
+   * @param now current time in milliseconds
+   */
+  public synchronized void recordSuccess(long latency, long now) {
+    successes++;
+    averageLatency = averageLatency == 0d ? latency : averageLatency + (latency - averageLatency) * LATENCY_SMOOTHING;
+    
+    if (latency > latencyTarget) {
+      decrease(now);
+    } else if (saturated && now - increasedAt >= INCREASE_INTERVAL) {
+      increasedAt = now;
+      saturated = false;
+      rate = Math.min(maxRate, rate + INCREASE_STEP);
+    }
+  }
+  
+  /**
+   * Records a failed or timed out request
+   * 
+   * @param now current time in milliseconds
+   */
+  public synchronized void recordFailure(long now) {
+    failures++;
+    decrease(now);
+  }
+  
+  /**
+   * Returns current rate in items per second
+   * 
+   * @return current rate in items per second
+   */
+  public synchronized double getRate() {
+    return rate;
+  }
+  
+  /**
+   * Returns snapshot of the rate state
+   * 
+   * @return statistics
+   */
+  public synchronized UpdateRateStatistics getStatistics() {
+    return new UpdateRateStatistics(source, rate, minRate, maxRate, Math.round(averageLatency), granted, throttled, successes, failures, decreases);
+  }
+  
+  private void decrease(long now) {
+    if (now - decreasedAt < DECREASE_COOLDOWN) {
+      return;
+    }
+    
+    decreasedAt = now;
+    decreases++;
+    rate = Math.max(minRate, rate * DECREASE_FACTOR);
+    tokens = Math.min(tokens, 0d);
+  }
+  
+  private void refill(long now) {
+    if (now > refilledAt) {
+      tokens = Math.min(getCapacity(), tokens + (now - refilledAt) * rate / 1000d);
+      refilledAt = now;
+    }
+  }
+  
+  private double getCapacity() {
+    return Math.max(1d, rate);
+  }
+  
+}
@@ -0,0 +1,113 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
+/**
+ * Controller for adaptive per-source update rates. 
+ * 
+ * All updaters of a source share a single rate measured in update queue items per second. 
+ * Integration clients report upstream responses to the controller, and timeouts, throttling 
+ * and server errors back the rate off.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class UpdateRateController {
+  
+  private static final double DEFAULT_INITIAL_RATE = 2d;
+  private static final double DEFAULT_MIN_RATE = 0.1d;
+  private static final double DEFAULT_MAX_RATE = 20d;
+  private static final long DEFAULT_LATENCY_TARGET = 5000L;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  private final Map<String, UpdateRate> rates = new ConcurrentHashMap<>();
+  
+  /**
+   * Takes at most requested amount of permits for updating items of the source
+   * 
+   * @param source source
+   * @param requested requested amount of permits
+   * @return granted amount of permits, possibly zero
+   */
+  public int acquire(String source, int requested) {
+    return getRate(source).acquire(requested, System.currentTimeMillis());
+  }
+  
+  /**
+   * Returns unused permits of the source
+   * 
+   * @param source source
+   * @param permits amount of unused permits
+   */
+  public void release(String source, int permits) {
+    if (permits > 0) {
+      getRate(source).release(permits);
+    }
+  }
+  
+  /**
+   * Records an upstream response of the source
+   * 
+   * @param source source
+   * @param status HTTP status of the response
+   * @param latency response latency in milliseconds
+   */
+  public void recordResponse(String source, int status, long latency) {
+    UpdateRate rate = getRate(source);
+    long now = System.currentTimeMillis();
+    
+    if (isFailure(status)) {
+      rate.recordFailure(now);
+    } else {
+      rate.recordSuccess(latency, now);
+    }
+  }
+  
+  /**
+   * Returns current rates of all sources
+   * 
+   * @return statistics
+   */
+  public List<UpdateRateStatistics> getStatistics() {
+    List<UpdateRateStatistics> result = new ArrayList<>(rates.size());
+    for (UpdateRate rate : rates.values()) {
+      result.add(rate.getStatistics());
+    }
+    
+    return result;
+  }
+  
+  private UpdateRate getRate(String source) {
+    return rates.computeIfAbsent(source, this::createRate);
+  }
+  
+  private UpdateRate createRate(String source) {
+    double minRate = NumberUtils.toDouble(getSetting(KuntaApiConsts.SYSTEM_SETTING_UPDATE_RATE_MIN, source), DEFAULT_MIN_RATE);
+    double maxRate = NumberUtils.toDouble(getSetting(KuntaApiConsts.SYSTEM_SETTING_UPDATE_RATE_MAX, source), DEFAULT_MAX_RATE);
+    long latencyTarget = NumberUtils.toLong(getSetting(KuntaApiConsts.SYSTEM_SETTING_UPDATE_RATE_LATENCY_TARGET, source), DEFAULT_LATENCY_TARGET);
+    return new UpdateRate(source, DEFAULT_INITIAL_RATE, minRate, maxRate, latencyTarget, System.currentTimeMillis());
+  }
+  
+  private String getSetting(String keyTemplate, String source) {
+    return systemSettingController.getSettingValue(String.format(keyTemplate, source));
+  }
+  
+  private boolean isFailure(int status) {
+    return status == 408 || status == 429 || status >= 500;
+  }
+  
+}
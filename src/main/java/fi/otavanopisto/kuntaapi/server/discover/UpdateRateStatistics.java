@@ -0,0 +1,75 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+/**
+ * Snapshot of adaptive update rate of a source
+ * 
+ * @author Antti Leppä
+ */
+public class UpdateRateStatistics {
+  
+  private final String source;
+  private final double rate;
+  private final double minRate;
+  private final double maxRate;
+  private final long averageLatency;
+  private final long granted;
+  private final long throttled;
+  private final long successes;
+  private final long failures;
+  private final long decreases;
+  
+  @SuppressWarnings ("squid:S00107")
+  public UpdateRateStatistics(String source, double rate, double minRate, double maxRate, long averageLatency, long granted, long throttled, long successes, long failures, long decreases) {
+    this.source = source;
+    this.rate = rate;
+    this.minRate = minRate;
+    this.maxRate = maxRate;
+    this.averageLatency = averageLatency;
+    this.granted = granted;
+    this.throttled = throttled;
+    this.successes = successes;
+    this.failures = failures;
+    this.decreases = decreases;
+  }
+  
+  public String getSource() {
+    return source;
+  }
+  
+  public double getRate() {
+    return rate;
+  }
+  
+  public double getMinRate() {
+    return minRate;
+  }
+  
+  public double getMaxRate() {
+    return maxRate;
+  }
+  
+  public long getAverageLatency() {
+    return averageLatency;
+  }
+  
+  public long getGranted() {
+    return granted;
+  }
+  
+  public long getThrottled() {
+    return throttled;
+  }
+  
+  public long getSuccesses() {
+    return successes;
+  }
+  
+  public long getFailures() {
+    return failures;
+  }
+  
+  public long getDecreases() {
+    return decreases;
+  }
+  
+}
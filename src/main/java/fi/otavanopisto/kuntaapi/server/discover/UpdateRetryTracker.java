@@ -0,0 +1,78 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Tracks consecutive failures of update items and computes their retry delays. 
+ * 
+ * Failures are counted per updater and item. The retry delay doubles on each consecutive 
+ * failure up to the maximum delay. When an item has failed more than the maximum number of 
+ * retries, it is forgotten and no retry is scheduled. At most maxTracked items are tracked at 
+ * once; the least recently failed items are forgotten first.
+ * 
+ * @author Antti Leppä
+ */
+public class UpdateRetryTracker {
+  
+  private static final int MAX_DELAY_SHIFT = 16;
+  
+  private final Map<Pair<String, Object>, Integer> failureCounts;
+  
+  public UpdateRetryTracker(int maxTracked) {
+    this.failureCounts = new LinkedHashMap<Pair<String, Object>, Integer>(16, 0.75f, true) {
+      
+      private static final long serialVersionUID = -3329468016462591457L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Pair<String, Object>, Integer> eldest) {
+        return size() > maxTracked;
+      }
+      
+    };
+  }
+  
+  /**
+   * Records a failure of an item and returns delay after which it should be retried
+   * 
+   * @param updaterName updater name
+   * @param item failed item
+   * @param baseDelay delay after first failure
+   * @param maxDelay maximum delay
+   * @param maxRetries maximum number of retries
+   * @return retry delay in milliseconds or -1 if the item should not be retried anymore
+   */
+  public synchronized long recordFailure(String updaterName, Object item, long baseDelay, long maxDelay, int maxRetries) {
+    Pair<String, Object> key = Pair.of(updaterName, item);
+    int failures = failureCounts.merge(key, 1, Integer::sum);
+    if (failures > maxRetries) {
+      failureCounts.remove(key);
+      return -1;
+    }
+    
+    long delay = baseDelay << Math.min(failures - 1, MAX_DELAY_SHIFT);
+    return Math.min(delay, maxDelay);
+  }
+  
+  /**
+   * Records a successful update of an item, which resets its failure count
+   * 
+   * @param updaterName updater name
+   * @param item item
+   */
+  public synchronized void recordSuccess(String updaterName, Object item) {
+    failureCounts.remove(Pair.of(updaterName, item));
+  }
+  
+  /**
+   * Returns number of tracked items
+   * 
+   * @return number of tracked items
+   */
+  public synchronized int size() {
+    return failureCounts.size();
+  }
+  
+}
@@ -0,0 +1,21 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+/**
+ * Runs tasks in their own transactions, e.g. updater work items processed outside of the 
+ * updater timer
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+public class UpdateTransaction {
+
+  @Transactional (TxType.REQUIRES_NEW)
+  public void run(Runnable task) {
+    task.run();
+  }
+  
+}
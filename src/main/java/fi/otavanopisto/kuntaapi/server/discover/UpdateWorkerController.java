@@ -0,0 +1,193 @@
+package fi.otavanopisto.kuntaapi.server.discover;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
+/**
+ * Controller for processing updater queues in batches.
+ * 
+ * By default updaters process a single item per timer tick within the timer transaction. When 
+ * batch size or concurrency is configured for an updater, up to batch size items are polled 
+ * from the queue and processed by at most concurrency workers of the managed 
+ * executor, each item in its own transaction. Processing returns only when all started items 
+ * are done, so an item is never processed concurrently with itself. Workers stop taking new 
+ * items after the batch time limit, so that the calling timer transaction does not time out, 
+ * and items left unprocessed are queued again.
+ * 
+ * When a source is given, the amount of items processed per tick is further limited by the 
+ * adaptive rate of that source.
+ * 
+ * Items failing in batch mode are queued again after a delay that doubles on each consecutive 
+ * failure of the item, up to MAX_RETRY_DELAY. Items are dropped after max retries.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+public class UpdateWorkerController {
+  
+  private static final long DEFAULT_RETRY_DELAY = 60000L;
+  private static final long MAX_RETRY_DELAY = 3600000L;
+  private static final int DEFAULT_MAX_RETRIES = 10;
+  private static final int MAX_TRACKED_FAILURES = 10000;
+  private static final long DEFAULT_BATCH_TIME_LIMIT = 120000L;
+  
+  private final UpdateRetryTracker retryTracker = new UpdateRetryTracker(MAX_TRACKED_FAILURES);
+  
+  @Inject
+  private Logger logger;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  @Inject
+  private UpdateTransaction updateTransaction;
+  
+  @Inject
+  private UpdateRateController updateRateController;
+  
+  @Resource
+  private ManagedExecutorService managedExecutorService;
+  
+  /**
+   * Processes items from the head of the queue
+   * 
+   * @param updaterName updater name
+   * @param queue queue
+   * @param processor item processor
+   */
+  public <T> void processQueue(String updaterName, UpdateQueue<T> queue, Consumer<T> processor) {
+    processQueue(updaterName, null, queue, processor);
+  }
+  
+  /**
+   * Processes items from the head of the queue within the adaptive rate of a source
+   * 
+   * @param updaterName updater name
+   * @param source source limiting the rate or null for no limit
+   * @param queue queue
+   * @param processor item processor
+   */
+  public <T> void processQueue(String updaterName, String source, UpdateQueue<T> queue, Consumer<T> processor) {
+    if (queue.isEmpty()) {
+      return;
+    }
+    
+    int batchSize = getWorkerSetting(KuntaApiConsts.SYSTEM_SETTING_UPDATER_BATCH_SIZE, updaterName);
+    int concurrency = getWorkerSetting(KuntaApiConsts.SYSTEM_SETTING_UPDATER_CONCURRENCY, updaterName);
+    int permits = Math.max(batchSize, 1);
+    if (source != null) {
+      permits = updateRateController.acquire(source, permits);
+      if (permits == 0) {
+        return;
+      }
+    }
+    
+    if (batchSize <= 1 && concurrency <= 1) {
+      T item = queue.poll();
+      if (item != null) {
+        processor.accept(item);
+      } else {
+        releasePermits(source, permits);
+      }
+      
+      return;
+    }
+    
+    List<T> batch = new ArrayList<>(permits);
+    T item;
+    while (batch.size() < permits && (item = queue.poll()) != null) {
+      batch.add(item);
+    }
+    
+    releasePermits(source, permits - batch.size());
+    
+    if (!batch.isEmpty()) {
+      processBatch(updaterName, queue, batch, Math.min(concurrency, batch.size()), processor);
+    }
+  }
+  
+  private <T> void processBatch(String updaterName, UpdateQueue<T> queue, List<T> batch, int workerCount, Consumer<T> processor) {
+    Queue<T> pending = new ConcurrentLinkedQueue<>(batch);
+    List<Future<?>> workers = new ArrayList<>(workerCount);
+    long timeLimit = NumberUtils.toLong(systemSettingController.getSettingValue(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_BATCH_TIME_LIMIT, updaterName)), DEFAULT_BATCH_TIME_LIMIT);
+    long deadline = System.currentTimeMillis() + timeLimit;
+    
+    for (int i = 0; i < Math.max(workerCount, 1); i++) {
+      workers.add(managedExecutorService.submit(() -> {
+        T item;
+        while (System.currentTimeMillis() < deadline && (item = pending.poll()) != null) {
+          processItem(updaterName, queue, item, processor);
+        }
+      }));
+    }
+    
+    for (Future<?> worker : workers) {
+      try {
+        worker.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.log(Level.WARNING, String.format("Interrupted while waiting for %s workers", updaterName), e);
+        return;
+      } catch (ExecutionException e) {
+        logger.log(Level.SEVERE, String.format("%s worker failed", updaterName), e);
+      }
+    }
+    
+    if (!pending.isEmpty()) {
+      logger.warning(String.format("%s exceeded batch time limit of %d ms, queuing %d items again", updaterName, timeLimit, pending.size()));
+      T item;
+      while ((item = pending.poll()) != null) {
+        queue.add(item, false);
+      }
+    }
+  }
+  
+  private <T> void processItem(String updaterName, UpdateQueue<T> queue, T item, Consumer<T> processor) {
+    try {
+      updateTransaction.run(() -> processor.accept(item));
+      retryTracker.recordSuccess(updaterName, item);
+    } catch (Exception e) {
+      long retryDelay = getRetryDelay(updaterName, item);
+      if (retryDelay < 0) {
+        logger.log(Level.SEVERE, String.format("%s failed to process %s, giving up", updaterName, item), e);
+      } else {
+        logger.log(Level.SEVERE, String.format("%s failed to process %s, retrying in %d ms", updaterName, item, retryDelay), e);
+        queue.addDelayed(item, retryDelay);
+      }
+    }
+  }
+  
+  private long getRetryDelay(String updaterName, Object item) {
+    long baseDelay = NumberUtils.toLong(systemSettingController.getSettingValue(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_RETRY_DELAY, updaterName)), DEFAULT_RETRY_DELAY);
+    int maxRetries = NumberUtils.toInt(systemSettingController.getSettingValue(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_MAX_RETRIES, updaterName)), DEFAULT_MAX_RETRIES);
+    return retryTracker.recordFailure(updaterName, item, baseDelay, MAX_RETRY_DELAY, maxRetries);
+  }
+  
+  private void releasePermits(String source, int permits) {
+    if (source != null) {
+      updateRateController.release(source, permits);
+    }
+  }
+  
+  private int getWorkerSetting(String keyTemplate, String updaterName) {
+    return NumberUtils.toInt(systemSettingController.getSettingValue(String.format(keyTemplate, updaterName)), 1);
+  }
+  
+}
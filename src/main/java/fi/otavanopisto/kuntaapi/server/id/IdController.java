@@ -1,13 +1,23 @@
 package fi.otavanopisto.kuntaapi.server.id;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 
+import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
 
 /**
@@ -21,6 +31,47 @@ public class IdController {
   @Inject
   private Instance<IdProvider> idProviders;
   
+  @Inject
+  private IdentifierController identifierController;
+  
+  private Map<RouteKey, IdProvider> routes;
+  
+  /**
+   * Loads everything needed for translating given ids into target so that subsequent 
+   * single id translations can be resolved without database queries.
+   * 
+   * @param ids ids to be translated
+   * @param target target
+   */
+  public void prepareTranslations(Collection<? extends BaseId> ids, String target) {
+    if (!ids.isEmpty()) {
+      identifierController.loadMappings(ids, target);
+    }
+  }
+  
+  /**
+   * Translates a batch of ids into target ids. Identifiers missing from the identifier map are
+   * resolved with a single query per id type and source.
+   * 
+   * @param ids ids to be translated
+   * @param target target
+   * @return map of original ids to translated ids. Ids that could not be translated are omitted
+   */
+  @SuppressWarnings ("unchecked")
+  public <T extends BaseId> Map<T, T> translateIds(Collection<T> ids, String target) {
+    prepareTranslations(ids, target);
+    
+    Map<T, T> result = new LinkedHashMap<>(ids.size());
+    for (T id : ids) {
+      T translated = (T) translateId(id, target);
+      if (translated != null) {
+        result.put(id, translated);
+      }
+    }
+    
+    return result;
+  }
+  
   @SuppressWarnings ("squid:MethodCyclomaticComplexity")
   public BaseId translateId(BaseId id, String target) {
     if (id == null) {
@@ -92,7 +143,7 @@ public class IdController {
       return organizationId;
     }
     
-    IdProvider idProvider = getIdProvider(organizationId.getSource(), target);
+    IdProvider idProvider = getIdProvider(organizationId.getType(), organizationId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(organizationId, target);
     }
@@ -116,7 +167,7 @@ public class IdController {
       return serviceId;
     }
     
-    IdProvider idProvider = getIdProvider(serviceId.getSource(), target);
+    IdProvider idProvider = getIdProvider(serviceId.getType(), serviceId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(serviceId, target);
     }
@@ -140,7 +191,7 @@ public class IdController {
       return organizationServiceId;
     }
     
-    IdProvider idProvider = getIdProvider(organizationServiceId.getSource(), target);
+    IdProvider idProvider = getIdProvider(organizationServiceId.getType(), organizationServiceId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(organizationServiceId, target);
     }
@@ -164,7 +215,7 @@ public class IdController {
       return serviceChannelId;
     }
     
-    IdProvider idProvider = getIdProvider(serviceChannelId.getSource(), target);
+    IdProvider idProvider = getIdProvider(serviceChannelId.getType(), serviceChannelId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(serviceChannelId, target);
     }
@@ -188,7 +239,7 @@ public class IdController {
       return serviceChannelId;
     }
     
-    IdProvider idProvider = getIdProvider(serviceChannelId.getSource(), target);
+    IdProvider idProvider = getIdProvider(serviceChannelId.getType(), serviceChannelId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(serviceChannelId, target);
     }
@@ -212,7 +263,7 @@ public class IdController {
       return serviceChannelId;
     }
     
-    IdProvider idProvider = getIdProvider(serviceChannelId.getSource(), target);
+    IdProvider idProvider = getIdProvider(serviceChannelId.getType(), serviceChannelId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(serviceChannelId, target);
     }
@@ -236,7 +287,7 @@ public class IdController {
       return serviceChannelId;
     }
     
-    IdProvider idProvider = getIdProvider(serviceChannelId.getSource(), target);
+    IdProvider idProvider = getIdProvider(serviceChannelId.getType(), serviceChannelId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(serviceChannelId, target);
     }
@@ -260,7 +311,7 @@ public class IdController {
       return serviceChannelId;
     }
     
-    IdProvider idProvider = getIdProvider(serviceChannelId.getSource(), target);
+    IdProvider idProvider = getIdProvider(serviceChannelId.getType(), serviceChannelId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(serviceChannelId, target);
     }
@@ -284,7 +335,7 @@ public class IdController {
       return eventId;
     }
     
-    IdProvider idProvider = getIdProvider(eventId.getSource(), target);
+    IdProvider idProvider = getIdProvider(eventId.getType(), eventId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(eventId, target);
     }
@@ -308,7 +359,7 @@ public class IdController {
       return newsArticleId;
     }
     
-    IdProvider idProvider = getIdProvider(newsArticleId.getSource(), target);
+    IdProvider idProvider = getIdProvider(newsArticleId.getType(), newsArticleId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(newsArticleId, target);
     }
@@ -332,7 +383,7 @@ public class IdController {
       return attachmentId;
     }
     
-    IdProvider idProvider = getIdProvider(attachmentId.getSource(), target);
+    IdProvider idProvider = getIdProvider(attachmentId.getType(), attachmentId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(attachmentId, target);
     }
@@ -356,7 +407,7 @@ public class IdController {
       return bannerId;
     }
     
-    IdProvider idProvider = getIdProvider(bannerId.getSource(), target);
+    IdProvider idProvider = getIdProvider(bannerId.getType(), bannerId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(bannerId, target);
     }
@@ -380,7 +431,7 @@ public class IdController {
       return tileId;
     }
     
-    IdProvider idProvider = getIdProvider(tileId.getSource(), target);
+    IdProvider idProvider = getIdProvider(tileId.getType(), tileId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(tileId, target);
     }
@@ -404,7 +455,7 @@ public class IdController {
       return fileId;
     }
     
-    IdProvider idProvider = getIdProvider(fileId.getSource(), target);
+    IdProvider idProvider = getIdProvider(fileId.getType(), fileId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(fileId, target);
     }
@@ -428,7 +479,7 @@ public class IdController {
       return menuId;
     }
     
-    IdProvider idProvider = getIdProvider(menuId.getSource(), target);
+    IdProvider idProvider = getIdProvider(menuId.getType(), menuId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(menuId, target);
     }
@@ -452,7 +503,7 @@ public class IdController {
       return menuItemId;
     }
     
-    IdProvider idProvider = getIdProvider(menuItemId.getSource(), target);
+    IdProvider idProvider = getIdProvider(menuItemId.getType(), menuItemId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(menuItemId, target);
     }
@@ -476,7 +527,7 @@ public class IdController {
       return jobId;
     }
     
-    IdProvider idProvider = getIdProvider(jobId.getSource(), target);
+    IdProvider idProvider = getIdProvider(jobId.getType(), jobId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(jobId, target);
     }
@@ -500,7 +551,7 @@ public class IdController {
       return announcementId;
     }
     
-    IdProvider idProvider = getIdProvider(announcementId.getSource(), target);
+    IdProvider idProvider = getIdProvider(announcementId.getType(), announcementId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(announcementId, target);
     }
@@ -524,7 +575,7 @@ public class IdController {
       return pageId;
     }
     
-    IdProvider idProvider = getIdProvider(pageId.getSource(), target);
+    IdProvider idProvider = getIdProvider(pageId.getType(), pageId.getSource(), target);
     if (idProvider != null) {
       return idProvider.translate(pageId, target);
     }
@@ -856,16 +907,83 @@ public class IdController {
     return kuntaApiId1.equals(kuntaApiId2);
   }
   
-  private IdProvider getIdProvider(String source, String target) {
+  /**
+   * Lists routes of the id provider routing table
+   * 
+   * @return id provider routes
+   */
+  public List<IdProviderRoute> listIdProviderRoutes() {
+    List<IdProviderRoute> result = new ArrayList<>(routes.size());
+    
+    for (Entry<RouteKey, IdProvider> route : routes.entrySet()) {
+      RouteKey key = route.getKey();
+      result.add(new IdProviderRoute(key.type, key.source, key.target, route.getValue().getClass().getName()));
+    }
+    
+    return result;
+  }
+  
+  @PostConstruct
+  public void init() {
+    Map<RouteKey, IdProvider> table = new LinkedHashMap<>();
+    
     Iterator<IdProvider> iterator = idProviders.iterator();
     while (iterator.hasNext()) {
       IdProvider idProvider = iterator.next();
-      if (idProvider.canTranslate(source, target)) {
-        return idProvider;
+      String source = idProvider.getSource();
+      
+      for (IdType type : IdType.values()) {
+        if (idProvider.isSupportedType(type)) {
+          addRoute(table, new RouteKey(type, source, KuntaApiConsts.IDENTIFIER_NAME), idProvider);
+          addRoute(table, new RouteKey(type, KuntaApiConsts.IDENTIFIER_NAME, source), idProvider);
+        }
       }
     }
     
-    return null;
+    routes = Collections.unmodifiableMap(table);
+  }
+  
+  private void addRoute(Map<RouteKey, IdProvider> table, RouteKey key, IdProvider idProvider) {
+    if (idProvider.canTranslate(key.source, key.target)) {
+      table.putIfAbsent(key, idProvider);
+    }
+  }
+  
+  private IdProvider getIdProvider(IdType type, String source, String target) {
+    return routes.get(new RouteKey(type, source, target));
+  }
+  
+  private static class RouteKey {
+    
+    private final IdType type;
+    private final String source;
+    private final String target;
+    
+    public RouteKey(IdType type, String source, String target) {
+      this.type = type;
+      this.source = source;
+      this.target = target;
+    }
+    
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, source, target);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      
+      if (!(obj instanceof RouteKey)) {
+        return false;
+      }
+      
+      RouteKey another = (RouteKey) obj;
+      return type == another.type && Objects.equals(source, another.source) && Objects.equals(target, another.target);
+    }
+    
   }
   
 }
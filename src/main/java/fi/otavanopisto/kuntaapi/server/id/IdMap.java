@@ -0,0 +1,319 @@
+package fi.otavanopisto.kuntaapi.server.id;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+
+import fi.otavanopisto.kuntaapi.server.persistence.dao.IdentifierDAO;
+import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
+
+/**
+ * In-memory bidirectional map of identifiers. 
+ * 
+ * Map is preloaded from the database when application starts. Removals are broadcasted 
+ * to other nodes through the "identifier-removals" cache, additions made elsewhere are picked 
+ * up when a lookup misses and falls back to the database. 
+ * 
+ * The removals cache should be configured as replicated, so that every node receives the 
+ * removals. Mappings of identifiers created within a transaction are added only after the 
+ * transaction commits, so a rolled back transaction never leaves mappings behind.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class IdMap {
+  
+  private static final String REMOVALS_CACHE = "identifier-removals";
+  private static final int PRELOAD_BATCH_SIZE = 1000;
+  private static final long REMOVAL_LIFESPAN_HOURS = 1;
+  private static final String PENDING_MAPPINGS_KEY = IdMap.class.getName() + ".pending";
+  
+  @Inject
+  private Logger logger;
+  
+  @Inject
+  private IdentifierDAO identifierDAO;
+  
+  @Resource (lookup = "java:jboss/infinispan/container/kunta-api")
+  private CacheContainer cacheContainer;
+  
+  @Resource (lookup = "java:comp/TransactionSynchronizationRegistry")
+  private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+  
+  private final Map<Key, IdMapping> bySourceId = new ConcurrentHashMap<>();
+  private final Map<Key, IdMapping> byKuntaApiId = new ConcurrentHashMap<>();
+  private final Map<String, IdMapping> mappings = new ConcurrentHashMap<>();
+  
+  private RemovalListener removalListener;
+  
+  @PostConstruct
+  public void init() {
+    Cache<String, Long> removalsCache = getRemovalsCache();
+    CacheMode cacheMode = removalsCache.getCacheConfiguration().clustering().cacheMode();
+    if (!cacheMode.isReplicated()) {
+      logger.warning(String.format("Cache %s is not replicated (%s), identifier removals may not reach all nodes", REMOVALS_CACHE, cacheMode));
+    }
+    
+    removalListener = new RemovalListener(this);
+    removalsCache.addListener(removalListener);
+    preload();
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    if (removalListener != null) {
+      getRemovalsCache().removeListener(removalListener);
+    }
+  }
+  
+  /**
+   * Forces the map to be preloaded when application starts
+   * 
+   * @param event initialization event
+   */
+  public void onApplicationInitialized(@Observes @Initialized(ApplicationScoped.class) Object event) {
+    logger.info(String.format("Identifier map contains %d mappings", mappings.size()));
+  }
+  
+  /**
+   * Finds mapping by type, source, source id and organization
+   * 
+   * @param type id type
+   * @param source source
+   * @param sourceId id in source system
+   * @param organizationKuntaApiId Kunta API id of organization or null if id is not organization bound 
+   * @return mapping or null if not found
+   */
+  public IdMapping findBySourceId(String type, String source, String sourceId, String organizationKuntaApiId) {
+    return bySourceId.get(new Key(type, source, sourceId, organizationKuntaApiId));
+  }
+  
+  /**
+   * Finds mapping by type, source and Kunta API id
+   * 
+   * @param type id type
+   * @param source source
+   * @param kuntaApiId Kunta API id
+   * @return mapping or null if not found
+   */
+  public IdMapping findByKuntaApiId(String type, String source, String kuntaApiId) {
+    return byKuntaApiId.get(new Key(type, source, kuntaApiId, null));
+  }
+  
+  /**
+   * Returns whether a mapping exists for given Kunta API id
+   * 
+   * @param kuntaApiId Kunta API id
+   * @return whether a mapping exists
+   */
+  public boolean containsKuntaApiId(String kuntaApiId) {
+    return mappings.containsKey(kuntaApiId);
+  }
+  
+  /**
+   * Adds mapping of a committed identifier into this node. 
+   * 
+   * Mappings of identifiers created within the current transaction are skipped, because 
+   * they are added when the transaction commits.
+   * 
+   * @param mapping mapping
+   */
+  public void add(IdMapping mapping) {
+    if (!isPending(mapping.getKuntaApiId())) {
+      addLocal(mapping);
+    }
+  }
+  
+  /**
+   * Adds mapping of an identifier created within the current transaction into this node once 
+   * the transaction has committed. Mapping is added immediately when there is no active transaction.
+   * 
+   * @param mapping mapping
+   */
+  public void addOnCommit(IdMapping mapping) {
+    if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+      addLocal(mapping);
+      return;
+    }
+    
+    getPendingMappings().put(mapping.getKuntaApiId(), mapping);
+  }
+  
+  private void addLocal(IdMapping mapping) {
+    mappings.put(mapping.getKuntaApiId(), mapping);
+    bySourceId.put(new Key(mapping.getType(), mapping.getSource(), mapping.getSourceId(), mapping.getOrganizationKuntaApiId()), mapping);
+    byKuntaApiId.put(new Key(mapping.getType(), mapping.getSource(), mapping.getKuntaApiId(), null), mapping);
+  }
+  
+  /**
+   * Removes mapping from all nodes of the cluster
+   * 
+   * @param kuntaApiId Kunta API id
+   */
+  public void remove(String kuntaApiId) {
+    removeLocal(kuntaApiId);
+    getRemovalsCache().put(kuntaApiId, System.currentTimeMillis(), REMOVAL_LIFESPAN_HOURS, TimeUnit.HOURS);
+  }
+  
+  private void removeLocal(String kuntaApiId) {
+    IdMapping mapping = mappings.remove(kuntaApiId);
+    if (mapping != null) {
+      bySourceId.remove(new Key(mapping.getType(), mapping.getSource(), mapping.getSourceId(), mapping.getOrganizationKuntaApiId()), mapping);
+      byKuntaApiId.remove(new Key(mapping.getType(), mapping.getSource(), mapping.getKuntaApiId(), null), mapping);
+    }
+  }
+  
+  private boolean isPending(String kuntaApiId) {
+    if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+      return false;
+    }
+    
+    @SuppressWarnings("unchecked")
+    Map<String, IdMapping> pendingMappings = (Map<String, IdMapping>) transactionSynchronizationRegistry.getResource(PENDING_MAPPINGS_KEY);
+    return pendingMappings != null && pendingMappings.containsKey(kuntaApiId);
+  }
+  
+  private Map<String, IdMapping> getPendingMappings() {
+    @SuppressWarnings("unchecked")
+    Map<String, IdMapping> pendingMappings = (Map<String, IdMapping>) transactionSynchronizationRegistry.getResource(PENDING_MAPPINGS_KEY);
+    if (pendingMappings == null) {
+      pendingMappings = new LinkedHashMap<>();
+      transactionSynchronizationRegistry.putResource(PENDING_MAPPINGS_KEY, pendingMappings);
+      transactionSynchronizationRegistry.registerInterposedSynchronization(new PendingMappingsSynchronization(this, pendingMappings));
+    }
+    
+    return pendingMappings;
+  }
+  
+  private void preload() {
+    long startTime = System.currentTimeMillis();
+    int firstResult = 0;
+    
+    List<Identifier> identifiers;
+    do {
+      identifiers = identifierDAO.listAll(firstResult, PRELOAD_BATCH_SIZE);
+      for (Identifier identifier : identifiers) {
+        addLocal(new IdMapping(identifier));
+      }
+      
+      firstResult += identifiers.size();
+    } while (identifiers.size() == PRELOAD_BATCH_SIZE);
+    
+    logger.info(String.format("Preloaded %d identifiers in %d ms", firstResult, System.currentTimeMillis() - startTime));
+  }
+  
+  private Cache<String, Long> getRemovalsCache() {
+    return cacheContainer.getCache(REMOVALS_CACHE);
+  }
+  
+  @Listener (clustered = true)
+  public static class RemovalListener {
+    
+    private final IdMap idMap;
+    
+    public RemovalListener(IdMap idMap) {
+      this.idMap = idMap;
+    }
+    
+    @CacheEntryCreated
+    @CacheEntryModified
+    public void onRemoval(CacheEntryEvent<String, Long> event) {
+      if (!event.isPre()) {
+        idMap.removeLocal(event.getKey());
+      }
+    }
+    
+  }
+  
+  private static class PendingMappingsSynchronization implements Synchronization {
+    
+    private final IdMap idMap;
+    private final Map<String, IdMapping> pendingMappings;
+    
+    public PendingMappingsSynchronization(IdMap idMap, Map<String, IdMapping> pendingMappings) {
+      this.idMap = idMap;
+      this.pendingMappings = pendingMappings;
+    }
+    
+    @Override
+    public void beforeCompletion() {
+      // Mappings are added only after the transaction has committed
+    }
+    
+    @Override
+    public void afterCompletion(int status) {
+      if (status == Status.STATUS_COMMITTED) {
+        for (IdMapping mapping : pendingMappings.values()) {
+          idMap.addLocal(mapping);
+        }
+      }
+    }
+    
+  }
+  
+  private static final class Key {
+    
+    private final String type;
+    private final String source;
+    private final String id;
+    private final String organizationKuntaApiId;
+    private final int hashCode;
+    
+    public Key(String type, String source, String id, String organizationKuntaApiId) {
+      this.type = type;
+      this.source = source;
+      this.id = id;
+      this.organizationKuntaApiId = organizationKuntaApiId;
+      this.hashCode = Objects.hash(type, source, id, organizationKuntaApiId);
+    }
+    
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      
+      Key other = (Key) obj;
+      return hashCode == other.hashCode 
+          && Objects.equals(id, other.id) 
+          && Objects.equals(source, other.source) 
+          && Objects.equals(type, other.type) 
+          && Objects.equals(organizationKuntaApiId, other.organizationKuntaApiId);
+    }
+    
+  }
+  
+}
@@ -0,0 +1,50 @@
+package fi.otavanopisto.kuntaapi.server.id;
+
+import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
+
+/**
+ * Immutable in-memory copy of an identifier mapping
+ * 
+ * @author Antti Leppä
+ */
+public final class IdMapping {
+  
+  private final String type;
+  private final String source;
+  private final String sourceId;
+  private final String organizationKuntaApiId;
+  private final String kuntaApiId;
+  
+  public IdMapping(String type, String source, String sourceId, String organizationKuntaApiId, String kuntaApiId) {
+    this.type = type;
+    this.source = source;
+    this.sourceId = sourceId;
+    this.organizationKuntaApiId = organizationKuntaApiId;
+    this.kuntaApiId = kuntaApiId;
+  }
+  
+  public IdMapping(Identifier identifier) {
+    this(identifier.getType(), identifier.getSource(), identifier.getSourceId(), identifier.getOrganizationKuntaApiId(), identifier.getKuntaApiId());
+  }
+  
+  public String getType() {
+    return type;
+  }
+  
+  public String getSource() {
+    return source;
+  }
+  
+  public String getSourceId() {
+    return sourceId;
+  }
+  
+  public String getOrganizationKuntaApiId() {
+    return organizationKuntaApiId;
+  }
+  
+  public String getKuntaApiId() {
+    return kuntaApiId;
+  }
+  
+}
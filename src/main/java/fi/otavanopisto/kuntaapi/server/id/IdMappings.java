@@ -0,0 +1,58 @@
+package fi.otavanopisto.kuntaapi.server.id;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of a bulk identifier find-or-create. Maps source ids into their identifier mappings
+ * and tells which of the mappings were created by the operation
+ * 
+ * @author Antti Leppä
+ *
+ * @param <T> id type
+ */
+public class IdMappings<T extends BaseId> {
+
+  private final Map<T, IdMapping> mappings = new LinkedHashMap<>();
+  private final Set<T> created = new HashSet<>();
+  
+  public void add(T id, IdMapping mapping, boolean isNew) {
+    mappings.put(id, mapping);
+    if (isNew) {
+      created.add(id);
+    }
+  }
+  
+  /**
+   * Returns mapping for given source id
+   * 
+   * @param id source id
+   * @return mapping or null if id could not be mapped
+   */
+  public IdMapping get(T id) {
+    return mappings.get(id);
+  }
+  
+  /**
+   * Returns whether identifier for given id was created by the operation
+   * 
+   * @param id source id
+   * @return whether identifier was created by the operation
+   */
+  public boolean isCreated(T id) {
+    return created.contains(id);
+  }
+  
+  /**
+   * Returns all mappings keyed by source ids
+   * 
+   * @return all mappings
+   */
+  public Map<T, IdMapping> getMappings() {
+    return Collections.unmodifiableMap(mappings);
+  }
+  
+}
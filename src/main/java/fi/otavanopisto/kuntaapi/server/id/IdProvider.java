@@ -7,6 +7,21 @@ package fi.otavanopisto.kuntaapi.server.id;
  */
 public interface IdProvider {
 
+  /**
+   * Returns source this provider translates ids from and into
+   * 
+   * @return source
+   */
+  public String getSource();
+  
+  /**
+   * Returns whether provider supports translating ids of given type
+   * 
+   * @param type id type
+   * @return whether provider supports translating ids of given type
+   */
+  public boolean isSupportedType(IdType type);
+  
   /**
    * Returns whether provider can translate from given source to given target
    * 
@@ -0,0 +1,38 @@
+package fi.otavanopisto.kuntaapi.server.id;
+
+/**
+ * Entry of the id provider routing table
+ * 
+ * @author Antti Leppä
+ */
+public class IdProviderRoute {
+
+  private final IdType type;
+  private final String source;
+  private final String target;
+  private final String provider;
+  
+  public IdProviderRoute(IdType type, String source, String target, String provider) {
+    this.type = type;
+    this.source = source;
+    this.target = target;
+    this.provider = provider;
+  }
+  
+  public IdType getType() {
+    return type;
+  }
+  
+  public String getSource() {
+    return source;
+  }
+  
+  public String getTarget() {
+    return target;
+  }
+  
+  public String getProvider() {
+    return provider;
+  }
+  
+}
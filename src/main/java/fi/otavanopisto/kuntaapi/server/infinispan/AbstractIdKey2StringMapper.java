@@ -9,57 +9,154 @@ import org.infinispan.persistence.keymappers.TwoWayKey2StringMapper;
 import fi.otavanopisto.kuntaapi.server.id.BaseId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationBaseId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.infinispan.IdKeyTypes.IdKeyType;
 import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
 
+/**
+ * Base class for key mappers of id keys.
+ * 
+ * Both the legacy form (e.g. PageId:0f11...@OrganizationId:0de2...) and the compact form, a type tag 
+ * followed by the id and optionally by '@' and organization id (e.g. P0f11...@0de2...), are accepted 
+ * when reading. 
+ * 
+ * Mappers write the legacy form by default, because the string keyed JDBC store looks rows up by 
+ * the written string and existing rows are stored under legacy keys. Compact form is written only 
+ * by mappers created for stores that never contained legacy keys, such as cache snapshot files.
+ * 
+ * @author Antti Leppä
+ */
 public abstract class AbstractIdKey2StringMapper implements TwoWayKey2StringMapper {
 
   private static final String ID_PACKAGE = BaseId.class.getPackage().getName();
+  private static final char ORGANIZATION_SEPARATOR = '@';
+  private static final char LEGACY_TYPE_SEPARATOR = ':';
 
   private static final Logger logger = Logger.getLogger(AbstractIdKey2StringMapper.class.getName());
-
-  protected String stringifyOrganizationBaseId(OrganizationBaseId id) {
-    return String.format("%s@%s", stringifyBaseId(id), stringifyBaseId(id.getOrganizationId()));
+  
+  private final boolean compact;
+  
+  /**
+   * Constructor for mapper writing keys in legacy form
+   */
+  protected AbstractIdKey2StringMapper() {
+    this(false);
   }
   
-  protected String stringifyBaseId(BaseId id) {
-    return String.format("%s:%s", id.getClass().getSimpleName(), id.getId());
+  /**
+   * Constructor
+   * 
+   * @param compact whether keys should be written in compact form
+   */
+  protected AbstractIdKey2StringMapper(boolean compact) {
+    this.compact = compact;
   }
 
   protected String stringifyId(Object key) {
-    if (key instanceof OrganizationBaseId) {
-      return stringifyOrganizationBaseId((OrganizationBaseId) key);
+    IdKeyType keyType = compact ? IdKeyTypes.findByClass(key.getClass()) : null;
+    if (keyType == null) {
+      return stringifyLegacyId(key);
     }
     
-    return stringifyBaseId((BaseId) key);
+    BaseId id = (BaseId) key;
+    String organizationId = key instanceof OrganizationBaseId ? ((OrganizationBaseId) key).getOrganizationId().getId() : null;
+    
+    StringBuilder result = new StringBuilder(id.getId().length() + (organizationId != null ? organizationId.length() + 2 : 1));
+    result.append(keyType.getTag()).append(id.getId());
+    if (organizationId != null) {
+      result.append(ORGANIZATION_SEPARATOR).append(organizationId);
+    }
+    
+    return result.toString();
   }
   
   protected BaseId parseId(String string) {
-    String[] compositeParts = StringUtils.split(string, '@');
+    return parseId(string, 0, string.length());
+  }
+  
+  protected BaseId parseId(String string, int start, int end) {
+    if (start >= end) {
+      logger.severe(String.format("Could not parse empty id from %s", string));
+      return null;
+    }
+    
+    if (indexOf(string, LEGACY_TYPE_SEPARATOR, start, end) != -1) {
+      return parseLegacyId(string.substring(start, end));
+    }
+    
+    IdKeyType keyType = IdKeyTypes.findByTag(string.charAt(start));
+    if (keyType == null) {
+      logger.severe(String.format("Could not parse id %s, unknown type tag", string));
+      return null;
+    }
+    
+    int separatorIndex = indexOf(string, ORGANIZATION_SEPARATOR, start, end);
+    if (separatorIndex == -1) {
+      return keyType.create(null, string.substring(start + 1, end));
+    }
+    
+    OrganizationId organizationId = new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, string.substring(separatorIndex + 1, end));
+    return keyType.create(organizationId, string.substring(start + 1, separatorIndex));
+  }
+  
+  protected int indexOf(String string, char character, int start, int end) {
+    int index = string.indexOf(character, start);
+    return index < end ? index : -1;
+  }
+  
+  private String stringifyLegacyId(Object key) {
+    if (key instanceof OrganizationBaseId) {
+      OrganizationBaseId id = (OrganizationBaseId) key;
+      return String.format("%s@%s", stringifyLegacyBaseId(id), stringifyLegacyBaseId(id.getOrganizationId()));
+    }
+    
+    return stringifyLegacyBaseId((BaseId) key);
+  }
+  
+  private String stringifyLegacyBaseId(BaseId id) {
+    return String.format("%s:%s", id.getClass().getSimpleName(), id.getId());
+  }
+  
+  private BaseId parseLegacyId(String string) {
+    String[] compositeParts = StringUtils.split(string, ORGANIZATION_SEPARATOR);
     if (compositeParts.length == 1) {
-      String[] idParts = StringUtils.split(compositeParts[0], ':');
+      String[] idParts = StringUtils.split(compositeParts[0], LEGACY_TYPE_SEPARATOR);
       if (idParts.length == 2) {
-        return createId(idParts[0], idParts[1]);
+        return createLegacyId(idParts[0], idParts[1], null);
       } else {
         logger.severe(String.format("Could not parse id %s expected 2 parts", string));
         return null;
       }
     } else if (compositeParts.length == 2) {
-      OrganizationBaseId id = (OrganizationBaseId) parseId(compositeParts[0]);
-      id.setOrganizationId((OrganizationId) parseId(compositeParts[1]));
-      return id;
+      String[] idParts = StringUtils.split(compositeParts[0], LEGACY_TYPE_SEPARATOR);
+      OrganizationId organizationId = (OrganizationId) parseLegacyId(compositeParts[1]);
+      if (idParts.length == 2 && organizationId != null) {
+        return createLegacyId(idParts[0], idParts[1], organizationId);
+      } else {
+        logger.severe(String.format("Could not parse id %s", string));
+        return null;
+      }
     } else {
       logger.severe(String.format("Could not parse id %s expected 1 or 2 parts", string));
       return null;
     }
   }
   
-  protected BaseId createId(String className, String id) {
+  private BaseId createLegacyId(String className, String id, OrganizationId organizationId) {
+    IdKeyType keyType = IdKeyTypes.findByClassName(className);
+    if (keyType != null) {
+      return keyType.create(organizationId, id);
+    }
+    
     try {
       @SuppressWarnings("unchecked")
       Class<? extends BaseId> idClass = (Class<? extends BaseId>) Class.forName(String.format("%s.%s", ID_PACKAGE, className));
       BaseId result = idClass.newInstance();
       result.setId(id);
       result.setSource(KuntaApiConsts.IDENTIFIER_NAME);
+      if (organizationId != null) {
+        ((OrganizationBaseId) result).setOrganizationId(organizationId);
+      }
+      
       return result;
     } catch (ClassNotFoundException e) {
       logger.log(Level.SEVERE, String.format("Could not find id class %s", className), e);
@@ -69,4 +166,5 @@ public abstract class AbstractIdKey2StringMapper implements TwoWayKey2StringMapp
     
     return null;
   }
+  
 }
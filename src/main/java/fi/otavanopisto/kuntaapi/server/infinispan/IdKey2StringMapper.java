@@ -4,6 +4,22 @@ import fi.otavanopisto.kuntaapi.server.id.BaseId;
 
 public class IdKey2StringMapper extends AbstractIdKey2StringMapper {
 
+  /**
+   * Constructor for mapper writing keys in legacy form. Used by the string keyed JDBC store.
+   */
+  public IdKey2StringMapper() {
+    super();
+  }
+  
+  /**
+   * Constructor
+   * 
+   * @param compact whether keys should be written in compact form
+   */
+  public IdKey2StringMapper(boolean compact) {
+    super(compact);
+  }
+
   @Override
   public boolean isSupportedType(Class<?> keyType) {
     return BaseId.class.isAssignableFrom(keyType);
@@ -0,0 +1,156 @@
+package fi.otavanopisto.kuntaapi.server.infinispan;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import fi.otavanopisto.kuntaapi.server.id.AnnouncementId;
+import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
+import fi.otavanopisto.kuntaapi.server.id.BannerId;
+import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.ElectronicServiceChannelId;
+import fi.otavanopisto.kuntaapi.server.id.EventId;
+import fi.otavanopisto.kuntaapi.server.id.FileId;
+import fi.otavanopisto.kuntaapi.server.id.JobId;
+import fi.otavanopisto.kuntaapi.server.id.MenuId;
+import fi.otavanopisto.kuntaapi.server.id.MenuItemId;
+import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationServiceId;
+import fi.otavanopisto.kuntaapi.server.id.PageId;
+import fi.otavanopisto.kuntaapi.server.id.PhoneChannelId;
+import fi.otavanopisto.kuntaapi.server.id.PrintableFormChannelId;
+import fi.otavanopisto.kuntaapi.server.id.ServiceId;
+import fi.otavanopisto.kuntaapi.server.id.ServiceLocationChannelId;
+import fi.otavanopisto.kuntaapi.server.id.TileId;
+import fi.otavanopisto.kuntaapi.server.id.WebPageChannelId;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+
+/**
+ * Registry of id classes that can be used as cache store keys. 
+ * 
+ * Each class has a single character tag used in the compact key encoding. Tags are persisted 
+ * in cache stores so existing tags must never be changed or reused. Tags are upper case letters 
+ * because store key columns may use case insensitive collation.
+ * 
+ * @author Antti Leppä
+ */
+public final class IdKeyTypes {
+  
+  private static final IdKeyType[] BY_TAG = new IdKeyType[128];
+  private static final Map<Class<? extends BaseId>, IdKeyType> BY_CLASS;
+  private static final Map<String, IdKeyType> BY_CLASS_NAME;
+  
+  static {
+    Map<Class<? extends BaseId>, IdKeyType> byClass = new HashMap<>();
+    Map<String, IdKeyType> byClassName = new HashMap<>();
+    
+    register(byClass, byClassName, 'O', OrganizationId.class, (organizationId, id) -> new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'S', ServiceId.class, (organizationId, id) -> new ServiceId(KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'Q', OrganizationServiceId.class, (organizationId, id) -> new OrganizationServiceId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'E', ElectronicServiceChannelId.class, (organizationId, id) -> new ElectronicServiceChannelId(KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'H', PhoneChannelId.class, (organizationId, id) -> new PhoneChannelId(KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'R', PrintableFormChannelId.class, (organizationId, id) -> new PrintableFormChannelId(KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'L', ServiceLocationChannelId.class, (organizationId, id) -> new ServiceLocationChannelId(KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'W', WebPageChannelId.class, (organizationId, id) -> new WebPageChannelId(KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'V', EventId.class, (organizationId, id) -> new EventId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'C', AttachmentId.class, (organizationId, id) -> new AttachmentId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'N', NewsArticleId.class, (organizationId, id) -> new NewsArticleId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'B', BannerId.class, (organizationId, id) -> new BannerId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'T', TileId.class, (organizationId, id) -> new TileId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'P', PageId.class, (organizationId, id) -> new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'F', FileId.class, (organizationId, id) -> new FileId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'M', MenuId.class, (organizationId, id) -> new MenuId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'I', MenuItemId.class, (organizationId, id) -> new MenuItemId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'J', JobId.class, (organizationId, id) -> new JobId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    register(byClass, byClassName, 'A', AnnouncementId.class, (organizationId, id) -> new AnnouncementId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, id));
+    
+    BY_CLASS = Collections.unmodifiableMap(byClass);
+    BY_CLASS_NAME = Collections.unmodifiableMap(byClassName);
+  }
+  
+  private IdKeyTypes() {
+  }
+  
+  /**
+   * Returns key type by tag
+   * 
+   * @param tag tag
+   * @return key type or null if tag is not registered
+   */
+  public static IdKeyType findByTag(char tag) {
+    return tag < BY_TAG.length ? BY_TAG[tag] : null;
+  }
+  
+  /**
+   * Returns key type by id class
+   * 
+   * @param idClass id class
+   * @return key type or null if class is not registered
+   */
+  public static IdKeyType findByClass(Class<?> idClass) {
+    return BY_CLASS.get(idClass);
+  }
+  
+  /**
+   * Returns key type by simple class name used in the legacy key encoding
+   * 
+   * @param className simple class name
+   * @return key type or null if class is not registered
+   */
+  public static IdKeyType findByClassName(String className) {
+    return BY_CLASS_NAME.get(className);
+  }
+  
+  private static void register(Map<Class<? extends BaseId>, IdKeyType> byClass, Map<String, IdKeyType> byClassName, char tag, Class<? extends BaseId> idClass, IdFactory factory) {
+    if (BY_TAG[tag] != null) {
+      throw new IllegalStateException(String.format("Duplicate id key tag %c", tag));
+    }
+    
+    IdKeyType keyType = new IdKeyType(tag, factory);
+    BY_TAG[tag] = keyType;
+    byClass.put(idClass, keyType);
+    byClassName.put(idClass.getSimpleName(), keyType);
+  }
+  
+  /**
+   * Factory for Kunta API ids
+   */
+  @FunctionalInterface
+  public interface IdFactory {
+    
+    /**
+     * Creates new Kunta API id
+     * 
+     * @param organizationId organization id. Ignored by ids not bound to organizations
+     * @param id id
+     * @return created id
+     */
+    BaseId create(OrganizationId organizationId, String id);
+    
+  }
+  
+  /**
+   * Registered id key type
+   */
+  public static final class IdKeyType {
+    
+    private final char tag;
+    private final IdFactory factory;
+    
+    private IdKeyType(char tag, IdFactory factory) {
+      this.tag = tag;
+      this.factory = factory;
+    }
+    
+    public char getTag() {
+      return tag;
+    }
+    
+    public BaseId create(OrganizationId organizationId, String id) {
+      return factory.create(organizationId, id);
+    }
+    
+  }
+  
+}
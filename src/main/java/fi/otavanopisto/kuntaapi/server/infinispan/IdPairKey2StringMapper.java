@@ -2,14 +2,29 @@ package fi.otavanopisto.kuntaapi.server.infinispan;
 
 import java.util.logging.Logger;
 
-import org.apache.commons.lang3.StringUtils;
-
 import fi.otavanopisto.kuntaapi.server.id.BaseId;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
 
 public class IdPairKey2StringMapper extends AbstractIdKey2StringMapper {
   
   private static final Logger logger = Logger.getLogger(IdPairKey2StringMapper.class.getName());
+  private static final char PAIR_SEPARATOR = '>';
+
+  /**
+   * Constructor for mapper writing keys in legacy form. Used by the string keyed JDBC store.
+   */
+  public IdPairKey2StringMapper() {
+    super();
+  }
+  
+  /**
+   * Constructor
+   * 
+   * @param compact whether keys should be written in compact form
+   */
+  public IdPairKey2StringMapper(boolean compact) {
+    super(compact);
+  }
 
   @Override
   public boolean isSupportedType(Class<?> keyType) {
@@ -19,18 +34,24 @@ public class IdPairKey2StringMapper extends AbstractIdKey2StringMapper {
   @Override
   public String getStringMapping(Object key) {
     IdPair<?, ?> idPair = (IdPair<?, ?>) key;
-    return String.format("%s>%s", stringifyId(idPair.getParent()), stringifyId(idPair.getChild()));
+    String parent = stringifyId(idPair.getParent());
+    String child = stringifyId(idPair.getChild());
+    return new StringBuilder(parent.length() + child.length() + 1)
+      .append(parent)
+      .append(PAIR_SEPARATOR)
+      .append(child)
+      .toString();
   }
 
   @Override
   public Object getKeyMapping(String stringKey) {
-    String[] parts = StringUtils.split(stringKey, '>');
-    if (parts.length != 2) {
+    int separatorIndex = stringKey.indexOf(PAIR_SEPARATOR);
+    if (separatorIndex == -1 || stringKey.indexOf(PAIR_SEPARATOR, separatorIndex + 1) != -1) {
       logger.severe("Invalid key: expected 2 parts");
       return null;
     }
     
-    return new IdPair<BaseId, BaseId>(parseId(parts[0]), parseId(parts[1]));
+    return new IdPair<BaseId, BaseId>(parseId(stringKey, 0, separatorIndex), parseId(stringKey, separatorIndex + 1, stringKey.length()));
   }
   
 }
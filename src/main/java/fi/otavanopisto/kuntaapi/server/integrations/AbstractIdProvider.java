@@ -15,6 +15,7 @@ import fi.otavanopisto.kuntaapi.server.id.ElectronicServiceChannelId;
 import fi.otavanopisto.kuntaapi.server.id.EventId;
 import fi.otavanopisto.kuntaapi.server.id.FileId;
 import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.IdMapping;
 import fi.otavanopisto.kuntaapi.server.id.IdProvider;
 import fi.otavanopisto.kuntaapi.server.id.IdType;
 import fi.otavanopisto.kuntaapi.server.id.JobId;
@@ -31,7 +32,6 @@ import fi.otavanopisto.kuntaapi.server.id.ServiceId;
 import fi.otavanopisto.kuntaapi.server.id.ServiceLocationChannelId;
 import fi.otavanopisto.kuntaapi.server.id.TileId;
 import fi.otavanopisto.kuntaapi.server.id.WebPageChannelId;
-import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
 
 public abstract class AbstractIdProvider implements IdProvider {
 
@@ -41,9 +41,6 @@ public abstract class AbstractIdProvider implements IdProvider {
   @Inject
   private IdentifierController identifierController;
   
-  public abstract String getSource();
-  public abstract boolean isSupportedType(IdType type);
-  
   @Override
   public boolean canTranslate(String source, String target) {
     if (getSource().equals(source) && KuntaApiConsts.IDENTIFIER_NAME.equals(target)) {
@@ -179,13 +176,12 @@ public abstract class AbstractIdProvider implements IdProvider {
   }
 
   private <T extends BaseId> T translateToSourceId(T id, IdType type, Class<T> idClass) {
-    Identifier identifier;
-    identifier = identifierController.findIdentifierByTypeSourceAndKuntaApiId(type, getSource(), id.getId());
-    if (identifier != null) {
+    IdMapping mapping = identifierController.findMappingByTypeSourceAndKuntaApiId(type, getSource(), id.getId());
+    if (mapping != null) {
       if (isOrganizationBaseId(idClass)) {
-        return createOrganizationBaseId(idClass, getSource(), identifier.getSourceId(), identifier.getOrganizationKuntaApiId());
+        return createOrganizationBaseId(idClass, getSource(), mapping.getSourceId(), mapping.getOrganizationKuntaApiId());
       } else {
-        return createBaseId(idClass, getSource(), identifier.getSourceId());
+        return createBaseId(idClass, getSource(), mapping.getSourceId());
       }
     }
     
@@ -193,13 +189,12 @@ public abstract class AbstractIdProvider implements IdProvider {
   }
 
   private <T extends BaseId> T translateToKuntaApiId(T id, Class<T> idClass) {
-    Identifier identifier;
-    identifier = identifierController.findIdentifierById(id);
-    if (identifier != null) {
+    IdMapping mapping = identifierController.findMappingById(id);
+    if (mapping != null) {
       if (isOrganizationBaseId(idClass)) {
-        return createOrganizationBaseId(idClass, KuntaApiConsts.IDENTIFIER_NAME, identifier.getKuntaApiId(), identifier.getOrganizationKuntaApiId()); 
+        return createOrganizationBaseId(idClass, KuntaApiConsts.IDENTIFIER_NAME, mapping.getKuntaApiId(), mapping.getOrganizationKuntaApiId()); 
       } else {
-        return createBaseId(idClass, KuntaApiConsts.IDENTIFIER_NAME, identifier.getKuntaApiId());
+        return createBaseId(idClass, KuntaApiConsts.IDENTIFIER_NAME, mapping.getKuntaApiId());
       }
     }
     
@@ -1,7 +1,9 @@
 package fi.otavanopisto.kuntaapi.server.integrations;
 
 import java.util.List;
+import java.util.Map;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.BannerId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -23,6 +25,14 @@ public interface BannerProvider {
    */
   public List<Banner> listOrganizationBanners(OrganizationId organizationId);
   
+  /**
+   * List banners in an organization as JSON
+   * 
+   * @param organizationId organization id
+   * @return organization banner JSONs by banner id
+   */
+  public Map<BannerId, RawJsonValue> listOrganizationBannersJson(OrganizationId organizationId);
+  
   /**
    * Finds a single organization banner
    * 
@@ -31,6 +41,15 @@ public interface BannerProvider {
    * @return banner or null of not found
    */
   public Banner findOrganizationBanner(OrganizationId organizationId, BannerId bannerId);
+  
+  /**
+   * Finds a single organization banner as JSON
+   * 
+   * @param organizationId organization id
+   * @param bannerId banner id
+   * @return banner JSON or null of not found
+   */
+  public RawJsonValue findOrganizationBannerJson(OrganizationId organizationId, BannerId bannerId);
 
   /**
    * Lists images attached to the banner
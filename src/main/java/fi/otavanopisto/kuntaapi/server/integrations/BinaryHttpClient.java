@@ -22,7 +22,6 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
 
@@ -36,6 +35,9 @@ public class BinaryHttpClient {
 
   @Inject
   private Logger logger;
+  
+  @Inject
+  private HttpClientPool httpClientPool;
 
   private BinaryHttpClient() {
   }
@@ -67,26 +69,22 @@ public class BinaryHttpClient {
    */
   public Response<BinaryResponse> downloadBinary(URI uri) {
     try {
-      CloseableHttpClient client = HttpClients.createDefault();
+      CloseableHttpClient client = httpClientPool.getClient();
+      HttpGet httpGet = new HttpGet(uri);
+      
+      CloseableHttpResponse httpResponse = client.execute(httpGet);
       try {
-        HttpGet httpGet = new HttpGet(uri);
+        StatusLine statusLine = httpResponse.getStatusLine();
+        int statusCode = statusLine.getStatusCode();
+        String message = statusLine.getReasonPhrase();
+        byte[] data = IOUtils.toByteArray(httpResponse.getEntity().getContent());
+        Header typeHeader = httpResponse.getEntity().getContentType();
+        String type = typeHeader != null ? typeHeader.getValue() : null;
+        DownloadMeta meta = getDownloadMeta(httpResponse);
         
-        CloseableHttpResponse httpResponse = client.execute(httpGet);
-        try {
-          StatusLine statusLine = httpResponse.getStatusLine();
-          int statusCode = statusLine.getStatusCode();
-          String message = statusLine.getReasonPhrase();
-          byte[] data = IOUtils.toByteArray(httpResponse.getEntity().getContent());
-          Header typeHeader = httpResponse.getEntity().getContentType();
-          String type = typeHeader != null ? typeHeader.getValue() : null;
-          DownloadMeta meta = getDownloadMeta(httpResponse);
-          
-          return new Response<>(statusCode, message, new BinaryResponse(type, data, meta));
-        } finally {
-          httpResponse.close();
-        }
+        return new Response<>(statusCode, message, new BinaryResponse(type, data, meta));
       } finally {
-        client.close();
+        httpResponse.close();
       }
     } catch (IOException e) {
       logger.log(Level.WARNING, String.format("Failed to fetch binary data from %s", uri.toString()), e);
@@ -121,18 +119,14 @@ public class BinaryHttpClient {
    */
   public DownloadMeta getDownloadMeta(URI uri) {
     try {
-      CloseableHttpClient client = HttpClients.createDefault();
+      CloseableHttpClient client = httpClientPool.getClient();
+      HttpHead httpHead = new HttpHead(uri);
+      
+      CloseableHttpResponse httpResponse = client.execute(httpHead);
       try {
-        HttpHead httpHead = new HttpHead(uri);
-        
-        CloseableHttpResponse httpResponse = client.execute(httpHead);
-        try {
-          return getDownloadMeta(httpResponse);
-        } finally {
-          httpResponse.close();
-        }
+        return getDownloadMeta(httpResponse);
       } finally {
-        client.close();
+        httpResponse.close();
       }
     } catch (IOException e) {
       logger.log(Level.WARNING, String.format("Failed to from %s", uri.toString()), e);
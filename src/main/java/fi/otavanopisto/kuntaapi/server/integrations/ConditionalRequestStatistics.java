@@ -0,0 +1,47 @@
+package fi.otavanopisto.kuntaapi.server.integrations;
+
+/**
+ * Snapshot of conditional request statistics of an integration
+ * 
+ * @author Antti Leppä
+ */
+public class ConditionalRequestStatistics {
+  
+  private final String integration;
+  private final long requests;
+  private final long revalidations;
+  private final long notModified;
+  
+  public ConditionalRequestStatistics(String integration, long requests, long revalidations, long notModified) {
+    this.integration = integration;
+    this.requests = requests;
+    this.revalidations = revalidations;
+    this.notModified = notModified;
+  }
+  
+  public String getIntegration() {
+    return integration;
+  }
+  
+  public long getRequests() {
+    return requests;
+  }
+  
+  public long getRevalidations() {
+    return revalidations;
+  }
+  
+  public long getNotModified() {
+    return notModified;
+  }
+  
+  /**
+   * Returns share of conditional requests answered with 304 Not Modified
+   * 
+   * @return hit rate between 0 and 1
+   */
+  public double getHitRate() {
+    return requests == 0 ? 0d : (double) notModified / requests;
+  }
+  
+}
@@ -0,0 +1,68 @@
+package fi.otavanopisto.kuntaapi.server.integrations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Counts conditional requests made by integrations and how many of them were answered with 304 Not Modified
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+public class ConditionalRequestStatisticsController {
+  
+  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+  
+  /**
+   * Records a conditional request
+   * 
+   * @param integration integration name
+   * @param revalidated whether request carried validators of a previous response
+   * @param notModified whether response was 304 Not Modified
+   */
+  public void recordRequest(String integration, boolean revalidated, boolean notModified) {
+    Counter counter = getCounter(integration);
+    counter.requests.incrementAndGet();
+    
+    if (revalidated) {
+      counter.revalidations.incrementAndGet();
+    }
+    
+    if (notModified) {
+      counter.notModified.incrementAndGet();
+    }
+  }
+  
+  /**
+   * Returns statistics of all integrations that have made conditional requests
+   * 
+   * @return statistics
+   */
+  public List<ConditionalRequestStatistics> getStatistics() {
+    List<ConditionalRequestStatistics> result = new ArrayList<>(counters.size());
+    for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+      Counter counter = entry.getValue();
+      result.add(new ConditionalRequestStatistics(entry.getKey(), counter.requests.get(), counter.revalidations.get(), counter.notModified.get()));
+    }
+    
+    return result;
+  }
+  
+  private Counter getCounter(String integration) {
+    return counters.computeIfAbsent(integration, name -> new Counter());
+  }
+  
+  private static class Counter {
+    
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    
+  }
+  
+}
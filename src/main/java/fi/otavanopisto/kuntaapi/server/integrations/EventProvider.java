@@ -3,6 +3,7 @@ package fi.otavanopisto.kuntaapi.server.integrations;
 import java.time.OffsetDateTime;
 import java.util.List;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.EventId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -17,17 +18,21 @@ import fi.otavanopisto.kuntaapi.server.rest.model.Event;
 public interface EventProvider {
 
   /**
-   * List events in an organization
+   * List events in an organization ordered by start date
    * 
    * @param organizationId organization id
    * @param startBefore return only events starting before the date
    * @param startAfter return only events starting after the date
    * @param endBefore return only events ending before the date
    * @param endAfter return only events ending after the date
+   * @param orderDirection start date order direction with the same meaning as in event listing
+   * @param firstResult index of first returned event or null for the first
+   * @param maxResults max number of returned events or null for all
    * @return events organization events
    */
+  @SuppressWarnings ("squid:S00107")
   public List<Event> listOrganizationEvents(OrganizationId organizationId, OffsetDateTime startBefore, OffsetDateTime startAfter, 
-      OffsetDateTime endBefore, OffsetDateTime endAfter);
+      OffsetDateTime endBefore, OffsetDateTime endAfter, EventOrderDirection orderDirection, Integer firstResult, Integer maxResults);
   
   /**
    * Finds a single organization event
@@ -37,6 +42,15 @@ public interface EventProvider {
    * @return
    */
   public Event findOrganizationEvent(OrganizationId organizationId, EventId eventId);
+  
+  /**
+   * Finds a single organization event as JSON
+   * 
+   * @param organizationId organization id
+   * @param eventId event id
+   * @return event JSON or null of not found
+   */
+  public RawJsonValue findOrganizationEventJson(OrganizationId organizationId, EventId eventId);
 
   /**
    * Lists images attached to the event
@@ -2,6 +2,7 @@ package fi.otavanopisto.kuntaapi.server.integrations;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,6 +17,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import fi.otavanopisto.kuntaapi.server.cache.CacheCompression;
+import fi.otavanopisto.kuntaapi.server.cache.CacheCompressionController;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.ResultType;
 
@@ -27,15 +30,31 @@ import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.ResultType
 @Dependent
 public class GenericHttpCache {
   
+  private static final int DEFAULT_COMPRESSION_THRESHOLD = 4096;
+  
   @Resource (lookup = "java:jboss/infinispan/container/kunta-api")
   private EmbeddedCacheManager cacheManager;
   
   @Inject
   private Logger logger;
   
+  @Inject
+  private CacheCompressionController cacheCompressionController;
+  
   private GenericHttpCache() {
   }
   
+  /**
+   * Returns whether a HTTP response is cached for the URI
+   * 
+   * @param cacheName name of the cache
+   * @param uri URI
+   * @return whether a HTTP response is cached for the URI
+   */
+  public boolean contains(String cacheName, URI uri) {
+    return cacheManager.getCache(cacheName).containsKey(uri.toString());
+  }
+  
   /**
    * Returns cached HTTP response by URI
    * 
@@ -57,12 +76,18 @@ public class GenericHttpCache {
    * @return cached api reposponse or null if non found
    */
   public <T> T get(String cacheName, String url, ResultType<T> type) {
-    Cache<String, String> cache = cacheManager.getCache(cacheName);
-    if (cache.containsKey(url)) {
+    Cache<String, Object> cache = cacheManager.getCache(cacheName);
+    Object cached = cache.get(url);
+    if (cached != null) {
       ObjectMapper objectMapper = new ObjectMapper();
       objectMapper.registerModule(new JavaTimeModule());
       try {
-        return objectMapper.readValue(cache.get(url), type.getTypeReference());
+        if (cached instanceof byte[]) {
+          byte[] compressed = (byte[]) cached;
+          return objectMapper.readValue(CacheCompression.inflate(compressed, 0, compressed.length), type.getTypeReference());
+        }
+        
+        return objectMapper.readValue((String) cached, type.getTypeReference());
       } catch (IOException e) {
         cache.remove(url);
         logger.log(Level.SEVERE, "Invalid serizalized object found from the cache. Dropped object", e);
@@ -91,11 +116,18 @@ public class GenericHttpCache {
    * @param response
    */
   public void put(String cacheName, String url, Response<?> response) {
-    Cache<String, String> cache = cacheManager.getCache(cacheName);
+    Cache<String, Object> cache = cacheManager.getCache(cacheName);
     ObjectMapper objectMapper = new ObjectMapper();
     objectMapper.registerModule(new JavaTimeModule());
     try {
-      cache.put(url, objectMapper.writeValueAsString(response));
+      // Large responses are stored deflated, smaller ones as plain JSON strings
+      String json = objectMapper.writeValueAsString(response);
+      byte[] compressed = cacheCompressionController.compress(cacheName, json.getBytes(StandardCharsets.UTF_8), DEFAULT_COMPRESSION_THRESHOLD);
+      if (compressed != null) {
+        cache.put(url, compressed);
+      } else {
+        cache.put(url, json);
+      }
     } catch (JsonProcessingException e) {
       logger.log(Level.SEVERE, "Failed to serialize response into cache", e);
     }
@@ -6,6 +6,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.logging.Level;
@@ -23,7 +24,6 @@ import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -34,6 +34,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import fi.otavanopisto.kuntaapi.server.cache.HttpValidatorCache;
+import fi.otavanopisto.kuntaapi.server.cache.HttpValidators;
+import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
+
 /**
  * Response aware HTTP client for integrations
  * 
@@ -45,9 +49,20 @@ public class GenericHttpClient {
   private static final String REQUEST_TIMED_OUT = "Request timed out";
   private static final String RESPONSE_PARSING_FAILED = "Response parsing failed";
   private static final String INVALID_URI_SYNTAX = "Invalid uri syntax";
+  private static final String HEADER_ETAG = "ETag";
+  private static final String HEADER_LAST_MODIFIED = "Last-Modified";
   
   @Inject
   private Logger logger;
+  
+  @Inject
+  private HttpValidatorCache httpValidatorCache;
+  
+  @Inject
+  private HttpClientPool httpClientPool;
+  
+  @Inject
+  private ConditionalRequestStatisticsController conditionalRequestStatisticsController;
 
   private GenericHttpClient() {
   }
@@ -106,11 +121,69 @@ public class GenericHttpClient {
    * @return the response
    */
   public <T> Response<T> doGETRequest(URI uri, ResultType<T> resultType, Map<String, String> extraHeaders) {
-    CloseableHttpClient httpClient = HttpClients.createDefault();
-    try {
-      return executeRequest(resultType, uri, httpClient, extraHeaders);
-    } finally {
-      closeClient(httpClient);
+    return executeRequest(resultType, uri, httpClientPool.getClient(), extraHeaders);
+  }
+  
+  /**
+   * Executes a conditional get request into a specified URI. 
+   * 
+   * Validators of the previous OK response from the URI are sent as If-None-Match and If-Modified-Since 
+   * headers. When the resource has not changed, returned response has no entity and reports 
+   * itself as not modified, so callers must only use this method when they still hold the result 
+   * of the previous request. Validators saved with another entity hash version are ignored, so 
+   * results are translated again after the version changes. 
+   * 
+   * Validators of the response are not saved by this method. Callers save them with 
+   * {@link #saveValidators(URI, HttpValidators)} once they have stored the result, so a failed 
+   * cache write never leaves behind validators for a result that was not stored.
+   * 
+   * @param integration integration name used in statistics
+   * @param uri request uri
+   * @param resultType type of request
+   * @param extraHeaders extra headers for the request or null
+   * @return the response
+   */
+  public <T> Response<T> doConditionalGETRequest(String integration, URI uri, ResultType<T> resultType, Map<String, String> extraHeaders) {
+    HttpValidators validators = httpValidatorCache.get(uri.toString());
+    if (validators != null && !EntityUpdater.HASH_VERSION.equals(validators.getHashVersion())) {
+      validators = null;
+    }
+    
+    Map<String, String> headers = new HashMap<>();
+    if (extraHeaders != null) {
+      headers.putAll(extraHeaders);
+    }
+    
+    if (validators != null) {
+      if (validators.getEtag() != null) {
+        headers.put("If-None-Match", validators.getEtag());
+      }
+      
+      if (validators.getLastModified() != null) {
+        headers.put("If-Modified-Since", validators.getLastModified());
+      }
+    }
+    
+    Response<T> response = executeRequest(resultType, uri, httpClientPool.getClient(), headers);
+    conditionalRequestStatisticsController.recordRequest(integration, validators != null, response.isNotModified());
+    return response;
+  }
+  
+  /**
+   * Saves validators of a response for revalidating the URI with conditional requests. 
+   * Validators of the URI are removed when the response did not contain any.
+   * 
+   * @param uri request uri
+   * @param validators validators of the response or null
+   */
+  public void saveValidators(URI uri, HttpValidators validators) {
+    if (validators == null) {
+      if (httpValidatorCache.contains(uri.toString())) {
+        httpValidatorCache.clear(uri.toString());
+      }
+    } else {
+      validators.setHashVersion(EntityUpdater.HASH_VERSION);
+      httpValidatorCache.put(uri.toString(), validators);
     }
   }
 
@@ -127,8 +200,14 @@ public class GenericHttpClient {
     try {
       CloseableHttpResponse response = httpClient.execute(httpGet);
       try {
-        return createResponse(response, resultType);
+        Response<T> result = createResponse(response, resultType);
+        if (result.getStatus() == 200) {
+          result.setValidators(getValidators(response));
+        }
+        
+        return result;
       } finally {
+        EntityUtils.consumeQuietly(response.getEntity());
         response.close();
       }
     } catch (JsonParseException | JsonMappingException  e) {
@@ -140,14 +219,26 @@ public class GenericHttpClient {
     }
   }
   
-  private void closeClient(CloseableHttpClient httpClient) {
-    try {
-      httpClient.close();
-    } catch (IOException e) {
-      logger.log(Level.SEVERE, "Failed to close http client", e);
+  private HttpValidators getValidators(HttpResponse httpResponse) {
+    String etag = getHeaderValue(httpResponse, HEADER_ETAG);
+    String lastModified = getHeaderValue(httpResponse, HEADER_LAST_MODIFIED);
+    
+    if (etag == null && lastModified == null) {
+      return null;
     }
+    
+    return new HttpValidators(etag, lastModified);
   }
-
+  
+  private String getHeaderValue(HttpResponse httpResponse, String name) {
+    Header header = httpResponse.getFirstHeader(name);
+    if (header != null) {
+      return header.getValue();
+    }
+    
+    return null;
+  }
+  
   private String parameterToString(Object value) {
     return String.valueOf(value);
   }
@@ -188,12 +279,7 @@ public class GenericHttpClient {
   }
   
   private String getContentType(HttpResponse httpResponse) {
-    Header header = httpResponse.getFirstHeader("Content-Type");
-    if (header != null) {
-      return header.getValue();
-    }
-    
-    return null;
+    return getHeaderValue(httpResponse, "Content-Type");
   }
 
   @SuppressWarnings("unchecked")
@@ -261,6 +347,7 @@ public class GenericHttpClient {
     private int status;
     private String message;
     private T responseEntity;
+    private HttpValidators validators;
     
     /**
      * Zero-argument constructor for Response
@@ -306,10 +393,30 @@ public class GenericHttpClient {
       this.message = message;
     }
     
+    /**
+     * Returns ETag and Last-Modified validators of an OK response
+     * 
+     * @return validators or null if response did not contain any
+     */
+    @JsonIgnore
+    public HttpValidators getValidators() {
+      return validators;
+    }
+    
+    @JsonIgnore
+    public void setValidators(HttpValidators validators) {
+      this.validators = validators;
+    }
+    
     @JsonIgnore    
     public boolean isOk() {
       return status >= 200 && status <= 299;
     }
+    
+    @JsonIgnore
+    public boolean isNotModified() {
+      return status == 304;
+    }
   }
   
   /**
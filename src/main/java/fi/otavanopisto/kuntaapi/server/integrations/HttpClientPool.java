@@ -0,0 +1,120 @@
+package fi.otavanopisto.kuntaapi.server.integrations;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
+/**
+ * Shared pooled HTTP client for all integrations. 
+ * 
+ * Connections are kept alive and reused between requests into the same route. Pool limits and 
+ * timeouts are read from system settings when the pool is created.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class HttpClientPool {
+  
+  private static final int DEFAULT_MAX_TOTAL = 100;
+  private static final int DEFAULT_MAX_PER_ROUTE = 20;
+  private static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+  private static final int DEFAULT_SOCKET_TIMEOUT = 60000;
+  private static final int DEFAULT_REQUEST_TIMEOUT = 10000;
+  private static final long DEFAULT_IDLE_TIMEOUT = 30000;
+  private static final int VALIDATE_AFTER_INACTIVITY = 2000;
+  
+  @Inject
+  private Logger logger;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  private PoolingHttpClientConnectionManager connectionManager;
+  private CloseableHttpClient httpClient;
+  
+  @PostConstruct
+  public void init() {
+    connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(getIntSetting(KuntaApiConsts.SYSTEM_SETTING_HTTP_MAX_TOTAL, DEFAULT_MAX_TOTAL));
+    connectionManager.setDefaultMaxPerRoute(getIntSetting(KuntaApiConsts.SYSTEM_SETTING_HTTP_MAX_PER_ROUTE, DEFAULT_MAX_PER_ROUTE));
+    connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY);
+    
+    RequestConfig requestConfig = RequestConfig.custom()
+      .setConnectTimeout(getIntSetting(KuntaApiConsts.SYSTEM_SETTING_HTTP_CONNECT_TIMEOUT, DEFAULT_CONNECT_TIMEOUT))
+      .setSocketTimeout(getIntSetting(KuntaApiConsts.SYSTEM_SETTING_HTTP_SOCKET_TIMEOUT, DEFAULT_SOCKET_TIMEOUT))
+      .setConnectionRequestTimeout(getIntSetting(KuntaApiConsts.SYSTEM_SETTING_HTTP_REQUEST_TIMEOUT, DEFAULT_REQUEST_TIMEOUT))
+      .build();
+    
+    long idleTimeout = NumberUtils.toLong(systemSettingController.getSettingValue(KuntaApiConsts.SYSTEM_SETTING_HTTP_IDLE_TIMEOUT), DEFAULT_IDLE_TIMEOUT);
+    
+    httpClient = HttpClients.custom()
+      .setConnectionManager(connectionManager)
+      .setDefaultRequestConfig(requestConfig)
+      .evictExpiredConnections()
+      .evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS)
+      .build();
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    try {
+      httpClient.close();
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Failed to close http client pool", e);
+    }
+  }
+  
+  /**
+   * Returns shared HTTP client. Client must not be closed by the caller, but responses must be 
+   * closed, so their connections are released back into the pool.
+   * 
+   * @return shared HTTP client
+   */
+  public CloseableHttpClient getClient() {
+    return httpClient;
+  }
+  
+  /**
+   * Returns connection pool statistics in total and by route
+   * 
+   * @return connection pool statistics
+   */
+  public List<HttpClientPoolStatistics> getStatistics() {
+    List<HttpClientPoolStatistics> result = new ArrayList<>();
+    result.add(createStatistics("total", connectionManager.getTotalStats()));
+    
+    for (HttpRoute route : connectionManager.getRoutes()) {
+      result.add(createStatistics(route.getTargetHost().toURI(), connectionManager.getStats(route)));
+    }
+    
+    return result;
+  }
+  
+  private HttpClientPoolStatistics createStatistics(String route, PoolStats poolStats) {
+    return new HttpClientPoolStatistics(route, poolStats.getLeased(), poolStats.getPending(), poolStats.getAvailable(), poolStats.getMax());
+  }
+  
+  private int getIntSetting(String key, int defaultValue) {
+    return NumberUtils.toInt(systemSettingController.getSettingValue(key), defaultValue);
+  }
+  
+}
@@ -0,0 +1,44 @@
+package fi.otavanopisto.kuntaapi.server.integrations;
+
+/**
+ * Snapshot of HTTP connection pool statistics of a route
+ * 
+ * @author Antti Leppä
+ */
+public class HttpClientPoolStatistics {
+  
+  private final String route;
+  private final int leased;
+  private final int pending;
+  private final int available;
+  private final int max;
+  
+  public HttpClientPoolStatistics(String route, int leased, int pending, int available, int max) {
+    this.route = route;
+    this.leased = leased;
+    this.pending = pending;
+    this.available = available;
+    this.max = max;
+  }
+  
+  public String getRoute() {
+    return route;
+  }
+  
+  public int getLeased() {
+    return leased;
+  }
+  
+  public int getPending() {
+    return pending;
+  }
+  
+  public int getAvailable() {
+    return available;
+  }
+  
+  public int getMax() {
+    return max;
+  }
+  
+}
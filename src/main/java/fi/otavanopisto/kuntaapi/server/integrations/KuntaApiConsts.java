@@ -6,6 +6,26 @@ public class KuntaApiConsts {
   public static final String SYSTEM_SETTING_ELASTIC_SEARCH_HOSTS = "elastic-search.hosts";
   public static final String SYSTEM_SETTING_ELASTIC_CLUSTER_NAME = "elastic-search.cluster-name";
   public static final String SYSTEM_SETTING_ELASTIC_INDEX = "elastic-search.index";
+  public static final String SYSTEM_SETTING_CACHE_SNAPSHOT_DIRECTORY = "cache-snapshot.directory";
+  public static final String SYSTEM_SETTING_CACHE_SNAPSHOT_INTERVAL = "cache-snapshot.interval";
+  public static final String SYSTEM_SETTING_CACHE_COMPRESSION_THRESHOLD = "cache-compression.%s.threshold";
+  public static final String SYSTEM_SETTING_SKIP_UNMODIFIED_ENTITIES = "entity-updaters.skip-unmodified";
+  public static final String SYSTEM_SETTING_UPDATER_BATCH_SIZE = "updaters.%s.batch-size";
+  public static final String SYSTEM_SETTING_UPDATER_CONCURRENCY = "updaters.%s.concurrency";
+  public static final String SYSTEM_SETTING_UPDATER_RETRY_DELAY = "updaters.%s.retry-delay";
+  public static final String SYSTEM_SETTING_UPDATER_MAX_RETRIES = "updaters.%s.max-retries";
+  public static final String SYSTEM_SETTING_UPDATER_BATCH_TIME_LIMIT = "updaters.%s.batch-time-limit";
+  public static final String SYSTEM_SETTING_DURABLE_UPDATE_QUEUES = "updaters.durable-queues";
+  public static final String SYSTEM_SETTING_UPDATE_RATE_MIN = "update-rates.%s.min";
+  public static final String SYSTEM_SETTING_UPDATE_RATE_MAX = "update-rates.%s.max";
+  public static final String SYSTEM_SETTING_UPDATE_RATE_LATENCY_TARGET = "update-rates.%s.latency-target";
+  public static final String SYSTEM_SETTING_WEBHOOK_DEBOUNCE_WINDOW = "webhooks.debounce-window";
+  public static final String SYSTEM_SETTING_HTTP_MAX_TOTAL = "http-client.max-total";
+  public static final String SYSTEM_SETTING_HTTP_MAX_PER_ROUTE = "http-client.max-per-route";
+  public static final String SYSTEM_SETTING_HTTP_CONNECT_TIMEOUT = "http-client.connect-timeout";
+  public static final String SYSTEM_SETTING_HTTP_SOCKET_TIMEOUT = "http-client.socket-timeout";
+  public static final String SYSTEM_SETTING_HTTP_REQUEST_TIMEOUT = "http-client.request-timeout";
+  public static final String SYSTEM_SETTING_HTTP_IDLE_TIMEOUT = "http-client.idle-timeout";
   
   private KuntaApiConsts() {
   }
@@ -1,7 +1,9 @@
 package fi.otavanopisto.kuntaapi.server.integrations;
 
 import java.util.List;
+import java.util.Map;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.MenuId;
 import fi.otavanopisto.kuntaapi.server.id.MenuItemId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -24,6 +26,14 @@ public interface MenuProvider {
    */
   public List<Menu> listOrganizationMenus(OrganizationId organizationId, String slug);
   
+  /**
+   * List all menus in an organization as JSON
+   * 
+   * @param organizationId organization id
+   * @return organization menu JSONs by menu id
+   */
+  public Map<MenuId, RawJsonValue> listOrganizationMenusJson(OrganizationId organizationId);
+  
   /**
    * Finds a single organization menu
    * 
@@ -33,6 +43,15 @@ public interface MenuProvider {
    */
   public Menu findOrganizationMenu(OrganizationId organizationId, MenuId menuId);
   
+  /**
+   * Finds a single organization menu as JSON
+   * 
+   * @param organizationId organization id
+   * @param menuId menu id
+   * @return menu JSON or null of not found
+   */
+  public RawJsonValue findOrganizationMenuJson(OrganizationId organizationId, MenuId menuId);
+  
   /**
    * List menu items
    * 
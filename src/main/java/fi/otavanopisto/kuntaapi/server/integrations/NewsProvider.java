@@ -3,6 +3,7 @@ package fi.otavanopisto.kuntaapi.server.integrations;
 import java.time.OffsetDateTime;
 import java.util.List;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -22,9 +23,11 @@ public interface NewsProvider {
    * @param organizationId organization id
    * @param publishedBefore return only news published before the date
    * @param publishedAfter return only news published after the date
+   * @param firstResult index of first returned news article or null for the first
+   * @param maxResults max number of returned news articles or null for all
    * @return organization news articles
    */
-  public List<NewsArticle> listOrganizationNews(OrganizationId organizationId, OffsetDateTime publishedBefore, OffsetDateTime publishedAfter);
+  public List<NewsArticle> listOrganizationNews(OrganizationId organizationId, OffsetDateTime publishedBefore, OffsetDateTime publishedAfter, Integer firstResult, Integer maxResults);
   
   /**
    * Finds a single news article
@@ -34,6 +37,15 @@ public interface NewsProvider {
    * @return news article or null of not found
    */
   public NewsArticle findOrganizationNewsArticle(OrganizationId organizationId, NewsArticleId newsArticleId);
+  
+  /**
+   * Finds a single organization news article as JSON
+   * 
+   * @param organizationId organization id
+   * @param newsArticleId news article id
+   * @return news article JSON or null of not found
+   */
+  public RawJsonValue findOrganizationNewsArticleJson(OrganizationId organizationId, NewsArticleId newsArticleId);
 
   /**
    * Lists images attached to the news article
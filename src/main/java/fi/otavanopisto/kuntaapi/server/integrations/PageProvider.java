@@ -2,6 +2,7 @@ package fi.otavanopisto.kuntaapi.server.integrations;
 
 import java.util.List;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.id.PageId;
@@ -34,6 +35,15 @@ public interface PageProvider {
    * @return page or null of not found
    */
   public Page findOrganizationPage(OrganizationId organizationId, PageId pageId);
+  
+  /**
+   * Finds a single organization page as JSON
+   * 
+   * @param organizationId organization id
+   * @param pageId page id
+   * @return page JSON or null of not found
+   */
+  public RawJsonValue findOrganizationPageJson(OrganizationId organizationId, PageId pageId);
 
   /**
    * Finds organization page contents
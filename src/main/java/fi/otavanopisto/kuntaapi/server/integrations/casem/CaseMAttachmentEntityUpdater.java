@@ -1,8 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.casem;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
@@ -25,6 +22,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.FileId;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -65,11 +63,11 @@ public class CaseMAttachmentEntityUpdater extends EntityUpdater {
   
   private boolean stopped;
   
-  private List<FileUpdateRequest> queue;
+  private UpdateQueue<FileUpdateRequest> queue;
 
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -99,7 +97,7 @@ public class CaseMAttachmentEntityUpdater extends EntityUpdater {
     if (!stopped) {
       FileId fileId = event.getFileId();
       if (StringUtils.equals(fileId.getSource(), CaseMConsts.IDENTIFIER_NAME)) {
-        queue.add(event);
+        queue.add(event, false);
       }
     }
   }
@@ -107,9 +105,7 @@ public class CaseMAttachmentEntityUpdater extends EntityUpdater {
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateFile(queue.remove(0));
-      }
+      processQueue(CaseMConsts.IDENTIFIER_NAME, queue, this::updateFile);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -14,7 +14,10 @@ import javax.inject.Inject;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import fi.otavanopisto.kuntaapi.server.cache.CollectionVersionCache;
 import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
+import fi.otavanopisto.kuntaapi.server.cache.PageCache;
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.id.PageId;
@@ -45,6 +48,9 @@ public class CaseMCache {
   @Inject
   private ModificationHashCache modificationHashCache;
   
+  @Inject
+  private CollectionVersionCache collectionVersionCache;
+  
   public List<Page> listRootPages(OrganizationId organizationId) {
     return listCachedPages(organizationId, null);
   }
@@ -57,6 +63,15 @@ public class CaseMCache {
     return nodePageCache.get(getPageCacheKey(organizationId, pageId));
   }
 
+  public RawJsonValue findPageJson(OrganizationId organizationId, PageId pageId) {
+    String pageCacheKey = getPageCacheKey(organizationId, pageId);
+    if (pageCacheKey == null) {
+      return null;
+    }
+    
+    return nodePageCache.getJson(pageCacheKey);
+  }
+
   public Page findPageByPath(OrganizationId organizationId, String path) {
     Page current = null;
     
@@ -82,7 +97,7 @@ public class CaseMCache {
     String pageCacheKey = getPageCacheKey(organizationId, pageId);
     String parentCacheKey = getPageCacheKey(organizationId, parentId);
     
-    List<PageId> cacheChildIds = treeCache.get(parentCacheKey);
+    List<PageId> cacheChildIds = treeCache.getCopy(parentCacheKey);
     if (cacheChildIds == null) {
       cacheChildIds = new ArrayList<>(1);
       cacheChildIds.add(pageId);
@@ -96,6 +111,7 @@ public class CaseMCache {
     }
     
     nodePageCache.put(pageCacheKey, page);
+    collectionVersionCache.bump(PageCache.CACHE_NAME, organizationId);
   }
   
   public void cachePageContents(OrganizationId organizationId, PageId pageId, String content) {
@@ -139,16 +155,16 @@ public class CaseMCache {
       return Collections.emptyList();
     }
     
-    List<Page> pages = new ArrayList<>(pageIds.size());
+    List<String> pageCacheKeys = new ArrayList<>(pageIds.size());
     
     for (PageId pageId : pageIds) {
-      Page page = findPage(organizationId, pageId);
-      if (page != null) {
-        pages.add(page);
+      String pageCacheKey = getPageCacheKey(organizationId, pageId);
+      if (pageCacheKey != null) {
+        pageCacheKeys.add(pageCacheKey);
       }
     }
     
-    return pages;
+    return nodePageCache.getAll(pageCacheKeys);
   }
   
   private String getPageCacheKey(OrganizationId organizationId, PageId pageId) {
@@ -14,6 +14,7 @@ import javax.inject.Inject;
 
 import org.apache.http.client.utils.URIBuilder;
 
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateController;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpCache;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
@@ -35,6 +36,9 @@ public class CaseMClient implements fi.otavanopisto.casem.client.ApiClient {
   @Inject
   private GenericHttpClient httpClient;
 
+  @Inject
+  private UpdateRateController updateRateController;
+
   @Inject
   private GenericHttpCache httpCache;
   
@@ -70,7 +74,9 @@ public class CaseMClient implements fi.otavanopisto.casem.client.ApiClient {
     
     Response<T> response = httpCache.get(CaseMConsts.CACHE_NAME, uri, new GenericHttpClient.ResponseResultTypeWrapper<>(resultType.getType()));
     if (response == null) {
+      long requestStarted = System.currentTimeMillis();
       response = httpClient.doGETRequest(uri, new GenericHttpClient.ResultTypeWrapper<>(resultType.getType()), headers);
+      updateRateController.recordResponse(CaseMConsts.IDENTIFIER_NAME, response.getStatus(), System.currentTimeMillis() - requestStarted);
       if (CaseMConsts.CACHE_RESPONSES) {
         httpCache.put(CaseMConsts.CACHE_NAME, uri, response);
       }
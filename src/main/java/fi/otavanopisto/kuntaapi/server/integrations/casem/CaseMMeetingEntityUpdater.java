@@ -1,8 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.casem;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -19,6 +16,7 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
 
 @ApplicationScoped
@@ -37,11 +35,11 @@ public class CaseMMeetingEntityUpdater extends EntityUpdater {
   
   private boolean stopped;
   
-  private List<CaseMMeetingData> queue;
+  private UpdateQueue<CaseMMeetingData> queue;
 
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -69,16 +67,14 @@ public class CaseMMeetingEntityUpdater extends EntityUpdater {
   @Asynchronous
   public void onCaseMMeetingDataUpdateRequest(@Observes CaseMMeetingDataUpdateRequest event) {
     if (!stopped) {
-      queue.add(event.getMeetingData());
+      queue.add(event.getMeetingData(), false);
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updater.updateMeeting(queue.remove(0));
-      }
+      processQueue(queue, updater::updateMeeting);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -4,6 +4,7 @@ import javax.ejb.Singleton;
 import javax.enterprise.context.ApplicationScoped;
 
 import fi.otavanopisto.kuntaapi.server.cache.AbstractCache;
+import fi.otavanopisto.kuntaapi.server.cache.CacheCodecType;
 import fi.otavanopisto.kuntaapi.server.rest.model.Page;
 
 @ApplicationScoped
@@ -17,5 +18,10 @@ public class CaseMNodePageCache extends AbstractCache<String, Page> {
     return "casem-page-cache";
   }
   
+  @Override
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.SMILE;
+  }
+  
   
 }
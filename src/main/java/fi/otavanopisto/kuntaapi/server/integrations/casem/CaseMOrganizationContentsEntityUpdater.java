@@ -1,7 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.casem;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -20,6 +18,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.settings.OrganizationSettingController;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
@@ -42,15 +41,15 @@ public class CaseMOrganizationContentsEntityUpdater extends EntityUpdater {
   private TimerService timerService;
 
   private boolean stopped;
-  private List<OrganizationId> nodesQueue;
-  private List<OrganizationId> contentsQueue;
+  private UpdateQueue<OrganizationId> nodesQueue;
+  private UpdateQueue<OrganizationId> contentsQueue;
   private Queue queue;
   
   @PostConstruct
   public void init() {
     queue = Queue.NODES;
-    nodesQueue = new ArrayList<>();
-    contentsQueue = new ArrayList<>();
+    nodesQueue = createQueue(getName() + "-nodes");
+    contentsQueue = createQueue(getName() + "-contents");
   }
 
   @Override
@@ -82,14 +81,7 @@ public class CaseMOrganizationContentsEntityUpdater extends EntityUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        nodesQueue.remove(event.getId());
-        nodesQueue.add(0, event.getId());
-      } else {
-        if (!nodesQueue.contains(event.getId())) {
-          nodesQueue.add(event.getId());
-        }
-      }      
+      nodesQueue.add(event.getId(), event.isPriority());
     }
   }
 
@@ -97,15 +89,11 @@ public class CaseMOrganizationContentsEntityUpdater extends EntityUpdater {
   public void timeout(Timer timer) {
     if (!stopped) {
       if (queue == Queue.CONTENTS) {
-        if (!contentsQueue.isEmpty()) {
-          updateOrganizationContents(contentsQueue.remove(0));          
-        }
+        processQueue(CaseMConsts.IDENTIFIER_NAME, contentsQueue, this::updateOrganizationContents);
         
         queue = Queue.NODES;
       } else if (queue == Queue.NODES) {
-        if (!nodesQueue.isEmpty()) {
-          updateOrganizationNodes(nodesQueue.remove(0));          
-        }
+        processQueue(CaseMConsts.IDENTIFIER_NAME, nodesQueue, this::updateOrganizationNodes);
         
         queue = Queue.CONTENTS;
       }
@@ -116,9 +104,7 @@ public class CaseMOrganizationContentsEntityUpdater extends EntityUpdater {
 
   private void updateOrganizationNodes(OrganizationId organizationId) {
     cacheUpdater.updateNodes(organizationId);
-    if (!contentsQueue.contains(organizationId)) {
-      contentsQueue.add(organizationId);
-    }
+    contentsQueue.add(organizationId, false);
   }
   
   private void updateOrganizationContents(OrganizationId organizationId) {
@@ -4,6 +4,7 @@ import javax.ejb.Singleton;
 import javax.enterprise.context.ApplicationScoped;
 
 import fi.otavanopisto.kuntaapi.server.cache.AbstractCache;
+import fi.otavanopisto.kuntaapi.server.cache.CacheCodecType;
 
 @ApplicationScoped
 @Singleton
@@ -16,4 +17,22 @@ public class CaseMPageContentCache extends AbstractCache<String, String> {
     return "casem-content-cache";
   }
   
+  /**
+   * Page contents are large, so they are not kept deserialized in the near cache
+   */
+  @Override
+  protected int getNearCacheSize() {
+    return 0;
+  }
+  
+  @Override
+  protected CacheCodecType getCodecType() {
+    return CacheCodecType.SMILE;
+  }
+  
+  @Override
+  protected int getCompressionThreshold() {
+    return 2048;
+  }
+  
 }
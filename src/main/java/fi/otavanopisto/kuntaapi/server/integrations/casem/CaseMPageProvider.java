@@ -6,6 +6,7 @@ import java.util.List;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.id.PageId;
@@ -41,6 +42,11 @@ public class CaseMPageProvider implements PageProvider {
     return caseMCache.findPage(organizationId, pageId);
   }
   
+  @Override
+  public RawJsonValue findOrganizationPageJson(OrganizationId organizationId, PageId pageId) {
+    return caseMCache.findPageJson(organizationId, pageId);
+  }
+  
   @Override
   public List<LocalizedValue> findOrganizationPageContents(OrganizationId organizationId, PageId pageId) {
     return caseMCache.getPageContent(organizationId, pageId);
@@ -1,9 +1,15 @@
 package fi.otavanopisto.kuntaapi.server.integrations.casem;
 
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
 import fi.otavanopisto.kuntaapi.server.id.FileId;
 import fi.otavanopisto.kuntaapi.server.id.PageId;
 
-public class FileUpdateRequest {
+public class FileUpdateRequest implements Serializable {
+
+  private static final long serialVersionUID = -5350312406644175251L;
 
   private PageId parentId;
   private FileId fileId;
@@ -22,4 +28,22 @@ public class FileUpdateRequest {
     return parentId;
   }
   
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof FileUpdateRequest) {
+      FileUpdateRequest another = (FileUpdateRequest) obj;
+      return another.getFileId().equals(this.getFileId()) && another.getPageId().equals(this.getPageId());
+    }
+
+    return false;
+  }
+  
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder(1159, 1171)
+      .append(getPageId())
+      .append(getFileId())
+      .hashCode();
+  }
+  
 }
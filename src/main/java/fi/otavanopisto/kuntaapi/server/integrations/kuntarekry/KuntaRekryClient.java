@@ -12,6 +12,7 @@ import javax.inject.Inject;
 
 import org.apache.commons.lang3.StringUtils;
 
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateController;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
 import fi.otavanopisto.kuntaapi.server.id.JobId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -38,6 +39,9 @@ public class KuntaRekryClient {
   @Inject
   private OrganizationSettingController organizationSettingController;
 
+  @Inject
+  private UpdateRateController updateRateController;
+
   public KuntaRekryJob findJob(OrganizationId organizationId, JobId jobId) {
     JobId kuntaRekryId = idController.translateJobId(jobId, KuntaRekryConsts.IDENTIFIER_NAME);
     if (kuntaRekryId == null) {
@@ -77,25 +81,48 @@ public class KuntaRekryClient {
     return Collections.emptyList();
   }
 
-  public void refreshJobs(OrganizationId organizationId) {
+  /**
+   * Refreshes cached job list of an organization from Kuntarekry. 
+   * 
+   * Once the list is cached, it is revalidated with a conditional request.
+   * 
+   * @param organizationId organization id
+   * @return false if the list was not modified since the previous refresh, otherwise true
+   */
+  public boolean refreshJobs(OrganizationId organizationId) {
     String apiUri = organizationSettingController.getSettingValue(organizationId, KuntaRekryConsts.ORGANIZATION_SETTING_APIURI);
     if (StringUtils.isBlank(apiUri)) {
-      return;
+      return true;
     }
     
     try {
       URI uri = new URI(apiUri);
+      GenericHttpClient.ResultType<List<KuntaRekryJob>> resultType = new GenericHttpClient.ResultType<List<KuntaRekryJob>>() {};
+      
+      long requestStarted = System.currentTimeMillis();
+      Response<List<KuntaRekryJob>> jobsResponse;
+      if (httpCache.contains(KuntaRekryConsts.CACHE_NAME, uri)) {
+        jobsResponse = httpClient.doConditionalGETRequest(KuntaRekryConsts.IDENTIFIER_NAME, uri, resultType, null);
+      } else {
+        jobsResponse = httpClient.doGETRequest(uri, resultType);
+      }
+      
+      updateRateController.recordResponse(KuntaRekryConsts.IDENTIFIER_NAME, jobsResponse.getStatus(), System.currentTimeMillis() - requestStarted);
+      if (jobsResponse.isNotModified()) {
+        return false;
+      }
       
-      Response<List<KuntaRekryJob>> jobsResponse = httpClient.doGETRequest(uri, new GenericHttpClient.ResultType<List<KuntaRekryJob>>() {});
       if (jobsResponse.isOk()) {
         httpCache.put(KuntaRekryConsts.CACHE_NAME, uri, jobsResponse);
+        httpClient.saveValidators(uri, jobsResponse.getValidators());
       } else {
         logger.warning(String.format("Failed to refresh jobs from Kuntarekry. API Returned [%d] %s", jobsResponse.getStatus(), jobsResponse.getMessage()));
       }
     } catch (URISyntaxException e) {
       logger.log(Level.SEVERE, "Invalid Kuntarekry uri configured", e);
     }
-
+    
+    return true;
   }
   
 }
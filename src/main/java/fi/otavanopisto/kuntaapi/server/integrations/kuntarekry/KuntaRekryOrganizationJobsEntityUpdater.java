@@ -1,7 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.kuntarekry;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -22,6 +20,7 @@ import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.JobId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
@@ -52,11 +51,11 @@ public class KuntaRekryOrganizationJobsEntityUpdater extends EntityUpdater {
   private TimerService timerService;
 
   private boolean stopped;
-  private List<OrganizationId> queue;
+  private UpdateQueue<OrganizationId> queue;
 
   @PostConstruct
   public void init() {
-    queue = new ArrayList<>();
+    queue = createQueue(getName());
   }
 
   @Override
@@ -88,30 +87,23 @@ public class KuntaRekryOrganizationJobsEntityUpdater extends EntityUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(event.getId());
-        queue.add(0, event.getId());
-      } else {
-        if (!queue.contains(event.getId())) {
-          queue.add(event.getId());
-        }
-      }      
+      queue.add(event.getId(), event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateOrganizationJobs(queue.remove(0));          
-      }
+      processQueue(KuntaRekryConsts.IDENTIFIER_NAME, queue, this::updateOrganizationJobs);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
   }
 
   private void updateOrganizationJobs(OrganizationId organizationId) {
-    kuntaRekryClient.refreshJobs(organizationId);
+    if (!kuntaRekryClient.refreshJobs(organizationId)) {
+      return;
+    }
     
     for (KuntaRekryJob kuntaRekryJob : kuntaRekryClient.listJobs(organizationId)) {
       JobId kuntaRekryId = new JobId(organizationId, KuntaRekryConsts.IDENTIFIER_NAME, String.valueOf(kuntaRekryJob.getJobId())); 
@@ -1,11 +1,20 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateController;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
 import fi.otavanopisto.kuntaapi.server.settings.OrganizationSettingController;
 import fi.otavanopisto.mwp.client.DefaultApi;
+import fi.otavanopisto.mwp.client.model.Page;
 
 /**
  * Api client for management service
@@ -15,9 +24,18 @@ import fi.otavanopisto.mwp.client.DefaultApi;
 @ApplicationScoped
 public class ManagementApi {
   
+  @Inject
+  private Logger logger;
+  
   @Inject
   private ManagementClient client;
   
+  @Inject
+  private GenericHttpClient httpClient;
+  
+  @Inject
+  private UpdateRateController updateRateController;
+  
   @Inject
   private OrganizationSettingController organizationSettingController;
   
@@ -32,4 +50,53 @@ public class ManagementApi {
     return new DefaultApi(basePath, client);
   }
   
+  /**
+   * Returns URI of a single page in management service
+   * 
+   * @param organizationId management service organization id
+   * @param pageId management service page id
+   * @return page URI or null if organization has no valid management service base URL
+   */
+  public URI getPageUri(OrganizationId organizationId, String pageId) {
+    String basePath = organizationSettingController.getSettingValue(organizationId, ManagementConsts.ORGANIZATION_SETTING_BASEURL);
+    if (basePath == null) {
+      return null;
+    }
+    
+    try {
+      return new URI(String.format("%s/wp/v2/pages/%s", basePath, pageId));
+    } catch (URISyntaxException e) {
+      logger.log(Level.SEVERE, String.format("Invalid management service base URL %s", basePath), e);
+      return null;
+    }
+  }
+  
+  /**
+   * Finds a page from management service. 
+   * 
+   * When conditional, the page is revalidated with validators saved for the page URI and 
+   * an unchanged page is returned with status 304 and without an entity. Validators of the 
+   * response are not saved, callers save them with {@link GenericHttpClient#saveValidators} 
+   * after they have stored the page.
+   * 
+   * @param pageUri page URI
+   * @param conditional whether page should be revalidated with a conditional request
+   * @return response
+   */
+  public Response<Page> findPage(URI pageUri, boolean conditional) {
+    GenericHttpClient.ResultType<Page> resultType = new GenericHttpClient.ResultType<Page>() {};
+    
+    long requestStarted = System.currentTimeMillis();
+    Response<Page> response;
+    if (conditional) {
+      response = httpClient.doConditionalGETRequest(ManagementConsts.IDENTIFIER_NAME, pageUri, resultType, null);
+    } else {
+      response = httpClient.doGETRequest(pageUri, resultType);
+    }
+    
+    updateRateController.recordResponse(ManagementConsts.IDENTIFIER_NAME, response.getStatus(), System.currentTimeMillis() - requestStarted);
+    
+    return response;
+  }
+  
 }
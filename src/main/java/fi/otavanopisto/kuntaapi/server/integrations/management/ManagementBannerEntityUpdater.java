@@ -1,7 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -29,6 +27,7 @@ import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.BannerIdRemoveRequest;
 import fi.otavanopisto.kuntaapi.server.discover.BannerIdUpdateRequest;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.BannerId;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
@@ -66,6 +65,9 @@ public class ManagementBannerEntityUpdater extends EntityUpdater {
   @Inject
   private ManagementApi managementApi;
   
+  @Inject
+  private ManagementListIngest managementListIngest;
+  
   @Inject
   private ManagementImageLoader managementImageLoader;
   
@@ -82,11 +84,11 @@ public class ManagementBannerEntityUpdater extends EntityUpdater {
   private TimerService timerService;
 
   private boolean stopped;
-  private List<BannerIdUpdateRequest> queue;
+  private UpdateQueue<BannerIdUpdateRequest> queue;
 
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -121,13 +123,10 @@ public class ManagementBannerEntityUpdater extends EntityUpdater {
       }
       
       if (event.isPriority()) {
-        queue.remove(event);
-        queue.add(0, event);
-      } else {
-        if (!queue.contains(event)) {
-          queue.add(event);
-        }
+        managementListIngest.discard(event.getId());
       }
+      
+      queue.add(event, event.isPriority());
     }
   }
   
@@ -147,19 +146,24 @@ public class ManagementBannerEntityUpdater extends EntityUpdater {
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        BannerIdUpdateRequest updateRequest = queue.remove(0);
+      processQueue(ManagementConsts.IDENTIFIER_NAME, queue, updateRequest -> {
         OrganizationId organizationId = updateRequest.getOrganizationId();
         DefaultApi api = managementApi.getApi(organizationId);
         
         updateManagementBanner(api, organizationId, updateRequest.getId());
-      }
+      });
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
   }
 
   private void updateManagementBanner(DefaultApi api, OrganizationId organizationId, BannerId managementBannerId) {
+    Banner listedBanner = managementListIngest.take(managementBannerId, Banner.class);
+    if (listedBanner != null) {
+      updateManagementBanner(api, organizationId, listedBanner);
+      return;
+    }
+    
     fi.otavanopisto.mwp.client.ApiResponse<Banner> response = api.wpV2BannerIdGet(managementBannerId.getId(), null);
     if (response.isOk()) {
       updateManagementBanner(api, organizationId, response.getResponse());
@@ -184,10 +188,17 @@ public class ManagementBannerEntityUpdater extends EntityUpdater {
       return;
     }
     
+    boolean hasFeaturedMedia = managementBanner.getFeaturedMedia() != null && managementBanner.getFeaturedMedia() > 0;
+    String hash = createPojoHash(banner);
+    if (isUnmodified(identifier.getKuntaApiId(), hash, () -> bannerCache.contains(bannerKuntaApiId) 
+        && (!hasFeaturedMedia || !bannerImageCache.getChildIds(bannerKuntaApiId).isEmpty()))) {
+      return;
+    }
+    
     bannerCache.put(bannerKuntaApiId, banner);
-    modificationHashCache.put(identifier.getKuntaApiId(), createPojoHash(banner));
+    modificationHashCache.put(identifier.getKuntaApiId(), hash);
     
-    if (managementBanner.getFeaturedMedia() != null && managementBanner.getFeaturedMedia() > 0) {
+    if (hasFeaturedMedia) {
       updateFeaturedMedia(organizationId, api, bannerKuntaApiId, managementBanner.getFeaturedMedia()); 
     }
 
@@ -222,6 +233,7 @@ public class ManagementBannerEntityUpdater extends EntityUpdater {
 
   private void deleteBanner(BannerIdRemoveRequest event, BannerId bannerId) {
     OrganizationId organizationId = event.getOrganizationId();
+    managementListIngest.discard(bannerId);
     
     Identifier bannerIdentifier = identifierController.findIdentifierById(bannerId);
     if (bannerIdentifier != null) {
@@ -1,10 +1,10 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.logging.Logger;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
@@ -20,14 +20,18 @@ import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
+import fi.otavanopisto.kuntaapi.server.discover.BannerIdRemoveRequest;
 import fi.otavanopisto.kuntaapi.server.discover.BannerIdUpdateRequest;
 import fi.otavanopisto.kuntaapi.server.discover.IdUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.BannerId;
+import fi.otavanopisto.kuntaapi.server.id.IdType;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
 import fi.otavanopisto.kuntaapi.server.settings.OrganizationSettingController;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
-import fi.otavanopisto.mwp.client.DefaultApi;
 import fi.otavanopisto.mwp.client.model.Banner;
 
 @ApplicationScoped
@@ -40,26 +44,32 @@ public class ManagementBannerIdUpdater extends IdUpdater {
   private static final int TIMER_INTERVAL = 5000;
   
   @Inject
-  private Logger logger;
-
+  private ManagementDiscoveryController managementDiscoveryController;
+  
   @Inject
-  private ManagementApi managementApi;
+  private ManagementListIngest managementListIngest;
   
   @Inject
   private OrganizationSettingController organizationSettingController; 
   
+  @Inject
+  private IdentifierController identifierController;
+  
   @Inject
   private Event<BannerIdUpdateRequest> idUpdateRequest;
+  
+  @Inject
+  private Event<BannerIdRemoveRequest> idRemoveRequest;
 
   private boolean stopped;
-  private List<OrganizationId> queue;
+  private UpdateQueue<OrganizationId> queue;
   
   @Resource
   private TimerService timerService;
   
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -93,47 +103,45 @@ public class ManagementBannerIdUpdater extends IdUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(organizationId);
-        queue.add(0, organizationId);
-      } else {
-        if (!queue.contains(organizationId)) {
-          queue.add(organizationId);
-        }
-      }
+      queue.add(organizationId, event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateManagementBanners(queue.remove(0));
-      }
+      processQueue(ManagementConsts.IDENTIFIER_NAME, queue, this::updateManagementBanners);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
   }
   
   private void updateManagementBanners(OrganizationId organizationId) {
-    DefaultApi api = managementApi.getApi(organizationId);
+    ManagementDiscoveryResult<Banner> discoveryResult = managementDiscoveryController.listChanged(organizationId, "banner", new GenericHttpClient.ResultType<List<Banner>>() {}, Banner::getModifiedGmt);
+    if (discoveryResult == null) {
+      return;
+    }
     
-    List<Banner> managementBanners = listManagementBanners(api, organizationId);
-    for (Banner managementBanner : managementBanners) {
+    Set<String> existingIds = new HashSet<>(discoveryResult.getItems().size());
+    for (Banner managementBanner : discoveryResult.getItems()) {
       BannerId bannerId = new BannerId(organizationId, ManagementConsts.IDENTIFIER_NAME, String.valueOf(managementBanner.getId()));
+      existingIds.add(bannerId.getId());
+      managementListIngest.offer(bannerId, managementBanner);
       idUpdateRequest.fire(new BannerIdUpdateRequest(organizationId, bannerId, false));
     }
-  }
-
-  private List<Banner> listManagementBanners(DefaultApi api, OrganizationId organizationId) {
-    fi.otavanopisto.mwp.client.ApiResponse<List<Banner>> response = api.wpV2BannerGet(null, null, null, null, null, null, null, null, null, null, null, null, null, null);
-    if (response.isOk()) {
-      return response.getResponse();
-    } else {
-      logger.warning(String.format("Listing organization %s banners failed on [%d] %s", organizationId.getId(), response.getStatus(), response.getMessage()));
-    }
     
-    return Collections.emptyList();
+    if (discoveryResult.isFull()) {
+      List<String> missingIds = new ArrayList<>();
+      for (String sourceId : identifierController.listSourceIdsByTypeSourceAndOrganizationId(IdType.BANNER, ManagementConsts.IDENTIFIER_NAME, organizationId)) {
+        if (!existingIds.contains(sourceId)) {
+          missingIds.add(sourceId);
+        }
+      }
+      
+      for (String sourceId : managementDiscoveryController.confirmMissing(organizationId, "banner", missingIds)) {
+        idRemoveRequest.fire(new BannerIdRemoveRequest(organizationId, new BannerId(organizationId, ManagementConsts.IDENTIFIER_NAME, sourceId)));
+      }
+    }
   }
   
 }
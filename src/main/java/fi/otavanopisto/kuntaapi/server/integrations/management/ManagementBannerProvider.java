@@ -1,13 +1,14 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 
 import fi.otavanopisto.kuntaapi.server.cache.BannerCache;
 import fi.otavanopisto.kuntaapi.server.cache.BannerImageCache;
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.BannerId;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
@@ -37,37 +38,27 @@ public class ManagementBannerProvider extends AbstractManagementProvider impleme
   
   @Override
   public List<Banner> listOrganizationBanners(OrganizationId organizationId) {
-    List<BannerId> bannerIds = bannerCache.getOragnizationIds(organizationId);
-    List<Banner> banners = new ArrayList<>(bannerIds.size());
-    
-    for (BannerId bannerId : bannerIds) {
-      Banner banner = bannerCache.get(bannerId);
-      if (banner != null) {
-        banners.add(banner);
-      }
-    }
-    
-    return banners;
+    return bannerCache.getAll(bannerCache.getOragnizationIds(organizationId));
+  }
+  
+  @Override
+  public Map<BannerId, RawJsonValue> listOrganizationBannersJson(OrganizationId organizationId) {
+    return bannerCache.getAllJsonAsMap(bannerCache.getOragnizationIds(organizationId));
   }
 
   @Override
   public Banner findOrganizationBanner(OrganizationId organizationId, BannerId bannerId) {
     return bannerCache.get(bannerId);
   }
+  
+  @Override
+  public RawJsonValue findOrganizationBannerJson(OrganizationId organizationId, BannerId bannerId) {
+    return bannerCache.getJson(bannerId);
+  }
 
   @Override
   public List<Attachment> listOrganizationBannerImages(OrganizationId organizationId, BannerId bannerId) {
-    List<IdPair<BannerId,AttachmentId>> childIds = bannerImageCache.getChildIds(bannerId);
-    List<Attachment> result = new ArrayList<>(childIds.size());
-    
-    for (IdPair<BannerId, AttachmentId> childId : childIds) {
-      Attachment attachment = bannerImageCache.get(childId);
-      if (attachment != null) {
-        result.add(attachment);
-      }
-    }
-    
-    return result;
+    return bannerImageCache.listChildren(bannerId);
   }
 
   @Override
@@ -0,0 +1,118 @@
+package fi.otavanopisto.kuntaapi.server.integrations.management;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Lists items of a Wordpress collection page by page in descending modification order. 
+ * 
+ * When a watermark is given, listing stops at the first item modified before it, so only the 
+ * changed head of the collection is transferred. Items modified at the watermark are listed again, 
+ * because modification times have one second resolution and an item modified within the same 
+ * second as the watermark could otherwise be missed.
+ * 
+ * @author Antti Leppä
+ *
+ * @param <T> item type
+ */
+public class ManagementChangeLister<T> {
+  
+  private final PageLoader<T> pageLoader;
+  private final Function<T, LocalDateTime> modifiedGetter;
+  private final int perPage;
+  
+  /**
+   * Constructor
+   * 
+   * @param pageLoader loader for a single result page
+   * @param modifiedGetter function resolving modification time of an item
+   * @param perPage items per page
+   */
+  public ManagementChangeLister(PageLoader<T> pageLoader, Function<T, LocalDateTime> modifiedGetter, int perPage) {
+    this.pageLoader = pageLoader;
+    this.modifiedGetter = modifiedGetter;
+    this.perPage = perPage;
+  }
+  
+  /**
+   * Lists items modified at or after the watermark. 
+   * 
+   * Items without modification time are always considered modified.
+   * 
+   * @param watermark watermark or null to list the whole collection
+   * @return modified items or null if a page could not be loaded
+   */
+  @SuppressWarnings ("squid:S1168")
+  public List<T> listModifiedSince(LocalDateTime watermark) {
+    List<T> result = new ArrayList<>();
+    int page = 1;
+    
+    while (true) {
+      List<T> items = pageLoader.loadPage(page, perPage);
+      if (items == null) {
+        return null;
+      }
+      
+      for (T item : items) {
+        if (watermark != null && !isModifiedSince(item, watermark)) {
+          return result;
+        }
+        
+        result.add(item);
+      }
+      
+      if (items.size() < perPage) {
+        return result;
+      }
+      
+      page++;
+    }
+  }
+  
+  /**
+   * Returns latest modification time of given items
+   * 
+   * @param items items
+   * @param current current latest modification time or null
+   * @return latest modification time of given items or current if none of the items is newer
+   */
+  public LocalDateTime getLatestModified(List<T> items, LocalDateTime current) {
+    LocalDateTime result = current;
+    
+    for (T item : items) {
+      LocalDateTime modified = modifiedGetter.apply(item);
+      if (modified != null && (result == null || modified.isAfter(result))) {
+        result = modified;
+      }
+    }
+    
+    return result;
+  }
+  
+  private boolean isModifiedSince(T item, LocalDateTime watermark) {
+    LocalDateTime modified = modifiedGetter.apply(item);
+    return modified == null || !modified.isBefore(watermark);
+  }
+  
+  /**
+   * Loader for a single result page
+   * 
+   * @param <T> item type
+   */
+  @FunctionalInterface
+  public interface PageLoader<T> {
+    
+    /**
+     * Loads a result page
+     * 
+     * @param page page number starting from 1
+     * @param perPage items per page
+     * @return items of the page, empty list past the last page or null if loading failed
+     */
+    List<T> loadPage(int page, int perPage);
+    
+  }
+  
+}
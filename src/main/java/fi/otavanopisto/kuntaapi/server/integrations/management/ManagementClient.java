@@ -13,6 +13,7 @@ import javax.inject.Inject;
 
 import org.apache.http.client.utils.URIBuilder;
 
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateController;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpCache;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
@@ -35,6 +36,9 @@ public class ManagementClient implements fi.otavanopisto.mwp.client.ApiClient {
   @Inject
   private GenericHttpClient httpClient;
 
+  @Inject
+  private UpdateRateController updateRateController;
+
   @Inject
   private GenericHttpCache httpCache;
   
@@ -67,7 +71,10 @@ public class ManagementClient implements fi.otavanopisto.mwp.client.ApiClient {
     
     Response<T> response = httpCache.get(ManagementConsts.CACHE_NAME, uri, new GenericHttpClient.ResponseResultTypeWrapper<>(resultType.getType()));
     if (response == null) {
+      long requestStarted = System.currentTimeMillis();
       response = httpClient.doGETRequest(uri, new GenericHttpClient.ResultTypeWrapper<>(resultType.getType()));
+      
+      updateRateController.recordResponse(ManagementConsts.IDENTIFIER_NAME, response.getStatus(), System.currentTimeMillis() - requestStarted);
       if (ManagementConsts.CACHE_RESPONSES) {
         httpCache.put(ManagementConsts.CACHE_NAME, uri, response);
       }
@@ -13,6 +13,7 @@ public class ManagementConsts {
   public static final boolean CACHE_RESPONSES = false;
   public static final String ORGANIZATION_SETTING_BASEURL = "managementservice.baseUrl";
   public static final String DEFAULT_LOCALE = "fi";
+  public static final String SYSTEM_SETTING_FULL_DISCOVERY_INTERVAL = "managementservice.full-discovery-interval";
 
   private ManagementConsts() {
   }
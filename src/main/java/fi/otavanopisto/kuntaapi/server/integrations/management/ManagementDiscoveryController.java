@@ -0,0 +1,197 @@
+package fi.otavanopisto.kuntaapi.server.integrations.management;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import fi.otavanopisto.kuntaapi.server.cache.DiscoveryWatermark;
+import fi.otavanopisto.kuntaapi.server.cache.DiscoveryWatermarkCache;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateController;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
+import fi.otavanopisto.kuntaapi.server.settings.OrganizationSettingController;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
+/**
+ * Controller for incremental discovery of management service collections. 
+ * 
+ * Collections are listed in descending modification order and only items modified at or after the 
+ * watermark of previous discovery are returned. Watermarks are GMT modification times, because 
+ * site local times move backwards when daylight saving time ends. The whole collection is listed 
+ * periodically in ascending id order to catch deletions. Id order keeps the paging stable while 
+ * items are being modified during the listing.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class ManagementDiscoveryController {
+  
+  private static final int PER_PAGE = 100;
+  private static final String WATERMARK_KEY_FORMAT = "%s/%s/gmt";
+  private static final long DEFAULT_FULL_DISCOVERY_INTERVAL = 1000l * 60 * 60;
+  
+  @Inject
+  private Logger logger;
+  
+  @Inject
+  private GenericHttpClient httpClient;
+  
+  @Inject
+  private UpdateRateController updateRateController;
+  
+  @Inject
+  private OrganizationSettingController organizationSettingController;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  @Inject
+  private DiscoveryWatermarkCache discoveryWatermarkCache;
+  
+  /**
+   * Lists items of a collection changed since previous discovery
+   * 
+   * @param organizationId organization id
+   * @param collection collection path under wp/v2, e.g. pages
+   * @param resultType result type of a page of items
+   * @param modifiedGetter function resolving GMT modification time of an item
+   * @return discovery result or null if listing failed
+   */
+  public <T> ManagementDiscoveryResult<T> listChanged(OrganizationId organizationId, String collection, GenericHttpClient.ResultType<List<T>> resultType, Function<T, LocalDateTime> modifiedGetter) {
+    String baseUrl = organizationSettingController.getSettingValue(organizationId, ManagementConsts.ORGANIZATION_SETTING_BASEURL);
+    if (baseUrl == null) {
+      return null;
+    }
+    
+    String key = getWatermarkKey(organizationId, collection);
+    long now = System.currentTimeMillis();
+    DiscoveryWatermark watermark = discoveryWatermarkCache.get(key);
+    LocalDateTime modifiedAfter = watermark != null ? parseModified(watermark.getModified()) : null;
+    boolean full = modifiedAfter == null || (now - watermark.getLastFullSync()) >= getFullDiscoveryInterval();
+    
+    String orderBy = full ? "id" : "modified";
+    String order = full ? "asc" : "desc";
+    ManagementChangeLister<T> lister = new ManagementChangeLister<>((page, perPage) -> loadPage(baseUrl, collection, resultType, orderBy, order, page, perPage), modifiedGetter, PER_PAGE);
+    List<T> items = lister.listModifiedSince(full ? null : modifiedAfter);
+    if (items == null) {
+      logger.warning(String.format("Listing organization %s %s failed", organizationId.getId(), collection));
+      return null;
+    }
+    
+    LocalDateTime latestModified = lister.getLatestModified(items, modifiedAfter);
+    long lastFullSync = full ? now : watermark.getLastFullSync();
+    List<String> missingIds = watermark != null && watermark.getMissingIds() != null ? watermark.getMissingIds() : Collections.emptyList();
+    discoveryWatermarkCache.put(key, new DiscoveryWatermark(latestModified != null ? latestModified.toString() : null, lastFullSync, missingIds));
+    
+    if (logger.isLoggable(Level.FINE)) {
+      logger.fine(String.format("Discovered %d %s %s of organization %s", items.size(), full ? "all" : "changed", collection, organizationId.getId()));
+    }
+    
+    return new ManagementDiscoveryResult<>(items, full);
+  }
+  
+  /**
+   * Confirms removal of source ids missing from a full listing of a collection. 
+   * 
+   * An id is confirmed only when it was also missing from the previous full listing, so an item 
+   * skipped by a single listing is not removed. Ids missing for the first time are stored and 
+   * confirmed on the next full listing.
+   * 
+   * @param organizationId organization id
+   * @param collection collection path under wp/v2, e.g. pages
+   * @param missingIds source ids missing from the full listing
+   * @return source ids confirmed to be removed
+   */
+  public Set<String> confirmMissing(OrganizationId organizationId, String collection, Collection<String> missingIds) {
+    String key = getWatermarkKey(organizationId, collection);
+    DiscoveryWatermark watermark = discoveryWatermarkCache.get(key);
+    if (watermark == null) {
+      return Collections.emptySet();
+    }
+    
+    Set<String> previouslyMissing = watermark.getMissingIds() != null ? new HashSet<>(watermark.getMissingIds()) : Collections.emptySet();
+    Set<String> result = new HashSet<>();
+    List<String> pending = new ArrayList<>();
+    
+    for (String missingId : missingIds) {
+      if (previouslyMissing.contains(missingId)) {
+        result.add(missingId);
+      } else {
+        pending.add(missingId);
+      }
+    }
+    
+    discoveryWatermarkCache.put(key, new DiscoveryWatermark(watermark.getModified(), watermark.getLastFullSync(), pending));
+    
+    return result;
+  }
+  
+  @SuppressWarnings ("squid:S1168")
+  private <T> List<T> loadPage(String baseUrl, String collection, GenericHttpClient.ResultType<List<T>> resultType, String orderBy, String order, int page, int perPage) {
+    Map<String, Object> queryParams = new HashMap<>();
+    queryParams.put("orderby", orderBy);
+    queryParams.put("order", order);
+    queryParams.put("page", page);
+    queryParams.put("per_page", perPage);
+    
+    long requestStarted = System.currentTimeMillis();
+    Response<List<T>> response = httpClient.doGETRequest(baseUrl, String.format("/wp/v2/%s", collection), resultType, queryParams);
+    updateRateController.recordResponse(ManagementConsts.IDENTIFIER_NAME, response.getStatus(), System.currentTimeMillis() - requestStarted);
+    
+    if (response.isOk()) {
+      return response.getResponseEntity() != null ? response.getResponseEntity() : Collections.emptyList();
+    }
+    
+    if (response.getStatus() == 400 && page > 1) {
+      // Wordpress responds with bad request when page is past the last page of the collection
+      return Collections.emptyList();
+    }
+    
+    logger.warning(String.format("Loading page %d of %s from %s failed on [%d] %s", page, collection, baseUrl, response.getStatus(), response.getMessage()));
+    
+    return null;
+  }
+  
+  /**
+   * Returns cache key of a watermark. Keys are suffixed because watermarks used to be stored 
+   * in site local time and must not be compared against GMT modification times.
+   */
+  private String getWatermarkKey(OrganizationId organizationId, String collection) {
+    return String.format(WATERMARK_KEY_FORMAT, collection, organizationId.getId());
+  }
+  
+  private LocalDateTime parseModified(String modified) {
+    if (modified == null) {
+      return null;
+    }
+    
+    try {
+      return LocalDateTime.parse(modified);
+    } catch (DateTimeParseException e) {
+      logger.log(Level.WARNING, String.format("Discarding malformed discovery watermark %s", modified), e);
+      return null;
+    }
+  }
+  
+  private long getFullDiscoveryInterval() {
+    return NumberUtils.toLong(systemSettingController.getSettingValue(ManagementConsts.SYSTEM_SETTING_FULL_DISCOVERY_INTERVAL), DEFAULT_FULL_DISCOVERY_INTERVAL);
+  }
+  
+}
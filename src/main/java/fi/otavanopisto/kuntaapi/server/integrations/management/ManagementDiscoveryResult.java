@@ -0,0 +1,40 @@
+package fi.otavanopisto.kuntaapi.server.integrations.management;
+
+import java.util.List;
+
+/**
+ * Result of a Wordpress collection discovery
+ * 
+ * @author Antti Leppä
+ *
+ * @param <T> item type
+ */
+public class ManagementDiscoveryResult<T> {
+  
+  private List<T> items;
+  private boolean full;
+  
+  public ManagementDiscoveryResult(List<T> items, boolean full) {
+    this.items = items;
+    this.full = full;
+  }
+  
+  /**
+   * Returns discovered items
+   * 
+   * @return discovered items
+   */
+  public List<T> getItems() {
+    return items;
+  }
+  
+  /**
+   * Returns whether items contain the whole collection or only items modified since last discovery
+   * 
+   * @return whether items contain the whole collection
+   */
+  public boolean isFull() {
+    return full;
+  }
+  
+}
@@ -0,0 +1,150 @@
+package fi.otavanopisto.kuntaapi.server.integrations.management;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.IdType;
+import fi.otavanopisto.mwp.client.model.Banner;
+import fi.otavanopisto.mwp.client.model.Page;
+import fi.otavanopisto.mwp.client.model.Post;
+
+/**
+ * Hands items already fetched by list requests from id updaters to entity updaters, so 
+ * entity updaters do not need to fetch listed items again one by one. 
+ * 
+ * Payloads are kept in memory of the node running the updaters. Entity updaters fall back 
+ * to fetching the item when payload is not available, e.g. after a failover or when the 
+ * update was triggered by a webhook.
+ * 
+ * Memory used by payloads is bounded by their approximate size, estimated from the length of 
+ * their rendered texts. Payloads offered while the bound is reached are dropped and entity 
+ * updaters fetch those items instead.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+public class ManagementListIngest {
+  
+  private static final long MAX_PAYLOAD_BYTES = 32L * 1024 * 1024;
+  private static final long PAYLOAD_OVERHEAD_BYTES = 2048;
+  
+  private final Map<Pair<IdType, BaseId>, ListedPayload> payloads = new HashMap<>();
+  private long payloadBytes = 0;
+  
+  /**
+   * Offers listed payload of an item. Newer payload replaces the previous one.
+   * 
+   * @param id management id of the item
+   * @param payload listed payload
+   */
+  public void offer(BaseId id, Object payload) {
+    long size = estimateSize(payload);
+    Pair<IdType, BaseId> key = createKey(id);
+    synchronized (this) {
+      ListedPayload previous = payloads.remove(key);
+      if (previous != null) {
+        payloadBytes -= previous.getSize();
+      }
+      
+      if (payloadBytes + size <= MAX_PAYLOAD_BYTES) {
+        payloads.put(key, new ListedPayload(payload, size));
+        payloadBytes += size;
+      }
+    }
+  }
+  
+  /**
+   * Removes and returns listed payload of an item
+   * 
+   * @param id management id of the item
+   * @param type payload type
+   * @return listed payload or null if item should be fetched
+   */
+  public <T> T take(BaseId id, Class<T> type) {
+    ListedPayload listedPayload = removePayload(createKey(id));
+    if (listedPayload != null && type.isInstance(listedPayload.getPayload())) {
+      return type.cast(listedPayload.getPayload());
+    }
+    
+    return null;
+  }
+  
+  /**
+   * Discards listed payload of an item, e.g. when the item is known to have changed after it was listed
+   * 
+   * @param id management id of the item
+   */
+  public void discard(BaseId id) {
+    removePayload(createKey(id));
+  }
+  
+  private synchronized ListedPayload removePayload(Pair<IdType, BaseId> key) {
+    ListedPayload listedPayload = payloads.remove(key);
+    if (listedPayload != null) {
+      payloadBytes -= listedPayload.getSize();
+    }
+    
+    return listedPayload;
+  }
+  
+  private long estimateSize(Object payload) {
+    if (payload instanceof Page) {
+      Page page = (Page) payload;
+      String title = page.getTitle() != null ? page.getTitle().getRendered() : null;
+      String content = page.getContent() != null ? page.getContent().getRendered() : null;
+      return estimateSize(title, content);
+    } else if (payload instanceof Post) {
+      Post post = (Post) payload;
+      String title = post.getTitle() != null ? post.getTitle().getRendered() : null;
+      String excerpt = post.getExcerpt() != null ? post.getExcerpt().getRendered() : null;
+      String content = post.getContent() != null ? post.getContent().getRendered() : null;
+      return estimateSize(title, excerpt, content);
+    } else if (payload instanceof Banner) {
+      Banner banner = (Banner) payload;
+      String title = banner.getTitle() != null ? banner.getTitle().getRendered() : null;
+      String content = banner.getContent() != null ? banner.getContent().getRendered() : null;
+      return estimateSize(title, content);
+    }
+    
+    return PAYLOAD_OVERHEAD_BYTES;
+  }
+  
+  private long estimateSize(String... texts) {
+    long result = PAYLOAD_OVERHEAD_BYTES;
+    
+    for (String text : texts) {
+      if (text != null) {
+        result += text.length() * 2L;
+      }
+    }
+    
+    return result;
+  }
+  
+  private static class ListedPayload {
+    
+    private final Object payload;
+    private final long size;
+    
+    public ListedPayload(Object payload, long size) {
+      this.payload = payload;
+      this.size = size;
+    }
+    
+    public Object getPayload() {
+      return payload;
+    }
+    
+    public long getSize() {
+      return size;
+    }
+    
+  }
+  
+}
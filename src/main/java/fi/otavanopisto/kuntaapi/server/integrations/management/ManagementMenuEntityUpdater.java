@@ -1,7 +1,6 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -25,6 +24,7 @@ import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.MenuIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
 import fi.otavanopisto.kuntaapi.server.id.MenuId;
@@ -78,11 +78,11 @@ public class ManagementMenuEntityUpdater extends EntityUpdater {
   private TimerService timerService;
 
   private boolean stopped;
-  private List<MenuIdUpdateRequest> queue;
+  private UpdateQueue<MenuIdUpdateRequest> queue;
 
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -116,25 +116,17 @@ public class ManagementMenuEntityUpdater extends EntityUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(event);
-        queue.add(0, event);
-      } else {
-        if (!queue.contains(event)) {
-          queue.add(event);
-        }
-      }
+      queue.add(event, event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        MenuIdUpdateRequest updateRequest = queue.remove(0);
+      processQueue(ManagementConsts.IDENTIFIER_NAME, queue, updateRequest -> {
         DefaultApi api = managementApi.getApi(updateRequest.getOrganizationId());
         updateManagementMenu(api, updateRequest.getOrganizationId(), updateRequest.getId());
-      }
+      });
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -182,8 +174,11 @@ public class ManagementMenuEntityUpdater extends EntityUpdater {
     
     MenuId kuntaApiMenuId = new MenuId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, identifier.getKuntaApiId());
     Menu menu = translateMenu(organizationId, managementMenu);
-    modificationHashCache.put(identifier.getKuntaApiId(), createPojoHash(menu));
-    menuCache.put(kuntaApiMenuId, menu);
+    String hash = createPojoHash(menu);
+    if (!isUnmodified(identifier.getKuntaApiId(), hash, menuCache, kuntaApiMenuId)) {
+      modificationHashCache.put(identifier.getKuntaApiId(), hash);
+      menuCache.put(kuntaApiMenuId, menu);
+    }
     
     return menu;
   }
@@ -199,8 +194,12 @@ public class ManagementMenuEntityUpdater extends EntityUpdater {
     MenuItem menuItem = translateMenuItem(organizationId, managementMenuItem);
     MenuItemId kuntaApiMenuItemId = new MenuItemId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, identifier.getKuntaApiId());
         
-    modificationHashCache.put(identifier.getKuntaApiId(), createPojoHash(menuItem));
-    menuItemCache.put(new IdPair<MenuId, MenuItemId>(menuId,kuntaApiMenuItemId), menuItem);
+    IdPair<MenuId, MenuItemId> menuItemPairId = new IdPair<>(menuId, kuntaApiMenuItemId);
+    String hash = createPojoHash(menuItem);
+    if (!isUnmodified(identifier.getKuntaApiId(), hash, menuItemCache, menuItemPairId)) {
+      modificationHashCache.put(identifier.getKuntaApiId(), hash);
+      menuItemCache.put(menuItemPairId, menuItem);
+    }
   }
 
   private Menu translateMenu(OrganizationId organizationId, fi.otavanopisto.mwp.client.model.Menu managementMenu) {
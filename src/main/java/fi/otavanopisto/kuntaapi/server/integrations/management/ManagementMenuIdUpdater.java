@@ -1,6 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -23,6 +22,7 @@ import javax.inject.Inject;
 import fi.otavanopisto.kuntaapi.server.discover.MenuIdUpdateRequest;
 import fi.otavanopisto.kuntaapi.server.discover.IdUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.MenuId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.settings.OrganizationSettingController;
@@ -52,14 +52,14 @@ public class ManagementMenuIdUpdater extends IdUpdater {
   private Event<MenuIdUpdateRequest> idUpdateRequest;
 
   private boolean stopped;
-  private List<OrganizationId> queue;
+  private UpdateQueue<OrganizationId> queue;
   
   @Resource
   private TimerService timerService;
   
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -93,23 +93,14 @@ public class ManagementMenuIdUpdater extends IdUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(organizationId);
-        queue.add(0, organizationId);
-      } else {
-        if (!queue.contains(organizationId)) {
-          queue.add(organizationId);
-        }
-      }
+      queue.add(organizationId, event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateManagementMenus(queue.remove(0));
-      }
+      processQueue(ManagementConsts.IDENTIFIER_NAME, queue, this::updateManagementMenus);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -3,6 +3,7 @@ package fi.otavanopisto.kuntaapi.server.integrations.management;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
@@ -11,6 +12,7 @@ import org.apache.commons.codec.binary.StringUtils;
 
 import fi.otavanopisto.kuntaapi.server.cache.MenuCache;
 import fi.otavanopisto.kuntaapi.server.cache.MenuItemCache;
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
 import fi.otavanopisto.kuntaapi.server.id.MenuId;
 import fi.otavanopisto.kuntaapi.server.id.MenuItemId;
@@ -35,13 +37,12 @@ public class ManagementMenuProvider extends AbstractManagementProvider implement
 
   @Override
   public List<Menu> listOrganizationMenus(OrganizationId organizationId, String slug) {
-    List<MenuId> menuIds = menuCache.getOragnizationIds(organizationId);
+    List<Menu> cachedMenus = menuCache.getAll(menuCache.getOragnizationIds(organizationId));
     
-    List<Menu> menus = new ArrayList<>(menuIds.size());
+    List<Menu> menus = new ArrayList<>(cachedMenus.size());
     
-    for (MenuId menuId : menuIds) {
-      Menu menu = menuCache.get(menuId);
-      if (menu != null && (slug == null || StringUtils.equals(slug, menu.getSlug()))) {
+    for (Menu menu : cachedMenus) {
+      if (slug == null || StringUtils.equals(slug, menu.getSlug())) {
         menus.add(menu);
       }
     }
@@ -49,28 +50,28 @@ public class ManagementMenuProvider extends AbstractManagementProvider implement
     return menus;
   }
   
+  @Override
+  public Map<MenuId, RawJsonValue> listOrganizationMenusJson(OrganizationId organizationId) {
+    return menuCache.getAllJsonAsMap(menuCache.getOragnizationIds(organizationId));
+  }
+  
   @Override
   public Menu findOrganizationMenu(OrganizationId organizationId, MenuId menuId) {
     return menuCache.get(menuId);
   }
   
+  @Override
+  public RawJsonValue findOrganizationMenuJson(OrganizationId organizationId, MenuId menuId) {
+    return menuCache.getJson(menuId);
+  }
+  
   @Override
   public List<MenuItem> listOrganizationMenuItems(OrganizationId organizationId, MenuId menuId) {
     if (menuId == null) {
       return Collections.emptyList();
     }
     
-    List<IdPair<MenuId,MenuItemId>> childIds = menuItemCache.getChildIds(menuId);
-    List<MenuItem> result = new ArrayList<>(childIds.size());
-    
-    for (IdPair<MenuId,MenuItemId> childId : childIds) {
-      MenuItem menuItem = menuItemCache.get(childId);
-      if (menuItem != null) {
-        result.add(menuItem);
-      }
-    }
-    
-    return result;
+    return menuItemCache.listChildren(menuId);
   }
 
   @Override
@@ -1,7 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -29,6 +27,7 @@ import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.NewsArticleIdRemoveRequest;
 import fi.otavanopisto.kuntaapi.server.discover.NewsArticleIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
 import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
@@ -60,6 +59,9 @@ public class ManagementNewsArticleEntityUpdater extends EntityUpdater {
   @Inject
   private ManagementApi managementApi;
   
+  @Inject
+  private ManagementListIngest managementListIngest;
+  
   @Inject
   private ManagementImageLoader managementImageLoader;
   
@@ -79,11 +81,11 @@ public class ManagementNewsArticleEntityUpdater extends EntityUpdater {
   private TimerService timerService;
 
   private boolean stopped;
-  private List<NewsArticleIdUpdateRequest> queue;
+  private UpdateQueue<NewsArticleIdUpdateRequest> queue;
 
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -118,13 +120,10 @@ public class ManagementNewsArticleEntityUpdater extends EntityUpdater {
       }
       
       if (event.isPriority()) {
-        queue.remove(event);
-        queue.add(0, event);
-      } else {
-        if (!queue.contains(event)) {
-          queue.add(event);
-        }
+        managementListIngest.discard(newsArticleId);
       }
+      
+      queue.add(event, event.isPriority());
     }
   }
   
@@ -144,10 +143,7 @@ public class ManagementNewsArticleEntityUpdater extends EntityUpdater {
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        NewsArticleIdUpdateRequest updateRequest = queue.remove(0);
-        updateManagementPost(updateRequest.getOrganizationId(), updateRequest.getId());
-      }
+      processQueue(ManagementConsts.IDENTIFIER_NAME, queue, updateRequest -> updateManagementPost(updateRequest.getOrganizationId(), updateRequest.getId()));
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -156,6 +152,12 @@ public class ManagementNewsArticleEntityUpdater extends EntityUpdater {
   private void updateManagementPost(OrganizationId organizationId, NewsArticleId newsArticleId) {
     DefaultApi api = managementApi.getApi(organizationId);
     
+    Post listedPost = managementListIngest.take(newsArticleId, Post.class);
+    if (listedPost != null) {
+      updateManagementPost(organizationId, api, listedPost);
+      return;
+    }
+    
     ApiResponse<Post> response = api.wpV2PostsIdGet(newsArticleId.getId(), null);
     if (response.isOk()) {
       updateManagementPost(organizationId, api, response.getResponse());
@@ -179,10 +181,17 @@ public class ManagementNewsArticleEntityUpdater extends EntityUpdater {
       return;
     }
     
+    boolean hasFeaturedMedia = managementPost.getFeaturedMedia() != null && managementPost.getFeaturedMedia() > 0;
+    String hash = createPojoHash(newsArticle);
+    if (isUnmodified(identifier.getKuntaApiId(), hash, () -> newsArticleCache.contains(kuntaApiNewsArticleId) 
+        && (!hasFeaturedMedia || !newsArticleImageCache.getChildIds(kuntaApiNewsArticleId).isEmpty()))) {
+      return;
+    }
+    
     newsArticleCache.put(kuntaApiNewsArticleId, newsArticle);
-    modificationHashCache.put(identifier.getKuntaApiId(), createPojoHash(newsArticle));
+    modificationHashCache.put(identifier.getKuntaApiId(), hash);
     
-    if (managementPost.getFeaturedMedia() != null && managementPost.getFeaturedMedia() > 0) {
+    if (hasFeaturedMedia) {
       updateFeaturedMedia(organizationId, kuntaApiNewsArticleId, api, managementPost.getFeaturedMedia()); 
     }
   }
@@ -219,6 +228,7 @@ public class ManagementNewsArticleEntityUpdater extends EntityUpdater {
 
   private void deleteNewsArticle(NewsArticleIdRemoveRequest event, NewsArticleId newsArticleId) {
     OrganizationId organizationId = event.getOrganizationId();
+    managementListIngest.discard(newsArticleId);
     
     Identifier newsArticleIdentifier = identifierController.findIdentifierById(newsArticleId);
     if (newsArticleIdentifier != null) {
@@ -1,10 +1,10 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.logging.Logger;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
@@ -20,15 +20,18 @@ import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.IdUpdater;
+import fi.otavanopisto.kuntaapi.server.discover.NewsArticleIdRemoveRequest;
 import fi.otavanopisto.kuntaapi.server.discover.NewsArticleIdUpdateRequest;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
+import fi.otavanopisto.kuntaapi.server.id.IdType;
 import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
 import fi.otavanopisto.kuntaapi.server.settings.OrganizationSettingController;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
-import fi.otavanopisto.mwp.client.ApiResponse;
-import fi.otavanopisto.mwp.client.DefaultApi;
 import fi.otavanopisto.mwp.client.model.Post;
 
 @ApplicationScoped
@@ -41,26 +44,32 @@ public class ManagementNewsArticleIdUpdater extends IdUpdater {
   private static final int TIMER_INTERVAL = 5000;
   
   @Inject
-  private Logger logger;
-
+  private ManagementDiscoveryController managementDiscoveryController;
+  
   @Inject
-  private ManagementApi managementApi;
+  private ManagementListIngest managementListIngest;
   
   @Inject
   private OrganizationSettingController organizationSettingController; 
   
+  @Inject
+  private IdentifierController identifierController;
+  
   @Inject
   private Event<NewsArticleIdUpdateRequest> idUpdateRequest;
+  
+  @Inject
+  private Event<NewsArticleIdRemoveRequest> idRemoveRequest;
 
   private boolean stopped;
-  private List<OrganizationId> queue;
+  private UpdateQueue<OrganizationId> queue;
   
   @Resource
   private TimerService timerService;
   
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -94,47 +103,45 @@ public class ManagementNewsArticleIdUpdater extends IdUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(organizationId);
-        queue.add(0, organizationId);
-      } else {
-        if (!queue.contains(organizationId)) {
-          queue.add(organizationId);
-        }
-      }
+      queue.add(organizationId, event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateManagementPosts(queue.remove(0));
-      }
+      processQueue(ManagementConsts.IDENTIFIER_NAME, queue, this::updateManagementPosts);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
   }
   
   private void updateManagementPosts(OrganizationId organizationId) {
-    DefaultApi api = managementApi.getApi(organizationId);
+    ManagementDiscoveryResult<Post> discoveryResult = managementDiscoveryController.listChanged(organizationId, "posts", new GenericHttpClient.ResultType<List<Post>>() {}, Post::getModifiedGmt);
+    if (discoveryResult == null) {
+      return;
+    }
     
-    List<Post> managementPosts = listManagementPosts(api, organizationId);
-    for (Post managementPost : managementPosts) {
+    Set<String> existingIds = new HashSet<>(discoveryResult.getItems().size());
+    for (Post managementPost : discoveryResult.getItems()) {
       NewsArticleId newsArticleId = new NewsArticleId(organizationId, ManagementConsts.IDENTIFIER_NAME, String.valueOf(managementPost.getId()));
+      existingIds.add(newsArticleId.getId());
+      managementListIngest.offer(newsArticleId, managementPost);
       idUpdateRequest.fire(new NewsArticleIdUpdateRequest(organizationId, newsArticleId, false));
     }
-  }
-  
-  private List<Post> listManagementPosts(DefaultApi api, OrganizationId organizationId) {
-    ApiResponse<List<Post>> response = api.wpV2PostsGet(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
-    if (response.isOk()) {
-      return response.getResponse();
-    } else {
-      logger.warning(String.format("Listing organization %s posts failed on [%d] %s", organizationId.getId(), response.getStatus(), response.getMessage()));
-    }
     
-    return Collections.emptyList();
+    if (discoveryResult.isFull()) {
+      List<String> missingIds = new ArrayList<>();
+      for (String sourceId : identifierController.listSourceIdsByTypeSourceAndOrganizationId(IdType.NEWS_ARTICLE, ManagementConsts.IDENTIFIER_NAME, organizationId)) {
+        if (!existingIds.contains(sourceId)) {
+          missingIds.add(sourceId);
+        }
+      }
+      
+      for (String sourceId : managementDiscoveryController.confirmMissing(organizationId, "posts", missingIds)) {
+        idRemoveRequest.fire(new NewsArticleIdRemoveRequest(organizationId, new NewsArticleId(organizationId, ManagementConsts.IDENTIFIER_NAME, sourceId)));
+      }
+    }
   }
 
 }
@@ -1,7 +1,6 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -10,6 +9,7 @@ import javax.inject.Inject;
 
 import fi.otavanopisto.kuntaapi.server.cache.NewsArticleCache;
 import fi.otavanopisto.kuntaapi.server.cache.NewsArticleImageCache;
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
 import fi.otavanopisto.kuntaapi.server.id.NewsArticleId;
@@ -38,42 +38,27 @@ public class ManagementNewsProvider extends AbstractManagementProvider implement
   private NewsArticleImageCache newsArticleImageCache;
   
   @Override
-  public List<NewsArticle> listOrganizationNews(OrganizationId organizationId, OffsetDateTime publishedBefore, OffsetDateTime publishedAfter) {
+  public List<NewsArticle> listOrganizationNews(OrganizationId organizationId, OffsetDateTime publishedBefore, OffsetDateTime publishedAfter, Integer firstResult, Integer maxResults) {
     if (organizationId == null) {
       return Collections.emptyList();
     }
     
-    List<NewsArticleId> newsArticleIds = newsArticleCache.getOragnizationIds(organizationId);
-    
-    List<NewsArticle> result = new ArrayList<>(newsArticleIds.size());
-    for (NewsArticleId newsArticleId : newsArticleIds) {
-      NewsArticle newsArticle = newsArticleCache.get(newsArticleId);
-      if (newsArticle != null && isAccetable(newsArticle, publishedBefore, publishedAfter)) {
-        result.add(newsArticle);
-      }
-    }
-    
-    return result;
+    return newsArticleCache.getAll(newsArticleCache.getSortedOrganizationIds(organizationId, publishedAfter, publishedBefore, true, firstResult, maxResults));
   }
 
   @Override
   public NewsArticle findOrganizationNewsArticle(OrganizationId organizationId, NewsArticleId newsArticleId) {
     return newsArticleCache.get(newsArticleId);
   }
+  
+  @Override
+  public RawJsonValue findOrganizationNewsArticleJson(OrganizationId organizationId, NewsArticleId newsArticleId) {
+    return newsArticleCache.getJson(newsArticleId);
+  }
 
   @Override
   public List<Attachment> listNewsArticleImages(OrganizationId organizationId, NewsArticleId newsArticleId) {
-    List<Attachment> result = new ArrayList<>();
-    
-    List<IdPair<NewsArticleId,AttachmentId>> childIds = newsArticleImageCache.getChildIds(newsArticleId);
-    for (IdPair<NewsArticleId,AttachmentId> childId : childIds) {
-      Attachment attachment = newsArticleImageCache.get(childId);
-      if (attachment != null) {
-        result.add(attachment);
-      }
-    }
-    
-    return result;
+    return newsArticleImageCache.listChildren(newsArticleId);
   }
 
   @Override
@@ -105,17 +90,4 @@ public class ManagementNewsProvider extends AbstractManagementProvider implement
     return null;
   }
   
-  private boolean isAccetable(NewsArticle newsArticle, OffsetDateTime publishedBefore, OffsetDateTime publishedAfter) {
-    OffsetDateTime published = newsArticle.getPublished();
-    if (publishedBefore != null && (published == null || published.isAfter(publishedBefore))) {
-      return false;
-    }
-    
-    if (publishedAfter != null && (published == null || published.isBefore(publishedAfter))) {
-      return false;
-    }
-    
-    return true;
-  }
-
 }
@@ -1,7 +1,6 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.net.URI;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -30,11 +29,14 @@ import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.PageIdRemoveRequest;
 import fi.otavanopisto.kuntaapi.server.discover.PageIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.id.PageId;
 import fi.otavanopisto.kuntaapi.server.integrations.AttachmentData;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
 import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
 import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
 import fi.otavanopisto.kuntaapi.server.rest.model.Attachment;
@@ -61,6 +63,9 @@ public class ManagementPageEntityUpdater extends EntityUpdater {
   @Inject
   private ManagementApi managementApi;
   
+  @Inject
+  private ManagementListIngest managementListIngest;
+  
   @Inject
   private ManagementImageLoader managementImageLoader;
   
@@ -79,15 +84,18 @@ public class ManagementPageEntityUpdater extends EntityUpdater {
   @Inject
   private ModificationHashCache modificationHashCache;
   
+  @Inject
+  private GenericHttpClient httpClient;
+  
   @Resource
   private TimerService timerService;
 
   private boolean stopped;
-  private List<PageIdUpdateRequest> queue;
+  private UpdateQueue<PageIdUpdateRequest> queue;
 
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -122,13 +130,10 @@ public class ManagementPageEntityUpdater extends EntityUpdater {
       }
       
       if (event.isPriority()) {
-        queue.remove(event);
-        queue.add(0, event);
-      } else {
-        if (!queue.contains(event)) {
-          queue.add(event);
-        }
+        managementListIngest.discard(pageId);
       }
+      
+      queue.add(event, event.isPriority());
     }
   }
   
@@ -148,10 +153,7 @@ public class ManagementPageEntityUpdater extends EntityUpdater {
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        PageIdUpdateRequest updateRequest = queue.remove(0);
-        updateManagementPage(updateRequest.getOrganizationId(), updateRequest.getId());
-      }
+      processQueue(ManagementConsts.IDENTIFIER_NAME, queue, updateRequest -> updateManagementPage(updateRequest.getOrganizationId(), updateRequest.getId()));
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -160,9 +162,23 @@ public class ManagementPageEntityUpdater extends EntityUpdater {
   private void updateManagementPage(OrganizationId organizationId, PageId pageId) {
     DefaultApi api = managementApi.getApi(organizationId);
     
-    ApiResponse<Page> response = api.wpV2PagesIdGet(pageId.getId(), null);
-    if (response.isOk()) {
-      updateManagementPage(organizationId, api, response.getResponse());
+    Page listedPage = managementListIngest.take(pageId, Page.class);
+    if (listedPage != null) {
+      updateManagementPage(organizationId, api, listedPage);
+      return;
+    }
+    
+    URI pageUri = managementApi.getPageUri(organizationId, pageId.getId());
+    if (pageUri == null) {
+      return;
+    }
+    
+    Response<Page> response = managementApi.findPage(pageUri, isPageCached(pageId));
+    if (response.isNotModified()) {
+      recordNotModified();
+    } else if (response.isOk()) {
+      updateManagementPage(organizationId, api, response.getResponseEntity());
+      httpClient.saveValidators(pageUri, response.getValidators());
     } else {
       logger.warning(String.format("Find organization %s page %s failed on [%d] %s", organizationId.getId(), pageId.toString(), response.getStatus(), response.getMessage()));
     }
@@ -171,24 +187,39 @@ public class ManagementPageEntityUpdater extends EntityUpdater {
   private void updateManagementPage(OrganizationId organizationId, DefaultApi api, Page managementPage) {
     PageId pageId = new PageId(organizationId, ManagementConsts.IDENTIFIER_NAME, String.valueOf(managementPage.getId()));
 
-    Identifier identifier = identifierController.findIdentifierById(pageId);
-    if (identifier == null) {
-      identifier = identifierController.createIdentifier(pageId);
+    String kuntaApiId = identifierController.findOrCreateKuntaApiId(pageId);
+    
+    PageId kuntaApiPageId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, kuntaApiId);
+    
+    boolean hasFeaturedMedia = managementPage.getFeaturedMedia() != null && managementPage.getFeaturedMedia() > 0;
+    String hash = createPojoHash(managementPage);
+    if (isUnmodified(kuntaApiId, hash, () -> pageCache.contains(kuntaApiPageId) && pageContentCache.contains(kuntaApiPageId) 
+        && (!hasFeaturedMedia || !pageImageCache.getChildIds(kuntaApiPageId).isEmpty()))) {
+      return;
     }
     
-    PageId kuntaApiPageId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, identifier.getKuntaApiId());
     fi.otavanopisto.kuntaapi.server.rest.model.Page page = managementTranslator.translatePage(organizationId, kuntaApiPageId, managementPage);
     List<LocalizedValue> pageContents = managementTranslator.translateLocalized(managementPage.getContent().getRendered());
     
-    modificationHashCache.put(identifier.getKuntaApiId(), createPojoHash(managementPage));
+    modificationHashCache.put(kuntaApiId, hash);
     pageCache.put(kuntaApiPageId, page);
     pageContentCache.put(kuntaApiPageId, pageContents);
     
-    if (managementPage.getFeaturedMedia() != null && managementPage.getFeaturedMedia() > 0) {
+    if (hasFeaturedMedia) {
       updateFeaturedMedia(organizationId, kuntaApiPageId, api, managementPage.getFeaturedMedia()); 
     }
   }
   
+  private boolean isPageCached(PageId managementPageId) {
+    Identifier identifier = identifierController.findIdentifierById(managementPageId);
+    if (identifier == null) {
+      return false;
+    }
+    
+    PageId kuntaApiPageId = new PageId(managementPageId.getOrganizationId(), KuntaApiConsts.IDENTIFIER_NAME, identifier.getKuntaApiId());
+    return pageCache.contains(kuntaApiPageId) && pageContentCache.contains(kuntaApiPageId);
+  }
+  
   private void updateFeaturedMedia(OrganizationId organizationId, PageId pageId, DefaultApi api, Integer featuredMedia) {
     ApiResponse<fi.otavanopisto.mwp.client.model.Attachment> response = api.wpV2MediaIdGet(String.valueOf(featuredMedia), null);
     if (!response.isOk()) {
@@ -216,6 +247,7 @@ public class ManagementPageEntityUpdater extends EntityUpdater {
 
   private void deletePage(PageIdRemoveRequest event, PageId pageId) {
     OrganizationId organizationId = event.getOrganizationId();
+    managementListIngest.discard(pageId);
     
     Identifier pageIdentifier = identifierController.findIdentifierById(pageId);
     if (pageIdentifier != null) {
@@ -1,10 +1,10 @@
 package fi.otavanopisto.kuntaapi.server.integrations.management;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.logging.Logger;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
@@ -20,15 +20,19 @@ import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.IdUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.PageIdRemoveRequest;
 import fi.otavanopisto.kuntaapi.server.discover.PageIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
+import fi.otavanopisto.kuntaapi.server.id.IdMappings;
+import fi.otavanopisto.kuntaapi.server.id.IdType;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.id.PageId;
+import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
 import fi.otavanopisto.kuntaapi.server.settings.OrganizationSettingController;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
-import fi.otavanopisto.mwp.client.ApiResponse;
-import fi.otavanopisto.mwp.client.DefaultApi;
 import fi.otavanopisto.mwp.client.model.Page;
 
 @ApplicationScoped
@@ -41,26 +45,32 @@ public class ManagementPageIdUpdater extends IdUpdater {
   private static final int TIMER_INTERVAL = 5000;
   
   @Inject
-  private Logger logger;
-
+  private ManagementDiscoveryController managementDiscoveryController;
+  
   @Inject
-  private ManagementApi managementApi;
+  private ManagementListIngest managementListIngest;
   
   @Inject
   private OrganizationSettingController organizationSettingController; 
   
+  @Inject
+  private IdentifierController identifierController;
+  
   @Inject
   private Event<PageIdUpdateRequest> idUpdateRequest;
+  
+  @Inject
+  private Event<PageIdRemoveRequest> idRemoveRequest;
 
   private boolean stopped;
-  private List<OrganizationId> queue;
+  private UpdateQueue<OrganizationId> queue;
   
   @Resource
   private TimerService timerService;
   
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -94,47 +104,59 @@ public class ManagementPageIdUpdater extends IdUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(organizationId);
-        queue.add(0, organizationId);
-      } else {
-        if (!queue.contains(organizationId)) {
-          queue.add(organizationId);
-        }
-      }
+      queue.add(organizationId, event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateManagementPages(queue.remove(0));
-      }
+      processQueue(ManagementConsts.IDENTIFIER_NAME, queue, this::updateManagementPages);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
   }
   
   private void updateManagementPages(OrganizationId organizationId) {
-    DefaultApi api = managementApi.getApi(organizationId);
+    ManagementDiscoveryResult<Page> discoveryResult = managementDiscoveryController.listChanged(organizationId, "pages", new GenericHttpClient.ResultType<List<Page>>() {}, Page::getModifiedGmt);
+    if (discoveryResult == null) {
+      return;
+    }
     
-    List<Page> managementPages = listManagementPages(api, organizationId);
+    List<Page> managementPages = discoveryResult.getItems();
+    List<PageId> pageIds = new ArrayList<>(managementPages.size());
     for (Page managementPage : managementPages) {
       PageId pageId = new PageId(organizationId, ManagementConsts.IDENTIFIER_NAME, String.valueOf(managementPage.getId()));
-      idUpdateRequest.fire(new PageIdUpdateRequest(organizationId, pageId, false));
+      managementListIngest.offer(pageId, managementPage);
+      pageIds.add(pageId);
+    }
+    
+    IdMappings<PageId> mappings = identifierController.findOrCreateIdentifiers(pageIds);
+    for (PageId pageId : pageIds) {
+      idUpdateRequest.fire(new PageIdUpdateRequest(organizationId, pageId, mappings.isCreated(pageId)));
+    }
+    
+    if (discoveryResult.isFull()) {
+      removeDeletedPages(organizationId, pageIds);
     }
   }
   
-  private List<Page> listManagementPages(DefaultApi api, OrganizationId organizationId) {
-    ApiResponse<List<Page>> response = api.wpV2PagesGet(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
-    if (response.isOk()) {
-      return response.getResponse();
-    } else {
-      logger.warning(String.format("Listing organization %s pages failed on [%d] %s", organizationId.getId(), response.getStatus(), response.getMessage()));
+  private void removeDeletedPages(OrganizationId organizationId, List<PageId> pageIds) {
+    Set<String> existingIds = new HashSet<>(pageIds.size());
+    for (PageId pageId : pageIds) {
+      existingIds.add(pageId.getId());
     }
     
-    return Collections.emptyList();
+    List<String> missingIds = new ArrayList<>();
+    for (String sourceId : identifierController.listSourceIdsByTypeSourceAndOrganizationId(IdType.PAGE, ManagementConsts.IDENTIFIER_NAME, organizationId)) {
+      if (!existingIds.contains(sourceId)) {
+        missingIds.add(sourceId);
+      }
+    }
+    
+    for (String sourceId : managementDiscoveryController.confirmMissing(organizationId, "pages", missingIds)) {
+      idRemoveRequest.fire(new PageIdRemoveRequest(organizationId, new PageId(organizationId, ManagementConsts.IDENTIFIER_NAME, sourceId)));
+    }
   }
 
 }
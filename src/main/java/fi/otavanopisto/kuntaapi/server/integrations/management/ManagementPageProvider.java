@@ -11,6 +11,7 @@ import javax.inject.Inject;
 import fi.otavanopisto.kuntaapi.server.cache.PageCache;
 import fi.otavanopisto.kuntaapi.server.cache.PageContentCache;
 import fi.otavanopisto.kuntaapi.server.cache.PageImageCache;
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
@@ -60,6 +61,11 @@ public class ManagementPageProvider extends AbstractManagementProvider implement
     return pageCache.get(pageId);
   }
   
+  @Override
+  public RawJsonValue findOrganizationPageJson(OrganizationId organizationId, PageId pageId) {
+    return pageCache.getJson(pageId);
+  }
+  
   @Override
   public List<LocalizedValue> findOrganizationPageContents(OrganizationId organizationId, PageId pageId) {
     return pageContentCache.get(pageId);
@@ -67,18 +73,7 @@ public class ManagementPageProvider extends AbstractManagementProvider implement
 
   @Override
   public List<Attachment> listOrganizationPageImages(OrganizationId organizationId, PageId pageId) {
-    List<IdPair<PageId, AttachmentId>> childIds = pageImageCache.getChildIds(pageId);
-
-    List<Attachment> result = new ArrayList<>(childIds.size());
-    
-    for (IdPair<PageId, AttachmentId> childId : childIds) {
-      Attachment attachment = pageImageCache.get(childId);
-      if (attachment != null) {
-        result.add(attachment);
-      }
-    }
-    
-    return result;
+    return pageImageCache.listChildren(pageId);
   }
 
   @Override
@@ -112,7 +107,6 @@ public class ManagementPageProvider extends AbstractManagementProvider implement
 
   private List<Page> listPages(OrganizationId organizationId, PageId parentId, boolean onlyRootPages) {
     List<PageId> pageIds = pageCache.getOragnizationIds(organizationId);
-    List<Page> result = new ArrayList<>(pageIds.size());
     PageId kuntaApiParentId = null;
     if (parentId != null) {
       kuntaApiParentId = idController.translatePageId(parentId, KuntaApiConsts.IDENTIFIER_NAME);
@@ -122,9 +116,10 @@ public class ManagementPageProvider extends AbstractManagementProvider implement
       }
     }
     
-    for (PageId pageId : pageIds) {
-      Page page = pageCache.get(pageId);
-      if ((page != null) && isAcceptablePage(organizationId, page, onlyRootPages, kuntaApiParentId)) {
+    List<Page> pages = pageCache.getAll(pageIds);
+    List<Page> result = new ArrayList<>(pages.size());
+    for (Page page : pages) {
+      if (isAcceptablePage(organizationId, page, onlyRootPages, kuntaApiParentId)) {
         result.add(page);
       }
     }
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.enterprise.context.RequestScoped;
@@ -164,20 +165,31 @@ public class ManagementTileProvider extends AbstractManagementProvider implement
   }
 
   private List<Tile> translateTiles(OrganizationId organizationId, List<fi.otavanopisto.mwp.client.model.Tile> managementTiles) {
-    List<Tile> result = new ArrayList<>();
+    List<Tile> result = new ArrayList<>(managementTiles.size());
     
+    List<TileId> managementTileIds = new ArrayList<>(managementTiles.size());
     for (fi.otavanopisto.mwp.client.model.Tile managementTile : managementTiles) {
-      result.add(translateTile(organizationId, managementTile));
+      managementTileIds.add(new TileId(organizationId, ManagementConsts.IDENTIFIER_NAME, String.valueOf(managementTile.getId())));
+    }
+    
+    Map<TileId, TileId> kuntaApiTileIds = idController.translateIds(managementTileIds, KuntaApiConsts.IDENTIFIER_NAME);
+    for (int i = 0; i < managementTiles.size(); i++) {
+      TileId managementTileId = managementTileIds.get(i);
+      result.add(translateTile(organizationId, managementTiles.get(i), managementTileId, kuntaApiTileIds.get(managementTileId)));
     }
     
     return result;
   }
 
   private Tile translateTile(OrganizationId organizationId, fi.otavanopisto.mwp.client.model.Tile managementTile) {
+    TileId managementTileId = new TileId(organizationId, ManagementConsts.IDENTIFIER_NAME, String.valueOf(managementTile.getId()));
+    return translateTile(organizationId, managementTile, managementTileId, idController.translateTileId(managementTileId, KuntaApiConsts.IDENTIFIER_NAME));
+  }
+
+  private Tile translateTile(OrganizationId organizationId, fi.otavanopisto.mwp.client.model.Tile managementTile, TileId managementTileId, TileId translatedTileId) {
     Tile tile = new Tile();
     
-    TileId managementTileId = new TileId(organizationId, ManagementConsts.IDENTIFIER_NAME, String.valueOf(managementTile.getId()));
-    TileId kuntaApiTileId = idController.translateTileId(managementTileId, KuntaApiConsts.IDENTIFIER_NAME);
+    TileId kuntaApiTileId = translatedTileId;
     if (kuntaApiTileId == null) {
       logger.info(String.format("Found new news article %d", managementTile.getId()));
       Identifier newIdentifier = identifierController.createIdentifier(managementTileId);
@@ -4,7 +4,6 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.enterprise.context.RequestScoped;
-import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 
@@ -22,6 +21,7 @@ import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.id.PageId;
 import fi.otavanopisto.kuntaapi.server.integrations.management.ManagementConsts;
 import fi.otavanopisto.kuntaapi.server.webhooks.WebhookHandler;
+import fi.otavanopisto.kuntaapi.server.webhooks.WebhookIngestBuffer;
 
 @RequestScoped
 @SuppressWarnings ("squid:S1301")
@@ -31,22 +31,7 @@ public class ManagementWebhookHandler implements WebhookHandler {
   private Logger logger;
 
   @Inject
-  private Event<PageIdUpdateRequest> pageIdUpdateRequest;
-
-  @Inject
-  private Event<PageIdRemoveRequest> pageIdRemoveRequest;
-
-  @Inject
-  private Event<BannerIdUpdateRequest> bannerIdUpdateRequest;
-
-  @Inject
-  private Event<BannerIdRemoveRequest> bannerIdRemoveRequest;
-
-  @Inject
-  private Event<NewsArticleIdUpdateRequest> newsArticleIdUpdateRequest;
-
-  @Inject
-  private Event<NewsArticleIdRemoveRequest> newsArticleIdRemoveRequest;
+  private WebhookIngestBuffer webhookIngestBuffer;
 
   @Override
   public String getType() {
@@ -117,15 +102,15 @@ public class ManagementWebhookHandler implements WebhookHandler {
     switch (payload.getPostType()) {
       case "page":
         PageId pageId = new PageId(organizationId, ManagementConsts.IDENTIFIER_NAME, payload.getId());
-        pageIdUpdateRequest.fire(new PageIdUpdateRequest(organizationId, pageId, true));
+        webhookIngestBuffer.add(createKey(organizationId, payload), new PageIdUpdateRequest(organizationId, pageId, true));
         return true;
       case "banner":
         BannerId bannerId = new BannerId(organizationId, ManagementConsts.IDENTIFIER_NAME, payload.getId());
-        bannerIdUpdateRequest.fire(new BannerIdUpdateRequest(organizationId, bannerId, true));
+        webhookIngestBuffer.add(createKey(organizationId, payload), new BannerIdUpdateRequest(organizationId, bannerId, true));
         return true;
       case "post":
         NewsArticleId newsArticleId = new NewsArticleId(organizationId, ManagementConsts.IDENTIFIER_NAME, payload.getId());
-        newsArticleIdUpdateRequest.fire(new NewsArticleIdUpdateRequest(organizationId, newsArticleId, true));
+        webhookIngestBuffer.add(createKey(organizationId, payload), new NewsArticleIdUpdateRequest(organizationId, newsArticleId, true));
         return true;
       default:
         
@@ -138,15 +123,15 @@ public class ManagementWebhookHandler implements WebhookHandler {
     switch (payload.getPostType()) {
       case "page":
         PageId pageId = new PageId(organizationId, ManagementConsts.IDENTIFIER_NAME, payload.getId());
-        pageIdRemoveRequest.fire(new PageIdRemoveRequest(organizationId, pageId));
+        webhookIngestBuffer.add(createKey(organizationId, payload), new PageIdRemoveRequest(organizationId, pageId));
         return true;
       case "banner":
         BannerId bannerId = new BannerId(organizationId, ManagementConsts.IDENTIFIER_NAME, payload.getId());
-        bannerIdRemoveRequest.fire(new BannerIdRemoveRequest(organizationId, bannerId));
+        webhookIngestBuffer.add(createKey(organizationId, payload), new BannerIdRemoveRequest(organizationId, bannerId));
         return true;
       case "post":
         NewsArticleId newsArticleId = new NewsArticleId(organizationId, ManagementConsts.IDENTIFIER_NAME, payload.getId());
-        newsArticleIdRemoveRequest.fire(new NewsArticleIdRemoveRequest(organizationId, newsArticleId));
+        webhookIngestBuffer.add(createKey(organizationId, payload), new NewsArticleIdRemoveRequest(organizationId, newsArticleId));
         return true;
       default:
     }
@@ -154,4 +139,8 @@ public class ManagementWebhookHandler implements WebhookHandler {
     return false;
   }
 
+  private String createKey(OrganizationId organizationId, Payload payload) {
+    return String.format("%s/%s/%s", organizationId.getId(), payload.getPostType(), payload.getId());
+  }
+
 }
@@ -7,9 +7,6 @@ import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,6 +34,8 @@ import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateController;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.EventId;
 import fi.otavanopisto.kuntaapi.server.id.IdPair;
@@ -84,16 +83,19 @@ public class MikkeliNytEntityUpdater extends EntityUpdater {
   
   @Inject
   private ModificationHashCache modificationHashCache;
+
+  @Inject
+  private UpdateRateController updateRateController;
   
   @Resource
   private TimerService timerService;
 
   private boolean stopped;
-  private List<OrganizationId> queue;
+  private UpdateQueue<OrganizationId> queue;
 
   @PostConstruct
   public void init() {
-    queue = Collections.synchronizedList(new ArrayList<>());
+    queue = createQueue(getName());
   }
 
   @Override
@@ -126,23 +128,14 @@ public class MikkeliNytEntityUpdater extends EntityUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(organizationId);
-        queue.add(0, organizationId);
-      } else {
-        if (!queue.contains(organizationId)) {
-          queue.add(organizationId);
-        }
-      }
+      queue.add(organizationId, event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateEvents(queue.remove(0));
-      }
+      processQueue(MikkeliNytConsts.IDENTIFIER_NAME, queue, this::updateEvents);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -174,8 +167,11 @@ public class MikkeliNytEntityUpdater extends EntityUpdater {
       updateAttachment(organizationId, kuntaApiId, mikkeliNytEvent.getImage());
     }
     
-    modificationHashCache.put(kuntaApiId.getId(), createPojoHash(event));
-    eventCache.put(kuntaApiId, event);
+    String hash = createPojoHash(event);
+    if (!isUnmodified(kuntaApiId.getId(), hash, eventCache, kuntaApiId)) {
+      modificationHashCache.put(kuntaApiId.getId(), hash);
+      eventCache.put(kuntaApiId, event);
+    }
   }
 
   private void updateAttachment(OrganizationId organizationId, EventId eventId, String imageUrl) {
@@ -189,8 +185,12 @@ public class MikkeliNytEntityUpdater extends EntityUpdater {
     AttachmentId kuntaApiId = new AttachmentId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, identifier.getKuntaApiId());
     Attachment attachment = translate(kuntaApiId, imageUrl);
 
-    modificationHashCache.put(kuntaApiId.getId(), createPojoHash(attachment));
-    eventImageCache.put(new IdPair<EventId, AttachmentId>(eventId, kuntaApiId), attachment);
+    IdPair<EventId, AttachmentId> eventImageId = new IdPair<>(eventId, kuntaApiId);
+    String hash = createPojoHash(attachment);
+    if (!isUnmodified(kuntaApiId.getId(), hash, eventImageCache, eventImageId)) {
+      modificationHashCache.put(kuntaApiId.getId(), hash);
+      eventImageCache.put(eventImageId, attachment);
+    }
   }
 
   private Response<EventsResponse> listEvents(OrganizationId organizationId) {
@@ -215,7 +215,11 @@ public class MikkeliNytEntityUpdater extends EntityUpdater {
       return new Response<>(500, "Internal Server Error", null);
     }
     
-    return httpClient.doGETRequest(uri, new GenericHttpClient.ResultType<fi.otavanopisto.mikkelinyt.model.EventsResponse>() {});
+    long requestStarted = System.currentTimeMillis();
+    Response<EventsResponse> response = httpClient.doGETRequest(uri, new GenericHttpClient.ResultType<fi.otavanopisto.mikkelinyt.model.EventsResponse>() {});
+    updateRateController.recordResponse(MikkeliNytConsts.IDENTIFIER_NAME, response.getStatus(), System.currentTimeMillis() - requestStarted);
+    
+    return response;
   }
   
   private String getApiKey(OrganizationId organizationId) {
@@ -18,6 +18,7 @@ import org.apache.http.client.utils.URIBuilder;
 
 import fi.otavanopisto.kuntaapi.server.cache.EventCache;
 import fi.otavanopisto.kuntaapi.server.cache.EventImageCache;
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
 import fi.otavanopisto.kuntaapi.server.id.EventId;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
@@ -30,6 +31,7 @@ import fi.otavanopisto.kuntaapi.server.integrations.AttachmentData;
 import fi.otavanopisto.kuntaapi.server.integrations.BinaryHttpClient;
 import fi.otavanopisto.kuntaapi.server.integrations.BinaryHttpClient.BinaryResponse;
 import fi.otavanopisto.kuntaapi.server.integrations.EventProvider;
+import fi.otavanopisto.kuntaapi.server.integrations.EventProvider.EventOrderDirection;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
 import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
 import fi.otavanopisto.kuntaapi.server.rest.model.Attachment;
@@ -74,26 +76,43 @@ public class MikkeliNytEventProvider implements EventProvider {
   private ImageScaler imageScaler;
   
   @Override
+  @SuppressWarnings ("squid:S00107")
   public List<Event> listOrganizationEvents(OrganizationId organizationId, OffsetDateTime startBefore,
-      OffsetDateTime startAfter, OffsetDateTime endBefore, OffsetDateTime endAfter) {
+      OffsetDateTime startAfter, OffsetDateTime endBefore, OffsetDateTime endAfter, EventOrderDirection orderDirection, 
+      Integer firstResult, Integer maxResults) {
+    
+    // Event listing orders latest events first when direction is ascending
+    boolean descending = orderDirection == EventOrderDirection.ASCENDING;
+    
+    if (endBefore == null && endAfter == null) {
+      return eventCache.getAll(eventCache.getSortedOrganizationIds(organizationId, startAfter, startBefore, descending, firstResult, maxResults));
+    }
     
-    List<EventId> eventIds = eventCache.getOragnizationIds(organizationId);
-    List<Event> result = new ArrayList<>(eventIds.size());
+    List<Event> events = eventCache.getAll(eventCache.getSortedOrganizationIds(organizationId, startAfter, startBefore, descending, null, null));
+    List<Event> result = new ArrayList<>(events.size());
     
-    for (EventId eventId : eventIds) {
-      Event event = eventCache.get(eventId);
-      if (event != null && isWithinTimeRanges(event, startBefore, startAfter, endBefore, endAfter)) {
+    for (Event event : events) {
+      if (isWithinTimeRanges(event, startBefore, startAfter, endBefore, endAfter)) {
         result.add(event); 
       }
     }
     
-    return result;
+    int resultCount = result.size();
+    int firstIndex = firstResult == null ? 0 : Math.min(firstResult.intValue(), resultCount);
+    int toIndex = maxResults == null ? resultCount : Math.min(firstIndex + maxResults.intValue(), resultCount);
+    
+    return result.subList(firstIndex, toIndex);
   }
 
   @Override
   public Event findOrganizationEvent(OrganizationId organizationId, EventId eventId) {
     return eventCache.get(eventId);
   }
+  
+  @Override
+  public RawJsonValue findOrganizationEventJson(OrganizationId organizationId, EventId eventId) {
+    return eventCache.getJson(eventId);
+  }
 
   @Override
   public List<Attachment> listEventImages(OrganizationId organizationId, EventId eventId) {
@@ -103,17 +122,7 @@ public class MikkeliNytEventProvider implements EventProvider {
       return Collections.emptyList();
     }
     
-    List<IdPair<EventId,AttachmentId>> ids = eventImageCache.getChildIds(kuntaApiEventId);
-    List<Attachment> result = new ArrayList<>(ids.size());
-    
-    for (IdPair<EventId,AttachmentId> id : ids) {
-      Attachment attachment = eventImageCache.get(id);
-      if (attachment != null) {
-        result.add(attachment);
-      }
-    }
-    
-    return result;
+    return eventImageCache.listChildren(kuntaApiEventId);
   }
   
   @Override
@@ -3,10 +3,12 @@ package fi.otavanopisto.kuntaapi.server.integrations.ptv;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 import javax.inject.Inject;
 
+import fi.otavanopisto.kuntaapi.server.id.BaseId;
 import fi.otavanopisto.kuntaapi.server.id.ElectronicServiceChannelId;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
@@ -146,6 +148,8 @@ public abstract class AbstractPtvProvider {
       return Collections.emptyList();
     }
 
+    prepareTranslations(ptvServices, ptvService -> new ServiceId(PtvConsts.IDENTIFIFER_NAME, ptvService.getId()));
+
     List<Service> result = new ArrayList<>(ptvServices.size());
     for (fi.otavanopisto.restfulptv.client.model.Service ptvElectronicChannel : ptvServices) {
       Service service = translateService(ptvElectronicChannel);
@@ -162,6 +166,9 @@ public abstract class AbstractPtvProvider {
       return Collections.emptyList();
     }
 
+    prepareTranslations(ptvOrganizationServices, ptvOrganizationService -> new OrganizationServiceId(organizationId, PtvConsts.IDENTIFIFER_NAME, ptvOrganizationService.getId()));
+    prepareTranslations(ptvOrganizationServices, ptvOrganizationService -> new ServiceId(PtvConsts.IDENTIFIFER_NAME, ptvOrganizationService.getServiceId()));
+
     List<OrganizationService> result = new ArrayList<>(ptvOrganizationServices.size());
     for (fi.otavanopisto.restfulptv.client.model.OrganizationService ptvOrganizationService : ptvOrganizationServices) {
       OrganizationService organizationService = translateOrganizationService(organizationId, ptvOrganizationService);
@@ -249,6 +256,9 @@ public abstract class AbstractPtvProvider {
       return Collections.emptyList();
     }
 
+    prepareTranslations(ptvElectronicChannels, ptvElectronicChannel -> new ElectronicServiceChannelId(PtvConsts.IDENTIFIFER_NAME, ptvElectronicChannel.getId()));
+    prepareTranslations(ptvElectronicChannels, ptvElectronicChannel -> new OrganizationId(PtvConsts.IDENTIFIFER_NAME, ptvElectronicChannel.getOrganizationId()));
+
     List<ElectronicChannel> result = new ArrayList<>();
     for (fi.otavanopisto.restfulptv.client.model.ElectronicChannel ptvElectronicChannel : ptvElectronicChannels) {
       ElectronicChannel electronicChannel = translateElectronicChannel(ptvElectronicChannel);
@@ -265,6 +275,9 @@ public abstract class AbstractPtvProvider {
       return Collections.emptyList();
     }
 
+    prepareTranslations(ptvPhoneChannels, ptvPhoneChannel -> new PhoneChannelId(PtvConsts.IDENTIFIFER_NAME, ptvPhoneChannel.getId()));
+    prepareTranslations(ptvPhoneChannels, ptvPhoneChannel -> new OrganizationId(PtvConsts.IDENTIFIFER_NAME, ptvPhoneChannel.getOrganizationId()));
+
     List<PhoneChannel> result = new ArrayList<>();
     for (fi.otavanopisto.restfulptv.client.model.PhoneChannel ptvPhoneChannel : ptvPhoneChannels) {
       PhoneChannel phoneChannel = translatePhoneChannel(ptvPhoneChannel);
@@ -281,6 +294,9 @@ public abstract class AbstractPtvProvider {
       return Collections.emptyList();
     }
 
+    prepareTranslations(ptvPrintableFormChannels, ptvPrintableFormChannel -> new PrintableFormChannelId(PtvConsts.IDENTIFIFER_NAME, ptvPrintableFormChannel.getId()));
+    prepareTranslations(ptvPrintableFormChannels, ptvPrintableFormChannel -> new OrganizationId(PtvConsts.IDENTIFIFER_NAME, ptvPrintableFormChannel.getOrganizationId()));
+
     List<PrintableFormChannel> result = new ArrayList<>();
     for (fi.otavanopisto.restfulptv.client.model.PrintableFormChannel ptvPrintableFormChannel : ptvPrintableFormChannels) {
       PrintableFormChannel printableFormChannel = translatePrintableFormChannel(ptvPrintableFormChannel);
@@ -297,6 +313,9 @@ public abstract class AbstractPtvProvider {
       return Collections.emptyList();
     }
 
+    prepareTranslations(ptvServiceLocationChannels, ptvServiceLocationChannel -> new ServiceLocationChannelId(PtvConsts.IDENTIFIFER_NAME, ptvServiceLocationChannel.getId()));
+    prepareTranslations(ptvServiceLocationChannels, ptvServiceLocationChannel -> new OrganizationId(PtvConsts.IDENTIFIFER_NAME, ptvServiceLocationChannel.getOrganizationId()));
+
     List<ServiceLocationChannel> result = new ArrayList<>();
     for (fi.otavanopisto.restfulptv.client.model.ServiceLocationChannel ptvServiceLocationChannel : ptvServiceLocationChannels) {
       ServiceLocationChannel serviceLocationChannel = translateServiceLocationChannel(ptvServiceLocationChannel);
@@ -313,6 +332,9 @@ public abstract class AbstractPtvProvider {
       return Collections.emptyList();
     }
 
+    prepareTranslations(ptvWebPageChannels, ptvWebPageChannel -> new WebPageChannelId(PtvConsts.IDENTIFIFER_NAME, ptvWebPageChannel.getId()));
+    prepareTranslations(ptvWebPageChannels, ptvWebPageChannel -> new OrganizationId(PtvConsts.IDENTIFIFER_NAME, ptvWebPageChannel.getOrganizationId()));
+
     List<WebPageChannel> result = new ArrayList<>();
     for (fi.otavanopisto.restfulptv.client.model.WebPageChannel ptvWebPageChannel : ptvWebPageChannels) {
       WebPageChannel webPageChannel = translateWebPageChannel(ptvWebPageChannel);
@@ -550,6 +572,17 @@ public abstract class AbstractPtvProvider {
     return webPage;
   }
 
+  private <T> void prepareTranslations(List<T> ptvEntities, Function<T, BaseId> idMapper) {
+    List<BaseId> ptvIds = new ArrayList<>(ptvEntities.size());
+    for (T ptvEntity : ptvEntities) {
+      if (ptvEntity != null) {
+        ptvIds.add(idMapper.apply(ptvEntity));
+      }
+    }
+    
+    idController.prepareTranslations(ptvIds, KuntaApiConsts.IDENTIFIER_NAME);
+  }
+  
   private OrganizationId translateOrganizationId(String ptvOrganizationId) {
     OrganizationId organizationPtvId = new OrganizationId(PtvConsts.IDENTIFIFER_NAME, ptvOrganizationId);
     OrganizationId organizationKuntaApiId = idController.translateOrganizationId(organizationPtvId, KuntaApiConsts.IDENTIFIER_NAME);
@@ -13,6 +13,7 @@ import javax.inject.Inject;
 
 import org.apache.http.client.utils.URIBuilder;
 
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateController;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient;
 import fi.otavanopisto.kuntaapi.server.integrations.GenericHttpClient.Response;
 import fi.otavanopisto.restfulptv.client.ApiResponse;
@@ -34,6 +35,9 @@ public class PtvClient implements fi.otavanopisto.restfulptv.client.ApiClient {
   @Inject
   private GenericHttpClient httpClient;
 
+  @Inject
+  private UpdateRateController updateRateController;
+
   @Override
   public <T> ApiResponse<T> doGETRequest(String url, ResultType<T> resultType, Map<String, Object> queryParams, Map<String, Object> postParams) {
     URIBuilder uriBuilder;
@@ -58,7 +62,9 @@ public class PtvClient implements fi.otavanopisto.restfulptv.client.ApiClient {
       return new ApiResponse<>(500, INVALID_URI_SYNTAX, null);
     }
     
+    long requestStarted = System.currentTimeMillis();
     Response<T> response = httpClient.doGETRequest(uri, new GenericHttpClient.ResultTypeWrapper<>(resultType.getType()));
+    updateRateController.recordResponse(PtvConsts.IDENTIFIFER_NAME, response.getStatus(), System.currentTimeMillis() - requestStarted);
     return new ApiResponse<>(response.getStatus(), response.getMessage(), response.getResponseEntity());
   }
 
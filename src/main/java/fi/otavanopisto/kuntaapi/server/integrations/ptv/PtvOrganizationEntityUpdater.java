@@ -1,7 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.ptv;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
@@ -22,10 +20,10 @@ import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.index.IndexRequest;
 import fi.otavanopisto.kuntaapi.server.index.IndexableOrganization;
-import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
 import fi.otavanopisto.restfulptv.client.ApiResponse;
 import fi.otavanopisto.restfulptv.client.model.Organization;
@@ -57,11 +55,11 @@ public class PtvOrganizationEntityUpdater extends EntityUpdater {
   private TimerService timerService;
 
   private boolean stopped;
-  private List<OrganizationId> queue;
+  private UpdateQueue<OrganizationId> queue;
 
   @PostConstruct
   public void init() {
-    queue = new ArrayList<>();
+    queue = createQueue(getName());
   }
 
   @Override
@@ -92,23 +90,14 @@ public class PtvOrganizationEntityUpdater extends EntityUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(event.getId());
-        queue.add(0, event.getId());
-      } else {
-        if (!queue.contains(event.getId())) {
-          queue.add(event.getId());
-        }
-      }
+      queue.add(event.getId(), event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateOrganization(queue.remove(0));
-      }
+      processQueue(PtvConsts.IDENTIFIFER_NAME, queue, this::updateOrganization);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -117,15 +106,14 @@ public class PtvOrganizationEntityUpdater extends EntityUpdater {
   private void updateOrganization(OrganizationId organizationId) {
     ApiResponse<Organization> response = ptvApi.getOrganizationApi().findOrganization(organizationId.getId());
     if (response.isOk()) {
-      Identifier identifier = identifierController.findIdentifierById(organizationId);
-      if (identifier == null) {
-        identifier = identifierController.createIdentifier(organizationId);
-      }
+      String kuntaApiId = identifierController.findOrCreateKuntaApiId(organizationId);
       
       Organization organization = response.getResponse();
-      modificationHashCache.put(identifier.getKuntaApiId(), createPojoHash(organization));
-      
-      index(identifier.getKuntaApiId(), organization);
+      String hash = createPojoHash(organization);
+      if (!isUnmodified(kuntaApiId, hash)) {
+        modificationHashCache.put(kuntaApiId, hash);
+        index(kuntaApiId, organization);
+      }
     } else {
       logger.warning(String.format("Organization %s processing failed on [%d] %s", organizationId.getId(), response.getStatus(), response.getMessage()));
     }
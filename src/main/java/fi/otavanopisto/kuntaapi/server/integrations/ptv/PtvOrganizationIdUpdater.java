@@ -1,5 +1,6 @@
 package fi.otavanopisto.kuntaapi.server.integrations.ptv;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -16,6 +17,7 @@ import javax.inject.Inject;
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.IdUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.OrganizationIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.id.IdMappings;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
 import fi.otavanopisto.restfulptv.client.ApiResponse;
@@ -88,10 +90,14 @@ public class PtvOrganizationIdUpdater extends IdUpdater {
       logger.severe(String.format("Organization list reported [%d] %s", organizationsResponse.getStatus(), organizationsResponse.getMessage()));
     } else {
       List<Organization> organizations = organizationsResponse.getResponse();
+      List<OrganizationId> organizationIds = new ArrayList<>(organizations.size());
       for (Organization organization : organizations) {
-        OrganizationId organizationId = new OrganizationId(PtvConsts.IDENTIFIFER_NAME, organization.getId());
-        boolean priority = identifierController.findIdentifierById(organizationId) == null;
-        idUpdateRequest.fire(new OrganizationIdUpdateRequest(organizationId, priority));
+        organizationIds.add(new OrganizationId(PtvConsts.IDENTIFIFER_NAME, organization.getId()));
+      }
+      
+      IdMappings<OrganizationId> mappings = identifierController.findOrCreateIdentifiers(organizationIds);
+      for (OrganizationId organizationId : organizationIds) {
+        idUpdateRequest.fire(new OrganizationIdUpdateRequest(organizationId, mappings.isCreated(organizationId)));
       }
       
       if (organizations.size() == BATCH_SIZE) {
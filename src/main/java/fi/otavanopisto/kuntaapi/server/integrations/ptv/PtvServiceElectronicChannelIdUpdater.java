@@ -1,6 +1,5 @@
 package fi.otavanopisto.kuntaapi.server.integrations.ptv;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
@@ -21,6 +20,7 @@ import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.ServiceIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.ElectronicServiceChannelId;
 import fi.otavanopisto.kuntaapi.server.id.ServiceId;
 import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
@@ -52,11 +52,11 @@ public class PtvServiceElectronicChannelIdUpdater extends EntityUpdater {
   private TimerService timerService;
 
   private boolean stopped;
-  private List<ServiceId> queue;
+  private UpdateQueue<ServiceId> queue;
 
   @PostConstruct
   public void init() {
-    queue = new ArrayList<>();
+    queue = createQueue(getName());
   }
 
   @Override
@@ -87,23 +87,14 @@ public class PtvServiceElectronicChannelIdUpdater extends EntityUpdater {
         return;      
       }    
       
-      if (event.isPriority()) {
-        queue.remove(event.getId());
-        queue.add(0, event.getId());
-      } else {
-        if (!queue.contains(event.getId())) {
-          queue.add(event.getId());
-        }
-      }
+      queue.add(event.getId(), event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updateChannelIds(queue.remove(0));
-      }
+      processQueue(PtvConsts.IDENTIFIFER_NAME, queue, this::updateChannelIds);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
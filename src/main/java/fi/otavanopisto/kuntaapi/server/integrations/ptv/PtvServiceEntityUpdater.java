@@ -22,13 +22,13 @@ import fi.otavanopisto.kuntaapi.server.cache.ModificationHashCache;
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.EntityUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.ServiceIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
 import fi.otavanopisto.kuntaapi.server.id.IdController;
 import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.id.ServiceId;
 import fi.otavanopisto.kuntaapi.server.index.IndexRequest;
 import fi.otavanopisto.kuntaapi.server.index.IndexableService;
 import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
-import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
 import fi.otavanopisto.kuntaapi.server.utils.LocalizationUtils;
 import fi.otavanopisto.restfulptv.client.ApiResponse;
@@ -65,11 +65,11 @@ public class PtvServiceEntityUpdater extends EntityUpdater {
   private Event<IndexRequest> indexRequest;
 
   private boolean stopped;
-  private List<ServiceId> queue;
+  private UpdateQueue<ServiceId> queue;
 
   @PostConstruct
   public void init() {
-    queue = new ArrayList<>();
+    queue = createQueue(getName());
   }
 
   @Override
@@ -100,23 +100,14 @@ public class PtvServiceEntityUpdater extends EntityUpdater {
         return;
       }
       
-      if (event.isPriority()) {
-        queue.remove(event.getId());
-        queue.add(0, event.getId());
-      } else {
-        if (!queue.contains(event.getId())) {
-          queue.add(event.getId());
-        }
-      }
+      queue.add(event.getId(), event.isPriority());
     }
   }
 
   @Timeout
   public void timeout(Timer timer) {
     if (!stopped) {
-      if (!queue.isEmpty()) {
-        updatePtvService(queue.remove(0));          
-      }
+      processQueue(PtvConsts.IDENTIFIFER_NAME, queue, this::updatePtvService);
 
       startTimer(SystemUtils.inTestMode() ? 1000 : TIMER_INTERVAL);
     }
@@ -125,15 +116,15 @@ public class PtvServiceEntityUpdater extends EntityUpdater {
   private void updatePtvService(ServiceId serviceId) {
     ApiResponse<Service> response = ptvApi.getServicesApi().findService(serviceId.getId());
     if (response.isOk()) {
-      Identifier identifier = identifierController.findIdentifierById(serviceId);
-      if (identifier == null) {
-        identifier = identifierController.createIdentifier(serviceId);
-      }
+      String kuntaApiId = identifierController.findOrCreateKuntaApiId(serviceId);
       
       Service service = response.getResponse();
 
-      modificationHashCache.put(identifier.getKuntaApiId(), createPojoHash(service));
-      index(identifier.getKuntaApiId(), service);
+      String hash = createPojoHash(service);
+      if (!isUnmodified(kuntaApiId, hash)) {
+        modificationHashCache.put(kuntaApiId, hash);
+        index(kuntaApiId, service);
+      }
     } else {
       logger.warning(String.format("Service %s processing failed on [%d] %s", serviceId.getId(), response.getStatus(), response.getMessage()));
     }
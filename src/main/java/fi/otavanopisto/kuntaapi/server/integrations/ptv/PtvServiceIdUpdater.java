@@ -1,5 +1,6 @@
 package fi.otavanopisto.kuntaapi.server.integrations.ptv;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -16,6 +17,7 @@ import javax.inject.Inject;
 import fi.otavanopisto.kuntaapi.server.controllers.IdentifierController;
 import fi.otavanopisto.kuntaapi.server.discover.IdUpdater;
 import fi.otavanopisto.kuntaapi.server.discover.ServiceIdUpdateRequest;
+import fi.otavanopisto.kuntaapi.server.id.IdMappings;
 import fi.otavanopisto.kuntaapi.server.id.ServiceId;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
 import fi.otavanopisto.restfulptv.client.ApiResponse;
@@ -88,10 +90,14 @@ public class PtvServiceIdUpdater extends IdUpdater {
       logger.severe(String.format("Service list reported [%d] %s", servicesResponse.getStatus(), servicesResponse.getMessage()));
     } else {
       List<Service> services = servicesResponse.getResponse();
+      List<ServiceId> serviceIds = new ArrayList<>(services.size());
       for (Service service : services) {
-        ServiceId serviceId = new ServiceId(PtvConsts.IDENTIFIFER_NAME, service.getId());
-        boolean priority = identifierController.findIdentifierById(serviceId) == null;
-        idUpdateRequest.fire(new ServiceIdUpdateRequest(serviceId, priority));
+        serviceIds.add(new ServiceId(PtvConsts.IDENTIFIFER_NAME, service.getId()));
+      }
+      
+      IdMappings<ServiceId> mappings = identifierController.findOrCreateIdentifiers(serviceIds);
+      for (ServiceId serviceId : serviceIds) {
+        idUpdateRequest.fire(new ServiceIdUpdateRequest(serviceId, mappings.isCreated(serviceId)));
       }
       
       if (services.size() == BATCH_SIZE) {
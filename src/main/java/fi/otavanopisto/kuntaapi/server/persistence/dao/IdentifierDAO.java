@@ -1,11 +1,17 @@
 package fi.otavanopisto.kuntaapi.server.persistence.dao;
 
+import java.util.Collection;
+import java.util.List;
+
 import javax.enterprise.context.Dependent;
 import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 
+import org.hibernate.SQLQuery;
+import org.hibernate.type.StringType;
+
 import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier;
 import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier_;
 
@@ -17,6 +23,8 @@ import fi.otavanopisto.kuntaapi.server.persistence.model.Identifier_;
 @Dependent
 public class IdentifierDAO extends AbstractDAO<Identifier> {
   
+  private static final int MAX_BATCH_ROWS = 200;
+  
   /**
    * Creates new Identifier entity
    * 
@@ -39,6 +47,23 @@ public class IdentifierDAO extends AbstractDAO<Identifier> {
     return persist(identifier);
   }
 
+  /**
+   * Inserts given new identifiers into the database with multi-row insert statements. 
+   * 
+   * Identifiers use identity generated ids, which prevents Hibernate from batching 
+   * inserts made through the entity manager, so rows are inserted with native statements 
+   * of at most MAX_BATCH_ROWS rows each. Statements are synchronized with the Identifier 
+   * entity, so cached Identifier queries are invalidated on commit. Ids of the given 
+   * entities are not populated.
+   * 
+   * @param identifiers new identifiers
+   */
+  public void createBatch(List<Identifier> identifiers) {
+    for (int i = 0; i < identifiers.size(); i += MAX_BATCH_ROWS) {
+      insertRows(identifiers.subList(i, Math.min(identifiers.size(), i + MAX_BATCH_ROWS)));
+    }
+  }
+
   /**
    * Finds identifier by source, type, source id and organizationKuntaApiId
    * 
@@ -94,4 +119,109 @@ public class IdentifierDAO extends AbstractDAO<Identifier> {
     return getSingleResult(entityManager.createQuery(criteria));
   }
 
+  /**
+   * Lists identifiers by type, source and organization
+   * 
+   * @param type identifier type
+   * @param source source
+   * @param organizationKuntaApiId Kunta API id of organization
+   * @return identifiers of the organization
+   */
+  public List<Identifier> listByTypeSourceAndOrganizationKuntaApiId(String type, String source, String organizationKuntaApiId) {
+    EntityManager entityManager = getEntityManager();
+
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Identifier> criteria = criteriaBuilder.createQuery(Identifier.class);
+    Root<Identifier> root = criteria.from(Identifier.class);
+    criteria.select(root);
+    criteria.where(
+      criteriaBuilder.and(
+          criteriaBuilder.equal(root.get(Identifier_.type), type),
+          criteriaBuilder.equal(root.get(Identifier_.source), source),
+          criteriaBuilder.equal(root.get(Identifier_.organizationKuntaApiId), organizationKuntaApiId)
+      )
+    );
+    
+    return entityManager.createQuery(criteria).getResultList();
+  }
+
+  /**
+   * Lists identifiers by type, source and a set of source ids
+   * 
+   * @param type identifier type
+   * @param source source
+   * @param sourceIds ids in source system
+   * @return identifiers of all organizations matching given source ids
+   */
+  public List<Identifier> listByTypeSourceAndSourceIds(String type, String source, Collection<String> sourceIds) {
+    EntityManager entityManager = getEntityManager();
+
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Identifier> criteria = criteriaBuilder.createQuery(Identifier.class);
+    Root<Identifier> root = criteria.from(Identifier.class);
+    criteria.select(root);
+    criteria.where(
+      criteriaBuilder.and(
+          criteriaBuilder.equal(root.get(Identifier_.type), type),
+          criteriaBuilder.equal(root.get(Identifier_.source), source),
+          root.get(Identifier_.sourceId).in(sourceIds)
+      )
+    );
+    
+    return entityManager.createQuery(criteria).getResultList();
+  }
+
+  /**
+   * Lists identifiers by type, source and a set of Kunta API ids
+   * 
+   * @param type identifier type
+   * @param source source
+   * @param kuntaApiIds Kunta API ids
+   * @return identifiers matching given Kunta API ids
+   */
+  public List<Identifier> listByTypeSourceAndKuntaApiIds(String type, String source, Collection<String> kuntaApiIds) {
+    EntityManager entityManager = getEntityManager();
+
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Identifier> criteria = criteriaBuilder.createQuery(Identifier.class);
+    Root<Identifier> root = criteria.from(Identifier.class);
+    criteria.select(root);
+    criteria.where(
+      criteriaBuilder.and(
+          criteriaBuilder.equal(root.get(Identifier_.type), type),
+          criteriaBuilder.equal(root.get(Identifier_.source), source),
+          root.get(Identifier_.kuntaApiId).in(kuntaApiIds)
+      )
+    );
+    
+    return entityManager.createQuery(criteria).getResultList();
+  }
+
+  private void insertRows(List<Identifier> identifiers) {
+    StringBuilder sql = new StringBuilder("insert into Identifier (organizationKuntaApiId, kuntaApiId, type, source, sourceId) values ");
+    for (int i = 0; i < identifiers.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      
+      sql.append(String.format("(:organizationKuntaApiId%d, :kuntaApiId%d, :type%d, :source%d, :sourceId%d)", i, i, i, i, i));
+    }
+    
+    SQLQuery query = getEntityManager()
+      .createNativeQuery(sql.toString())
+      .unwrap(SQLQuery.class)
+      .addSynchronizedEntityClass(Identifier.class);
+    
+    for (int i = 0; i < identifiers.size(); i++) {
+      Identifier identifier = identifiers.get(i);
+      query.setParameter("organizationKuntaApiId" + i, identifier.getOrganizationKuntaApiId(), StringType.INSTANCE);
+      query.setParameter("kuntaApiId" + i, identifier.getKuntaApiId(), StringType.INSTANCE);
+      query.setParameter("type" + i, identifier.getType(), StringType.INSTANCE);
+      query.setParameter("source" + i, identifier.getSource(), StringType.INSTANCE);
+      query.setParameter("sourceId" + i, identifier.getSourceId(), StringType.INSTANCE);
+    }
+    
+    query.executeUpdate();
+  }
+  
 }
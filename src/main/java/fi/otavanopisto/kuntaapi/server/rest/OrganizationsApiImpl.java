@@ -5,12 +5,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import javax.ejb.Stateful;
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
@@ -18,6 +20,12 @@ import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 
+import fi.otavanopisto.kuntaapi.server.cache.BannerCache;
+import fi.otavanopisto.kuntaapi.server.cache.EventCache;
+import fi.otavanopisto.kuntaapi.server.cache.MenuCache;
+import fi.otavanopisto.kuntaapi.server.cache.NewsArticleCache;
+import fi.otavanopisto.kuntaapi.server.cache.PageCache;
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
 import fi.otavanopisto.kuntaapi.server.controllers.BannerController;
 import fi.otavanopisto.kuntaapi.server.controllers.EventController;
 import fi.otavanopisto.kuntaapi.server.controllers.FileController;
@@ -48,7 +56,6 @@ import fi.otavanopisto.kuntaapi.server.integrations.JobProvider.JobOrderDirectio
 import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
 import fi.otavanopisto.kuntaapi.server.integrations.OrganizationServiceProvider;
 import fi.otavanopisto.kuntaapi.server.rest.model.Attachment;
-import fi.otavanopisto.kuntaapi.server.rest.model.Banner;
 import fi.otavanopisto.kuntaapi.server.rest.model.Event;
 import fi.otavanopisto.kuntaapi.server.rest.model.FileDef;
 import fi.otavanopisto.kuntaapi.server.rest.model.Job;
@@ -219,9 +226,9 @@ public class OrganizationsApiImpl extends OrganizationsApi {
       return notModified;
     }
     
-    Event event = eventController.findEvent(organizationId, eventId);
+    RawJsonOutput event = RawJsonOutput.single(eventController.findEventJson(organizationId, eventId));
     if (event != null) {
-      return httpCacheController.sendModified(event, event.getId());
+      return httpCacheController.sendModified(event, eventId.getId());
     }    
     
     return createNotFound(NOT_FOUND);
@@ -307,16 +314,17 @@ public class OrganizationsApiImpl extends OrganizationsApi {
     
     OrganizationId organizationId = toOrganizationId(organizationIdParam);
     
-    List<Event> result = eventController.listEvents(getDateTime(startBefore), getDateTime(startAfter), getDateTime(endBefore), getDateTime(endAfter), 
-        firstResult, maxResults, order, orderDirection, organizationId);
-
-    List<String> ids = httpCacheController.getEntityIds(result);
-    Response notModified = httpCacheController.getNotModified(request, ids);
+    EntityTag tag = httpCacheController.getCollectionTag(EventCache.CACHE_NAME, organizationId, 
+        startBefore, startAfter, endBefore, endAfter, firstResult, maxResults, order, orderDirection);
+    Response notModified = httpCacheController.getNotModified(request, tag);
     if (notModified != null) {
       return notModified;
     }
+    
+    List<Event> result = eventController.listEvents(getDateTime(startBefore), getDateTime(startAfter), getDateTime(endBefore), getDateTime(endAfter), 
+        firstResult, maxResults, order, orderDirection, organizationId);
 
-    return httpCacheController.sendModified(result, ids);
+    return httpCacheController.sendModified(result, tag);
   }
   
   /* News */
@@ -327,15 +335,16 @@ public class OrganizationsApiImpl extends OrganizationsApi {
     
     OrganizationId organizationId = toOrganizationId(organizationIdParam);
     
-    List<NewsArticle> result = newsController.listNewsArticles(slug, getDateTime(publishedBefore), getDateTime(publishedAfter), firstResult, maxResults, organizationId);
-    
-    List<String> ids = httpCacheController.getEntityIds(result);
-    Response notModified = httpCacheController.getNotModified(request, ids);
+    EntityTag tag = httpCacheController.getCollectionTag(NewsArticleCache.CACHE_NAME, organizationId, 
+        slug, publishedBefore, publishedAfter, firstResult, maxResults);
+    Response notModified = httpCacheController.getNotModified(request, tag);
     if (notModified != null) {
       return notModified;
     }
-
-    return httpCacheController.sendModified(result, ids);
+    
+    List<NewsArticle> result = newsController.listNewsArticles(slug, getDateTime(publishedBefore), getDateTime(publishedAfter), firstResult, maxResults, organizationId);
+    
+    return httpCacheController.sendModified(result, tag);
   }
 
   @Override
@@ -348,9 +357,9 @@ public class OrganizationsApiImpl extends OrganizationsApi {
       return notModified;
     }
     
-    NewsArticle newsArticle = newsController.findNewsArticle(organizationId, newsArticleId);
+    RawJsonOutput newsArticle = RawJsonOutput.single(newsController.findNewsArticleJson(organizationId, newsArticleId));
     if (newsArticle != null) {
-      return httpCacheController.sendModified(newsArticle, newsArticle.getId());
+      return httpCacheController.sendModified(newsArticle, newsArticleId.getId());
     }
     
     return createNotFound(NOT_FOUND);
@@ -415,14 +424,14 @@ public class OrganizationsApiImpl extends OrganizationsApi {
   public Response listOrganizationBanners(String organizationIdParam, @Context Request request) {
     OrganizationId organizationId = toOrganizationId(organizationIdParam);
     
-    List<Banner> result = bannerController.listBanners(organizationId);
-    List<String> ids = httpCacheController.getEntityIds(result);
-    Response notModified = httpCacheController.getNotModified(request, ids);
+    EntityTag tag = httpCacheController.getCollectionTag(BannerCache.CACHE_NAME, organizationId);
+    Response notModified = httpCacheController.getNotModified(request, tag);
     if (notModified != null) {
       return notModified;
     }
-
-    return httpCacheController.sendModified(result, ids);
+    
+    Map<BannerId, RawJsonValue> result = bannerController.listBannersJson(organizationId);
+    return httpCacheController.sendModified(RawJsonOutput.array(result.values()), tag);
   }
 
   @Override
@@ -435,9 +444,9 @@ public class OrganizationsApiImpl extends OrganizationsApi {
       return notModified;
     }
 
-    Banner banner = bannerController.findBanner(organizationId, bannerId);
+    RawJsonOutput banner = RawJsonOutput.single(bannerController.findBannerJson(organizationId, bannerId));
     if (banner != null) {
-      return httpCacheController.sendModified(banner, banner.getId());
+      return httpCacheController.sendModified(banner, bannerId.getId());
     }
     
     return createNotFound(NOT_FOUND);
@@ -734,14 +743,15 @@ public class OrganizationsApiImpl extends OrganizationsApi {
     boolean onlyRootPages = StringUtils.equals("ROOT", parentIdParam);
     PageId parentId = onlyRootPages ? null : toPageId(organizationId, parentIdParam);
     
-    List<Page> result = listOrganizationPages(organizationId, onlyRootPages, parentId, path, search, firstResult, maxResults);
-    List<String> ids = httpCacheController.getEntityIds(result);
-    Response notModified = httpCacheController.getNotModified(request, ids);
+    EntityTag tag = httpCacheController.getCollectionTag(PageCache.CACHE_NAME, organizationId, 
+        parentIdParam, path, search, firstResult, maxResults);
+    Response notModified = httpCacheController.getNotModified(request, tag);
     if (notModified != null) {
       return notModified;
     }
-
-    return httpCacheController.sendModified(result, ids);
+    
+    List<Page> result = listOrganizationPages(organizationId, onlyRootPages, parentId, path, search, firstResult, maxResults);
+    return httpCacheController.sendModified(result, tag);
   }
 
   @Override
@@ -761,9 +771,9 @@ public class OrganizationsApiImpl extends OrganizationsApi {
       return notModified;
     }
     
-    Page page = pageController.findPage(organizationId, pageId);
+    RawJsonOutput page = RawJsonOutput.single(pageController.findPageJson(organizationId, pageId));
     if (page != null) {
-      return httpCacheController.sendModified(page, page.getId());
+      return httpCacheController.sendModified(page, pageId.getId());
     }
     
     return createNotFound(NOT_FOUND);
@@ -863,6 +873,10 @@ public class OrganizationsApiImpl extends OrganizationsApi {
       return createNotFound(NOT_FOUND);
     }
     
+    if (slug == null) {
+      return listOrganizationMenusJson(organizationId, request);
+    }
+    
     List<Menu> result = menuController.listMenus(slug, organizationId);
     List<String> ids = httpCacheController.getEntityIds(result);
     Response notModified = httpCacheController.getNotModified(request, ids);
@@ -890,9 +904,9 @@ public class OrganizationsApiImpl extends OrganizationsApi {
       return notModified;
     }
     
-    Menu menu = menuController.findMenu(organizationId, menuId);
+    RawJsonOutput menu = RawJsonOutput.single(menuController.findMenuJson(organizationId, menuId));
     if (menu != null) {
-      return httpCacheController.sendModified(menu, menu.getId());
+      return httpCacheController.sendModified(menu, menuId.getId());
     }
     
     return createNotFound(NOT_FOUND);
@@ -1157,6 +1171,17 @@ public class OrganizationsApiImpl extends OrganizationsApi {
     return null;
   }
 
+  private Response listOrganizationMenusJson(OrganizationId organizationId, Request request) {
+    EntityTag tag = httpCacheController.getCollectionTag(MenuCache.CACHE_NAME, organizationId);
+    Response notModified = httpCacheController.getNotModified(request, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+    
+    Map<MenuId, RawJsonValue> result = menuController.listMenusJson(organizationId);
+    return httpCacheController.sendModified(RawJsonOutput.array(result.values()), tag);
+  }
+  
   private OrganizationId toOrganizationId(String id) {
     if (StringUtils.isNotBlank(id)) {
       return new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, id);
@@ -0,0 +1,106 @@
+package fi.otavanopisto.kuntaapi.server.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import fi.otavanopisto.kuntaapi.server.cache.RawJsonValue;
+
+/**
+ * Streaming output that writes cached JSON values into the response without building entity objects. 
+ * 
+ * Values are resolved into JSON bytes when the output is created, so a value that fails to 
+ * decode is dropped before the response status has been sent.
+ * 
+ * @author Antti Leppä
+ */
+public class RawJsonOutput implements StreamingOutput {
+  
+  private static final Logger logger = Logger.getLogger(RawJsonOutput.class.getName());
+  private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  
+  private final List<byte[]> values;
+  private final boolean array;
+  
+  private RawJsonOutput(List<byte[]> values, boolean array) {
+    this.values = values;
+    this.array = array;
+  }
+  
+  /**
+   * Creates output for a single entity
+   * 
+   * @param value entity JSON or null
+   * @return output or null if value is null or could not be written
+   */
+  public static RawJsonOutput single(RawJsonValue value) {
+    byte[] json = value != null ? resolve(value) : null;
+    if (json == null) {
+      return null;
+    }
+    
+    return new RawJsonOutput(Collections.singletonList(json), false);
+  }
+  
+  /**
+   * Creates output for a JSON array of entities. Values that could not be written are left out.
+   * 
+   * @param values entity JSONs
+   * @return output
+   */
+  public static RawJsonOutput array(Collection<RawJsonValue> values) {
+    List<byte[]> resolved = new ArrayList<>(values.size());
+    for (RawJsonValue value : values) {
+      byte[] json = resolve(value);
+      if (json != null) {
+        resolved.add(json);
+      }
+    }
+    
+    return new RawJsonOutput(resolved, true);
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    if (array) {
+      output.write('[');
+    }
+    
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        output.write(',');
+      }
+      
+      output.write(values.get(i));
+    }
+    
+    if (array) {
+      output.write(']');
+    }
+  }
+  
+  private static byte[] resolve(RawJsonValue value) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+      value.write(generator);
+    } catch (IOException e) {
+      logger.log(Level.SEVERE, "Failed to write cached JSON value, dropped value", e);
+      return null;
+    }
+    
+    return buffer.toByteArray();
+  }
+  
+}
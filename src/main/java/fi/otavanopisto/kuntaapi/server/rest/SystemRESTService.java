@@ -1,6 +1,11 @@
 package fi.otavanopisto.kuntaapi.server.rest;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceUnit;
 import javax.ws.rs.Consumes;
@@ -11,7 +16,17 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import fi.otavanopisto.kuntaapi.server.cache.AbstractCache;
+import fi.otavanopisto.kuntaapi.server.cache.CacheCompressionController;
+import fi.otavanopisto.kuntaapi.server.cache.NearCacheStatistics;
+import fi.otavanopisto.kuntaapi.server.discover.EntityUpdateStatisticsController;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueueController;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateController;
+import fi.otavanopisto.kuntaapi.server.id.IdController;
+import fi.otavanopisto.kuntaapi.server.integrations.ConditionalRequestStatisticsController;
+import fi.otavanopisto.kuntaapi.server.integrations.HttpClientPool;
 import fi.otavanopisto.kuntaapi.server.system.SystemUtils;
+import fi.otavanopisto.kuntaapi.server.webhooks.WebhookIngestBuffer;
 
 /**
  * System REST Services
@@ -28,6 +43,33 @@ public class SystemRESTService {
   @PersistenceUnit
   private EntityManagerFactory entityManagerFactory;
   
+  @Inject
+  private Instance<AbstractCache<?, ?>> caches;
+  
+  @Inject
+  private CacheCompressionController cacheCompressionController;
+  
+  @Inject
+  private EntityUpdateStatisticsController entityUpdateStatisticsController;
+  
+  @Inject
+  private UpdateQueueController updateQueueController;
+
+  @Inject
+  private UpdateRateController updateRateController;
+
+  @Inject
+  private ConditionalRequestStatisticsController conditionalRequestStatisticsController;
+  
+  @Inject
+  private WebhookIngestBuffer webhookIngestBuffer;
+  
+  @Inject
+  private HttpClientPool httpClientPool;
+
+  @Inject
+  private IdController idController;
+  
   /**
    * Returns pong
    * 
@@ -57,4 +99,148 @@ public class SystemRESTService {
     return Response.status(Status.FORBIDDEN).build();
   }
   
+  /**
+   * Returns near cache statistics of all caches
+   * 
+   * @return near cache statistics
+   */
+  @GET
+  @Path ("/caches/near")
+  public Response listNearCacheStatistics() {
+    if (!SystemUtils.inTestMode()) {
+      return Response.status(Status.FORBIDDEN).build();
+    }
+    
+    List<NearCacheStatistics> result = new ArrayList<>();
+    
+    for (AbstractCache<?, ?> cache : caches) {
+      NearCacheStatistics statistics = cache.getNearCacheStatistics();
+      if (statistics != null) {
+        result.add(statistics);
+      }
+    }
+    
+    return Response.ok(result).build();
+  }
+  
+  /**
+   * Returns value compression statistics of caches written on this node
+   * 
+   * @return compression statistics
+   */
+  @GET
+  @Path ("/caches/compression")
+  public Response listCacheCompressionStatistics() {
+    if (SystemUtils.inTestMode()) {
+      return Response.ok(cacheCompressionController.getStatistics()).build();
+    }
+    
+    return Response.status(Status.FORBIDDEN).build();
+  }
+  
+  /**
+   * Returns counts of entities written and skipped as unmodified by entity updaters on this node
+   * 
+   * @return entity updater statistics
+   */
+  @GET
+  @Path ("/updaters/statistics")
+  public Response listEntityUpdateStatistics() {
+    if (SystemUtils.inTestMode()) {
+      return Response.ok(entityUpdateStatisticsController.getStatistics()).build();
+    }
+    
+    return Response.status(Status.FORBIDDEN).build();
+  }
+  
+  /**
+   * Returns depth, oldest item age and deduplication counters of updater queues on this node
+   * 
+   * @return updater queue statistics
+   */
+  @GET
+  @Path ("/updaters/queues")
+  public Response listUpdateQueueStatistics() {
+    if (SystemUtils.inTestMode()) {
+      return Response.ok(updateQueueController.getStatistics()).build();
+    }
+    
+    return Response.status(Status.FORBIDDEN).build();
+  }
+  
+  /**
+   * Returns current adaptive update rates of update sources in items per second
+   * 
+   * @return update rate statistics
+   */
+  @GET
+  @Path ("/updaters/rates")
+  public Response listUpdateRateStatistics() {
+    if (SystemUtils.inTestMode()) {
+      return Response.ok(updateRateController.getStatistics()).build();
+    }
+    
+    return Response.status(Status.FORBIDDEN).build();
+  }
+  
+  /**
+   * Returns conditional request hit rates of integrations
+   * 
+   * @return conditional request statistics
+   */
+  @GET
+  @Path ("/integrations/conditional")
+  public Response listConditionalRequestStatistics() {
+    if (SystemUtils.inTestMode()) {
+      return Response.ok(conditionalRequestStatisticsController.getStatistics()).build();
+    }
+    
+    return Response.status(Status.FORBIDDEN).build();
+  }
+  
+  /**
+   * Returns statistics of webhook ingest buffer
+   * 
+   * @return webhook buffer statistics
+   */
+  @GET
+  @Path ("/webhooks/buffer")
+  public Response getWebhookBufferStatistics() {
+    if (SystemUtils.inTestMode()) {
+      return Response.ok(webhookIngestBuffer.getStatistics()).build();
+    }
+    
+    return Response.status(Status.FORBIDDEN).build();
+  }
+  
+  /**
+   * Returns connection pool statistics of the shared HTTP client
+   * 
+   * @return connection pool statistics in total and by route
+   */
+  @GET
+  @Path ("/http/pool")
+  public Response listHttpClientPoolStatistics() {
+    if (SystemUtils.inTestMode()) {
+      return Response.ok(httpClientPool.getStatistics()).build();
+    }
+    
+    return Response.status(Status.FORBIDDEN).build();
+  }
+  
+  /**
+   * Returns id provider routing table
+   * 
+   * @return id provider routes
+   */
+  @GET
+  @Path ("/ids/routes")
+  public Response listIdProviderRoutes() {
+    if (SystemUtils.inTestMode()) {
+      return Response.ok(idController.listIdProviderRoutes()).build();
+    }
+    
+    return Response.status(Status.FORBIDDEN).build();
+  }
+  
 }
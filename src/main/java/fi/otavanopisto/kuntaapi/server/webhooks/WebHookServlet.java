@@ -13,7 +13,6 @@ import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.transaction.Transactional;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -21,7 +20,6 @@ import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
 import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
 
 @WebServlet (urlPatterns = "/webhooks/*")
-@Transactional
 public class WebHookServlet extends HttpServlet {
   
   private static final long serialVersionUID = -1381193888860326407L;
@@ -53,7 +51,7 @@ public class WebHookServlet extends HttpServlet {
       WebhookHandler webhookHandler = webhookHandlerIterator.next();
       if (StringUtils.equals(webhookHandler.getType(), type)) {
         if (webhookHandler.handle(organizationId, request)) {
-          response.setStatus(HttpServletResponse.SC_OK);
+          response.setStatus(HttpServletResponse.SC_ACCEPTED);
         } else {
           response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
@@ -0,0 +1,36 @@
+package fi.otavanopisto.kuntaapi.server.webhooks;
+
+import java.io.Serializable;
+
+/**
+ * Stored state of a single pending webhook event
+ * 
+ * @author Antti Leppä
+ */
+public class WebhookBufferEntry implements Serializable {
+  
+  private static final long serialVersionUID = -6412853096370926584L;
+  
+  private final Serializable event;
+  private final long dueAt;
+  
+  /**
+   * Constructor
+   * 
+   * @param event pending event
+   * @param dueAt time when the event becomes due
+   */
+  public WebhookBufferEntry(Serializable event, long dueAt) {
+    this.event = event;
+    this.dueAt = dueAt;
+  }
+  
+  public Serializable getEvent() {
+    return event;
+  }
+  
+  public long getDueAt() {
+    return dueAt;
+  }
+  
+}
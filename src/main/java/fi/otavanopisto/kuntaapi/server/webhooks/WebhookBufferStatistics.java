@@ -0,0 +1,38 @@
+package fi.otavanopisto.kuntaapi.server.webhooks;
+
+/**
+ * Statistics of webhook ingest buffer
+ * 
+ * @author Antti Leppä
+ */
+public class WebhookBufferStatistics {
+  
+  private final int pending;
+  private final long received;
+  private final long coalesced;
+  private final long delivered;
+  
+  public WebhookBufferStatistics(int pending, long received, long coalesced, long delivered) {
+    this.pending = pending;
+    this.received = received;
+    this.coalesced = coalesced;
+    this.delivered = delivered;
+  }
+  
+  public int getPending() {
+    return pending;
+  }
+  
+  public long getReceived() {
+    return received;
+  }
+  
+  public long getCoalesced() {
+    return coalesced;
+  }
+  
+  public long getDelivered() {
+    return delivered;
+  }
+  
+}
@@ -0,0 +1,107 @@
+package fi.otavanopisto.kuntaapi.server.webhooks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces bursts of webhook events by key. 
+ * 
+ * Event is held back until no newer event with the same key has arrived within the debounce 
+ * window, and only the latest event of the burst is delivered. Events are never held back longer 
+ * than MAX_DELAY_FACTOR windows from the first event of the burst, so continuously edited entities 
+ * still get updated.
+ * 
+ * @author Antti Leppä
+ */
+public class WebhookDebouncer {
+  
+  private static final int MAX_DELAY_FACTOR = 10;
+  
+  private final Map<String, PendingEvent> pending = new LinkedHashMap<>();
+  private long received;
+  private long coalesced;
+  private long delivered;
+  
+  /**
+   * Adds an event
+   * 
+   * @param key key identifying the entity the event concerns
+   * @param event event
+   * @param window debounce window in milliseconds
+   * @param now current time in milliseconds
+   * @return time when the pending event of the key becomes due
+   */
+  public synchronized long offer(String key, Object event, long window, long now) {
+    received++;
+    
+    PendingEvent previous = pending.get(key);
+    if (previous != null) {
+      coalesced++;
+      previous.event = event;
+      previous.dueAt = Math.min(now + window, previous.firstAt + (window * MAX_DELAY_FACTOR));
+      return previous.dueAt;
+    }
+    
+    pending.put(key, new PendingEvent(event, now, now + window));
+    return now + window;
+  }
+  
+  /**
+   * Removes and returns events that are due in the order their bursts started
+   * 
+   * @param now current time in milliseconds
+   * @return due events
+   */
+  public synchronized List<Object> drainDue(long now) {
+    List<Object> result = new ArrayList<>();
+    
+    Iterator<PendingEvent> iterator = pending.values().iterator();
+    while (iterator.hasNext()) {
+      PendingEvent pendingEvent = iterator.next();
+      if (pendingEvent.dueAt <= now) {
+        result.add(pendingEvent.event);
+        iterator.remove();
+      }
+    }
+    
+    delivered += result.size();
+    
+    return result;
+  }
+  
+  /**
+   * Removes and returns all pending events regardless of their due time
+   * 
+   * @return pending events
+   */
+  public synchronized List<Object> drainAll() {
+    return drainDue(Long.MAX_VALUE);
+  }
+  
+  /**
+   * Returns statistics of the debouncer
+   * 
+   * @return statistics of the debouncer
+   */
+  public synchronized WebhookBufferStatistics getStatistics() {
+    return new WebhookBufferStatistics(pending.size(), received, coalesced, delivered);
+  }
+  
+  private static class PendingEvent {
+    
+    private Object event;
+    private final long firstAt;
+    private long dueAt;
+    
+    public PendingEvent(Object event, long firstAt, long dueAt) {
+      this.event = event;
+      this.firstAt = firstAt;
+      this.dueAt = dueAt;
+    }
+    
+  }
+  
+}
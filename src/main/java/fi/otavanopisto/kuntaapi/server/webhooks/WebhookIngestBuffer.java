@@ -0,0 +1,169 @@
+package fi.otavanopisto.kuntaapi.server.webhooks;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.CacheContainer;
+
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.settings.SystemSettingController;
+
+/**
+ * Buffer for events triggered by webhooks. 
+ * 
+ * Webhook handlers add events here instead of firing them, so repeated hooks for the same entity 
+ * within the debounce window result in a single update. 
+ * 
+ * Pending events are written synchronously into the "webhookbuffer" cache before the webhook 
+ * is acknowledged. The cache should be configured as replicated. Each node schedules delivery 
+ * of the events it received, and an event is fired only by the node that removes it from the 
+ * cache, so an event is never delivered twice. Events left behind by a node that went down are 
+ * delivered by the other nodes once they are RECOVERY_GRACE overdue.
+ * 
+ * @author Antti Leppä
+ */
+@ApplicationScoped
+@SuppressWarnings ("squid:S3306")
+public class WebhookIngestBuffer {
+  
+  public static final String CACHE_NAME = "webhookbuffer";
+  
+  private static final long DEFAULT_DEBOUNCE_WINDOW = 5000;
+  private static final long RECOVERY_GRACE = 60000;
+  private static final long RECOVERY_INTERVAL = 30000;
+  private static final long ENTRY_LIFESPAN_HOURS = 24;
+  
+  @Inject
+  private Logger logger;
+  
+  @Inject
+  private SystemSettingController systemSettingController;
+  
+  @Inject
+  private Event<Object> events;
+
+  @Resource (lookup = "java:jboss/infinispan/container/kunta-api")
+  private CacheContainer cacheContainer;
+  
+  private final WebhookDebouncer debouncer = new WebhookDebouncer();
+  
+  private long lastRecovery;
+  
+  public Cache<String, byte[]> getCache() {
+    return cacheContainer.getCache(CACHE_NAME);
+  }
+  
+  /**
+   * Adds an event to be fired after the debounce window. Pending event with same key is replaced. 
+   * 
+   * Returns only after the event has been stored into the cache.
+   * 
+   * @param key key identifying the entity, e.g. organization, type and id
+   * @param event event to be fired
+   */
+  public void add(String key, Serializable event) {
+    long dueAt = debouncer.offer(key, key, getDebounceWindow(), System.currentTimeMillis());
+    getCache().getAdvancedCache()
+      .withFlags(Flag.IGNORE_RETURN_VALUES)
+      .put(key, SerializationUtils.serialize(new WebhookBufferEntry(event, dueAt)), ENTRY_LIFESPAN_HOURS, TimeUnit.HOURS);
+  }
+  
+  /**
+   * Fires events that are due and recovers events left behind by other nodes
+   */
+  public void deliverDue() {
+    long now = System.currentTimeMillis();
+    for (Object key : debouncer.drainDue(now)) {
+      deliver((String) key);
+    }
+    
+    if (now - lastRecovery >= RECOVERY_INTERVAL) {
+      lastRecovery = now;
+      recoverOverdue(now);
+    }
+  }
+  
+  /**
+   * Fires all pending events received by this node
+   */
+  public void deliverAll() {
+    for (Object key : debouncer.drainAll()) {
+      deliver((String) key);
+    }
+  }
+  
+  /**
+   * Returns statistics of the buffer
+   * 
+   * @return statistics of the buffer
+   */
+  public WebhookBufferStatistics getStatistics() {
+    return debouncer.getStatistics();
+  }
+  
+  private void recoverOverdue(long now) {
+    List<String> overdueKeys = new ArrayList<>();
+    
+    for (Map.Entry<String, byte[]> cacheEntry : getCache().entrySet()) {
+      WebhookBufferEntry entry = deserialize(cacheEntry.getKey(), cacheEntry.getValue());
+      if (entry == null || entry.getDueAt() + RECOVERY_GRACE <= now) {
+        overdueKeys.add(cacheEntry.getKey());
+      }
+    }
+    
+    for (String key : overdueKeys) {
+      deliver(key);
+    }
+  }
+  
+  private void deliver(String key) {
+    byte[] data = getCache().remove(key);
+    if (data == null) {
+      // Event has already been delivered by another node
+      return;
+    }
+    
+    WebhookBufferEntry entry = deserialize(key, data);
+    if (entry != null) {
+      fire(entry.getEvent());
+    }
+  }
+  
+  private void fire(Object event) {
+    try {
+      events.fire(event);
+    } catch (Exception e) {
+      logger.log(Level.SEVERE, String.format("Failed to deliver webhook event %s", event), e);
+    }
+  }
+  
+  private WebhookBufferEntry deserialize(String key, byte[] data) {
+    try {
+      return SerializationUtils.deserialize(data);
+    } catch (SerializationException | ClassCastException e) {
+      logger.log(Level.WARNING, String.format("Discarding unreadable webhook event %s", key), e);
+    }
+    
+    return null;
+  }
+  
+  private long getDebounceWindow() {
+    return NumberUtils.toLong(systemSettingController.getSettingValue(KuntaApiConsts.SYSTEM_SETTING_WEBHOOK_DEBOUNCE_WINDOW), DEFAULT_DEBOUNCE_WINDOW);
+  }
+  
+}
@@ -0,0 +1,49 @@
+package fi.otavanopisto.kuntaapi.server.webhooks;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.inject.Inject;
+
+/**
+ * Periodically delivers due events from the webhook ingest buffer. 
+ * 
+ * Scheduler runs on every node; the buffer makes sure each event is delivered by a single node.
+ * 
+ * @author Antti Leppä
+ */
+@Singleton
+@Startup
+public class WebhookIngestScheduler {
+  
+  private static final long INTERVAL = 500;
+  
+  @Inject
+  private WebhookIngestBuffer webhookIngestBuffer;
+  
+  @Resource
+  private TimerService timerService;
+  
+  @PostConstruct
+  public void init() {
+    TimerConfig timerConfig = new TimerConfig();
+    timerConfig.setPersistent(false);
+    timerService.createIntervalTimer(INTERVAL, INTERVAL, timerConfig);
+  }
+  
+  @PreDestroy
+  public void shutdown() {
+    webhookIngestBuffer.deliverAll();
+  }
+  
+  @Timeout
+  public void timeout() {
+    webhookIngestBuffer.deliverDue();
+  }
+  
+}
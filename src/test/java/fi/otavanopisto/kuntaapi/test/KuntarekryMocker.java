@@ -1,8 +1,18 @@
 package fi.otavanopisto.kuntaapi.test;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.junit.Assert.fail;
+
 import java.util.List;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import fi.otavanopisto.kuntaapi.server.integrations.kuntarekry.KuntaRekryJob;
 
@@ -14,4 +24,37 @@ public class KuntarekryMocker extends AbstractMocker {
     return this;
   }
   
+  /**
+   * Mocks Kuntarekry feed with an ETag. Requests revalidating the ETag are responded with 304 Not Modified.
+   * 
+   * Mock is registered immediately and it takes precedence over feeds mocked earlier on the same path
+   * 
+   * @param path path
+   * @param file feed file
+   * @param etag ETag of the feed
+   */
+  public void mockRevalidatedKuntaRekryFeed(String path, String file, String etag) {
+    List<KuntaRekryJob> jobs = readXMLFile(file, new TypeReference<List<KuntaRekryJob>>() { });
+    
+    try {
+      XmlMapper xmlMapper = new XmlMapper();
+      xmlMapper.registerModule(new JavaTimeModule());
+      
+      stubFor(get(urlPathEqualTo(path))
+        .willReturn(aResponse()
+        .withHeader("Content-Type", "text/xml")
+        .withHeader("ETag", etag)
+        .withBody(xmlMapper.writeValueAsString(jobs))));
+      
+      stubFor(get(urlPathEqualTo(path))
+        .atPriority(1)
+        .withHeader("If-None-Match", equalTo(etag))
+        .willReturn(aResponse()
+        .withStatus(304)
+        .withHeader("ETag", etag)));
+    } catch (JsonProcessingException e) {
+      fail(e.getMessage());
+    }
+  }
+  
 }
@@ -0,0 +1,154 @@
+package fi.otavanopisto.kuntaapi.test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+
+/**
+ * Mocker for management service Wordpress REST API
+ * 
+ * @author Antti Leppä
+ */
+public class ManagementMocker extends AbstractMocker {
+  
+  public static final String BASE_PATH = "/wp-json";
+  public static final String PAGES_PATH = BASE_PATH + "/wp/v2/pages";
+  public static final String MEDIA_PATH = BASE_PATH + "/wp/v2/media";
+  
+  private static Logger logger = Logger.getLogger(ManagementMocker.class.getName());
+  
+  private final Map<Integer, Map<String, Object>> pages = new LinkedHashMap<>();
+  
+  /**
+   * Mocks a page
+   * 
+   * @param id page id
+   * @param slug page slug
+   * @param title page title
+   * @param modifiedGmt GMT modification time of the page
+   * @param featuredMedia id of featured media or 0 for none
+   * @return mocker
+   */
+  public ManagementMocker mockPage(int id, String slug, String title, LocalDateTime modifiedGmt, int featuredMedia) {
+    Map<String, Object> page = new LinkedHashMap<>();
+    page.put("id", id);
+    page.put("slug", slug);
+    page.put("parent", 0);
+    page.put("featured_media", featuredMedia);
+    page.put("title", Collections.singletonMap("rendered", title));
+    page.put("content", Collections.singletonMap("rendered", String.format("<p>Contents of %s</p>", title)));
+    page.put("modified", modifiedGmt.plusHours(2).toString());
+    page.put("modified_gmt", modifiedGmt.toString());
+    pages.put(id, page);
+    return this;
+  }
+  
+  /**
+   * Removes contents of a mocked page. Pages without contents fail to translate
+   * 
+   * @param id page id
+   * @return mocker
+   */
+  public ManagementMocker removePageContent(int id) {
+    pages.get(id).remove("content");
+    return this;
+  }
+  
+  /**
+   * Mocks an image attachment and its data
+   * 
+   * @param id attachment id
+   * @param baseUrl base URL of the mock server
+   * @param path path of image data
+   * @param type content type of the image
+   * @param binaryFile image file
+   * @return mocker
+   */
+  public ManagementMocker mockMedia(int id, String baseUrl, String path, String type, String binaryFile) {
+    Map<String, Object> media = new LinkedHashMap<>();
+    media.put("id", id);
+    media.put("mime_type", type);
+    media.put("source_url", String.format("%s%s", baseUrl, path));
+    mockGetJSON(String.format("%s/%d", MEDIA_PATH, id), media, null);
+    mockGetBinary(path, type, binaryFile);
+    return this;
+  }
+  
+  /**
+   * Changes title of a mocked page without changing its modification time and updates 
+   * the mocks when mocking has been started
+   * 
+   * @param id page id
+   * @param title new title
+   */
+  public void changePageTitle(int id, String title) {
+    Map<String, Object> page = pages.get(id);
+    page.put("title", Collections.singletonMap("rendered", title));
+    mockPages();
+  }
+  
+  @Override
+  public void startMock() {
+    super.startMock();
+    mockPages();
+  }
+  
+  private void mockPages() {
+    List<Map<String, Object>> byId = new ArrayList<>(pages.values());
+    List<Map<String, Object>> byModified = new ArrayList<>(pages.values());
+    byModified.sort(Comparator.comparing((Map<String, Object> page) -> (String) page.get("modified_gmt")).reversed());
+    
+    stubPages(byId, "id", "asc");
+    stubPages(byModified, "modified", "desc");
+    
+    for (Map.Entry<Integer, Map<String, Object>> page : pages.entrySet()) {
+      stubJson(String.format("%s/%d", PAGES_PATH, page.getKey()), page.getValue(), null);
+    }
+  }
+  
+  private void stubPages(List<Map<String, Object>> items, String orderBy, String order) {
+    Map<String, String> queryParams = new HashMap<>();
+    queryParams.put("orderby", orderBy);
+    queryParams.put("order", order);
+    queryParams.put("page", "1");
+    stubJson(PAGES_PATH, items, queryParams);
+  }
+  
+  private void stubJson(String path, Object object, Map<String, String> queryParams) {
+    try {
+      MappingBuilder mappingBuilder = get(urlPathEqualTo(path));
+      if (queryParams != null) {
+        for (Map.Entry<String, String> queryParam : queryParams.entrySet()) {
+          mappingBuilder.withQueryParam(queryParam.getKey(), equalTo(queryParam.getValue()));
+        }
+      }
+      
+      stubFor(mappingBuilder
+        .willReturn(aResponse()
+        .withHeader("Content-Type", "application/json")
+        .withBody(new ObjectMapper().writeValueAsString(object))));
+    } catch (JsonProcessingException e) {
+      logger.log(Level.SEVERE, "Failed to serialize mock JSON object", e);
+      fail(e.getMessage());
+    }
+  }
+  
+}
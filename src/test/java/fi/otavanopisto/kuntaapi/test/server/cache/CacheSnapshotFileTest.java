@@ -0,0 +1,137 @@
+package fi.otavanopisto.kuntaapi.test.server.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fi.otavanopisto.kuntaapi.server.cache.CacheSnapshotFile;
+import fi.otavanopisto.kuntaapi.server.id.AttachmentId;
+import fi.otavanopisto.kuntaapi.server.id.IdPair;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.id.PageId;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+
+/**
+ * Tests writing and restoring cache snapshot files
+ * 
+ * @author Antti Leppä
+ */
+public class CacheSnapshotFileTest {
+  
+  private static final String CACHE_NAME = "test-cache";
+  private static final int MAGIC = 0x4B41534E;
+  
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+  
+  @Test
+  public void testRoundTrip() throws IOException {
+    OrganizationId organizationId = new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    PageId pageId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    AttachmentId attachmentId = new AttachmentId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    IdPair<PageId, AttachmentId> pairId = new IdPair<>(pageId, attachmentId);
+    byte[] binary = new byte[] { 0, 1, 2, (byte) 0xff };
+    
+    List<Map.Entry<Object, Object>> entries = Arrays.asList(
+      entry("string-key", "Merkkijono ääkkösillä"),
+      entry(pageId, "{\"id\":\"page\"}"),
+      entry(pairId, binary),
+      entry("unsupported", 1l)
+    );
+    
+    CacheSnapshotFile snapshotFile = new CacheSnapshotFile(temporaryFolder.newFile());
+    assertEquals(3, snapshotFile.write(CACHE_NAME, entries));
+    
+    Map<Object, Object> restored = snapshotFile.read(CACHE_NAME);
+    assertEquals(3, restored.size());
+    assertEquals("Merkkijono ääkkösillä", restored.get("string-key"));
+    assertEquals("{\"id\":\"page\"}", restored.get(pageId));
+    assertArrayEquals(binary, (byte[]) restored.get(pairId));
+    assertFalse(restored.containsKey("unsupported"));
+  }
+  
+  @Test (expected = IOException.class)
+  public void testOtherCacheRejected() throws IOException {
+    CacheSnapshotFile snapshotFile = new CacheSnapshotFile(temporaryFolder.newFile());
+    snapshotFile.write(CACHE_NAME, Arrays.asList(entry("key", "value")));
+    snapshotFile.read("other-cache");
+  }
+  
+  @Test (expected = IOException.class)
+  public void testChecksumMismatchRejected() throws IOException {
+    File file = temporaryFolder.newFile();
+    new CacheSnapshotFile(file).write(CACHE_NAME, Arrays.asList(entry("key", "value")));
+    
+    byte[] data = inflate(file);
+    data[data.length - 1] ^= 0x01;
+    deflate(file, data);
+    
+    new CacheSnapshotFile(file).read(CACHE_NAME);
+  }
+  
+  @Test
+  public void testInvalidValueLengthsRejected() throws IOException {
+    for (int length : new int[] { -1, Integer.MAX_VALUE }) {
+      File file = temporaryFolder.newFile();
+      
+      ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+      DataOutputStream output = new DataOutputStream(byteStream);
+      output.writeInt(MAGIC);
+      output.writeByte(1);
+      output.writeUTF(CACHE_NAME);
+      output.writeByte(1);
+      output.writeByte('S');
+      output.writeUTF("key");
+      output.writeByte('B');
+      output.writeInt(length);
+      output.flush();
+      deflate(file, byteStream.toByteArray());
+      
+      try {
+        new CacheSnapshotFile(file).read(CACHE_NAME);
+        fail(String.format("Value length %d was accepted", length));
+      } catch (IOException e) {
+        assertEquals(String.format("Invalid value length %d", length), e.getMessage());
+      }
+    }
+  }
+  
+  private Map.Entry<Object, Object> entry(Object key, Object value) {
+    return new AbstractMap.SimpleEntry<>(key, value);
+  }
+  
+  private byte[] inflate(File file) throws IOException {
+    try (InputStream input = new InflaterInputStream(new FileInputStream(file))) {
+      return IOUtils.toByteArray(input);
+    }
+  }
+  
+  private void deflate(File file, byte[] data) throws IOException {
+    try (OutputStream output = new DeflaterOutputStream(new FileOutputStream(file))) {
+      output.write(data);
+    }
+  }
+  
+}
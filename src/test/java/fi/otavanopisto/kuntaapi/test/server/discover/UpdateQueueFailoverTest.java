@@ -0,0 +1,188 @@
+package fi.otavanopisto.kuntaapi.test.server.discover;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueue;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueueCacheStore;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateQueueStatistics;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+
+/**
+ * Tests that pending update queue items survive moving the updaters between two embedded cluster nodes
+ * 
+ * @author Antti Leppä
+ */
+public class UpdateQueueFailoverTest {
+  
+  private static final String QUEUE_NAME = "test-updater";
+  private static final long REPLICATION_TIMEOUT = 10000;
+  private static final String PREFER_IPV4_PROPERTY = "java.net.preferIPv4Stack";
+  
+  private String preferIpv4;
+  private DefaultCacheManager nodeA;
+  private DefaultCacheManager nodeB;
+  
+  @Before
+  public void startNodes() throws InterruptedException {
+    preferIpv4 = System.getProperty(PREFER_IPV4_PROPERTY);
+    System.setProperty(PREFER_IPV4_PROPERTY, "true");
+    nodeA = startNode("node-a");
+    nodeB = startNode("node-b");
+    
+    long timeout = System.currentTimeMillis() + REPLICATION_TIMEOUT;
+    while (nodeA.getMembers().size() < 2 || nodeB.getMembers().size() < 2) {
+      assertTrue("Nodes did not form a cluster", System.currentTimeMillis() < timeout);
+      Thread.sleep(100);
+    }
+  }
+  
+  @After
+  public void stopNodes() {
+    if (nodeA != null) {
+      nodeA.stop();
+    }
+    
+    if (nodeB != null) {
+      nodeB.stop();
+    }
+    
+    if (preferIpv4 == null) {
+      System.clearProperty(PREFER_IPV4_PROPERTY);
+    } else {
+      System.setProperty(PREFER_IPV4_PROPERTY, preferIpv4);
+    }
+  }
+  
+  @Test
+  public void testFailover() throws InterruptedException {
+    OrganizationId organization1 = createOrganizationId("1");
+    OrganizationId organization2 = createOrganizationId("2");
+    OrganizationId organization3 = createOrganizationId("3");
+    OrganizationId organization4 = createOrganizationId("4");
+    OrganizationId organization5 = createOrganizationId("5");
+    
+    UpdateQueue<OrganizationId> queueA = new UpdateQueue<>(QUEUE_NAME);
+    queueA.add(organization1, false);
+    queueA.attachStore(createStore(getCache(nodeA)));
+    queueA.add(organization2, false);
+    queueA.add(organization3, true);
+    queueA.addDelayed(organization4, 60000);
+    queueA.add(organization1, true);
+    queueA.add(organization5, false);
+    
+    assertEquals(organization3, queueA.poll());
+    waitForSize(getCache(nodeB), 4);
+    
+    queueA.detachStore();
+    nodeA.stop();
+    nodeA = null;
+    
+    UpdateQueue<OrganizationId> queueB = new UpdateQueue<>(QUEUE_NAME);
+    queueB.attachStore(createStore(getCache(nodeB)));
+    
+    UpdateQueueStatistics statistics = queueB.getStatistics();
+    assertEquals(1, statistics.getPriorityDepth());
+    assertEquals(2, statistics.getNormalDepth());
+    assertEquals(1, statistics.getDelayedDepth());
+    
+    assertEquals(organization1, queueB.poll());
+    Set<OrganizationId> normalItems = new HashSet<>(Arrays.asList(queueB.poll(), queueB.poll()));
+    assertEquals(new HashSet<>(Arrays.asList(organization2, organization5)), normalItems);
+    assertNull(queueB.poll());
+    
+    waitForSize(getCache(nodeB), 1);
+  }
+  
+  @Test
+  public void testRestoreSkipsQueuedItems() throws InterruptedException {
+    OrganizationId organization1 = createOrganizationId("1");
+    OrganizationId organization2 = createOrganizationId("2");
+    
+    UpdateQueue<OrganizationId> queueA = new UpdateQueue<>(QUEUE_NAME);
+    queueA.attachStore(createStore(getCache(nodeA)));
+    queueA.add(organization1, false);
+    queueA.add(organization2, false);
+    waitForSize(getCache(nodeB), 2);
+    
+    UpdateQueue<OrganizationId> queueB = new UpdateQueue<>(QUEUE_NAME);
+    queueB.add(organization1, true);
+    queueB.attachStore(createStore(getCache(nodeB)));
+    
+    assertEquals(2, queueB.size());
+    assertEquals(organization1, queueB.poll());
+    assertEquals(organization2, queueB.poll());
+    
+    waitForSize(getCache(nodeA), 0);
+  }
+  
+  @Test
+  public void testOtherQueuesNotRestored() throws InterruptedException {
+    UpdateQueue<OrganizationId> queueA = new UpdateQueue<>("other-updater");
+    queueA.attachStore(createStore(getCache(nodeA)));
+    queueA.add(createOrganizationId("1"), false);
+    waitForSize(getCache(nodeB), 1);
+    
+    UpdateQueue<OrganizationId> queueB = new UpdateQueue<>(QUEUE_NAME);
+    queueB.attachStore(createStore(getCache(nodeB)));
+    
+    assertTrue(queueB.isEmpty());
+  }
+  
+  private DefaultCacheManager startNode(String nodeName) {
+    GlobalConfigurationBuilder globalConfiguration = GlobalConfigurationBuilder.defaultClusteredBuilder();
+    globalConfiguration.transport()
+      .clusterName("update-queue-failover-test")
+      .nodeName(nodeName)
+      .addProperty("configurationFile", "update-queue-jgroups.xml");
+    globalConfiguration.globalJmxStatistics().allowDuplicateDomains(true);
+    
+    ConfigurationBuilder cacheConfiguration = new ConfigurationBuilder();
+    cacheConfiguration.clustering().cacheMode(CacheMode.REPL_SYNC);
+    
+    DefaultCacheManager cacheManager = new DefaultCacheManager(globalConfiguration.build(), cacheConfiguration.build());
+    getCache(cacheManager);
+    return cacheManager;
+  }
+  
+  private Cache<String, byte[]> getCache(DefaultCacheManager cacheManager) {
+    return cacheManager.getCache(UpdateQueueCacheStore.CACHE_NAME);
+  }
+  
+  private UpdateQueueCacheStore createStore(Cache<String, byte[]> cache) {
+    return new UpdateQueueCacheStore() {
+      @Override
+      public Cache<String, byte[]> getCache() {
+        return cache;
+      }
+    };
+  }
+  
+  private void waitForSize(Cache<String, byte[]> cache, int size) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + REPLICATION_TIMEOUT;
+    while (cache.size() != size) {
+      assertTrue(String.format("Expected %d stored entries, found %d", size, cache.size()), System.currentTimeMillis() < timeout);
+      Thread.sleep(50);
+    }
+  }
+  
+  private OrganizationId createOrganizationId(String id) {
+    return new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, id);
+  }
+  
+}
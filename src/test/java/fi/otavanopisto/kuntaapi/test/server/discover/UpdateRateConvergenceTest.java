@@ -0,0 +1,194 @@
+package fi.otavanopisto.kuntaapi.test.server.discover;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRate;
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRateStatistics;
+
+/**
+ * Drives adaptive update rate against a simulated upstream with a virtual clock and 
+ * checks that the rate converges near upstream capacity and backs off when capacity drops
+ * 
+ * @author Antti Leppä
+ */
+public class UpdateRateConvergenceTest {
+  
+  private static final long TICK = 10;
+  private static final int DEMAND_PER_TICK = 5;
+  private static final long LATENCY_TARGET = 2000;
+  
+  @Test
+  public void testConvergesBelowCapacity() {
+    UpdateRate rate = new UpdateRate("test", 2, 0.1, 100, LATENCY_TARGET, 0);
+    SimulatedUpstream upstream = new SimulatedUpstream(10, 0);
+    
+    simulate(rate, upstream, 0, 30000);
+    SimulationResult result = simulate(rate, upstream, 30000, 120000);
+    
+    assertTrue(String.format("Throughput %.2f too low", result.getSuccessRate()), result.getSuccessRate() >= 5);
+    assertTrue(String.format("Throughput %.2f above capacity", result.getSuccessRate()), result.getSuccessRate() <= 10);
+    assertTrue(String.format("Rate peaked at %.2f", result.maxRate), result.maxRate <= 15);
+    assertTrue(String.format("Failure ratio %.3f too high", result.getFailureRatio()), result.getFailureRatio() < 0.15);
+  }
+  
+  @Test
+  public void testBacksOffWhenCapacityDrops() {
+    UpdateRate rate = new UpdateRate("test", 2, 0.1, 100, LATENCY_TARGET, 0);
+    SimulatedUpstream upstream = new SimulatedUpstream(20, 0);
+    
+    SimulationResult before = simulate(rate, upstream, 0, 60000);
+    assertTrue(String.format("Rate peaked only at %.2f", before.maxRate), before.maxRate >= 15);
+    
+    upstream.capacity = 5;
+    simulate(rate, upstream, 60000, 90000);
+    SimulationResult after = simulate(rate, upstream, 90000, 150000);
+    
+    assertTrue(String.format("Request rate %.2f did not back off", after.getAttemptRate()), after.getAttemptRate() <= 6);
+    assertTrue(String.format("Throughput %.2f too low", after.getSuccessRate()), after.getSuccessRate() >= 2.5);
+  }
+  
+  @Test
+  public void testBacksOffOnSlowResponses() {
+    UpdateRate rate = new UpdateRate("test", 2, 0.1, 100, LATENCY_TARGET, 0);
+    SimulatedUpstream upstream = new SimulatedUpstream(10, 5000);
+    
+    simulate(rate, upstream, 0, 30000);
+    SimulationResult result = simulate(rate, upstream, 30000, 120000);
+    
+    UpdateRateStatistics statistics = rate.getStatistics();
+    assertEquals(0, statistics.getFailures());
+    assertTrue(statistics.getDecreases() > 0);
+    assertTrue(String.format("Rate peaked at %.2f", result.maxRate), result.maxRate <= 15);
+    assertTrue(String.format("Throughput %.2f too low", result.getSuccessRate()), result.getSuccessRate() >= 5);
+  }
+  
+  @Test
+  public void testStaysWithinBounds() {
+    UpdateRate failingRate = new UpdateRate("failing", 2, 0.5, 100, LATENCY_TARGET, 0);
+    SimulatedUpstream failingUpstream = new SimulatedUpstream(0, 0);
+    simulate(failingRate, failingUpstream, 0, 30000);
+    SimulationResult failing = simulate(failingRate, failingUpstream, 30000, 90000);
+    
+    assertEquals(0.5, failingRate.getRate(), 0.0001);
+    assertTrue(String.format("%d requests while at minimum rate", failing.attempts), failing.attempts <= 32);
+    
+    UpdateRate healthyRate = new UpdateRate("healthy", 2, 0.5, 15, LATENCY_TARGET, 0);
+    SimulationResult healthy = simulate(healthyRate, new SimulatedUpstream(1000, 0), 0, 60000);
+    
+    assertEquals(15, healthy.maxRate, 0.0001);
+  }
+  
+  @Test
+  public void testRecoversWithSingleItemDemand() {
+    UpdateRate rate = new UpdateRate("test", 2, 0.1, 100, LATENCY_TARGET, 0);
+    SimulatedUpstream upstream = new SimulatedUpstream(0, 0);
+    
+    simulate(rate, upstream, 0, 30000, 1000, 1);
+    assertEquals(0.1, rate.getRate(), 0.0001);
+    
+    upstream.capacity = 10;
+    simulate(rate, upstream, 30000, 60000, 1000, 1);
+    SimulationResult result = simulate(rate, upstream, 60000, 120000, 1000, 1);
+    
+    assertTrue(String.format("Rate %.2f did not recover", rate.getRate()), rate.getRate() >= 1);
+    assertTrue(String.format("Throughput %.2f below demand", result.getSuccessRate()), result.getSuccessRate() >= 0.95);
+  }
+  
+  private SimulationResult simulate(UpdateRate rate, SimulatedUpstream upstream, long from, long to) {
+    return simulate(rate, upstream, from, to, TICK, DEMAND_PER_TICK);
+  }
+  
+  private SimulationResult simulate(UpdateRate rate, SimulatedUpstream upstream, long from, long to, long tick, int demand) {
+    SimulationResult result = new SimulationResult(to - from);
+    
+    for (long now = from; now < to; now += tick) {
+      int permits = rate.acquire(demand, now);
+      for (int i = 0; i < permits; i++) {
+        result.attempts++;
+        if (upstream.request(now)) {
+          result.successes++;
+          rate.recordSuccess(upstream.getLatency(), now);
+        } else {
+          result.failures++;
+          rate.recordFailure(now);
+        }
+      }
+      
+      result.maxRate = Math.max(result.maxRate, rate.getRate());
+    }
+    
+    return result;
+  }
+  
+  /**
+   * Upstream that serves a fixed amount of requests per second. Requests over the capacity 
+   * either fail or, when overload latency is given, succeed slowly.
+   */
+  private static class SimulatedUpstream {
+    
+    private static final long BASE_LATENCY = 50;
+    
+    private int capacity;
+    private final long overloadLatency;
+    private long window = -1;
+    private int windowRequests;
+    private long latency;
+    
+    public SimulatedUpstream(int capacity, long overloadLatency) {
+      this.capacity = capacity;
+      this.overloadLatency = overloadLatency;
+    }
+    
+    public boolean request(long now) {
+      if (now / 1000 != window) {
+        window = now / 1000;
+        windowRequests = 0;
+      }
+      
+      windowRequests++;
+      
+      if (windowRequests <= capacity) {
+        latency = BASE_LATENCY;
+        return true;
+      }
+      
+      latency = overloadLatency;
+      return overloadLatency > 0;
+    }
+    
+    public long getLatency() {
+      return latency;
+    }
+    
+  }
+  
+  private static class SimulationResult {
+    
+    private final long duration;
+    private long attempts;
+    private long successes;
+    private long failures;
+    private double maxRate;
+    
+    public SimulationResult(long duration) {
+      this.duration = duration;
+    }
+    
+    public double getAttemptRate() {
+      return attempts * 1000d / duration;
+    }
+    
+    public double getSuccessRate() {
+      return successes * 1000d / duration;
+    }
+    
+    public double getFailureRatio() {
+      return attempts == 0 ? 0 : (double) failures / attempts;
+    }
+    
+  }
+  
+}
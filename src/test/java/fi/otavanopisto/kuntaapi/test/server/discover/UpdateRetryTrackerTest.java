@@ -0,0 +1,77 @@
+package fi.otavanopisto.kuntaapi.test.server.discover;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import fi.otavanopisto.kuntaapi.server.discover.UpdateRetryTracker;
+
+/**
+ * Tests for tracking retries of failed update items
+ * 
+ * @author Antti Leppä
+ */
+public class UpdateRetryTrackerTest {
+  
+  private static final long BASE_DELAY = 1000L;
+  private static final long MAX_DELAY = 5000L;
+  private static final int MAX_RETRIES = 5;
+  
+  @Test
+  public void testDelayDoublesUpToMaximum() {
+    UpdateRetryTracker tracker = new UpdateRetryTracker(100);
+    
+    assertEquals(1000L, tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES));
+    assertEquals(2000L, tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES));
+    assertEquals(4000L, tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES));
+    assertEquals(5000L, tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES));
+  }
+  
+  @Test
+  public void testSuccessResetsFailures() {
+    UpdateRetryTracker tracker = new UpdateRetryTracker(100);
+    
+    tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES);
+    tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES);
+    tracker.recordSuccess("updater", "item");
+    
+    assertEquals(0, tracker.size());
+    assertEquals(1000L, tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES));
+  }
+  
+  @Test
+  public void testFailuresAreCountedPerUpdater() {
+    UpdateRetryTracker tracker = new UpdateRetryTracker(100);
+    
+    tracker.recordFailure("first", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES);
+    tracker.recordFailure("first", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES);
+    
+    assertEquals(1000L, tracker.recordFailure("second", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES));
+    assertEquals(2, tracker.size());
+  }
+  
+  @Test
+  public void testItemIsDroppedAfterMaxRetries() {
+    UpdateRetryTracker tracker = new UpdateRetryTracker(100);
+    
+    for (int i = 0; i < MAX_RETRIES; i++) {
+      tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES);
+    }
+    
+    assertEquals(-1L, tracker.recordFailure("updater", "item", BASE_DELAY, MAX_DELAY, MAX_RETRIES));
+    assertEquals(0, tracker.size());
+  }
+  
+  @Test
+  public void testTrackedItemsAreBounded() {
+    UpdateRetryTracker tracker = new UpdateRetryTracker(10);
+    
+    for (int i = 0; i < 100; i++) {
+      tracker.recordFailure("updater", i, BASE_DELAY, MAX_DELAY, MAX_RETRIES);
+    }
+    
+    assertEquals(10, tracker.size());
+    assertEquals(1000L, tracker.recordFailure("updater", 0, BASE_DELAY, MAX_DELAY, MAX_RETRIES));
+  }
+  
+}
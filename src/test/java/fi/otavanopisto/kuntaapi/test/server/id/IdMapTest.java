@@ -0,0 +1,176 @@
+package fi.otavanopisto.kuntaapi.test.server.id;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import fi.otavanopisto.kuntaapi.server.id.IdMap;
+import fi.otavanopisto.kuntaapi.server.id.IdMapping;
+import fi.otavanopisto.kuntaapi.server.id.IdType;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+
+/**
+ * Tests that mappings of identifiers created within a transaction are added only when the transaction commits
+ * 
+ * @author Antti Leppä
+ */
+public class IdMapTest {
+  
+  private static final String SOURCE = "TEST";
+  
+  private IdMap idMap;
+  private TestTransactionSynchronizationRegistry registry;
+  
+  @Before
+  public void createIdMap() throws IllegalAccessException {
+    idMap = new IdMap();
+    registry = new TestTransactionSynchronizationRegistry();
+    FieldUtils.writeField(idMap, "transactionSynchronizationRegistry", registry, true);
+  }
+  
+  @Test
+  public void testAddedWithoutTransaction() {
+    IdMapping mapping = createMapping();
+    
+    idMap.addOnCommit(mapping);
+    
+    assertFound(mapping);
+  }
+  
+  @Test
+  public void testAddedOnCommit() {
+    IdMapping mapping = createMapping();
+    
+    registry.begin();
+    idMap.addOnCommit(mapping);
+    idMap.add(mapping);
+    assertNotFound(mapping);
+    
+    registry.complete(Status.STATUS_COMMITTED);
+    assertFound(mapping);
+  }
+  
+  @Test
+  public void testNotAddedOnRollback() {
+    IdMapping mapping = createMapping();
+    
+    registry.begin();
+    idMap.addOnCommit(mapping);
+    idMap.add(mapping);
+    
+    registry.complete(Status.STATUS_ROLLEDBACK);
+    assertNotFound(mapping);
+  }
+  
+  @Test
+  public void testCommittedMappingAddedWithinTransaction() {
+    IdMapping pending = createMapping();
+    IdMapping committed = createMapping();
+    
+    registry.begin();
+    idMap.addOnCommit(pending);
+    idMap.add(committed);
+    assertFound(committed);
+    
+    registry.complete(Status.STATUS_ROLLEDBACK);
+    assertFound(committed);
+    assertNotFound(pending);
+  }
+  
+  private IdMapping createMapping() {
+    return new IdMapping(IdType.PAGE.toString(), SOURCE, UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString());
+  }
+  
+  private void assertFound(IdMapping mapping) {
+    assertTrue(idMap.containsKuntaApiId(mapping.getKuntaApiId()));
+    assertEquals(mapping, idMap.findBySourceId(mapping.getType(), mapping.getSource(), mapping.getSourceId(), mapping.getOrganizationKuntaApiId()));
+    assertEquals(mapping, idMap.findByKuntaApiId(mapping.getType(), mapping.getSource(), mapping.getKuntaApiId()));
+  }
+  
+  private void assertNotFound(IdMapping mapping) {
+    assertFalse(idMap.containsKuntaApiId(mapping.getKuntaApiId()));
+    assertNull(idMap.findBySourceId(mapping.getType(), mapping.getSource(), mapping.getSourceId(), mapping.getOrganizationKuntaApiId()));
+    assertNull(idMap.findByKuntaApiId(mapping.getType(), mapping.getSource(), mapping.getKuntaApiId()));
+  }
+  
+  /**
+   * Transaction synchronization registry of a single, manually completed transaction
+   */
+  private static class TestTransactionSynchronizationRegistry implements TransactionSynchronizationRegistry {
+    
+    private Object transactionKey;
+    private Map<Object, Object> resources = new HashMap<>();
+    private List<Synchronization> synchronizations = new ArrayList<>();
+    
+    public void begin() {
+      transactionKey = new Object();
+    }
+    
+    public void complete(int status) {
+      for (Synchronization synchronization : synchronizations) {
+        synchronization.beforeCompletion();
+      }
+      
+      transactionKey = null;
+      
+      for (Synchronization synchronization : synchronizations) {
+        synchronization.afterCompletion(status);
+      }
+      
+      resources.clear();
+      synchronizations.clear();
+    }
+    
+    @Override
+    public Object getTransactionKey() {
+      return transactionKey;
+    }
+
+    @Override
+    public void putResource(Object key, Object value) {
+      resources.put(key, value);
+    }
+
+    @Override
+    public Object getResource(Object key) {
+      return resources.get(key);
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization sync) {
+      synchronizations.add(sync);
+    }
+
+    @Override
+    public int getTransactionStatus() {
+      return transactionKey != null ? Status.STATUS_ACTIVE : Status.STATUS_NO_TRANSACTION;
+    }
+
+    @Override
+    public void setRollbackOnly() {
+      // Transactions are completed explicitly by the tests
+    }
+
+    @Override
+    public boolean getRollbackOnly() {
+      return false;
+    }
+    
+  }
+  
+}
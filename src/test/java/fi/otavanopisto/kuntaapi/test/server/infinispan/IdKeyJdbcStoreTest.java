@@ -0,0 +1,128 @@
+package fi.otavanopisto.kuntaapi.test.server.infinispan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.junit.Test;
+
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.id.PageId;
+import fi.otavanopisto.kuntaapi.server.infinispan.IdKey2StringMapper;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+
+/**
+ * Tests id key mapper against string keyed JDBC store
+ *
+ * @author Antti Leppä
+ */
+public class IdKeyJdbcStoreTest {
+
+  private static final String CACHE_NAME = "IDKEYS";
+  private static final String TABLE_NAME = "ISPN_STRING_" + CACHE_NAME;
+  private static final String ID_COLUMN = "ID_COLUMN";
+  private static final String USERNAME = "sa";
+
+  @Test
+  public void testStoredKeys() throws SQLException {
+    String connectionUrl = String.format("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1", UUID.randomUUID().toString());
+    OrganizationId organizationId = new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    PageId pageId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    PageId removedId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    String legacyKey = String.format("%s:%s@%s:%s", PageId.class.getSimpleName(), pageId.getId(), OrganizationId.class.getSimpleName(), organizationId.getId());
+    String removedLegacyKey = String.format("%s:%s@%s:%s", PageId.class.getSimpleName(), removedId.getId(), OrganizationId.class.getSimpleName(), organizationId.getId());
+
+    DefaultCacheManager cacheManager = createCacheManager(connectionUrl);
+    try {
+      Cache<PageId, String> cache = cacheManager.getCache(CACHE_NAME);
+      cache.put(pageId, "first");
+      cache.put(pageId, "second");
+      cache.put(removedId, "removed");
+      assertEquals(2, listStoredKeys(connectionUrl).size());
+
+      cache.remove(removedId);
+
+      List<String> storedKeys = listStoredKeys(connectionUrl);
+      assertEquals(1, storedKeys.size());
+      assertEquals(legacyKey, storedKeys.get(0));
+    } finally {
+      cacheManager.stop();
+    }
+
+    cacheManager = createCacheManager(connectionUrl);
+    try {
+      Cache<PageId, String> cache = cacheManager.getCache(CACHE_NAME);
+      assertEquals(1, cache.getAdvancedCache().getDataContainer().size());
+      assertEquals("second", cache.get(pageId));
+      assertNull(cache.get(removedId));
+
+      cache.put(pageId, "third");
+
+      List<String> storedKeys = listStoredKeys(connectionUrl);
+      assertEquals(1, storedKeys.size());
+      assertEquals(legacyKey, storedKeys.get(0));
+      assertFalse(storedKeys.contains(removedLegacyKey));
+    } finally {
+      cacheManager.stop();
+    }
+  }
+
+  private DefaultCacheManager createCacheManager(String connectionUrl) {
+    GlobalConfigurationBuilder globalConfiguration = new GlobalConfigurationBuilder();
+    globalConfiguration.globalJmxStatistics().allowDuplicateDomains(true);
+
+    ConfigurationBuilder configuration = new ConfigurationBuilder();
+    configuration.persistence()
+      .addStore(JdbcStringBasedStoreConfigurationBuilder.class)
+        .preload(true)
+        .key2StringMapper(IdKey2StringMapper.class)
+        .table()
+          .createOnStart(true)
+          .tableNamePrefix("ISPN_STRING")
+          .idColumnName(ID_COLUMN)
+          .idColumnType("VARCHAR(255)")
+          .dataColumnName("DATA_COLUMN")
+          .dataColumnType("BINARY")
+          .timestampColumnName("TIMESTAMP_COLUMN")
+          .timestampColumnType("BIGINT")
+        .simpleConnection()
+          .connectionUrl(connectionUrl)
+          .driverClass("org.h2.Driver")
+          .username(USERNAME);
+
+    DefaultCacheManager cacheManager = new DefaultCacheManager(globalConfiguration.build(), configuration.build());
+    cacheManager.defineConfiguration(CACHE_NAME, configuration.build());
+    return cacheManager;
+  }
+
+  private List<String> listStoredKeys(String connectionUrl) throws SQLException {
+    List<String> result = new ArrayList<>();
+
+    try (Connection connection = DriverManager.getConnection(connectionUrl, USERNAME, "")) {
+      try (PreparedStatement statement = connection.prepareStatement(String.format("SELECT %s FROM %s", ID_COLUMN, TABLE_NAME))) {
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            result.add(resultSet.getString(1));
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+}
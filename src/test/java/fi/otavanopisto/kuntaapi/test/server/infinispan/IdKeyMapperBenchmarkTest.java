@@ -0,0 +1,196 @@
+package fi.otavanopisto.kuntaapi.test.server.infinispan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import fi.otavanopisto.kuntaapi.server.id.BaseId;
+import fi.otavanopisto.kuntaapi.server.id.IdPair;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationBaseId;
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.id.PageId;
+import fi.otavanopisto.kuntaapi.server.id.ServiceId;
+import fi.otavanopisto.kuntaapi.server.infinispan.IdKey2StringMapper;
+import fi.otavanopisto.kuntaapi.server.infinispan.IdPairKey2StringMapper;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+
+/**
+ * Tests id key mappers and benchmarks compact and legacy key parsing against the reflective legacy parser. 
+ * 
+ * Benchmark asserts only a loose bound, that key mappers parse keys faster than the reflective parser, 
+ * because exact wall-clock ratios are not reliable on shared build machines.
+ * 
+ * @author Antti Leppä
+ */
+public class IdKeyMapperBenchmarkTest {
+  
+  private static final Logger logger = Logger.getLogger(IdKeyMapperBenchmarkTest.class.getName());
+  
+  private static final int KEY_COUNT = 1000;
+  private static final int WARMUP_ROUNDS = 50;
+  private static final int MEASURED_ROUNDS = 200;
+  
+  @Test
+  public void testRoundTrip() {
+    IdKey2StringMapper mapper = new IdKey2StringMapper(true);
+    OrganizationId organizationId = new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    PageId pageId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    ServiceId serviceId = new ServiceId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    
+    assertIdEquals(pageId, mapper.getKeyMapping(mapper.getStringMapping(pageId)));
+    assertIdEquals(serviceId, mapper.getKeyMapping(mapper.getStringMapping(serviceId)));
+    assertIdEquals(organizationId, mapper.getKeyMapping(mapper.getStringMapping(organizationId)));
+    assertTrue(mapper.getStringMapping(pageId).length() < legacyStringify(pageId).length());
+  }
+  
+  @Test
+  public void testDefaultMapperWritesLegacyKeys() {
+    IdKey2StringMapper mapper = new IdKey2StringMapper();
+    IdPairKey2StringMapper pairMapper = new IdPairKey2StringMapper();
+    OrganizationId organizationId = new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    PageId parentId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    PageId childId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    ServiceId serviceId = new ServiceId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    
+    assertEquals(legacyStringify(parentId), mapper.getStringMapping(parentId));
+    assertEquals(legacyStringify(serviceId), mapper.getStringMapping(serviceId));
+    assertEquals(String.format("%s>%s", legacyStringify(parentId), legacyStringify(childId)), pairMapper.getStringMapping(new IdPair<>(parentId, childId)));
+  }
+  
+  @Test
+  public void testLegacyKeysReadable() {
+    IdKey2StringMapper mapper = new IdKey2StringMapper();
+    IdPairKey2StringMapper pairMapper = new IdPairKey2StringMapper(true);
+    OrganizationId organizationId = new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    PageId parentId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    PageId childId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+    ServiceId serviceId = new ServiceId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+
+    assertIdEquals(parentId, mapper.getKeyMapping(legacyStringify(parentId)));
+    assertIdEquals(serviceId, mapper.getKeyMapping(legacyStringify(serviceId)));
+    
+    IdPair<?, ?> pair = (IdPair<?, ?>) pairMapper.getKeyMapping(String.format("%s>%s", legacyStringify(parentId), legacyStringify(childId)));
+    assertIdEquals(parentId, pair.getParent());
+    assertIdEquals(childId, pair.getChild());
+    
+    IdPair<PageId, PageId> compactPair = new IdPair<>(parentId, childId);
+    IdPair<?, ?> parsedPair = (IdPair<?, ?>) pairMapper.getKeyMapping(pairMapper.getStringMapping(compactPair));
+    assertIdEquals(parentId, parsedPair.getParent());
+    assertIdEquals(childId, parsedPair.getChild());
+  }
+  
+  @Test
+  public void benchmarkParsing() throws ReflectiveOperationException {
+    IdKey2StringMapper mapper = new IdKey2StringMapper(true);
+    List<String> compactKeys = new ArrayList<>(KEY_COUNT);
+    List<String> legacyKeys = new ArrayList<>(KEY_COUNT);
+    
+    for (int i = 0; i < KEY_COUNT; i++) {
+      OrganizationId organizationId = new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+      PageId pageId = new PageId(organizationId, KuntaApiConsts.IDENTIFIER_NAME, UUID.randomUUID().toString());
+      compactKeys.add(mapper.getStringMapping(pageId));
+      legacyKeys.add(legacyStringify(pageId));
+    }
+    
+    for (int i = 0; i < KEY_COUNT; i++) {
+      BaseId reflectiveId = parseReflective(legacyKeys.get(i));
+      assertIdEquals(reflectiveId, mapper.getKeyMapping(compactKeys.get(i)));
+      assertIdEquals(reflectiveId, mapper.getKeyMapping(legacyKeys.get(i)));
+    }
+    
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      parseCompact(mapper, compactKeys);
+      parseCompact(mapper, legacyKeys);
+      parseReflective(legacyKeys);
+    }
+    
+    long compactStart = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      parseCompact(mapper, compactKeys);
+    }
+    long compactTime = System.nanoTime() - compactStart;
+    
+    long legacyStart = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      parseCompact(mapper, legacyKeys);
+    }
+    long legacyTime = System.nanoTime() - legacyStart;
+    
+    long reflectiveStart = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      parseReflective(legacyKeys);
+    }
+    long reflectiveTime = System.nanoTime() - reflectiveStart;
+    
+    long operations = (long) KEY_COUNT * MEASURED_ROUNDS;
+    logger.info(String.format("Compact key parsing %d ns/op, legacy key parsing %d ns/op, reflective legacy parsing %d ns/op", 
+        compactTime / operations, legacyTime / operations, reflectiveTime / operations));
+    
+    assertTrue(String.format("Compact key parsing took %d ns, reflective parsing %d ns", compactTime, reflectiveTime), compactTime < reflectiveTime);
+    assertTrue(String.format("Legacy key parsing took %d ns, reflective parsing %d ns", legacyTime, reflectiveTime), legacyTime < reflectiveTime);
+  }
+  
+  private int parseCompact(IdKey2StringMapper mapper, List<String> keys) {
+    int result = 0;
+    for (String key : keys) {
+      result += mapper.getKeyMapping(key).hashCode();
+    }
+    
+    return result;
+  }
+
+  private int parseReflective(List<String> keys) throws ReflectiveOperationException {
+    int result = 0;
+    for (String key : keys) {
+      result += parseReflective(key).hashCode();
+    }
+    
+    return result;
+  }
+  
+  /**
+   * Parses key in legacy form the way key mappers did before type registry was introduced
+   */
+  private BaseId parseReflective(String key) throws ReflectiveOperationException {
+    String[] compositeParts = StringUtils.split(key, '@');
+    if (compositeParts.length == 2) {
+      OrganizationBaseId id = (OrganizationBaseId) parseReflective(compositeParts[0]);
+      id.setOrganizationId((OrganizationId) parseReflective(compositeParts[1]));
+      return id;
+    }
+    
+    String[] idParts = StringUtils.split(compositeParts[0], ':');
+    BaseId result = (BaseId) Class.forName(String.format("%s.%s", BaseId.class.getPackage().getName(), idParts[0])).newInstance();
+    result.setId(idParts[1]);
+    result.setSource(KuntaApiConsts.IDENTIFIER_NAME);
+    return result;
+  }
+  
+  private String legacyStringify(BaseId id) {
+    String result = String.format("%s:%s", id.getClass().getSimpleName(), id.getId());
+    if (id instanceof OrganizationBaseId) {
+      OrganizationId organizationId = ((OrganizationBaseId) id).getOrganizationId();
+      return String.format("%s@%s:%s", result, organizationId.getClass().getSimpleName(), organizationId.getId());
+    }
+    
+    return result;
+  }
+  
+  private void assertIdEquals(BaseId expected, Object actual) {
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getSource(), ((BaseId) actual).getSource());
+    assertEquals(expected.getId(), ((BaseId) actual).getId());
+    
+    if (expected instanceof OrganizationBaseId) {
+      assertEquals(((OrganizationBaseId) expected).getOrganizationId().getId(), ((OrganizationBaseId) actual).getOrganizationId().getId());
+    }
+  }
+  
+}
@@ -3,7 +3,11 @@ package fi.otavanopisto.kuntaapi.test.server.integration.kuntarekry;
 import static com.jayway.restassured.RestAssured.given;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.time.ZoneId;
 
@@ -23,6 +27,7 @@ import fi.otavanopisto.kuntaapi.test.AbstractIntegrationTest;
 public class KuntaRekryTestsIT extends AbstractIntegrationTest {
   
   private static final ZoneId TIMEZONE_ID = ZoneId.of("Europe/Helsinki");
+  private static final String FEED_ETAG = "\"kuntarekry-feed-1\"";
   
   /**
    * Starts WireMock
@@ -171,6 +176,25 @@ public class KuntaRekryTestsIT extends AbstractIntegrationTest {
   }
 
   
+  @Test
+  public void testNotModifiedFeedKeepsJobs() throws InterruptedException {
+    String organizationId = getOrganizationId(0);
+    
+    getKuntarekryMocker().mockRevalidatedKuntaRekryFeed("/kuntarekry", "kuntarekry/feed.xml", FEED_ETAG);
+    
+    long timeout = System.currentTimeMillis() + (120 * 1000);
+    while (wireMockRule.findAll(getRequestedFor(urlPathEqualTo("/kuntarekry")).withHeader("If-None-Match", equalTo(FEED_ETAG))).size() < 2) {
+      if (System.currentTimeMillis() > timeout) {
+        fail("Timeout waiting for Kuntarekry feed to be revalidated");
+      }
+      
+      Thread.sleep(1000);
+    }
+    
+    assertEquals(3, countApiList(String.format("/organizations/%s/jobs", organizationId)));
+    assertFound(String.format("/organizations/%s/jobs/%s", organizationId, getOrganizationJobId(organizationId, 0)));
+  }
+  
   private void createPtvSettings() {
     insertSystemSetting(PtvConsts.SYSTEM_SETTING_BASEURL, String.format("%s%s", getWireMockBasePath(), BASE_URL));
     flushCache();
@@ -0,0 +1,150 @@
+package fi.otavanopisto.kuntaapi.test.server.integrations.management;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.jayway.restassured.RestAssured.given;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.jayway.restassured.http.ContentType;
+
+import fi.otavanopisto.kuntaapi.server.integrations.management.ManagementConsts;
+import fi.otavanopisto.kuntaapi.server.integrations.ptv.PtvConsts;
+import fi.otavanopisto.kuntaapi.test.AbstractIntegrationTest;
+import fi.otavanopisto.kuntaapi.test.ManagementMocker;
+
+/**
+ * Tests for incremental discovery of management service pages
+ * 
+ * @author Antti Leppä
+ */
+public class ManagementDiscoveryTestsIT extends AbstractIntegrationTest {
+  
+  private static final LocalDateTime MODIFIED = LocalDateTime.of(2017, 3, 1, 12, 0, 30);
+  private static final String FIRST_PAGE_SLUG = "first-page";
+  private static final String SECOND_PAGE_SLUG = "second-page";
+  private static final long WAIT_TIMEOUT = 120 * 1000l;
+
+  /**
+   * Starts WireMock
+   */
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(getWireMockPort());
+  
+  private ManagementMocker managementMocker;
+
+  @Before
+  public void beforeTest() throws InterruptedException {
+    insertSystemSetting(PtvConsts.SYSTEM_SETTING_BASEURL, String.format("%s%s", getWireMockBasePath(), BASE_URL));
+    
+    getPtvMocker()
+      .mockOrganizations("0de268cf-1ea1-4719-8a6e-1150933b6b9e")
+      .startMock();
+    
+    waitApiListCount("/organizations", 1);
+    
+    managementMocker = new ManagementMocker()
+      .mockPage(1, FIRST_PAGE_SLUG, "First page", MODIFIED.minusDays(1), 0)
+      .mockPage(2, SECOND_PAGE_SLUG, "Second page", MODIFIED, 0);
+    managementMocker.startMock();
+    
+    String organizationId = getOrganizationId(0);
+    insertOrganizationSetting(organizationId, ManagementConsts.ORGANIZATION_SETTING_BASEURL, String.format("%s%s", getWireMockBasePath(), ManagementMocker.BASE_PATH));
+    
+    waitPageTitle(organizationId, FIRST_PAGE_SLUG, "First page");
+    waitPageTitle(organizationId, SECOND_PAGE_SLUG, "Second page");
+  }
+
+  @After
+  public void afterTest() {
+    deleteOrganizationSetting(getOrganizationId(0), ManagementConsts.ORGANIZATION_SETTING_BASEURL);
+    managementMocker.endMock();
+    getPtvMocker().endMock();
+    deleteSystemSetting(PtvConsts.SYSTEM_SETTING_BASEURL);
+  }
+  
+  /**
+   * Tests that pages are listed incrementally in modification order between full listings
+   */
+  @Test
+  public void testIncrementalListing() throws InterruptedException {
+    List<LoggedRequest> incrementalRequests = waitRequests(getRequestedFor(urlPathEqualTo(ManagementMocker.PAGES_PATH))
+      .withQueryParam("orderby", equalTo("modified")), 3);
+    
+    for (LoggedRequest incrementalRequest : incrementalRequests) {
+      assertTrue(incrementalRequest.getUrl().contains("order=desc"));
+      assertTrue(incrementalRequest.getUrl().contains("page=1"));
+    }
+    
+    List<LoggedRequest> fullRequests = wireMockRule.findAll(getRequestedFor(urlPathEqualTo(ManagementMocker.PAGES_PATH))
+      .withQueryParam("orderby", equalTo("id")));
+    
+    assertTrue(String.format("Pages were fully listed %d times", fullRequests.size()), fullRequests.size() <= 1);
+  }
+  
+  /**
+   * Tests that a page modified within the same second as the watermark is listed again
+   */
+  @Test
+  public void testPageModifiedAtWatermarkIsRelisted() throws InterruptedException {
+    String organizationId = getOrganizationId(0);
+    String revisedTitle = "Second page, revised";
+    
+    managementMocker.changePageTitle(2, revisedTitle);
+    waitPageTitle(organizationId, SECOND_PAGE_SLUG, revisedTitle);
+    
+    assertEquals("First page", getPageTitle(organizationId, FIRST_PAGE_SLUG));
+  }
+  
+  private void waitPageTitle(String organizationId, String slug, String title) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + WAIT_TIMEOUT;
+    while (!StringUtils.equals(title, getPageTitle(organizationId, slug))) {
+      if (System.currentTimeMillis() > timeout) {
+        fail(String.format("Timeout waiting for page %s to have title %s", slug, title));
+      }
+      
+      Thread.sleep(1000);
+    }
+  }
+  
+  private String getPageTitle(String organizationId, String slug) {
+    return given() 
+      .baseUri(getApiBasePath())
+      .contentType(ContentType.JSON)
+      .get("/organizations/{organizationId}/pages", organizationId)
+      .body()
+      .jsonPath()
+      .getString(String.format("find { it.slug == '%s' }.titles[0].value", slug));
+  }
+  
+  private List<LoggedRequest> waitRequests(RequestPatternBuilder requestPattern, int count) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + WAIT_TIMEOUT;
+    while (true) {
+      List<LoggedRequest> requests = wireMockRule.findAll(requestPattern);
+      if (requests.size() >= count) {
+        return requests;
+      }
+      
+      if (System.currentTimeMillis() > timeout) {
+        fail(String.format("Timeout waiting for %d requests, received %d", count, requests.size()));
+      }
+      
+      Thread.sleep(1000);
+    }
+  }
+  
+}
@@ -0,0 +1,113 @@
+package fi.otavanopisto.kuntaapi.test.server.integrations.management;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fi.otavanopisto.kuntaapi.server.id.OrganizationId;
+import fi.otavanopisto.kuntaapi.server.id.PageId;
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.integrations.management.ManagementConsts;
+import fi.otavanopisto.kuntaapi.server.integrations.management.ManagementListIngest;
+import fi.otavanopisto.mwp.client.model.Page;
+import fi.otavanopisto.mwp.client.model.Post;
+
+/**
+ * Tests handing listed payloads from id updaters to entity updaters
+ * 
+ * @author Antti Leppä
+ */
+public class ManagementListIngestTest {
+  
+  private static final OrganizationId ORGANIZATION_ID = new OrganizationId(KuntaApiConsts.IDENTIFIER_NAME, "organization");
+  private static final int LARGE_CONTENT_LENGTH = 1024 * 1024;
+  private static final int LARGE_PAGE_COUNT = 20;
+  
+  @Test
+  public void testPayloadTakenOnce() throws IOException {
+    ManagementListIngest listIngest = new ManagementListIngest();
+    PageId pageId = createPageId(1);
+    Page page = createPage(1, "Contents");
+    
+    listIngest.offer(pageId, page);
+    
+    assertNull(listIngest.take(pageId, Post.class));
+    assertNull(listIngest.take(createPageId(2), Page.class));
+    
+    listIngest.offer(pageId, page);
+    assertEquals(page, listIngest.take(pageId, Page.class));
+    assertNull(listIngest.take(pageId, Page.class));
+  }
+  
+  @Test
+  public void testDiscardedPayloadNotTaken() throws IOException {
+    ManagementListIngest listIngest = new ManagementListIngest();
+    PageId pageId = createPageId(1);
+    
+    listIngest.offer(pageId, createPage(1, "Contents"));
+    listIngest.discard(pageId);
+    
+    assertNull(listIngest.take(pageId, Page.class));
+  }
+  
+  @Test
+  public void testPayloadsBoundedBySize() throws IOException {
+    ManagementListIngest listIngest = new ManagementListIngest();
+    String content = StringUtils.repeat('x', LARGE_CONTENT_LENGTH);
+    
+    for (int i = 0; i < LARGE_PAGE_COUNT; i++) {
+      listIngest.offer(createPageId(i), createPage(i, content));
+    }
+    
+    int accepted = 0;
+    for (int i = 0; i < LARGE_PAGE_COUNT; i++) {
+      if (listIngest.take(createPageId(i), Page.class) != null) {
+        accepted++;
+      }
+    }
+    
+    assertTrue(String.format("%d large payloads were accepted", accepted), accepted > 0 && accepted < LARGE_PAGE_COUNT);
+    
+    listIngest.offer(createPageId(LARGE_PAGE_COUNT), createPage(LARGE_PAGE_COUNT, content));
+    assertNotNull(listIngest.take(createPageId(LARGE_PAGE_COUNT), Page.class));
+  }
+  
+  @Test
+  public void testReplacedPayloadReleasesSize() throws IOException {
+    ManagementListIngest listIngest = new ManagementListIngest();
+    String content = StringUtils.repeat('x', LARGE_CONTENT_LENGTH);
+    PageId pageId = createPageId(1);
+    
+    for (int i = 0; i < LARGE_PAGE_COUNT; i++) {
+      listIngest.offer(pageId, createPage(1, content));
+    }
+    
+    assertNotNull(listIngest.take(pageId, Page.class));
+  }
+  
+  private PageId createPageId(int id) {
+    return new PageId(ORGANIZATION_ID, ManagementConsts.IDENTIFIER_NAME, String.valueOf(id));
+  }
+  
+  private Page createPage(int id, String content) throws IOException {
+    Map<String, Object> page = new LinkedHashMap<>();
+    page.put("id", id);
+    page.put("title", Collections.singletonMap("rendered", String.format("Page %d", id)));
+    page.put("content", Collections.singletonMap("rendered", content));
+    
+    ObjectMapper objectMapper = new ObjectMapper();
+    return objectMapper.readValue(objectMapper.writeValueAsBytes(page), Page.class);
+  }
+  
+}
@@ -0,0 +1,138 @@
+package fi.otavanopisto.kuntaapi.test.server.integrations.management;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.jayway.restassured.RestAssured.given;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDateTime;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.jayway.restassured.http.ContentType;
+
+import fi.otavanopisto.kuntaapi.server.integrations.KuntaApiConsts;
+import fi.otavanopisto.kuntaapi.server.integrations.management.ManagementConsts;
+import fi.otavanopisto.kuntaapi.server.integrations.ptv.PtvConsts;
+import fi.otavanopisto.kuntaapi.test.AbstractIntegrationTest;
+import fi.otavanopisto.kuntaapi.test.ManagementMocker;
+
+/**
+ * Tests retrying of management pages that fail to update. 
+ * 
+ * Test uses an organization of its own, so that discovery watermarks of other tests do not affect it
+ * 
+ * @author Antti Leppä
+ */
+public class ManagementPageRetryTestsIT extends AbstractIntegrationTest {
+  
+  private static final String ORGANIZATION_NAME = "Kokemäki";
+  private static final String UPDATER_NAME = "management-pages";
+  private static final int VALID_PAGE_ID = 10;
+  private static final int BROKEN_PAGE_ID = 11;
+  private static final String VALID_PAGE_SLUG = "valid-page";
+  private static final String BROKEN_PAGE_SLUG = "broken-page";
+  private static final int MAX_RETRIES = 2;
+  private static final long WAIT_TIMEOUT = 120 * 1000l;
+
+  /**
+   * Starts WireMock
+   */
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(getWireMockPort());
+  
+  private ManagementMocker managementMocker;
+
+  @Before
+  public void beforeTest() throws InterruptedException {
+    insertSystemSetting(PtvConsts.SYSTEM_SETTING_BASEURL, String.format("%s%s", getWireMockBasePath(), BASE_URL));
+    insertSystemSetting(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_BATCH_SIZE, UPDATER_NAME), "10");
+    insertSystemSetting(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_RETRY_DELAY, UPDATER_NAME), "1000");
+    insertSystemSetting(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_MAX_RETRIES, UPDATER_NAME), String.valueOf(MAX_RETRIES));
+    
+    getPtvMocker()
+      .mockOrganizations("0de268cf-1ea1-4719-8a6e-1150933b6b9e", "0f112910-08ca-4942-8c80-476cb710ee1d")
+      .startMock();
+    
+    waitApiListCount("/organizations", 2);
+    
+    managementMocker = new ManagementMocker()
+      .mockPage(VALID_PAGE_ID, VALID_PAGE_SLUG, "Valid page", LocalDateTime.of(2017, 5, 1, 12, 0), 0)
+      .mockPage(BROKEN_PAGE_ID, BROKEN_PAGE_SLUG, "Broken page", LocalDateTime.of(2017, 4, 1, 12, 0), 0)
+      .removePageContent(BROKEN_PAGE_ID);
+    managementMocker.startMock();
+    
+    insertOrganizationSetting(getOrganizationId(), ManagementConsts.ORGANIZATION_SETTING_BASEURL, String.format("%s%s", getWireMockBasePath(), ManagementMocker.BASE_PATH));
+  }
+
+  @After
+  public void afterTest() {
+    deleteOrganizationSetting(getOrganizationId(), ManagementConsts.ORGANIZATION_SETTING_BASEURL);
+    managementMocker.endMock();
+    getPtvMocker().endMock();
+    deleteSystemSetting(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_MAX_RETRIES, UPDATER_NAME));
+    deleteSystemSetting(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_RETRY_DELAY, UPDATER_NAME));
+    deleteSystemSetting(String.format(KuntaApiConsts.SYSTEM_SETTING_UPDATER_BATCH_SIZE, UPDATER_NAME));
+    deleteSystemSetting(PtvConsts.SYSTEM_SETTING_BASEURL);
+  }
+  
+  /**
+   * Tests that a failing page does not prevent updating other pages of the batch, and that 
+   * it is refetched until max retries are exceeded
+   */
+  @Test
+  public void testFailingPageRetriedUntilMaxRetries() throws InterruptedException {
+    String organizationId = getOrganizationId();
+    String brokenPagePath = String.format("%s/%d", ManagementMocker.PAGES_PATH, BROKEN_PAGE_ID);
+    
+    long timeout = System.currentTimeMillis() + WAIT_TIMEOUT;
+    while (getPageId(organizationId, VALID_PAGE_SLUG) == null || countRequests(brokenPagePath) < MAX_RETRIES) {
+      if (System.currentTimeMillis() > timeout) {
+        fail("Timeout waiting for broken page to be retried");
+      }
+      
+      Thread.sleep(1000);
+    }
+    
+    // Retries are delayed by 1 and 2 seconds, so all of them are done well within the wait
+    Thread.sleep(10000);
+    int retryRequests = countRequests(brokenPagePath);
+    assertTrue(String.format("Broken page was requested %d times", retryRequests), retryRequests <= MAX_RETRIES + 1);
+    
+    Thread.sleep(5000);
+    assertEquals(retryRequests, countRequests(brokenPagePath));
+    assertNull(getPageId(organizationId, BROKEN_PAGE_SLUG));
+  }
+  
+  private int countRequests(String path) {
+    return wireMockRule.findAll(getRequestedFor(urlPathEqualTo(path))).size();
+  }
+  
+  private String getOrganizationId() {
+    return given() 
+      .baseUri(getApiBasePath())
+      .contentType(ContentType.JSON)
+      .get("/organizations")
+      .body()
+      .jsonPath()
+      .getString(String.format("find { it.businessName == '%s' }.id", ORGANIZATION_NAME));
+  }
+  
+  private String getPageId(String organizationId, String slug) {
+    return given() 
+      .baseUri(getApiBasePath())
+      .contentType(ContentType.JSON)
+      .get("/organizations/{organizationId}/pages", organizationId)
+      .body()
+      .jsonPath()
+      .getString(String.format("find { it.slug == '%s' }.id", slug));
+  }
+  
+}
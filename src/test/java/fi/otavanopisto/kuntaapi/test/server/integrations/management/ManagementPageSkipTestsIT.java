@@ -0,0 +1,131 @@
+package fi.otavanopisto.kuntaapi.test.server.integrations.management;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.jayway.restassured.RestAssured.given;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDateTime;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.jayway.restassured.http.ContentType;
+
+import fi.otavanopisto.kuntaapi.server.integrations.management.ManagementConsts;
+import fi.otavanopisto.kuntaapi.server.integrations.ptv.PtvConsts;
+import fi.otavanopisto.kuntaapi.test.AbstractIntegrationTest;
+import fi.otavanopisto.kuntaapi.test.ManagementMocker;
+
+/**
+ * Tests that management page updater skips unmodified pages
+ * 
+ * @author Antti Leppä
+ */
+public class ManagementPageSkipTestsIT extends AbstractIntegrationTest {
+  
+  private static final int PAGE_ID = 3;
+  private static final int MEDIA_ID = 55;
+  private static final String PAGE_SLUG = "page-with-image";
+  private static final String UPDATER_NAME = "management-pages";
+  private static final long WAIT_TIMEOUT = 120 * 1000l;
+
+  /**
+   * Starts WireMock
+   */
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(getWireMockPort());
+  
+  private ManagementMocker managementMocker;
+
+  @Before
+  public void beforeTest() throws InterruptedException {
+    insertSystemSetting(PtvConsts.SYSTEM_SETTING_BASEURL, String.format("%s%s", getWireMockBasePath(), BASE_URL));
+    insertSystemSetting(ManagementConsts.SYSTEM_SETTING_FULL_DISCOVERY_INTERVAL, "0");
+    
+    getPtvMocker()
+      .mockOrganizations("0de268cf-1ea1-4719-8a6e-1150933b6b9e")
+      .startMock();
+    
+    waitApiListCount("/organizations", 1);
+    
+    managementMocker = new ManagementMocker()
+      .mockPage(PAGE_ID, PAGE_SLUG, "Page with image", LocalDateTime.of(2017, 2, 1, 12, 0), MEDIA_ID)
+      .mockMedia(MEDIA_ID, getWireMockBasePath(), "/uploads/test.jpg", "image/jpeg", "test-image-1000.jpg");
+    managementMocker.startMock();
+    
+    insertOrganizationSetting(getOrganizationId(0), ManagementConsts.ORGANIZATION_SETTING_BASEURL, String.format("%s%s", getWireMockBasePath(), ManagementMocker.BASE_PATH));
+  }
+
+  @After
+  public void afterTest() {
+    deleteOrganizationSetting(getOrganizationId(0), ManagementConsts.ORGANIZATION_SETTING_BASEURL);
+    managementMocker.endMock();
+    getPtvMocker().endMock();
+    deleteSystemSetting(ManagementConsts.SYSTEM_SETTING_FULL_DISCOVERY_INTERVAL);
+    deleteSystemSetting(PtvConsts.SYSTEM_SETTING_BASEURL);
+  }
+  
+  /**
+   * Tests that listing an unmodified page again does not fetch its featured media again
+   */
+  @Test
+  public void testUnmodifiedPageMediaNotRefetched() throws InterruptedException {
+    String organizationId = getOrganizationId(0);
+    String pageId = waitPageId(organizationId, PAGE_SLUG);
+    waitApiListCount(String.format("/organizations/%s/pages/%s/images", organizationId, pageId), 1);
+    
+    long skipped = getSkippedCount();
+    long timeout = System.currentTimeMillis() + WAIT_TIMEOUT;
+    while (getSkippedCount() < skipped + 3) {
+      if (System.currentTimeMillis() > timeout) {
+        fail("Timeout waiting for unmodified page to be skipped");
+      }
+      
+      Thread.sleep(1000);
+    }
+    
+    assertEquals(1, wireMockRule.findAll(getRequestedFor(urlPathEqualTo(String.format("%s/%d", ManagementMocker.MEDIA_PATH, MEDIA_ID)))).size());
+    assertEquals(1, countApiList(String.format("/organizations/%s/pages/%s/images", organizationId, pageId)));
+  }
+  
+  private String waitPageId(String organizationId, String slug) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + WAIT_TIMEOUT;
+    while (true) {
+      String pageId = given() 
+        .baseUri(getApiBasePath())
+        .contentType(ContentType.JSON)
+        .get("/organizations/{organizationId}/pages", organizationId)
+        .body()
+        .jsonPath()
+        .getString(String.format("find { it.slug == '%s' }.id", slug));
+      
+      if (pageId != null) {
+        return pageId;
+      }
+      
+      if (System.currentTimeMillis() > timeout) {
+        fail(String.format("Timeout waiting for page %s", slug));
+      }
+      
+      Thread.sleep(1000);
+    }
+  }
+  
+  private long getSkippedCount() {
+    Long skipped = given() 
+      .baseUri(getApiBasePath())
+      .contentType(ContentType.JSON)
+      .get("/system/updaters/statistics")
+      .body()
+      .jsonPath()
+      .getObject(String.format("find { it.name == '%s' }.skipped", UPDATER_NAME), Long.class);
+    
+    return skipped != null ? skipped : 0l;
+  }
+  
+}
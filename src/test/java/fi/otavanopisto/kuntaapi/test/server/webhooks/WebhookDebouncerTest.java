@@ -0,0 +1,122 @@
+package fi.otavanopisto.kuntaapi.test.server.webhooks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import fi.otavanopisto.kuntaapi.server.webhooks.WebhookBufferStatistics;
+import fi.otavanopisto.kuntaapi.server.webhooks.WebhookDebouncer;
+
+/**
+ * Fires bursts of webhook events at the debouncer with a virtual clock and checks that 
+ * each entity receives a single update per burst
+ * 
+ * @author Antti Leppä
+ */
+public class WebhookDebouncerTest {
+  
+  private static final long WINDOW = 5000;
+  private static final long TICK = 500;
+  
+  @Test
+  public void testBurstDeliversOnce() {
+    WebhookDebouncer debouncer = new WebhookDebouncer();
+    List<Object> delivered = new ArrayList<>();
+    
+    for (int i = 0; i < 20; i++) {
+      debouncer.offer("1/page/5", "save-" + i, WINDOW, i * 200l);
+      delivered.addAll(debouncer.drainDue(i * 200l));
+    }
+    
+    assertTrue(delivered.isEmpty());
+    
+    delivered.addAll(run(debouncer, 3800, 30000));
+    assertEquals(Arrays.asList("save-19"), delivered);
+    
+    WebhookBufferStatistics statistics = debouncer.getStatistics();
+    assertEquals(0, statistics.getPending());
+    assertEquals(20, statistics.getReceived());
+    assertEquals(19, statistics.getCoalesced());
+    assertEquals(1, statistics.getDelivered());
+  }
+  
+  @Test
+  public void testInterleavedBursts() {
+    WebhookDebouncer debouncer = new WebhookDebouncer();
+    String[] keys = { "1/page/5", "1/post/7", "2/page/5" };
+    
+    for (int i = 0; i < 30; i++) {
+      String key = keys[i % keys.length];
+      debouncer.offer(key, key + "#" + i, WINDOW, i * 100l);
+    }
+    
+    List<Object> delivered = run(debouncer, 3000, 30000);
+    assertEquals(Arrays.asList("1/page/5#27", "1/post/7#28", "2/page/5#29"), delivered);
+  }
+  
+  @Test
+  public void testLatestEventWins() {
+    WebhookDebouncer debouncer = new WebhookDebouncer();
+    debouncer.offer("1/page/5", "publish", WINDOW, 0);
+    debouncer.offer("1/page/5", "trash", WINDOW, 1000);
+    
+    assertEquals(Arrays.asList("trash"), run(debouncer, 0, 30000));
+  }
+  
+  @Test
+  public void testSeparateBurstsDeliverSeparately() {
+    WebhookDebouncer debouncer = new WebhookDebouncer();
+    List<Object> delivered = new ArrayList<>();
+    
+    debouncer.offer("1/page/5", "first", WINDOW, 0);
+    delivered.addAll(run(debouncer, 0, 10000));
+    debouncer.offer("1/page/5", "second", WINDOW, 10000);
+    delivered.addAll(run(debouncer, 10000, 20000));
+    
+    assertEquals(Arrays.asList("first", "second"), delivered);
+  }
+  
+  @Test
+  public void testContinuousEditsDeliveredWithinMaxDelay() {
+    WebhookDebouncer debouncer = new WebhookDebouncer();
+    List<Long> deliveredAt = new ArrayList<>();
+    
+    for (long now = 0; now < 120000; now += TICK) {
+      if (now % 1000 == 0) {
+        debouncer.offer("1/page/5", "save-" + now, WINDOW, now);
+      }
+      
+      for (int i = 0; i < debouncer.drainDue(now).size(); i++) {
+        deliveredAt.add(now);
+      }
+    }
+    
+    assertTrue(String.format("Expected periodic deliveries, got %s", deliveredAt), deliveredAt.size() >= 2);
+    assertEquals(WINDOW * 10, (long) deliveredAt.get(0));
+  }
+  
+  @Test
+  public void testDrainAll() {
+    WebhookDebouncer debouncer = new WebhookDebouncer();
+    debouncer.offer("1/page/5", "a", WINDOW, 0);
+    debouncer.offer("1/page/6", "b", WINDOW, 0);
+    
+    assertEquals(Arrays.asList("a", "b"), debouncer.drainAll());
+    assertTrue(debouncer.drainAll().isEmpty());
+  }
+  
+  private List<Object> run(WebhookDebouncer debouncer, long from, long to) {
+    List<Object> result = new ArrayList<>();
+    for (long now = from; now <= to; now += TICK) {
+      result.addAll(debouncer.drainDue(now));
+    }
+    
+    return result;
+  }
+  
+}